@@ -0,0 +1,83 @@
+package it.unibo.ares.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Permette di lanciare una sweep di parametri senza interfaccia.
+ *
+ * <pre>
+ * batch &lt;sweep.properties&gt; &lt;prefisso output&gt; [--format csv|jsonl] [--threads N] [--every K]
+ * </pre>
+ */
+public final class BatchApp {
+    private static final String USAGE = "Uso: batch <sweep.properties> <prefisso output>"
+            + " [--format csv|jsonl] [--threads N] [--every K]";
+    private static final int PROGRESS_STEP = 100;
+
+    private BatchApp() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * Avvia la sweep.
+     *
+     * @param args args passati da riga di comando
+     */
+    public static void main(final String[] args) {
+        int status;
+        try {
+            status = run(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage()); // NOPMD - cli output
+            System.err.println(USAGE); // NOPMD - cli output
+            status = 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Sweep interrotta"); // NOPMD - cli output
+            status = 1;
+        }
+        System.exit(status);
+    }
+
+    private static int run(final String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Argomenti mancanti");
+        }
+        String format = "csv";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int every = 1;
+        for (int i = 2; i < args.length; i++) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Valore mancante per " + args[i]);
+            }
+            switch (args[i]) {
+                case "--format" -> format = args[++i];
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--every" -> every = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Opzione sconosciuta: " + args[i]);
+            }
+        }
+        final SweepDefinition sweep = SweepDefinition.read(Path.of(args[0]));
+        final long total = sweep.size();
+        System.out.println("Sweep di " + total + " run del modello " + sweep.getModelId() // NOPMD - cli output
+                + " su " + threads + " thread");
+        final long failed;
+        try (ResultWriter writer = switch (format) {
+            case "csv" -> new CsvResultWriter(sweep, args[1]);
+            case "jsonl" -> new JsonlResultWriter(args[1]);
+            default -> throw new IllegalArgumentException("Formato sconosciuto: " + format);
+        }) {
+            failed = new BatchRunner(sweep, writer, threads, every).run(done -> {
+                if (done % PROGRESS_STEP == 0 || done == total) {
+                    System.out.println(done + "/" + total + " run completate"); // NOPMD - cli output
+                }
+            });
+        }
+        if (failed > 0) {
+            System.err.println(failed + " run fallite, vedere la colonna error"); // NOPMD - cli output
+            return 1;
+        }
+        return 0;
+    }
+}
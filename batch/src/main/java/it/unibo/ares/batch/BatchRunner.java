@@ -0,0 +1,107 @@
+package it.unibo.ares.batch;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+import it.unibo.ares.core.controller.AresSupplier;
+import it.unibo.ares.core.controller.StringInitializer;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.statistics.Statistics;
+
+/**
+ * Runs all the runs of a sweep on a pool of worker threads, each run
+ * unthrottled and without any output besides the one given to the
+ * {@link ResultWriter}.
+ */
+final class BatchRunner {
+    private final SweepDefinition sweep;
+    private final ResultWriter writer;
+    private final int threads;
+    private final int every;
+
+    /**
+     * Creates a runner.
+     *
+     * @param sweep   the sweep to run
+     * @param writer  the writer of the results
+     * @param threads the number of worker threads
+     * @param every   the statistics are written every this many ticks, besides
+     *                the last tick of each run
+     */
+    BatchRunner(final SweepDefinition sweep, final ResultWriter writer, final int threads, final int every) {
+        if (threads < 1 || every < 1) {
+            throw new IllegalArgumentException("threads ed every devono essere positivi");
+        }
+        this.sweep = sweep;
+        this.writer = writer;
+        this.threads = threads;
+        this.every = every;
+    }
+
+    /**
+     * Runs the sweep, blocking until every run is completed.
+     *
+     * @param onCompleted receives the number of completed runs after each run
+     * @return the number of runs that failed
+     * @throws InterruptedException if interrupted while waiting for the runs
+     */
+    long run(final LongConsumer onCompleted) throws InterruptedException {
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final AtomicLong next = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        // each worker decodes the next run only when it is free to run it
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (long i = next.getAndIncrement(); i < sweep.size(); i = next.getAndIncrement()) {
+                    if (!runOne(sweep.getRun(i))) {
+                        failed.incrementAndGet();
+                    }
+                    onCompleted.accept(completed.incrementAndGet());
+                }
+            });
+        }
+        pool.shutdown();
+        while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+            continue;
+        }
+        return failed.get();
+    }
+
+    private boolean runOne(final RunSpec spec) {
+        final AresSupplier supplier = AresSupplier.getInstance();
+        final AtomicReference<List<Pair<String, String>>> last = new AtomicReference<>(Collections.emptyList());
+        final AtomicInteger ticks = new AtomicInteger();
+        try {
+            final String id = StringInitializer.initialize(sweep.getModelId(), Optional.of(spec.seed()),
+                    spec.modelValues(), spec.agentValues());
+            // the statistics are lazy, they are computed only on the sampled ticks and at the end
+            final AtomicReference<Statistics> latest = new AtomicReference<>();
+            final Pair<Integer, Boolean> result = supplier.runHeadless(id, sweep.getMaxTicks(), (tick, stats) -> {
+                latest.set(stats);
+                ticks.set(tick);
+                if (tick % every == 0) {
+                    final List<Pair<String, String>> values = stats.getStatistics();
+                    last.set(values);
+                    writer.writeTick(spec, tick, values);
+                }
+            });
+            final List<Pair<String, String>> values = Optional.ofNullable(latest.get())
+                    .map(Statistics::getStatistics)
+                    .orElse(Collections.emptyList());
+            writer.writeRun(spec, result.getFirst(), result.getSecond(), values, Optional.empty());
+            return true;
+        } catch (RuntimeException e) {
+            writer.writeRun(spec, ticks.get(), false, last.get(), Optional.of(String.valueOf(e.getMessage())));
+            return false;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package it.unibo.ares.batch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import it.unibo.ares.core.utils.Pair;
+
+/**
+ * Writes the results as CSV. The runs file has a column per swept parameter,
+ * the statistics are in long format (run, tick, statistic, value) since each
+ * model has its own, so that both files can be streamed without knowing them
+ * in advance. The final statistics of a run are its rows with tick 0.
+ */
+final class CsvResultWriter implements ResultWriter {
+    private final BufferedWriter runs;
+    private final BufferedWriter ticks;
+    private final List<String> modelKeys;
+    private final Map<String, List<String>> agentKeys;
+
+    /**
+     * Creates a writer for the given sweep.
+     *
+     * @param sweep  the sweep whose results are written
+     * @param prefix the path prefix of the files, suffixed with -runs.csv and
+     *               -ticks.csv
+     * @throws IOException if the files cannot be created
+     */
+    CsvResultWriter(final SweepDefinition sweep, final String prefix) throws IOException {
+        this.runs = Files.newBufferedWriter(Path.of(prefix + "-runs.csv"), StandardCharsets.UTF_8);
+        this.ticks = Files.newBufferedWriter(Path.of(prefix + "-ticks.csv"), StandardCharsets.UTF_8);
+        this.modelKeys = List.copyOf(sweep.getModelValues().keySet());
+        this.agentKeys = sweep.getAgentValues().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        e -> List.copyOf(e.getValue().keySet()), (a, b) -> a, LinkedHashMap::new));
+        final StringBuilder header = new StringBuilder("run,replicate,seed,ticks,finished,error");
+        modelKeys.forEach(k -> header.append(',').append(escape(k)));
+        agentKeys.forEach((type, keys) -> keys.forEach(k -> header.append(',').append(escape(type + "." + k))));
+        runs.write(header.append('\n').toString());
+        ticks.write("run,tick,statistic,value\n");
+    }
+
+    private static String escape(final String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void write(final BufferedWriter writer, final String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String statisticsRows(final long run, final int tick, final List<Pair<String, String>> statistics) {
+        final StringBuilder rows = new StringBuilder();
+        statistics.forEach(s -> rows.append(run).append(',').append(tick).append(',')
+                .append(escape(s.getFirst())).append(',').append(escape(s.getSecond())).append('\n'));
+        return rows.toString();
+    }
+
+    @Override
+    public void writeTick(final RunSpec run, final int tick, final List<Pair<String, String>> statistics) {
+        final String rows = statisticsRows(run.index(), tick, statistics);
+        synchronized (ticks) {
+            write(ticks, rows);
+        }
+    }
+
+    @Override
+    public void writeRun(final RunSpec run, final int tickCount, final boolean finished,
+            final List<Pair<String, String>> statistics, final Optional<String> error) {
+        final StringBuilder row = new StringBuilder()
+                .append(run.index()).append(',').append(run.replicate()).append(',').append(run.seed()).append(',')
+                .append(tickCount).append(',').append(finished).append(',').append(escape(error.orElse("")));
+        modelKeys.forEach(k -> row.append(',').append(escape(run.modelValues().get(k))));
+        agentKeys.forEach((type, keys) -> keys
+                .forEach(k -> row.append(',').append(escape(run.agentValues().get(type).get(k)))));
+        final String rows = statisticsRows(run.index(), 0, statistics);
+        synchronized (runs) {
+            write(runs, row.append('\n').toString());
+        }
+        synchronized (ticks) {
+            write(ticks, rows);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (runs; ticks) {
+            runs.flush();
+            ticks.flush();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package it.unibo.ares.batch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import it.unibo.ares.core.utils.Pair;
+
+/**
+ * Writes the results as JSON Lines, one object per line: a runs file with the
+ * parameters and final statistics of each run, and a ticks file with the
+ * statistics of each sampled tick.
+ */
+final class JsonlResultWriter implements ResultWriter {
+    private static final int CONTROL_LIMIT = 0x20;
+
+    private final BufferedWriter runs;
+    private final BufferedWriter ticks;
+
+    /**
+     * Creates a writer.
+     *
+     * @param prefix the path prefix of the files, suffixed with -runs.jsonl and
+     *               -ticks.jsonl
+     * @throws IOException if the files cannot be created
+     */
+    JsonlResultWriter(final String prefix) throws IOException {
+        this.runs = Files.newBufferedWriter(Path.of(prefix + "-runs.jsonl"), StandardCharsets.UTF_8);
+        this.ticks = Files.newBufferedWriter(Path.of(prefix + "-ticks.jsonl"), StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder string(final StringBuilder out, final String value) {
+        out.append('"');
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < CONTROL_LIMIT) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    private static StringBuilder object(final StringBuilder out, final Map<String, String> values) {
+        out.append('{');
+        values.forEach((k, v) -> string(string(out, k).append(':'), v).append(','));
+        return closeObject(out);
+    }
+
+    private static StringBuilder statistics(final StringBuilder out, final List<Pair<String, String>> statistics) {
+        out.append('{');
+        statistics.forEach(s -> string(string(out, s.getFirst()).append(':'), s.getSecond()).append(','));
+        return closeObject(out);
+    }
+
+    private static StringBuilder closeObject(final StringBuilder out) {
+        if (out.charAt(out.length() - 1) == ',') {
+            out.setLength(out.length() - 1);
+        }
+        return out.append('}');
+    }
+
+    private static void write(final BufferedWriter writer, final StringBuilder line) {
+        try {
+            writer.append(line.append('\n'));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void writeTick(final RunSpec run, final int tick, final List<Pair<String, String>> stats) {
+        final StringBuilder line = new StringBuilder("{\"run\":").append(run.index())
+                .append(",\"tick\":").append(tick).append(",\"statistics\":");
+        statistics(line, stats).append('}');
+        synchronized (ticks) {
+            write(ticks, line);
+        }
+    }
+
+    @Override
+    public void writeRun(final RunSpec run, final int tickCount, final boolean finished,
+            final List<Pair<String, String>> stats, final Optional<String> error) {
+        final StringBuilder line = new StringBuilder("{\"run\":").append(run.index())
+                .append(",\"replicate\":").append(run.replicate())
+                .append(",\"seed\":").append(run.seed())
+                .append(",\"ticks\":").append(tickCount)
+                .append(",\"finished\":").append(finished)
+                .append(",\"parameters\":");
+        object(line, run.modelValues()).append(",\"agents\":{");
+        run.agentValues().forEach((type, values) -> object(string(line, type).append(':'), values).append(','));
+        closeObject(line).append(",\"statistics\":");
+        statistics(line, stats);
+        error.ifPresent(e -> string(line.append(",\"error\":"), e));
+        line.append('}');
+        synchronized (runs) {
+            write(runs, line);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (runs; ticks) {
+            runs.flush();
+            ticks.flush();
+        }
+    }
+}
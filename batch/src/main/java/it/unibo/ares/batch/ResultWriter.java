@@ -0,0 +1,36 @@
+package it.unibo.ares.batch;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Optional;
+
+import it.unibo.ares.core.utils.Pair;
+
+/**
+ * Streams the results of a sweep to two outputs: one record per run and one
+ * record per sampled tick of each run. Implementations must be safe to call
+ * from several threads at once.
+ */
+interface ResultWriter extends Closeable {
+
+    /**
+     * Writes the statistics of a tick of a run.
+     *
+     * @param run        the run
+     * @param tick       the tick, starting from 1
+     * @param statistics the statistics of the model after the tick
+     */
+    void writeTick(RunSpec run, int tick, List<Pair<String, String>> statistics);
+
+    /**
+     * Writes the outcome of a run.
+     *
+     * @param run        the run
+     * @param ticks      the number of performed ticks
+     * @param finished   whether the model reached its end before the tick limit
+     * @param statistics the statistics of the model after the last tick
+     * @param error      the error that interrupted the run, if any
+     */
+    void writeRun(RunSpec run, int ticks, boolean finished, List<Pair<String, String>> statistics,
+            Optional<String> error);
+}
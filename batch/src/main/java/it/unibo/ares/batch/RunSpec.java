@@ -0,0 +1,16 @@
+package it.unibo.ares.batch;
+
+import java.util.Map;
+
+/**
+ * A single run of a sweep.
+ *
+ * @param index       the index of the run in the sweep
+ * @param replicate   the replicate of its combination of values
+ * @param seed        the seed of the run
+ * @param modelValues the values of the model parameters
+ * @param agentValues the values of the agent parameters, by agent type
+ */
+record RunSpec(long index, int replicate, long seed, Map<String, String> modelValues,
+        Map<String, Map<String, String>> agentValues) {
+}
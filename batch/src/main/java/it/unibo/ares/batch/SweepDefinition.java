@@ -0,0 +1,189 @@
+package it.unibo.ares.batch;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import it.unibo.ares.core.controller.StringInitializer;
+
+/**
+ * A parameter sweep, read from a properties file such as:
+ *
+ * <pre>
+ * model=Schelling
+ * replicates=10
+ * maxTicks=500
+ * seed=42
+ * param.size=20..40:10
+ * param.numeroAgentiTipoA=100,200
+ * agent.A.threshold=0.3..0.7:0.2
+ * </pre>
+ *
+ * Each {@code param.} key lists the values of a model parameter, each
+ * {@code agent.<type>.} key the values of a parameter of the agents of that
+ * type. Values are either a comma separated list or a numeric range
+ * {@code from..to[:step]}, both ends included. The sweep runs every
+ * combination of the values {@code replicates} times, each run with its own
+ * seed derived from {@code seed}, random if missing.
+ */
+final class SweepDefinition {
+    private static final String RANGE = "..";
+    private static final long SEED_STRIDE = 0x9e3779b97f4a7c15L;
+
+    private final String modelId;
+    private final int replicates;
+    private final int maxTicks;
+    private final Map<String, List<String>> modelValues;
+    private final Map<String, Map<String, List<String>>> agentValues;
+    private final long baseSeed;
+
+    private SweepDefinition(final Properties properties) {
+        this.modelId = Optional.ofNullable(properties.getProperty("model"))
+                .orElseThrow(() -> new IllegalArgumentException("Modello non specificato (model=...)"));
+        this.replicates = Integer.parseInt(properties.getProperty("replicates", "1"));
+        this.maxTicks = Integer.parseInt(properties.getProperty("maxTicks", "1000"));
+        this.baseSeed = Optional.ofNullable(properties.getProperty("seed")).map(Long::parseLong)
+                .orElseGet(() -> ThreadLocalRandom.current().nextLong());
+        if (replicates < 1 || maxTicks < 1) {
+            throw new IllegalArgumentException("replicates e maxTicks devono essere positivi");
+        }
+        this.modelValues = new LinkedHashMap<>();
+        this.agentValues = new LinkedHashMap<>();
+        final Map<String, String> values = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+        final Map<String, String> model = new LinkedHashMap<>();
+        final Map<String, Map<String, String>> agents = new LinkedHashMap<>();
+        StringInitializer.split(values, model, agents);
+        model.forEach((key, value) -> modelValues.put(key, expand(value)));
+        agents.forEach((type, typeValues) -> typeValues.forEach((key, value) -> agentValues
+                .computeIfAbsent(type, t -> new LinkedHashMap<>()).put(key, expand(value))));
+    }
+
+    /**
+     * Reads a sweep definition from a properties file.
+     *
+     * @param path the path of the file
+     * @return the sweep definition
+     * @throws IOException if the file cannot be read
+     */
+    static SweepDefinition read(final Path path) throws IOException {
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return new SweepDefinition(properties);
+    }
+
+    private static List<String> expand(final String value) {
+        final String trimmed = value.trim();
+        if (!trimmed.contains(RANGE)) {
+            return Arrays.stream(trimmed.split(",")).map(String::trim).collect(Collectors.toUnmodifiableList());
+        }
+        final String[] bounds = trimmed.split("\\.\\.|:");
+        final BigDecimal from = new BigDecimal(bounds[0].trim());
+        final BigDecimal to = new BigDecimal(bounds[1].trim());
+        final BigDecimal step = bounds.length > 2 ? new BigDecimal(bounds[2].trim()) : BigDecimal.ONE;
+        if (step.signum() <= 0) {
+            throw new IllegalArgumentException("Passo non valido: " + value);
+        }
+        final List<String> values = new ArrayList<>();
+        for (BigDecimal v = from; v.compareTo(to) <= 0; v = v.add(step)) {
+            values.add(v.toPlainString());
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Returns the number of runs of the sweep.
+     *
+     * @return the number of runs of the sweep
+     */
+    long size() {
+        return combinations() * replicates;
+    }
+
+    private long combinations() {
+        return Stream.concat(modelValues.values().stream(),
+                agentValues.values().stream().flatMap(m -> m.values().stream()))
+                .mapToLong(List::size)
+                .reduce(1L, Math::multiplyExact);
+    }
+
+    /**
+     * Returns a run of the sweep, decoding its index without expanding the
+     * whole sweep. The replicates of a combination have consecutive indexes.
+     *
+     * @param index the index of the run, between 0 and {@link #size()}
+     * @return the run
+     */
+    RunSpec getRun(final long index) {
+        if (index < 0 || index >= size()) {
+            throw new IllegalArgumentException("Run " + index + " fuori dalla sweep");
+        }
+        long combination = index / replicates;
+        final Map<String, String> model = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<String>> e : modelValues.entrySet()) {
+            model.put(e.getKey(), e.getValue().get((int) (combination % e.getValue().size())));
+            combination /= e.getValue().size();
+        }
+        final Map<String, Map<String, String>> agents = new LinkedHashMap<>();
+        for (final Map.Entry<String, Map<String, List<String>>> type : agentValues.entrySet()) {
+            final Map<String, String> values = new LinkedHashMap<>();
+            for (final Map.Entry<String, List<String>> e : type.getValue().entrySet()) {
+                values.put(e.getKey(), e.getValue().get((int) (combination % e.getValue().size())));
+                combination /= e.getValue().size();
+            }
+            agents.put(type.getKey(), values);
+        }
+        return new RunSpec(index, (int) (index % replicates), baseSeed + index * SEED_STRIDE, model, agents);
+    }
+
+    /**
+     * @return the id of the model to run
+     */
+    String getModelId() {
+        return modelId;
+    }
+
+    /**
+     * @return how many times each combination of values is run
+     */
+    int getReplicates() {
+        return replicates;
+    }
+
+    /**
+     * @return the maximum number of ticks of each run
+     */
+    int getMaxTicks() {
+        return maxTicks;
+    }
+
+    /**
+     * @return the values of each swept model parameter
+     */
+    Map<String, List<String>> getModelValues() {
+        return Collections.unmodifiableMap(modelValues);
+    }
+
+    /**
+     * @return the values of each swept agent parameter, by agent type
+     */
+    Map<String, Map<String, List<String>>> getAgentValues() {
+        return Collections.unmodifiableMap(agentValues);
+    }
+}
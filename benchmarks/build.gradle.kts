@@ -0,0 +1,34 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "it.unibo.ares"
+version = "1.0.0"
+
+repositories {
+    mavenCentral()
+}
+
+java { toolchain { languageVersion.set(JavaLanguageVersion.of(17)) } }
+
+dependencies {
+    implementation(project(":core"))
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    // ./gradlew :benchmarks:jmh -PjmhIncludes=Board to run a single suite
+    project.findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
+// ./gradlew :benchmarks:scenarios -PscenarioArgs="--sizes 32,64 --baseline scenarios-base.csv"
+tasks.register<JavaExec>("scenarios") {
+    group = "benchmark"
+    description = "Runs the end-to-end scaling scenarios of every model."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("it.unibo.ares.benchmarks.scenario.ScenarioBenchmark")
+    args = project.findProperty("scenarioArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+}
@@ -0,0 +1,129 @@
+package it.unibo.ares.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.utils.board.Board;
+import it.unibo.ares.core.utils.board.BoardImpl;
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * Benchmarks the lookup, insertion and movement of entities in a
+ * {@link BoardImpl}. Each invocation performs {@value #OPERATIONS} operations
+ * and the results are per operation. The smallest grid and the extreme
+ * densities still leave {@value #OPERATIONS} occupied and free cells.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private static final int OPERATIONS = 1024;
+
+    /**
+     * The side of the grid.
+     */
+    @Param({ "128", "512", "1024" })
+    public int size;
+
+    /**
+     * The fraction of occupied cells.
+     */
+    @Param({ "0.1", "0.5", "0.9" })
+    public double density;
+
+    private Board<Agent> board;
+    private Pos[] lookups;
+    private Pos[] occupied;
+    private Pos[] free;
+    private Agent[] agents;
+
+    /**
+     * Fills the board and picks the cells to operate on.
+     */
+    @Setup(Level.Trial)
+    public void fill() {
+        final int count = Grids.agents(size, density);
+        final Pos[] all = Grids.positions(size, size * size, Grids.SEED);
+        board = new BoardImpl<>();
+        for (int i = 0; i < count; i++) {
+            board.addEntity(all[i], Grids.agent());
+        }
+        occupied = Arrays.copyOfRange(all, 0, OPERATIONS);
+        free = Arrays.copyOfRange(all, count, count + OPERATIONS);
+        lookups = Grids.positions(size, OPERATIONS, Grids.SEED + 1);
+        agents = new Agent[OPERATIONS];
+        Arrays.setAll(agents, i -> Grids.agent());
+    }
+
+    /**
+     * Looks up random cells, occupied with probability equal to the density.
+     *
+     * @param bh the sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void getEntity(final Blackhole bh) {
+        for (final Pos pos : lookups) {
+            bh.consume(board.getEntity(pos));
+        }
+    }
+
+    /**
+     * Adds an entity to free cells, removing it right after.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void addEntity() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            board.addEntity(free[i], agents[i]);
+            board.removeEntity(free[i], agents[i]);
+        }
+    }
+
+    /**
+     * Moves entities one at a time to free cells and back.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * OPERATIONS)
+    public void moveEntity() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            final Agent agent = board.getEntity(occupied[i]).orElseThrow();
+            board.removeEntity(occupied[i], agent);
+            board.addEntity(free[i], agent);
+        }
+        for (int i = 0; i < OPERATIONS; i++) {
+            final Agent agent = board.getEntity(free[i]).orElseThrow();
+            board.removeEntity(free[i], agent);
+            board.addEntity(occupied[i], agent);
+        }
+    }
+
+    /**
+     * Moves entities in a batch to free cells and back.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * OPERATIONS)
+    public void moveEntities() {
+        board.moveEntities(occupied, free);
+        board.moveEntities(free, occupied);
+    }
+}
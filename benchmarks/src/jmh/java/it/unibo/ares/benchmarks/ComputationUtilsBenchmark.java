@@ -0,0 +1,101 @@
+package it.unibo.ares.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import it.unibo.ares.core.utils.ComputationUtils;
+import it.unibo.ares.core.utils.directionvector.DirectionVector;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.random.RandomService;
+
+/**
+ * Benchmarks the vision cone computations of {@link ComputationUtils}, used
+ * by the boids at each tick. The cone does not depend on the grid, so instead
+ * of size and density the suite is parameterised on the extent of the cone,
+ * its distance and angle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComputationUtilsBenchmark {
+    private static final int QUERIES = 256;
+    private static final int GRID = 1024;
+
+    /**
+     * The vision distance, in cells.
+     */
+    @Param({ "2", "5", "10" })
+    public int distance;
+
+    /**
+     * The vision angle, in degrees.
+     */
+    @Param({ "45", "90", "180" })
+    public int angle;
+
+    private Pos[] centers;
+    private Pos[] targets;
+    private DirectionVector[] directions;
+
+    /**
+     * Picks random observers, directions and observed cells.
+     */
+    @Setup(Level.Trial)
+    public void pick() {
+        final RandomGenerator r = new RandomService(Grids.SEED).generator();
+        centers = Grids.positions(GRID, QUERIES, Grids.SEED);
+        targets = new Pos[QUERIES];
+        directions = new DirectionVector[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            directions[i] = ComputationUtils.getRandomDirection(r);
+            targets[i] = new PosImpl(centers[i].getX() + r.nextInt(-distance, distance + 1),
+                    centers[i].getY() + r.nextInt(-distance, distance + 1));
+        }
+    }
+
+    /**
+     * Computes the cells inside the vision cone of random observers.
+     *
+     * @param bh the sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void computeCloseCells(final Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(ComputationUtils.computeCloseCells(centers[i], directions[i], distance, angle));
+        }
+    }
+
+    /**
+     * Tests whether random cells near random observers are inside their
+     * vision cone.
+     *
+     * @param bh the sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void insideCone(final Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(ComputationUtils.insideCone(targets[i], centers[i], directions[i], distance, angle));
+        }
+    }
+}
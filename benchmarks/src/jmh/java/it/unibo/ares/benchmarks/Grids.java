@@ -0,0 +1,77 @@
+package it.unibo.ares.benchmarks;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.agent.AgentFactory;
+import it.unibo.ares.core.agent.SimpleAgentFactory;
+import it.unibo.ares.core.utils.UniquePositionGetter;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.State;
+import it.unibo.ares.core.utils.state.StateImpl;
+
+/**
+ * Builds the fixtures shared by the benchmarks. Every fixture is derived from
+ * a fixed seed, so that all the runs measure the same layout.
+ */
+final class Grids {
+    /**
+     * The seed of all the fixtures.
+     */
+    static final long SEED = 42L;
+    private static final AgentFactory AGENTS = new SimpleAgentFactory();
+
+    private Grids() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * Returns an agent for the fixtures, which are never ticked.
+     *
+     * @return an agent
+     */
+    static Agent agent() {
+        return AGENTS.createAgent();
+    }
+
+    /**
+     * Returns the number of agents filling a grid with the given density.
+     *
+     * @param size    the side of the grid
+     * @param density the fraction of occupied cells
+     * @return the number of agents
+     */
+    static int agents(final int size, final double density) {
+        return (int) (size * size * density);
+    }
+
+    /**
+     * Returns distinct random positions of a grid.
+     *
+     * @param size  the side of the grid
+     * @param count the number of positions
+     * @param seed  the seed of the positions
+     * @return the positions
+     */
+    static Pos[] positions(final int size, final int count, final long seed) {
+        final UniquePositionGetter getter = new UniquePositionGetter(size, size, seed);
+        final Pos[] positions = new Pos[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = getter.next();
+        }
+        return positions;
+    }
+
+    /**
+     * Returns a square state filled with agents.
+     *
+     * @param size    the side of the grid
+     * @param density the fraction of occupied cells
+     * @return the state
+     */
+    static State state(final int size, final double density) {
+        final State state = new StateImpl(size, size);
+        for (final Pos pos : positions(size, agents(size, density), SEED)) {
+            state.addAgent(pos, agent());
+        }
+        return state;
+    }
+}
@@ -0,0 +1,103 @@
+package it.unibo.ares.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import it.unibo.ares.core.utils.parameters.Parameters;
+import it.unibo.ares.core.utils.parameters.ParametersImpl;
+
+/**
+ * Benchmarks the access to the parameters of an agent through
+ * {@link ParametersImpl}, as done by the strategies at each tick. Parameters
+ * have no grid, so the suite is parameterised on how many of them an agent
+ * holds, half integers and half doubles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParametersBenchmark {
+    private static final int OPERATIONS = 256;
+
+    /**
+     * The number of parameters.
+     */
+    @Param({ "4", "16", "64" })
+    public int count;
+
+    private Parameters parameters;
+    private String[] keys;
+
+    /**
+     * Creates the parameters and picks the keys to access.
+     */
+    @Setup(Level.Trial)
+    public void fill() {
+        parameters = new ParametersImpl();
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                parameters.addParameter("int" + i, i, true);
+            } else {
+                parameters.addParameter("double" + i, (double) i, true);
+            }
+        }
+        keys = new String[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            final int p = i * 2 % count;
+            keys[i] = "int" + p;
+        }
+    }
+
+    /**
+     * Reads parameters by key and type.
+     *
+     * @param bh the sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void getParameterTyped(final Blackhole bh) {
+        for (final String key : keys) {
+            bh.consume(parameters.getParameter(key, Integer.class).orElseThrow().getValue());
+        }
+    }
+
+    /**
+     * Reads parameters by key only.
+     *
+     * @param bh the sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void getParameter(final Blackhole bh) {
+        for (final String key : keys) {
+            bh.consume(parameters.getParameter(key).orElseThrow().getValue());
+        }
+    }
+
+    /**
+     * Updates parameters by key.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void setParameter() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            parameters.setParameter(keys[i], i);
+        }
+    }
+}
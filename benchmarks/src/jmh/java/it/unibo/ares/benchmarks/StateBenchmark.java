@@ -0,0 +1,101 @@
+package it.unibo.ares.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.StateImpl;
+
+/**
+ * Benchmarks the neighbourhood queries and the copy of a {@link StateImpl}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateBenchmark {
+    private static final int QUERIES = 256;
+
+    /**
+     * The side of the grid.
+     */
+    @Param({ "64", "256", "1024" })
+    public int size;
+
+    /**
+     * The fraction of occupied cells.
+     */
+    @Param({ "0.1", "0.5", "0.9" })
+    public double density;
+
+    /**
+     * The radius of the neighbourhood queries.
+     */
+    @Param({ "1", "3", "8" })
+    public int radius;
+
+    private it.unibo.ares.core.utils.state.State state;
+    private Pos[] centers;
+
+    /**
+     * Fills the state and picks the centers of the queries.
+     */
+    @Setup(Level.Trial)
+    public void fill() {
+        state = Grids.state(size, density);
+        centers = Grids.positions(size, QUERIES, Grids.SEED + 1);
+    }
+
+    /**
+     * Computes the cells around random centers.
+     *
+     * @param bh the sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void getPosByPosAndRadius(final Blackhole bh) {
+        for (final Pos center : centers) {
+            bh.consume(state.getPosByPosAndRadius(center, radius));
+        }
+    }
+
+    /**
+     * Collects the agents around random centers.
+     *
+     * @param bh the sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void getAgentsByPosAndRadius(final Blackhole bh) {
+        for (final Pos center : centers) {
+            bh.consume(state.getAgentsByPosAndRadius(center, radius));
+        }
+    }
+
+    /**
+     * Copies the whole state, as the models do at each tick. Does not depend
+     * on the radius.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public Object copy() {
+        return state.copy();
+    }
+}
@@ -0,0 +1,83 @@
+package it.unibo.ares.core.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import it.unibo.ares.benchmarks.ModelPresets;
+
+/**
+ * Benchmarks {@link SimulationImpl#tickSync(String)} for each model, output
+ * mapping included. Each measurement is the time of the first {@value #TICKS}
+ * ticks of a freshly initialized simulation, with a fixed seed, so that every
+ * iteration measures exactly the same work even for the models that evolve
+ * towards an end. The benchmark lives in the controller package since
+ * simulations can only be created there.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = SimulationTickBenchmark.TICKS)
+@Measurement(iterations = 10, batchSize = SimulationTickBenchmark.TICKS)
+@Fork(1)
+public class SimulationTickBenchmark {
+    /**
+     * The ticks of each measurement.
+     */
+    static final int TICKS = 10;
+    private static final long SEED = 42L;
+    private static final String SESSION = "benchmark";
+
+    /**
+     * The id of the model, see {@link ModelPresets}.
+     */
+    @Param({ "Schelling", "Boids", "FireSpread", "PredatorPrey", "VirusDiffusion", "Sugarscape", "Simple Model" })
+    public String model;
+
+    /**
+     * The side of the grid.
+     */
+    @Param({ "32", "128" })
+    public int size;
+
+    /**
+     * The fraction of cells occupied by agents.
+     */
+    @Param({ "0.1", "0.3" })
+    public double density;
+
+    private SimulationImpl simulation;
+
+    /**
+     * Initializes a new simulation before each measurement.
+     */
+    @Setup(Level.Iteration)
+    public void initialize() {
+        final SimulationInitializerImpl initializer = new SimulationInitializerImpl();
+        final String id = ModelPresets.initialize(initializer, model, size, density, SEED);
+        simulation = (SimulationImpl) initializer.startSimulation(id).getSecond();
+        simulation.setTickRate(0);
+        simulation.start();
+    }
+
+    /**
+     * Performs a tick.
+     *
+     * @return the output of the tick
+     */
+    @Benchmark
+    public Object tickSync() {
+        return simulation.tickSync(SESSION);
+    }
+}
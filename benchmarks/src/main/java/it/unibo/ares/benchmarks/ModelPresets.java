@@ -0,0 +1,90 @@
+package it.unibo.ares.benchmarks;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+import it.unibo.ares.core.agent.SugarAgentFactory;
+import it.unibo.ares.core.api.InitializationApi;
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.utils.parameters.Parameter;
+
+/**
+ * Initializes any model for a grid of a given size and density, so that the
+ * benchmarks can run all the models without knowing their parameters.
+ */
+public final class ModelPresets {
+    /**
+     * The ids of all the models.
+     */
+    public static final List<String> MODELS = List.of("Schelling", "Boids", "FireSpread", "PredatorPrey",
+            "VirusDiffusion", "Sugarscape", "Simple Model");
+    private static final List<Serializable> CANDIDATES = List.of(2, 1, 5, 10, 50, 0.5, 0.1, 1.0, 5.0);
+    private static final int MAX_SUGAR = 10;
+    private static final int SUGAR_AMOUNT = 5;
+    private static final int FIRES_RATIO = 100;
+    private static final int MINORITY_RATIO = 5;
+    private static final int INFECTED_RATIO = 10;
+
+    private ModelPresets() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    private static Map<String, Serializable> modelParameters(final String model, final int size,
+            final double density) {
+        final int agents = (int) (size * size * density);
+        return switch (model) {
+            case "Schelling" -> Map.of("numeroAgentiTipoA", agents / 2, "numeroAgentiTipoB", agents - agents / 2);
+            case "Boids" -> Map.of("numeroUccelli", agents);
+            case "FireSpread" -> Map.of("numFire", Math.max(1, agents / FIRES_RATIO), "vegetation", density);
+            case "PredatorPrey" -> Map.of("numeroAgentiPreda", agents - agents / MINORITY_RATIO,
+                    "numeroAgentiCacciatori", agents / MINORITY_RATIO);
+            case "VirusDiffusion" -> Map.of("numeroPersoneSane", agents - Math.max(1, agents / INFECTED_RATIO),
+                    "numeroInfetti", Math.max(1, agents / INFECTED_RATIO));
+            case "Sugarscape" -> Map.of("numeroAgentiConsumer", agents / 2, "numeroAgentiSugar", agents - agents / 2,
+                    SugarAgentFactory.MAX_SUGAR, MAX_SUGAR, SugarAgentFactory.SUGAR_AMOUNT, SUGAR_AMOUNT,
+                    SugarAgentFactory.GROWTH_RATE, 1);
+            // a single agent whatever the density
+            case "Simple Model" -> Map.of();
+            default -> throw new IllegalArgumentException("Unknown model " + model);
+        };
+    }
+
+    /*
+     * The agent parameters have no defaults: each one takes the first of a
+     * fixed list of values accepted by its domain.
+     */
+    private static <T extends Serializable> T pick(final Parameter<T> parameter) {
+        return CANDIDATES.stream()
+                .filter(parameter.getType()::isInstance)
+                .map(parameter.getType()::cast)
+                .filter(v -> parameter.getDomain().map(d -> d.isValueValid(v)).orElse(true))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No value for " + parameter.getKey()));
+    }
+
+    /**
+     * Creates and initializes a model, with all its parameters set and ready to
+     * be started.
+     *
+     * @param api     the initialization api
+     * @param model   the id of the model
+     * @param size    the side of the grid
+     * @param density the fraction of cells occupied by agents
+     * @param seed    the seed of the simulation
+     * @return the id of the initialization
+     */
+    public static String initialize(final InitializationApi api, final String model, final int size,
+            final double density, final long seed) {
+        final String id = api.addNewModel(model);
+        api.setModelParameter(id, Model.SIZEKEY, size);
+        api.setModelParameter(id, Model.SEEDKEY, seed);
+        modelParameters(model, size, density).forEach((key, value) -> api.setModelParameter(id, key, value));
+        for (final String type : api.getAgentsSimplified(id)) {
+            for (final Parameter<?> parameter : api.getAgentParametersSimplified(id, type).getParametersToset()) {
+                api.setAgentParameterSimplified(id, type, parameter.getKey(), pick(parameter));
+            }
+        }
+        return id;
+    }
+}
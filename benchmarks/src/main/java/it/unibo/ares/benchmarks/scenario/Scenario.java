@@ -0,0 +1,22 @@
+package it.unibo.ares.benchmarks.scenario;
+
+/**
+ * A point of the scaling matrix: a model on a grid of given size and density,
+ * run as {@code threads} independent simulations at the same time.
+ *
+ * @param model   the id of the model
+ * @param size    the side of the grid
+ * @param density the fraction of cells occupied by agents
+ * @param threads the number of simulations run concurrently, one per thread
+ */
+record Scenario(String model, int size, double density, int threads) {
+
+    /**
+     * Returns the key identifying the scenario in the reports.
+     *
+     * @return the key of the scenario
+     */
+    String key() {
+        return model + "/" + size + "/" + density + "/" + threads;
+    }
+}
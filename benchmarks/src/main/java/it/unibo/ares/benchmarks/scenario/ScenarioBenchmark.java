@@ -0,0 +1,118 @@
+package it.unibo.ares.benchmarks.scenario;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import it.unibo.ares.benchmarks.ModelPresets;
+
+/**
+ * Esegue i modelli su griglie, densità e numeri di thread crescenti e ne
+ * riporta throughput, latenze, allocazione e heap in un report CSV,
+ * confrontandolo opzionalmente con un report di riferimento.
+ *
+ * <pre>
+ * scenarios [--models A,B] [--sizes 32,64] [--densities 0.1,0.3] [--threads 1,2]
+ *           [--ticks N] [--warmup N] [--out report.csv] [--baseline base.csv] [--threshold 0.1]
+ * </pre>
+ *
+ * Termina con codice 1 se qualche scenario peggiora oltre la soglia rispetto al
+ * riferimento.
+ */
+public final class ScenarioBenchmark {
+    private static final long SEED = 42L;
+
+    private ScenarioBenchmark() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    private static <T> List<T> list(final String value, final Function<String, T> parser) {
+        return Arrays.stream(value.split(",")).map(String::trim).map(parser).collect(Collectors.toList());
+    }
+
+    /**
+     * Avvia gli scenari.
+     *
+     * @param args args passati da riga di comando
+     */
+    public static void main(final String[] args) {
+        int status;
+        try {
+            status = run(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage()); // NOPMD - cli output
+            status = 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 1;
+        }
+        System.exit(status);
+    }
+
+    private static int run(final String[] args) throws IOException, InterruptedException {
+        List<String> models = ModelPresets.MODELS;
+        List<Integer> sizes = List.of(32, 64, 128);
+        List<Double> densities = List.of(0.1, 0.3);
+        List<Integer> threads = List.of(1, 2, 4);
+        int ticks = 50;
+        int warmup = 10;
+        Path out = Path.of("scenarios.csv");
+        Optional<Path> baseline = Optional.empty();
+        double threshold = 0.1;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Valore mancante per " + args[i]);
+            }
+            final String value = args[i + 1];
+            switch (args[i]) {
+                case "--models" -> models = list(value, Function.identity());
+                case "--sizes" -> sizes = list(value, Integer::valueOf);
+                case "--densities" -> densities = list(value, Double::valueOf);
+                case "--threads" -> threads = list(value, Integer::valueOf);
+                case "--ticks" -> ticks = Integer.parseInt(value);
+                case "--warmup" -> warmup = Integer.parseInt(value);
+                case "--out" -> out = Path.of(value);
+                case "--baseline" -> baseline = Optional.of(Path.of(value));
+                case "--threshold" -> threshold = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Opzione sconosciuta: " + args[i]);
+            }
+        }
+        final ScenarioRunner warmupRunner = new ScenarioRunner(warmup, SEED);
+        final ScenarioRunner runner = new ScenarioRunner(ticks, SEED);
+        final List<ScenarioResult> results = new ArrayList<>();
+        System.out.println(ScenarioResult.HEADER); // NOPMD - cli output
+        for (final String model : models) {
+            for (final int size : sizes) {
+                for (final double density : densities) {
+                    for (final int t : threads) {
+                        final Scenario scenario = new Scenario(model, size, density, t);
+                        if (warmup > 0) {
+                            warmupRunner.run(scenario);
+                        }
+                        final ScenarioResult result = runner.run(scenario);
+                        System.out.println(result.toCsv()); // NOPMD - cli output
+                        results.add(result);
+                    }
+                }
+            }
+        }
+        ScenarioReport.write(out, results);
+        System.out.println("Report scritto in " + out); // NOPMD - cli output
+        if (baseline.isPresent()) {
+            final List<String> regressions = ScenarioReport.regressions(ScenarioReport.read(baseline.get()),
+                    results, threshold);
+            regressions.forEach(System.err::println);
+            if (!regressions.isEmpty()) {
+                System.err.println(regressions.size() + " regressioni oltre la soglia"); // NOPMD - cli output
+                return 1;
+            }
+            System.out.println("Nessuna regressione rispetto a " + baseline.get()); // NOPMD - cli output
+        }
+        return 0;
+    }
+}
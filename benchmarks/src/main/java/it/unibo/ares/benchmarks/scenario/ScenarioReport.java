@@ -0,0 +1,92 @@
+package it.unibo.ares.benchmarks.scenario;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads, writes and compares the CSV reports of the scenarios.
+ */
+final class ScenarioReport {
+
+    private ScenarioReport() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * Writes a report.
+     *
+     * @param path    the path of the report
+     * @param results the results to write
+     * @throws IOException if the report cannot be written
+     */
+    static void write(final Path path, final List<ScenarioResult> results) throws IOException {
+        Files.write(path, Stream.concat(Stream.of(ScenarioResult.HEADER), results.stream().map(ScenarioResult::toCsv))
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a report.
+     *
+     * @param path the path of the report
+     * @return the results in the report, by scenario key
+     * @throws IOException if the report cannot be read
+     */
+    static Map<String, ScenarioResult> read(final Path path) throws IOException {
+        final Map<String, ScenarioResult> results = new LinkedHashMap<>();
+        Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                .skip(1)
+                .filter(l -> !l.isBlank())
+                .map(ScenarioResult::fromCsv)
+                .forEach(r -> results.put(r.scenario().key(), r));
+        return results;
+    }
+
+    /**
+     * Compares results against a baseline. A scenario regresses when its
+     * throughput drops, or its p99 latency or the memory it allocates per tick
+     * grow, by more than the threshold. Scenarios missing from the baseline
+     * are not compared.
+     *
+     * @param baseline  the baseline results, by scenario key
+     * @param results   the results to compare
+     * @param threshold the tolerated relative change, e.g. 0.1 for 10%
+     * @return a description of each regression
+     */
+    static List<String> regressions(final Map<String, ScenarioResult> baseline, final List<ScenarioResult> results,
+            final double threshold) {
+        final List<String> regressions = new ArrayList<>();
+        for (final ScenarioResult current : results) {
+            final ScenarioResult base = baseline.get(current.scenario().key());
+            if (base == null) {
+                continue;
+            }
+            check(regressions, current, "tick/s", base.ticksPerSecond(), current.ticksPerSecond(), -threshold);
+            check(regressions, current, "p99 ms", base.p99Millis(), current.p99Millis(), threshold);
+            check(regressions, current, "MB/tick", base.allocationRate() / base.ticksPerSecond(),
+                    current.allocationRate() / current.ticksPerSecond(), threshold);
+        }
+        return regressions;
+    }
+
+    /*
+     * A negative threshold marks a measure that must not decrease, a positive
+     * one a measure that must not increase.
+     */
+    private static void check(final List<String> regressions, final ScenarioResult current, final String measure,
+            final double base, final double value, final double threshold) {
+        final double change = (value - base) / base;
+        if (threshold < 0 ? change < threshold : change > threshold) {
+            regressions.add(String.format(Locale.ROOT, "%s: %s %.4f -> %.4f (%+.1f%%)",
+                    current.scenario().key(), measure, base, value, change * 100));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package it.unibo.ares.benchmarks.scenario;
+
+import java.util.Locale;
+
+/**
+ * The measures of a scenario.
+ *
+ * @param scenario          the scenario
+ * @param ticks             the ticks performed by all its simulations
+ * @param ticksPerSecond    the ticks performed per second of wall time, by
+ *                          all its simulations together
+ * @param p50Millis         the median latency of a tick
+ * @param p99Millis         the 99th percentile of the latency of a tick
+ * @param allocationRate    the bytes allocated per second by the simulation
+ *                          threads, in MB/s
+ * @param peakHeapMegabytes the peak usage of the heap during the scenario,
+ *                          in MB
+ */
+record ScenarioResult(Scenario scenario, long ticks, double ticksPerSecond, double p50Millis,
+        double p99Millis, double allocationRate, double peakHeapMegabytes) {
+
+    /**
+     * The header of the CSV report.
+     */
+    static final String HEADER = "model,size,density,threads,ticks,ticksPerSecond,p50Millis,p99Millis,"
+            + "allocationMBPerSecond,peakHeapMB";
+
+    /**
+     * Returns the result as a row of the CSV report.
+     *
+     * @return the CSV row
+     */
+    String toCsv() {
+        return String.format(Locale.ROOT, "%s,%d,%s,%d,%d,%.3f,%.4f,%.4f,%.2f,%.2f",
+                scenario.model(), scenario.size(), scenario.density(), scenario.threads(), ticks,
+                ticksPerSecond, p50Millis, p99Millis, allocationRate, peakHeapMegabytes);
+    }
+
+    /**
+     * Parses a row of the CSV report.
+     *
+     * @param row the CSV row
+     * @return the result
+     */
+    static ScenarioResult fromCsv(final String row) {
+        final String[] f = row.split(",");
+        if (f.length != HEADER.split(",").length) {
+            throw new IllegalArgumentException("Riga non valida: " + row);
+        }
+        int i = 0;
+        return new ScenarioResult(
+                new Scenario(f[i++], Integer.parseInt(f[i++]), Double.parseDouble(f[i++]), Integer.parseInt(f[i++])),
+                Long.parseLong(f[i++]), Double.parseDouble(f[i++]), Double.parseDouble(f[i++]),
+                Double.parseDouble(f[i++]), Double.parseDouble(f[i++]), Double.parseDouble(f[i]));
+    }
+}
@@ -0,0 +1,112 @@
+package it.unibo.ares.benchmarks.scenario;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.management.ThreadMXBean;
+
+import it.unibo.ares.benchmarks.ModelPresets;
+import it.unibo.ares.core.controller.AresSupplier;
+import it.unibo.ares.core.utils.statistics.QuantileSketch;
+
+/**
+ * Runs a scenario end to end through the public api: each of its threads
+ * initializes its own simulation and runs it headless for a fixed number of
+ * ticks, timing each tick; the threads start together after all the
+ * initializations.
+ */
+final class ScenarioRunner {
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+    private static final double MEDIAN = 0.5;
+    private static final double P99 = 0.99;
+
+    private final int ticks;
+    private final long seed;
+
+    /**
+     * Creates a runner.
+     *
+     * @param ticks the ticks of each simulation
+     * @param seed  the seed of the simulations, the same for all the scenarios
+     */
+    ScenarioRunner(final int ticks, final long seed) {
+        this.ticks = ticks;
+        this.seed = seed;
+    }
+
+    private record ThreadMeasure(QuantileSketch latencies, long ticks, long allocatedBytes) {
+    }
+
+    /**
+     * Runs a scenario.
+     *
+     * @param scenario the scenario to run
+     * @return the measures of the scenario
+     * @throws InterruptedException if interrupted while waiting for the
+     *                              simulations
+     */
+    ScenarioResult run(final Scenario scenario) throws InterruptedException {
+        final AresSupplier supplier = AresSupplier.getInstance();
+        final List<String> ids = new ArrayList<>();
+        for (int t = 0; t < scenario.threads(); t++) {
+            ids.add(ModelPresets.initialize(supplier, scenario.model(), scenario.size(), scenario.density(),
+                    seed + t));
+        }
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc(); // NOPMD - a clean heap makes the peaks comparable
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        final ExecutorService pool = Executors.newFixedThreadPool(scenario.threads());
+        final long start = System.nanoTime();
+        final List<Future<ThreadMeasure>> futures = new ArrayList<>();
+        for (final String id : ids) {
+            futures.add(pool.submit(() -> {
+                final long threadId = Thread.currentThread().getId();
+                final long allocated = threads.getThreadAllocatedBytes(threadId);
+                final QuantileSketch latencies = new QuantileSketch();
+                final long[] last = { System.nanoTime() };
+                final int performed = supplier.runHeadless(id, ticks, (tick, stats) -> {
+                    final long now = System.nanoTime();
+                    latencies.add(now - last[0]);
+                    last[0] = now;
+                }).getFirst();
+                return new ThreadMeasure(latencies, performed,
+                        threads.getThreadAllocatedBytes(threadId) - allocated);
+            }));
+        }
+        final QuantileSketch latencies = new QuantileSketch();
+        long performed = 0;
+        long allocated = 0;
+        for (final Future<ThreadMeasure> future : futures) {
+            try {
+                final ThreadMeasure measure = future.get();
+                latencies.merge(measure.latencies());
+                performed += measure.ticks();
+                allocated += measure.allocatedBytes();
+            } catch (ExecutionException e) {
+                pool.shutdownNow();
+                throw new IllegalStateException("Scenario " + scenario.key() + " failed", e.getCause());
+            }
+        }
+        final double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        final long peak = heap.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        return new ScenarioResult(scenario, performed, performed / seconds,
+                latencies.getQuantile(MEDIAN) / NANOS_PER_MILLI, latencies.getQuantile(P99) / NANOS_PER_MILLI,
+                allocated / BYTES_PER_MEGABYTE / seconds, peak / BYTES_PER_MEGABYTE);
+    }
+}
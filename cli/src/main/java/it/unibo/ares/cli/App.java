@@ -2,6 +2,7 @@ package it.unibo.ares.cli;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.UUID;
 
 import it.unibo.ares.core.controller.AresSupplier;
@@ -19,11 +20,15 @@ public final class App {
     }
 
     /**
-     * Avvia cli.
+     * Avvia cli; con --headless avvia una simulazione senza terminale, vedi
+     * {@link HeadlessApp}.
      * 
      * @param args args passati da riga di comando
      */
     public static void main(final String[] args) {
+        if (Arrays.asList(args).contains(HeadlessApp.HEADLESS)) {
+            System.exit(HeadlessApp.run(args));
+        }
         AresSupplier.getInstance(); // Faccio in modo che non sia sul thread della cli
         final IOManager ioManager = new IOManagerImpl();
         final Thread t = new Thread(() -> {
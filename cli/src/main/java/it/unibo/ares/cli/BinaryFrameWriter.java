@@ -0,0 +1,73 @@
+package it.unibo.ares.cli;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unibo.ares.core.api.SimulationOutputDataApi;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * Writes the frames in a compact binary format, all numbers big-endian and
+ * all strings as the int length of their UTF-8 encoding followed by it.
+ * The stream starts with the magic bytes {@code ARES} and the int version of
+ * the format, then each frame is:
+ *
+ * <pre>
+ * int tick, int width, int height, byte finished
+ * int statistics, then for each: string name, string value
+ * int types, then for each: string type, int agents, then for each: int x, int y
+ * </pre>
+ */
+final class BinaryFrameWriter implements FrameWriter {
+    private static final String MAGIC = "ARES";
+    private static final int VERSION = 1;
+
+    private final ChannelOutput out;
+    private final Map<String, List<Pos>> agents = new LinkedHashMap<>();
+
+    /**
+     * Creates a writer, writing the header of the stream.
+     *
+     * @param out the output to write to
+     * @throws IOException if the header cannot be written
+     */
+    BinaryFrameWriter(final ChannelOutput out) throws IOException {
+        this.out = out;
+        out.append(MAGIC).putInt(VERSION);
+    }
+
+    @Override
+    public void write(final int tick, final SimulationOutputDataApi frame) throws IOException {
+        out.putInt(tick).putInt(frame.getWidth()).putInt(frame.getHeight()).putByte(frame.isFinished() ? 1 : 0);
+        final List<Pair<String, String>> statistics = frame.getStatistics().getStatistics();
+        out.putInt(statistics.size());
+        for (final Pair<String, String> statistic : statistics) {
+            out.putString(statistic.getFirst()).putString(statistic.getSecond());
+        }
+        agents.values().forEach(List::clear);
+        frame.getData().forEach((pos, type) -> agents.computeIfAbsent(type, t -> new ArrayList<>()).add(pos));
+        out.putInt((int) agents.values().stream().filter(positions -> !positions.isEmpty()).count());
+        for (final Map.Entry<String, List<Pos>> type : agents.entrySet()) {
+            if (!type.getValue().isEmpty()) {
+                out.putString(type.getKey()).putInt(type.getValue().size());
+                for (final Pos pos : type.getValue()) {
+                    out.putInt(pos.getX()).putInt(pos.getY());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,137 @@
+package it.unibo.ares.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ChannelOutput writes text and binary values to a channel through a single
+ * reusable buffer, which is only written to the channel when full or when
+ * flushed. It is not thread safe.
+ */
+final class ChannelOutput implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    /**
+     * Creates an output.
+     *
+     * @param channel the channel to write to
+     */
+    ChannelOutput(final WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Appends text, encoded in UTF-8.
+     *
+     * @param text the text
+     * @return this output
+     * @throws IOException if the channel cannot be written
+     */
+    ChannelOutput append(final CharSequence text) throws IOException {
+        final CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result = encoder.encode(chars, buffer, true);
+        while (result.isOverflow()) {
+            drain();
+            result = encoder.encode(chars, buffer, true);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+        return this;
+    }
+
+    /**
+     * Appends a byte.
+     *
+     * @param value the byte
+     * @return this output
+     * @throws IOException if the channel cannot be written
+     */
+    ChannelOutput putByte(final int value) throws IOException {
+        reserve(Byte.BYTES);
+        buffer.put((byte) value);
+        return this;
+    }
+
+    /**
+     * Appends a big-endian int.
+     *
+     * @param value the int
+     * @return this output
+     * @throws IOException if the channel cannot be written
+     */
+    ChannelOutput putInt(final int value) throws IOException {
+        reserve(Integer.BYTES);
+        buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * Appends a string as the big-endian int length of its UTF-8 encoding
+     * followed by the encoding.
+     *
+     * @param value the string
+     * @return this output
+     * @throws IOException if the channel cannot be written
+     */
+    ChannelOutput putString(final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        int written = 0;
+        while (written < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            final int length = Math.min(buffer.remaining(), bytes.length - written);
+            buffer.put(bytes, written, length);
+            written += length;
+        }
+        return this;
+    }
+
+    private void reserve(final int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes what is buffered to the channel.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Flushes the output and closes the channel.
+     *
+     * @throws IOException if the channel cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flush();
+        }
+    }
+}
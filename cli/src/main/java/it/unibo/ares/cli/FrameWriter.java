@@ -0,0 +1,23 @@
+package it.unibo.ares.cli;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import it.unibo.ares.core.api.SimulationOutputDataApi;
+
+/**
+ * FrameWriter writes the frames of a headless run, with their statistics, to
+ * a stream that other tools can read.
+ */
+interface FrameWriter extends Closeable, Flushable {
+
+    /**
+     * Writes a frame.
+     *
+     * @param tick  the number of the tick the frame follows
+     * @param frame the output of the simulation after the tick
+     * @throws IOException if the frame cannot be written
+     */
+    void write(int tick, SimulationOutputDataApi frame) throws IOException;
+}
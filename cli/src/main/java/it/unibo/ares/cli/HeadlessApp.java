@@ -0,0 +1,178 @@
+package it.unibo.ares.cli;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import it.unibo.ares.core.controller.AresSupplier;
+import it.unibo.ares.core.controller.StringInitializer;
+import it.unibo.ares.core.utils.Pair;
+
+/**
+ * Runs a simulation without a terminal, streaming its frames and statistics
+ * to a file or to the standard output, so that it can be piped into other
+ * tools.
+ *
+ * <pre>
+ * cli --headless (--model ID | --params file.properties) [--param chiave=valore]...
+ *     [--agent Tipo.chiave=valore]... [--ticks N] [--seed S]
+ *     [--out file|-] [--format ndjson|binary] [--every K]
+ * </pre>
+ *
+ * The parameters file uses the keys of the batch sweeps with a single value
+ * each: {@code model}, {@code maxTicks}, {@code seed}, {@code param.<chiave>}
+ * and {@code agent.<tipo>.<chiave>}; the options on the command line override
+ * it. Messages go to the standard error, the frames to {@code --out}, the
+ * standard output by default.
+ */
+final class HeadlessApp {
+    /**
+     * The option that selects the headless mode.
+     */
+    static final String HEADLESS = "--headless";
+
+    private static final String USAGE = "Uso: cli --headless (--model ID | --params file.properties)"
+            + " [--param chiave=valore]... [--agent Tipo.chiave=valore]... [--ticks N] [--seed S]"
+            + " [--out file|-] [--format ndjson|binary] [--every K]";
+    private static final String STDOUT = "-";
+    private static final Set<String> FORMATS = Set.of("ndjson", "binary");
+    private static final int DEFAULT_TICKS = 1000;
+    // a reader at the other end of a pipe sees the frames at least this often
+    private static final long FLUSH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private HeadlessApp() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * Runs the simulation described by the arguments.
+     *
+     * @param args args passati da riga di comando
+     * @return the exit status: 0 on success, 2 if the arguments are not valid
+     *         or the output cannot be written
+     */
+    static int run(final String[] args) {
+        try {
+            return stream(args);
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            System.err.println(e.getMessage()); // NOPMD - cli output
+            System.err.println(USAGE); // NOPMD - cli output
+            return 2;
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getCause().getMessage()); // NOPMD - cli output
+            return 2;
+        }
+    }
+
+    private static int stream(final String[] args) throws IOException {
+        final Properties properties = new Properties();
+        final Map<String, String> options = new LinkedHashMap<>();
+        final Map<String, String> output = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (HEADLESS.equals(args[i])) {
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Valore mancante per " + args[i]);
+            }
+            final String value = args[++i];
+            switch (args[i - 1]) {
+                case "--params" -> read(Path.of(value), properties);
+                case "--model" -> options.put("model", value);
+                case "--ticks" -> options.put("maxTicks", value);
+                case "--seed" -> options.put("seed", value);
+                case "--param" -> put(options, StringInitializer.MODEL_PREFIX, value);
+                case "--agent" -> put(options, StringInitializer.AGENT_PREFIX, value);
+                case "--out", "--format", "--every" -> output.put(args[i - 1], value);
+                default -> throw new IllegalArgumentException("Opzione sconosciuta: " + args[i - 1]);
+            }
+        }
+        // the command line overrides the file, whatever their order
+        properties.putAll(options);
+        final String format = output.getOrDefault("--format", "ndjson");
+        final int every = Integer.parseInt(output.getOrDefault("--every", "1"));
+        final int maxTicks = Integer.parseInt(properties.getProperty("maxTicks", String.valueOf(DEFAULT_TICKS)));
+        if (every < 1 || maxTicks < 1) {
+            throw new IllegalArgumentException("--every e --ticks devono essere positivi");
+        }
+        if (!FORMATS.contains(format)) {
+            throw new IllegalArgumentException("Formato sconosciuto: " + format);
+        }
+        final String id = initialize(properties);
+        final String out = output.getOrDefault("--out", STDOUT);
+        try (ChannelOutput channel = new ChannelOutput(open(out)); FrameWriter writer = writer(format, channel)) {
+            final long[] flushed = {System.nanoTime()};
+            final Pair<Integer, Boolean> result = AresSupplier.getInstance().streamHeadless(id, maxTicks, every,
+                    (tick, frame) -> {
+                        try {
+                            writer.write(tick, frame);
+                            if (System.nanoTime() - flushed[0] > FLUSH_INTERVAL) {
+                                writer.flush();
+                                flushed[0] = System.nanoTime();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            System.err.println(result.getFirst() + " tick eseguiti, " // NOPMD - cli output
+                    + (result.getSecond() ? "simulazione terminata" : "raggiunto il limite di tick"));
+        }
+        return 0;
+    }
+
+    private static void read(final Path path, final Properties properties) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+    }
+
+    private static void put(final Map<String, String> options, final String prefix, final String assignment) {
+        final String[] keyAndValue = assignment.split("=", 2);
+        if (keyAndValue.length != 2) {
+            throw new IllegalArgumentException("Assegnamento non valido: " + assignment);
+        }
+        options.put(prefix + keyAndValue[0].trim(), keyAndValue[1].trim());
+    }
+
+    private static WritableByteChannel open(final String out) throws IOException {
+        if (STDOUT.equals(out)) {
+            return new FileOutputStream(FileDescriptor.out).getChannel();
+        }
+        return FileChannel.open(Path.of(out), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static FrameWriter writer(final String format, final ChannelOutput out) throws IOException {
+        return switch (format) {
+            case "ndjson" -> new NdjsonFrameWriter(out);
+            case "binary" -> new BinaryFrameWriter(out);
+            default -> throw new IllegalArgumentException("Formato sconosciuto: " + format);
+        };
+    }
+
+    private static String initialize(final Properties properties) {
+        final String model = Optional.ofNullable(properties.getProperty("model"))
+                .orElseThrow(() -> new IllegalArgumentException("Modello non specificato (--model)"));
+        final Map<String, String> values = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+        final Map<String, String> modelValues = new LinkedHashMap<>();
+        final Map<String, Map<String, String>> agentValues = new LinkedHashMap<>();
+        StringInitializer.split(values, modelValues, agentValues);
+        return StringInitializer.initialize(model,
+                Optional.ofNullable(properties.getProperty("seed")).map(Long::parseLong), modelValues, agentValues);
+    }
+}
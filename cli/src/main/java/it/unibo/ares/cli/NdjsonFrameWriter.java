@@ -0,0 +1,104 @@
+package it.unibo.ares.cli;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import it.unibo.ares.core.api.SimulationOutputDataApi;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * Writes each frame as a line of JSON, such as:
+ *
+ * <pre>
+ * {"tick":10,"width":20,"height":20,"finished":false,
+ *  "statistics":{"Avg A ratio:":"0.5"},"agents":{"A":[0,0,3,1],"B":[2,5]}}
+ * </pre>
+ *
+ * where the agents of each type are listed as a flat array of x, y pairs.
+ */
+final class NdjsonFrameWriter implements FrameWriter {
+    private static final int CONTROL_LIMIT = 0x20;
+
+    private final ChannelOutput out;
+    private final StringBuilder line = new StringBuilder();
+    private final Map<String, StringBuilder> agents = new LinkedHashMap<>();
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output to write to
+     */
+    NdjsonFrameWriter(final ChannelOutput out) {
+        this.out = out;
+    }
+
+    private StringBuilder string(final String value) {
+        line.append('"');
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < CONTROL_LIMIT) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        return line.append('"');
+    }
+
+    @Override
+    public void write(final int tick, final SimulationOutputDataApi frame) throws IOException {
+        line.setLength(0);
+        line.append("{\"tick\":").append(tick)
+                .append(",\"width\":").append(frame.getWidth())
+                .append(",\"height\":").append(frame.getHeight())
+                .append(",\"finished\":").append(frame.isFinished())
+                .append(",\"statistics\":{");
+        String separator = "";
+        for (final Pair<String, String> statistic : frame.getStatistics().getStatistics()) {
+            line.append(separator);
+            string(statistic.getFirst()).append(':');
+            string(statistic.getSecond());
+            separator = ",";
+        }
+        line.append("},\"agents\":{");
+        // the coordinates are grouped by type, reusing the builders across frames
+        agents.values().forEach(coordinates -> coordinates.setLength(0));
+        for (final Map.Entry<Pos, String> agent : frame.getData().entrySet()) {
+            final StringBuilder coordinates = agents.computeIfAbsent(agent.getValue(), t -> new StringBuilder());
+            if (coordinates.length() > 0) {
+                coordinates.append(',');
+            }
+            coordinates.append(agent.getKey().getX()).append(',').append(agent.getKey().getY());
+        }
+        separator = "";
+        for (final Map.Entry<String, StringBuilder> type : agents.entrySet()) {
+            if (type.getValue().length() > 0) {
+                line.append(separator);
+                string(type.getKey()).append(":[").append(type.getValue()).append(']');
+                separator = ",";
+            }
+        }
+        line.append("}}\n");
+        out.append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
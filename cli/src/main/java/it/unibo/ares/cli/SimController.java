@@ -1,14 +1,12 @@
 package it.unibo.ares.cli;
 
-import java.util.Optional;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 
 import it.unibo.ares.core.api.DataReciever;
 import it.unibo.ares.core.api.SimulationOutputDataApi;
 import it.unibo.ares.core.controller.AresSupplier;
 import it.unibo.ares.core.controller.SimulationOutputData;
-import it.unibo.ares.core.utils.pos.Pos;
-import it.unibo.ares.core.utils.pos.PosImpl;
-import it.unibo.ares.core.utils.statistics.Statistics;
 
 /**
  * The SimController class is responsible for controlling the simulation and
@@ -25,11 +23,14 @@ public final class SimController extends DataReciever {
     private static final String PAUSE = "p";
     private static final String STOP = "e";
     private static final String SAVE = "o";
+    private static final String CHECKPOINT = "c";
+    // the board is redrawn at most 20 times per second
+    private static final long REFRESH_INTERVAL = 50;
     private final String inizializationId;
-    private static final String SEPARATOR = "    ";
     private String simulationId;
     private boolean isOver;
     private final IOManager ioManager;
+    private final TerminalRenderer renderer;
 
     /**
      * Constructs a SimController object with the specified initialization ID.
@@ -40,6 +41,10 @@ public final class SimController extends DataReciever {
     public SimController(final String inizializationId, final IOManager ioManager) {
         this.inizializationId = inizializationId;
         this.ioManager = ioManager;
+        this.renderer = new TerminalRendererImpl(new FileOutputStream(FileDescriptor.out).getChannel(),
+                REFRESH_INTERVAL, "Premi " + PAUSE + " per mettere in pausa, " + START + " per far ricominciare e "
+                        + STOP + " per uscire, " + SAVE + " per salvare, " + CHECKPOINT
+                        + " per un checkpoint senza fermarla ");
     }
 
     private void processChar(final String ch) {
@@ -56,9 +61,12 @@ public final class SimController extends DataReciever {
                 break;
             case SAVE:
                 final String savePath = AresSupplier.getInstance().saveSimulation(simulationId);
-                this.ioManager.print("Il file è stato salvato in " + savePath);
+                renderer.print("Il file è stato salvato in " + savePath);
                 this.isOver = true;
                 break;
+            case CHECKPOINT:
+                renderer.print("Checkpoint in " + AresSupplier.getInstance().checkpointSimulation(simulationId));
+                break;
             default:
                 break;
         }
@@ -75,6 +83,7 @@ public final class SimController extends DataReciever {
      */
     public void startSimulation(final Integer stepSize) {
         ioManager.print("Inizio simulazione");
+        renderer.start();
         this.simulationId = AresSupplier.getInstance().startSimulation(inizializationId, this);
         AresSupplier.getInstance().setTickRate(inizializationId, stepSize);
         final Thread reader = new Thread(new AsyncReader(this::processChar, this::isOver, ioManager));
@@ -84,6 +93,7 @@ public final class SimController extends DataReciever {
         } catch (InterruptedException e) {
             ioManager.print("Errore nell'avvio");
         }
+        renderer.stop();
     }
 
     /**
@@ -94,6 +104,7 @@ public final class SimController extends DataReciever {
      */
     public void startSimulationFromFile(final String savePath, final Integer stepSize) {
         ioManager.print("Inizio simulazione");
+        renderer.start();
         this.simulationId = AresSupplier.getInstance().startSimulationFromFile(savePath, this);
         AresSupplier.getInstance().setTickRate(this.simulationId, stepSize);
         final Thread reader = new Thread(new AsyncReader(this::processChar, this::isOver, ioManager));
@@ -103,6 +114,7 @@ public final class SimController extends DataReciever {
         } catch (InterruptedException e) {
             ioManager.print("Errore nell'avvio");
         }
+        renderer.stop();
     }
 
     @Override
@@ -110,58 +122,15 @@ public final class SimController extends DataReciever {
         printData(item);
     }
 
-    private void printInfo() {
-        ioManager
-                .print("Premi " + PAUSE + " per mettere in pausa, " + START + " per far ricominciare e " + STOP
-                        + " per uscire, " + SAVE + " per salvare ");
-        ioManager.print("");
-    }
-
-    /**
-     * Print the statistics to the stdio.
-     * 
-     * @param statistics the statistisics to print
+    /*
+     * The board is handed to the renderer, which draws it on its own thread
+     * and rewrites only the cells changed since the frame it drew last.
      */
-    private void printStatistics(final Statistics statistics) {
-        final Optional<String> out = statistics.getStatistics().stream()
-                .map(p -> p.getFirst() + " " + p.getSecond())
-                .reduce((a, b) -> a + SEPARATOR + b);
-        out.ifPresent(s -> {
-            ioManager.print("\nStatistiche");
-            ioManager.print(s);
-        });
-    }
-
-    private String getHorizontalBar(final Integer width, final Integer cellWidth) {
-        return "\n" + "-".repeat(width * (cellWidth + 2) + 1) + "\n";
-    }
-
     private void printData(final SimulationOutputDataApi data) {
         if (data.isFinished()) {
-            ioManager.print("Simulazione terminata, premi " + STOP + " per uscire");
+            renderer.print("Simulazione terminata, premi " + STOP + " per uscire");
             return;
         }
-        final Integer width = data.getWidth();
-        final Integer height = data.getHeight();
-        final Integer cellWidth = data.getData().values().stream().mapToInt(String::length).max().orElse(0) + 1;
-        final StringBuilder str = new StringBuilder();
-
-        str.append(getHorizontalBar(width, cellWidth));
-
-        for (int y = 0; y < height; y++) {
-            str.append('|');
-            for (int x = 0; x < width; x++) {
-                final Pos pos = new PosImpl(x, y);
-                if (data.getData().containsKey(pos)) {
-                    str.append(String.format("%-" + cellWidth + "s |", data.getData().get(pos)));
-                } else {
-                    str.append(" ".repeat(cellWidth)).append(" |");
-                }
-            }
-            str.append(getHorizontalBar(width, cellWidth));
-        }
-        ioManager.print(str.toString());
-        printStatistics(data.getStatistics());
-        printInfo();
+        renderer.submit(data);
     }
 }
@@ -0,0 +1,37 @@
+package it.unibo.ares.cli;
+
+import it.unibo.ares.core.api.SimulationOutputDataApi;
+
+/**
+ * The TerminalRenderer interface draws the frames of a simulation on a
+ * terminal, on a thread of its own, so that the simulation never waits for
+ * the console.
+ */
+public interface TerminalRenderer {
+
+    /**
+     * Starts drawing the frames submitted.
+     */
+    void start();
+
+    /**
+     * Submits a frame, to be drawn as soon as the refresh rate allows; if
+     * several frames are submitted in the meantime, only the latest is drawn.
+     *
+     * @param frame the output of a tick of the simulation
+     */
+    void submit(SimulationOutputDataApi frame);
+
+    /**
+     * Prints a message below the board, after the frames submitted before it.
+     *
+     * @param message the message to be printed
+     */
+    void print(String message);
+
+    /**
+     * Draws what is still pending and stops drawing, leaving the cursor below
+     * the board.
+     */
+    void stop();
+}
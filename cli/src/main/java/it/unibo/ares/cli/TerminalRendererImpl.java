@@ -0,0 +1,247 @@
+package it.unibo.ares.cli;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import it.unibo.ares.core.api.SimulationOutputDataApi;
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * TerminalRendererImpl draws the board with ANSI escape sequences. The first
+ * frame, and any frame that changes the size of the board, is drawn as a
+ * whole; the following ones only move the cursor to the cells that changed
+ * since the previous frame and rewrite them, along with the statistics.
+ * Everything is encoded into one reusable buffer and written to a single
+ * channel through a {@link ChannelOutput}, at most once per refresh interval.
+ */
+public final class TerminalRendererImpl implements TerminalRenderer {
+    private static final String CSI = "\u001b[";
+    private static final String CLEAR = CSI + "2J" + CSI + "H";
+    private static final String CLEAR_LINE = CSI + "2K";
+    private static final String HIDE_CURSOR = CSI + "?25l";
+    private static final String SHOW_CURSOR = CSI + "?25h";
+    private static final String SEPARATOR = "    ";
+    // rows of the statistics and of the footer below the last row of the board
+    private static final int STATISTICS_TITLE_ROW = 1;
+    private static final int STATISTICS_ROW = 2;
+    private static final int FOOTER_ROW = 4;
+
+    private final ChannelOutput out;
+    private final long interval;
+    private final String footer;
+    private final AtomicReference<SimulationOutputDataApi> latest = new AtomicReference<>();
+    private final Queue<String> messages = new ConcurrentLinkedQueue<>();
+    private final Object signal = new Object();
+    private volatile boolean running;
+    private Thread thread;
+
+    // owned by the drawing thread
+    private final StringBuilder text = new StringBuilder();
+    private String[] shown = new String[0];
+    private String[] next = new String[0];
+    private int width;
+    private int height;
+    private int cellWidth;
+    private int cursorRow = 1;
+    private boolean failed;
+
+    /**
+     * Creates a renderer.
+     *
+     * @param out      the channel of the terminal
+     * @param interval the minimum time, in milliseconds, between two frames
+     * @param footer   the line shown below the statistics
+     */
+    public TerminalRendererImpl(final WritableByteChannel out, final long interval, final String footer) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("The refresh interval must not be negative");
+        }
+        this.out = new ChannelOutput(Objects.requireNonNull(out));
+        this.interval = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.footer = footer;
+    }
+
+    @Override
+    public void start() {
+        if (thread != null) {
+            throw new IllegalStateException("The renderer is already started");
+        }
+        running = true;
+        thread = new Thread(this::loop, "ares-terminal");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void submit(final SimulationOutputDataApi frame) {
+        latest.set(frame);
+        wake();
+    }
+
+    @Override
+    public void print(final String message) {
+        messages.add(message);
+        wake();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wake();
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    private void wake() {
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /*
+     * Waits for something to draw, then for the end of the refresh interval,
+     * so that the frames arriving in the meantime are merged.
+     */
+    private void loop() {
+        long last = System.nanoTime() - interval;
+        text.append(HIDE_CURSOR);
+        try {
+            while (running || latest.get() != null || !messages.isEmpty()) {
+                synchronized (signal) {
+                    while (running && latest.get() == null && messages.isEmpty()) {
+                        signal.wait();
+                    }
+                }
+                final long wait = last + interval - System.nanoTime();
+                if (wait > 0 && running && latest.get() != null) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                final SimulationOutputDataApi frame = latest.getAndSet(null);
+                if (frame != null) {
+                    draw(frame);
+                    last = System.nanoTime();
+                }
+                for (String message = messages.poll(); message != null; message = messages.poll()) {
+                    moveTo(cursorRow, 1).append(message).append('\n');
+                    cursorRow += message.split("\n", -1).length;
+                }
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        text.append(SHOW_CURSOR);
+        moveTo(cursorRow, 1);
+        flush();
+    }
+
+    private void draw(final SimulationOutputDataApi frame) {
+        final int columns = frame.getWidth();
+        final int rows = frame.getHeight();
+        if (next.length != columns * rows) {
+            next = new String[columns * rows];
+        } else {
+            Arrays.fill(next, null);
+        }
+        int widest = cellWidth;
+        for (final Map.Entry<Pos, String> cell : frame.getData().entrySet()) {
+            next[cell.getKey().getY() * columns + cell.getKey().getX()] = cell.getValue();
+            widest = Math.max(widest, cell.getValue().length() + 1);
+        }
+        if (columns != width || rows != height || widest != cellWidth) {
+            width = columns;
+            height = rows;
+            cellWidth = widest;
+            drawBoard();
+        } else {
+            for (int i = 0; i < next.length; i++) {
+                if (!Objects.equals(next[i], shown[i])) {
+                    moveTo(cellRow(i / width), cellColumn(i % width));
+                    cell(next[i]);
+                }
+            }
+        }
+        final String[] previous = shown;
+        shown = next;
+        next = previous;
+        final String statistics = frame.getStatistics().getStatistics().stream()
+                .map(p -> p.getFirst() + " " + p.getSecond())
+                .collect(Collectors.joining(SEPARATOR));
+        moveTo(bottomRow() + STATISTICS_ROW, 1).append(CLEAR_LINE).append(statistics);
+        moveTo(cursorRow, 1);
+    }
+
+    private void drawBoard() {
+        text.append(CLEAR);
+        final String bar = "-".repeat(width * (cellWidth + 2) + 1);
+        text.append(bar).append('\n');
+        for (int y = 0; y < height; y++) {
+            text.append('|');
+            for (int x = 0; x < width; x++) {
+                cell(next[y * width + x]);
+                text.append(" |");
+            }
+            text.append('\n').append(bar).append('\n');
+        }
+        moveTo(bottomRow() + STATISTICS_TITLE_ROW, 1).append("Statistiche");
+        moveTo(bottomRow() + FOOTER_ROW, 1).append(footer);
+        cursorRow = bottomRow() + FOOTER_ROW + 2;
+    }
+
+    private void cell(final String type) {
+        final String value = type == null ? "" : type;
+        text.append(value);
+        for (int i = value.length(); i < cellWidth; i++) {
+            text.append(' ');
+        }
+    }
+
+    /*
+     * The board starts on the first row with a bar, and each row of cells is
+     * followed by another; each cell is preceded by "|" or " |".
+     */
+    private int cellRow(final int y) {
+        return 2 + 2 * y;
+    }
+
+    private int cellColumn(final int x) {
+        return 2 + x * (cellWidth + 2);
+    }
+
+    private int bottomRow() {
+        return 1 + 2 * height;
+    }
+
+    private StringBuilder moveTo(final int row, final int column) {
+        return text.append(CSI).append(row).append(';').append(column).append('H');
+    }
+
+    /*
+     * Writes the text of the frame; once the terminal fails nothing more is
+     * written, as there is nowhere to show it.
+     */
+    private void flush() {
+        if (!failed && text.length() > 0) {
+            try {
+                out.append(text).flush();
+            } catch (IOException e) {
+                failed = true;
+            }
+        }
+        text.setLength(0);
+    }
+}
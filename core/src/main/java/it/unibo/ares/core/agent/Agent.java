@@ -57,4 +57,13 @@ public interface Agent extends Serializable {
      * @param type the type of the agent
      */
     void setType(String type);
+
+    /**
+     * Creates a new agent of the same type and with the same strategy of this
+     * one, with a new id and a copy of its parameters, so that changing the
+     * parameters of either agent does not affect the other.
+     *
+     * @return the new agent
+     */
+    Agent copy();
 }
@@ -2,6 +2,7 @@ package it.unibo.ares.core.agent;
 
 import it.unibo.ares.core.utils.lambda.SerializableBiFunction;
 import it.unibo.ares.core.utils.parameters.Parameter;
+import it.unibo.ares.core.utils.parameters.ParameterSchema;
 import it.unibo.ares.core.utils.pos.Pos;
 import it.unibo.ares.core.utils.state.State;
 
@@ -37,6 +38,17 @@ interface AgentBuilder extends Serializable {
      */
     <T extends Serializable> AgentBuilder addParameter(Parameter<T> parameterImpl);
 
+    /**
+     * Gives the agent the parameters declared in a schema, replacing the ones
+     * added so far. The agent parameters can then be accessed through the keys
+     * of the schema.
+     *
+     * @throws NullPointerException if the schema is null.
+     * @param schema the schema of the agent parameters.
+     * @return the agent builder with the parameters of the schema.
+     */
+    AgentBuilder addParameterSchema(ParameterSchema schema);
+
     /**
      * Adds a strategy to the agent.
      *
@@ -1,6 +1,7 @@
 package it.unibo.ares.core.agent;
 
 import it.unibo.ares.core.utils.parameters.Parameter;
+import it.unibo.ares.core.utils.parameters.ParameterSchema;
 import it.unibo.ares.core.utils.parameters.Parameters;
 import it.unibo.ares.core.utils.parameters.ParametersImpl;
 import it.unibo.ares.core.utils.pos.Pos;
@@ -8,7 +9,6 @@ import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.lambda.SerializableBiFunction;
 
 import java.io.Serializable;
-import java.util.UUID;
 
 /**
  * Implementation of the AgentBuilder interface.
@@ -35,62 +35,7 @@ class AgentBuilderImpl implements AgentBuilder {
         if (strategy == null) {
             throw new IllegalStateException("Cannot build agent without strategy or parameters");
         }
-        final String id = UUID.randomUUID().toString();
-        return new Agent() {
-
-            private String type;
-            private static final long serialVersionUID = 1L;
-
-            @Override
-            public State tick(final State state, final Pos pos) {
-                return strategy.apply(state, pos);
-            }
-
-            @Override
-            public Parameters getParameters() {
-                return parameters;
-            }
-
-            @Override
-            public <T extends Serializable> void setParameter(final String key, final T value) {
-                parameters.setParameter(key, value);
-            }
-
-            @Override
-            public String getId() {
-                return id;
-            }
-
-            @Override
-            public boolean equals(final Object obj) {
-                if (this == obj) {
-                    return true;
-                }
-                if (obj == null || getClass() != obj.getClass()) {
-                    return false;
-                }
-                final Agent agent = (Agent) obj;
-                return id.equals(agent.getId());
-            }
-
-            @Override
-            public int hashCode() {
-                final int prime = 31;
-                int result = 1;
-                result = prime * result + ((id == null) ? 0 : id.hashCode());
-                return result;
-            }
-
-            @Override
-            public String getType() {
-                return type;
-            }
-
-            @Override
-            public void setType(final String type) {
-                this.type = type;
-            }
-        };
+        return new BuiltAgent(AgentIdGenerator.current().next(), strategy, parameters);
     }
 
     /**
@@ -111,6 +56,15 @@ class AgentBuilderImpl implements AgentBuilder {
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AgentBuilder addParameterSchema(final ParameterSchema schema) {
+        this.parameters = schema.newParameters();
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -122,4 +76,81 @@ class AgentBuilderImpl implements AgentBuilder {
         this.strategy = strategy;
         return this;
     }
+
+    /**
+     * Agent produced by the builder, identified by a numeric id drawn from the
+     * current {@link AgentIdGenerator}.
+     */
+    private static final class BuiltAgent implements Agent {
+
+        private static final long serialVersionUID = 1L;
+        private final long id;
+        private final SerializableBiFunction<State, Pos, State> strategy;
+        private final Parameters parameters;
+        private String type;
+        private transient String idString;
+
+        BuiltAgent(final long id, final SerializableBiFunction<State, Pos, State> strategy,
+                final Parameters parameters) {
+            this.id = id;
+            this.strategy = strategy;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public State tick(final State state, final Pos pos) {
+            return strategy.apply(state, pos);
+        }
+
+        @Override
+        public Parameters getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public <T extends Serializable> void setParameter(final String key, final T value) {
+            parameters.setParameter(key, value);
+        }
+
+        @Override
+        public Agent copy() {
+            final BuiltAgent copy = new BuiltAgent(AgentIdGenerator.current().next(), strategy, parameters.copy());
+            copy.type = type;
+            return copy;
+        }
+
+        @Override
+        public String getId() {
+            if (idString == null) {
+                idString = Long.toString(id);
+            }
+            return idString;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            return id == ((BuiltAgent) obj).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public void setType(final String type) {
+            this.type = type;
+        }
+    }
 }
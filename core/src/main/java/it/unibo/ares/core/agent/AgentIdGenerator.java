@@ -0,0 +1,98 @@
+package it.unibo.ares.core.agent;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Monotonic source of agent ids. Every simulation owns one generator, which
+ * is made current for the calling thread while the model initializes or
+ * ticks, so that the agents built in the meantime get ids unique within that
+ * simulation. Outside of any simulation a shared, process-wide generator is
+ * used.
+ */
+public final class AgentIdGenerator implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final AgentIdGenerator SHARED = new AgentIdGenerator();
+    private static final ThreadLocal<AgentIdGenerator> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong counter;
+
+    /**
+     * Creates a new generator whose first id is 1.
+     */
+    public AgentIdGenerator() {
+        this(0L);
+    }
+
+    private AgentIdGenerator(final long last) {
+        this.counter = new AtomicLong(last);
+    }
+
+    /**
+     * Returns the next id of this generator.
+     *
+     * @return a strictly greater id than any previously returned one
+     */
+    public long next() {
+        return counter.incrementAndGet();
+    }
+
+    /**
+     * Returns the last id handed out by this generator, 0 if none.
+     *
+     * @return the last id handed out
+     */
+    public long last() {
+        return counter.get();
+    }
+
+    /**
+     * Reserves a contiguous block of ids, handing them out through a separate
+     * generator. Lets agents be built concurrently, each block on its own
+     * thread, while still getting the ids a sequential build would give.
+     *
+     * @param count the number of ids to reserve
+     * @return a generator returning the reserved ids in order
+     */
+    public AgentIdGenerator reserve(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Cannot reserve a negative number of ids");
+        }
+        return new AgentIdGenerator(counter.getAndAdd(count));
+    }
+
+    /**
+     * Runs the given action with this generator as the current one for the
+     * calling thread, restoring the previous one afterwards.
+     *
+     * @param action the action to run
+     * @param <T>    the type of the result
+     * @return the result of the action
+     */
+    public <T> T runWith(final Supplier<T> action) {
+        final AgentIdGenerator previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns the generator current for the calling thread, the shared one if
+     * no simulation is running on it.
+     *
+     * @return the current generator
+     */
+    public static AgentIdGenerator current() {
+        final AgentIdGenerator generator = CURRENT.get();
+        return generator == null ? SHARED : generator;
+    }
+}
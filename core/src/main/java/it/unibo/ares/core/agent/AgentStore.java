@@ -0,0 +1,67 @@
+package it.unibo.ares.core.agent;
+
+import java.io.Serializable;
+
+import it.unibo.ares.core.utils.lambda.SerializableBiFunction;
+import it.unibo.ares.core.utils.parameters.Parameter;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * A columnar store for homogeneous agent populations. Agents are identified by
+ * an int, their type by a byte code and every declared parameter is kept in a
+ * primitive column; the agents handed out are lightweight views over the
+ * columns.
+ */
+public interface AgentStore extends Serializable {
+    /**
+     * Declares a parameter column. If the parameter has a value it is used as
+     * the default for the new agents.
+     *
+     * @param parameter the parameter describing the column (key, type, domain
+     *                  and if it is user settable).
+     * @param <T>       the type of the parameter, only Integer, Double and
+     *                  Boolean are supported.
+     * @return the store itself.
+     * @throws IllegalArgumentException if the column already exists or the type
+     *                                  is not supported.
+     * @throws IllegalStateException    if some agent has already been created.
+     */
+    <T extends Serializable> AgentStore addColumn(Parameter<T> parameter);
+
+    /**
+     * Declares an agent type and the strategy shared by its agents.
+     *
+     * @param type     the type of the agents.
+     * @param strategy the strategy of the agents.
+     * @return the store itself.
+     * @throws IllegalArgumentException if the type already exists or too many
+     *                                  types are declared.
+     */
+    AgentStore addType(String type, SerializableBiFunction<State, Pos, State> strategy);
+
+    /**
+     * Creates a new agent of the given type.
+     *
+     * @param type the type of the agent.
+     * @return a view of the new agent.
+     * @throws IllegalArgumentException if the type has not been declared.
+     */
+    Agent createAgent(String type);
+
+    /**
+     * Retrieves the agent with the given id.
+     *
+     * @param id the id of the agent.
+     * @return a view of the agent.
+     * @throws IllegalArgumentException if no agent has that id.
+     */
+    Agent getAgent(int id);
+
+    /**
+     * Gets the number of agents in the store.
+     *
+     * @return the number of agents.
+     */
+    int size();
+}
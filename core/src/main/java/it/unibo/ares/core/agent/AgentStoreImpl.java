@@ -0,0 +1,527 @@
+package it.unibo.ares.core.agent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import it.unibo.ares.core.utils.lambda.SerializableBiFunction;
+import it.unibo.ares.core.utils.parameters.ParamKey;
+import it.unibo.ares.core.utils.parameters.Parameter;
+import it.unibo.ares.core.utils.parameters.ParameterDomain;
+import it.unibo.ares.core.utils.parameters.ParameterImpl;
+import it.unibo.ares.core.utils.parameters.Parameters;
+import it.unibo.ares.core.utils.parameters.ParametersImpl;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * Implementation of the AgentStore interface, the columns grow by doubling
+ * their capacity.
+ */
+public final class AgentStoreImpl implements AgentStore {
+
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_CAPACITY = 16;
+    private final Map<String, Column<?>> columns;
+    private final List<String> typeNames;
+    private final List<SerializableBiFunction<State, Pos, State>> strategies;
+    private byte[] types;
+    // the ids of the agents, drawn from the generator current at their creation
+    private long[] ids;
+    private int size;
+
+    /**
+     * Creates a new empty store.
+     */
+    public AgentStoreImpl() {
+        this.columns = new LinkedHashMap<>();
+        this.typeNames = new ArrayList<>();
+        this.strategies = new ArrayList<>();
+        this.types = new byte[INITIAL_CAPACITY];
+        this.ids = new long[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> AgentStore addColumn(final Parameter<T> parameter) {
+        if (size > 0) {
+            throw new IllegalStateException("Cannot add columns after agents have been created");
+        }
+        if (parameter.getKey() == null || columns.containsKey(parameter.getKey())) {
+            throw new IllegalArgumentException("Column " + parameter.getKey() + " already exists or is null");
+        }
+        columns.put(parameter.getKey(), Column.of(parameter, types.length));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AgentStore addType(final String type, final SerializableBiFunction<State, Pos, State> strategy) {
+        if (type == null || strategy == null) {
+            throw new IllegalArgumentException("Type and strategy cannot be null");
+        }
+        if (typeNames.contains(type)) {
+            throw new IllegalArgumentException("Type " + type + " already exists");
+        }
+        if (typeNames.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many agent types");
+        }
+        typeNames.add(type);
+        strategies.add(strategy);
+        return this;
+    }
+
+    private byte getTypeCode(final String type) {
+        final int code = typeNames.indexOf(type);
+        if (code < 0) {
+            throw new IllegalArgumentException("Type " + type + " has not been declared");
+        }
+        return (byte) code;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Agent createAgent(final String type) {
+        final byte code = getTypeCode(type);
+        if (size == types.length) {
+            final int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            columns.values().forEach(c -> c.grow(capacity));
+        }
+        final int id = size;
+        types[id] = code;
+        ids[id] = AgentIdGenerator.current().next();
+        columns.values().forEach(c -> c.reset(id));
+        size++;
+        return new AgentView(this, id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Agent getAgent(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("No agent with id " + id);
+        }
+        return new AgentView(this, id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A primitive column of the store.
+     *
+     * @param <T> the boxed type of the values of the column
+     */
+    private abstract static class Column<T extends Serializable> implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String key;
+        private final Class<T> type;
+        private final ParameterDomain<T> domain;
+        private final Boolean userSettable;
+        private final T defaultValue;
+        private final BitSet setted;
+
+        Column(final Parameter<T> declaration) {
+            this.key = declaration.getKey();
+            this.type = declaration.getType();
+            this.domain = declaration.getDomain().orElse(null);
+            this.userSettable = declaration.userSettable();
+            this.defaultValue = declaration.getOptionalValue().orElse(null);
+            this.setted = new BitSet();
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T extends Serializable> Column<?> of(final Parameter<T> declaration, final int capacity) {
+            if (declaration.getType() == Integer.class) {
+                return new IntColumn((Parameter<Integer>) declaration, capacity);
+            }
+            if (declaration.getType() == Double.class) {
+                return new DoubleColumn((Parameter<Double>) declaration, capacity);
+            }
+            if (declaration.getType() == Boolean.class) {
+                return new BooleanColumn((Parameter<Boolean>) declaration, capacity);
+            }
+            throw new IllegalArgumentException("Unsupported column type: " + declaration.getType().getName());
+        }
+
+        abstract T read(int id);
+
+        abstract void store(int id, T value);
+
+        abstract void grow(int capacity);
+
+        void reset(final int id) {
+            if (defaultValue == null) {
+                setted.clear(id);
+            } else {
+                store(id, defaultValue);
+                setted.set(id);
+            }
+        }
+
+        void markSetted(final int id) {
+            setted.set(id);
+        }
+
+        void storeUnchecked(final int id, final Serializable value) {
+            store(id, type.cast(value));
+            setted.set(id);
+        }
+
+        void write(final int id, final Serializable value) {
+            if (!type.isInstance(value)) {
+                throw new IllegalArgumentException("Value is not of type " + type.getName());
+            }
+            final T typed = type.cast(value);
+            if (domain != null && !domain.isValueValid(typed)) {
+                throw new IllegalArgumentException("Value is not inside the domain: " + key);
+            }
+            store(id, typed);
+            setted.set(id);
+        }
+
+        boolean isSetted(final int id) {
+            return setted.get(id);
+        }
+
+        void checkSetted(final int id) {
+            if (!setted.get(id)) {
+                throw new IllegalStateException("Value not set for parameter: " + key);
+            }
+        }
+
+        T readSetted(final int id) {
+            checkSetted(id);
+            return read(id);
+        }
+
+        Parameter<T> toParameter(final int id) {
+            return setted.get(id)
+                    ? new ParameterImpl<>(key, read(id), domain, userSettable)
+                    : new ParameterImpl<>(key, type, domain, userSettable);
+        }
+    }
+
+    private static final class IntColumn extends Column<Integer> {
+        private static final long serialVersionUID = 1L;
+        private int[] values;
+
+        IntColumn(final Parameter<Integer> declaration, final int capacity) {
+            super(declaration);
+            this.values = new int[capacity];
+        }
+
+        @Override
+        Integer read(final int id) {
+            return values[id];
+        }
+
+        @Override
+        void store(final int id, final Integer value) {
+            values[id] = value;
+        }
+
+        @Override
+        void grow(final int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+
+    private static final class DoubleColumn extends Column<Double> {
+        private static final long serialVersionUID = 1L;
+        private double[] values;
+
+        DoubleColumn(final Parameter<Double> declaration, final int capacity) {
+            super(declaration);
+            this.values = new double[capacity];
+        }
+
+        @Override
+        Double read(final int id) {
+            return values[id];
+        }
+
+        @Override
+        void store(final int id, final Double value) {
+            values[id] = value;
+        }
+
+        @Override
+        void grow(final int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+
+    private static final class BooleanColumn extends Column<Boolean> {
+        private static final long serialVersionUID = 1L;
+        private final BitSet values = new BitSet();
+
+        BooleanColumn(final Parameter<Boolean> declaration, final int capacity) {
+            super(declaration);
+        }
+
+        @Override
+        Boolean read(final int id) {
+            return values.get(id);
+        }
+
+        @Override
+        void store(final int id, final Boolean value) {
+            values.set(id, value);
+        }
+
+        @Override
+        void grow(final int capacity) {
+            // a BitSet grows on its own
+        }
+    }
+
+    /**
+     * A lightweight view of an agent of the store.
+     */
+    private static final class AgentView implements Agent {
+        private static final long serialVersionUID = 1L;
+        private final AgentStoreImpl store;
+        private final int id;
+        private final ParametersView parameters;
+
+        AgentView(final AgentStoreImpl store, final int id) {
+            this.store = store;
+            this.id = id;
+            this.parameters = new ParametersView(store, id);
+        }
+
+        @Override
+        public State tick(final State state, final Pos pos) {
+            return store.strategies.get(store.types[id]).apply(state, pos);
+        }
+
+        @Override
+        public Parameters getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public <T extends Serializable> void setParameter(final String key, final T value) {
+            parameters.setParameter(key, value);
+        }
+
+        @Override
+        public String getId() {
+            return Long.toString(store.ids[id]);
+        }
+
+        /*
+         * The copy is detached from the store, as a store only grows.
+         */
+        @Override
+        public Agent copy() {
+            final AgentBuilder builder = new AgentBuilderImpl().addStrategy(store.strategies.get(store.types[id]));
+            getParameters().getParameters().forEach(builder::addParameter);
+            final Agent copy = builder.build();
+            copy.setType(getType());
+            return copy;
+        }
+
+        @Override
+        public String getType() {
+            return store.typeNames.get(store.types[id]);
+        }
+
+        @Override
+        public void setType(final String type) {
+            store.types[id] = store.getTypeCode(type);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final AgentView other = (AgentView) obj;
+            return store == other.store && id == other.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(id);
+        }
+    }
+
+    /**
+     * A view of the parameters of an agent of the store, the columns are
+     * declared on the store so parameters cannot be added.
+     */
+    private static final class ParametersView implements Parameters {
+        private static final long serialVersionUID = 1L;
+        private final AgentStoreImpl store;
+        private final int id;
+
+        ParametersView(final AgentStoreImpl store, final int id) {
+            this.store = store;
+            this.id = id;
+        }
+
+        @Override
+        public <T extends Serializable> void addParameter(final String key, final Class<T> type,
+                final Boolean userSettable) {
+            throw new UnsupportedOperationException("Parameters are declared as columns of the store");
+        }
+
+        @Override
+        public <T extends Serializable> void addParameter(final String key, final T value,
+                final Boolean userSettable) {
+            throw new UnsupportedOperationException("Parameters are declared as columns of the store");
+        }
+
+        @Override
+        public <T extends Serializable> void addParameter(final Parameter<T> parameter) {
+            throw new UnsupportedOperationException("Parameters are declared as columns of the store");
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Serializable> Optional<Parameter<T>> getParameter(final String key, final Class<T> type) {
+            return Optional.ofNullable(store.columns.get(key))
+                    .filter(c -> c.type.equals(type))
+                    .map(c -> (Parameter<T>) c.toParameter(id));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Serializable> Optional<Parameter<T>> getParameter(final String key) {
+            return Optional.ofNullable(store.columns.get(key))
+                    .map(c -> (Parameter<T>) c.toParameter(id));
+        }
+
+        @Override
+        public <T extends Serializable> void setParameter(final String key, final T value) {
+            Optional.ofNullable(store.columns.get(key))
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Parameter " + key + " does not exist or not of type " + value.getClass().getName()))
+                    .write(id, value);
+        }
+
+        private Column<?> getColumn(final ParamKey<?> key) {
+            final Column<?> column = store.columns.get(key.getKey());
+            if (column == null || !column.type.equals(key.getType())) {
+                throw new IllegalArgumentException("Parameter " + key + " does not exist");
+            }
+            return column;
+        }
+
+        private IntColumn getIntColumn(final ParamKey<Integer> key) {
+            if (store.columns.get(key.getKey()) instanceof IntColumn column) {
+                return column;
+            }
+            throw new IllegalArgumentException("Parameter " + key + " does not exist");
+        }
+
+        private DoubleColumn getDoubleColumn(final ParamKey<Double> key) {
+            if (store.columns.get(key.getKey()) instanceof DoubleColumn column) {
+                return column;
+            }
+            throw new IllegalArgumentException("Parameter " + key + " does not exist");
+        }
+
+        @Override
+        public <T extends Serializable> T get(final ParamKey<T> key) {
+            return key.getType().cast(getColumn(key).readSetted(id));
+        }
+
+        @Override
+        public <T extends Serializable> void set(final ParamKey<T> key, final T value) {
+            final Column<?> column = getColumn(key);
+            column.storeUnchecked(id, value);
+        }
+
+        @Override
+        public int getInt(final ParamKey<Integer> key) {
+            final IntColumn column = getIntColumn(key);
+            column.checkSetted(id);
+            return column.values[id];
+        }
+
+        @Override
+        public void setInt(final ParamKey<Integer> key, final int value) {
+            final IntColumn column = getIntColumn(key);
+            column.values[id] = value;
+            column.markSetted(id);
+        }
+
+        @Override
+        public double getDouble(final ParamKey<Double> key) {
+            final DoubleColumn column = getDoubleColumn(key);
+            column.checkSetted(id);
+            return column.values[id];
+        }
+
+        @Override
+        public void setDouble(final ParamKey<Double> key, final double value) {
+            final DoubleColumn column = getDoubleColumn(key);
+            column.values[id] = value;
+            column.markSetted(id);
+        }
+
+        @Override
+        public boolean isSetted(final ParamKey<?> key) {
+            final Column<?> column = store.columns.get(key.getKey());
+            return column != null && column.type.equals(key.getType()) && column.isSetted(id);
+        }
+
+        @Override
+        public Set<Parameter<?>> getParameters() {
+            return store.columns.values().stream()
+                    .map(c -> c.toParameter(id))
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Set<Parameter<?>> getParametersToset() {
+            return getParameters().stream()
+                    .filter(Parameter::userSettable)
+                    .filter(p -> !p.isSetted())
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public boolean areAllParametersSetted() {
+            return getParameters().stream()
+                    .filter(Parameter::userSettable)
+                    .allMatch(Parameter::isSetted);
+        }
+
+        @Override
+        public Parameters copy() {
+            final Parameters copy = new ParametersImpl();
+            getParameters().forEach(copy::addParameter);
+            return copy;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package it.unibo.ares.core.agent;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -13,6 +12,7 @@ import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.pos.Pos;
 import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.random.RandomService;
 import it.unibo.ares.core.utils.state.State;
 
 /**
@@ -24,14 +24,6 @@ public final class BoidsAgentFactory implements AgentFactory {
     private static final long serialVersionUID = 1L;
     private static final Double USERCORRECTIONWEIGHT = 0.4;
     private static final String DIRECTION = "direction";
-    private final Random r;
-
-    /**
-     * Creates a new Boids agent factory.
-     */
-    public BoidsAgentFactory() {
-        this.r = new Random();
-    }
 
     private Set<Pos> getAgentsCells(final State state, final Set<Pos> cells) {
         return cells.stream()
@@ -221,8 +213,8 @@ public final class BoidsAgentFactory implements AgentFactory {
                         new ParameterDomainImpl<>("il raggio di visione in gradi (0-180)",
                                 (Integer d) -> d > 0 && d <= 180),
                         true))
-                .addParameter(new ParameterImpl<>(DIRECTION, ComputationUtils.getRandomDirection(r),
-                        false))
+                .addParameter(new ParameterImpl<>(DIRECTION,
+                        ComputationUtils.getRandomDirection(RandomService.currentGenerator()), false))
                 .addParameter(new ParameterImpl<>("collisionAvoidanceWeight", Double.class,
                         new ParameterDomainImpl<>(
                                 "il peso dell'evitamento degli ostacoli (0.0-1.0)",
@@ -5,8 +5,12 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.parameters.ParamKey;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
+import it.unibo.ares.core.utils.parameters.ParameterSchema;
+import it.unibo.ares.core.utils.parameters.ParameterSchemaImpl;
+import it.unibo.ares.core.utils.parameters.Parameters;
 import it.unibo.ares.core.utils.pos.Pos;
 import it.unibo.ares.core.utils.state.State;
 
@@ -17,6 +21,23 @@ import it.unibo.ares.core.utils.state.State;
 public final class ConsumerAgentFactory implements AgentFactory {
     private static final String ERR = "No agents at that pos";
     private static final String SUGAR = "sugar";
+    private static final ParameterSchema SCHEMA = new ParameterSchemaImpl();
+    private static final ParamKey<Integer> VISION_RADIUS = SCHEMA.declare(new ParameterImpl<>(
+            "visionRadius", Integer.class,
+            new ParameterDomainImpl<>("raggio di visione consumer", (Integer i) -> i > 0),
+            true));
+    private static final ParamKey<Integer> METABOLISM_RATE = SCHEMA.declare(new ParameterImpl<>(
+            "metabolismRate", Integer.class,
+            new ParameterDomainImpl<>("velocita metaboilismo consumer", (Integer i) -> i > 0),
+            true));
+    private static final ParamKey<Integer> SUGAR_KEY = SCHEMA.declare(new ParameterImpl<>(
+            SUGAR, Integer.class,
+            new ParameterDomainImpl<>("zucchero iniziale consumer", (Integer i) -> i >= 0),
+            true));
+    private static final ParamKey<Integer> MAX_SUGAR = SCHEMA.declare(new ParameterImpl<>(
+            "maxSugar", Integer.class,
+            new ParameterDomainImpl<>("max zucchero consumer", (Integer i) -> i > 0),
+            true));
 
     private static final long serialVersionUID = 1L;
     /**
@@ -118,87 +139,40 @@ public final class ConsumerAgentFactory implements AgentFactory {
 
     private void consumeSugar(final State state, final Pos pos, final Pos sugarPos,
             final int maxSugar) {
-        final int sugarAmount = state.getAgentAt(sugarPos)
-                .orElseThrow(() -> new IllegalStateException(ERR))
-                .getParameters()
-                .getParameter("sugarAmount", Integer.class)
-                .orElseThrow(() -> new IllegalArgumentException("Agent has no sugarAmount parameter"))
-                .getValue();
+        final int sugarAmount = SugarAgentFactory.getSugarAmount(state, sugarPos);
 
-        final int sugar = state.getAgentAt(pos)
+        final Parameters parameters = state.getAgentAt(pos)
                 .orElseThrow(() -> new IllegalStateException(ERR))
-                .getParameters()
-                .getParameter(SUGAR, Integer.class)
-                .orElseThrow(() -> new IllegalArgumentException("Agent has no sugar parameter"))
-                .getValue();
+                .getParameters();
+        final int sugar = parameters.getInt(SUGAR_KEY);
 
         final int maxSugarIntake = Math.min(maxSugar - sugar, sugarAmount);
-        state.getAgentAt(pos)
-                .ifPresent(agent -> agent.getParameters().setParameter(SUGAR, sugar + maxSugarIntake));
+        parameters.setInt(SUGAR_KEY, sugar + maxSugarIntake);
 
-        state.getAgentAt(sugarPos)
-                .ifPresent(agent -> agent.getParameters().setParameter("sugarAmount", sugarAmount - maxSugarIntake));
+        SugarAgentFactory.setSugarAmount(state, sugarPos, sugarAmount - maxSugarIntake);
     }
 
     private Agent createConsumerAgent() {
         final AgentBuilder builder = new AgentBuilderImpl();
-        builder.addParameter(new ParameterImpl<>(
-                "visionRadius", Integer.class,
-                new ParameterDomainImpl<>("raggio di visione consumer", (Integer i) -> i > 0),
-                true));
-        builder.addParameter(new ParameterImpl<>(
-                "metabolismRate", Integer.class,
-                new ParameterDomainImpl<>("velocita metaboilismo consumer", (Integer i) -> i > 0),
-                true));
-        builder.addParameter(new ParameterImpl<>(
-                SUGAR, Integer.class,
-                new ParameterDomainImpl<>("zucchero iniziale consumer", (Integer i) -> i >= 0),
-                true));
-        builder.addParameter(new ParameterImpl<>(
-                "maxSugar", Integer.class,
-                new ParameterDomainImpl<>("max zucchero consumer", (Integer i) -> i > 0),
-                true));
+        builder.addParameterSchema(SCHEMA);
 
         builder.addStrategy((state, pos) -> {
 
-            final int metabolismRate = state.getAgentAt(pos)
-                    .orElseThrow(() -> new IllegalStateException(ERR))
-                    .getParameters()
-                    .getParameter("metabolismRate", Integer.class)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Agent has no metabolismRate parameter"))
-                    .getValue();
-
-            final int sugar = state.getAgentAt(pos)
+            final Parameters parameters = state.getAgentAt(pos)
                     .orElseThrow(() -> new IllegalStateException(ERR))
-                    .getParameters()
-                    .getParameter(SUGAR, Integer.class)
-                    .orElseThrow(() -> new IllegalArgumentException("Agent has no sugar parameter"))
-                    .getValue();
+                    .getParameters();
+            final int metabolismRate = parameters.getInt(METABOLISM_RATE);
+            final int sugar = parameters.getInt(SUGAR_KEY);
 
             if (sugar < metabolismRate) {
                 state.removeAgent(pos, state.getAgentAt(pos).get());
                 return state;
             }
 
-            final int visionRadius = state.getAgentAt(pos)
-                    .orElseThrow(() -> new IllegalStateException(ERR))
-                    .getParameters()
-                    .getParameter("visionRadius", Integer.class)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Agent has no visionRadius parameter"))
-                    .getValue();
-
-            final int maxSugar = state.getAgentAt(pos)
-                    .orElseThrow(() -> new IllegalStateException(ERR))
-                    .getParameters()
-                    .getParameter("maxSugar", Integer.class)
-                    .orElseThrow(() -> new IllegalArgumentException("Agent has no sugar parameter"))
-                    .getValue();
+            final int visionRadius = parameters.getInt(VISION_RADIUS);
+            final int maxSugar = parameters.getInt(MAX_SUGAR);
 
-            state.getAgentAt(pos)
-                    .ifPresent(agent -> agent.getParameters().setParameter(SUGAR,
-                            sugar - metabolismRate));
+            parameters.setInt(SUGAR_KEY, sugar - metabolismRate);
 
             getSugarPositions(state, pos, visionRadius,
                     sugar / metabolismRate)
@@ -207,12 +181,7 @@ public final class ConsumerAgentFactory implements AgentFactory {
                         if (pp.getSecond() == 0) {
                             return Double.NEGATIVE_INFINITY;
                         }
-                        return -(state.getAgentAt(pp.getFirst()).get()
-                                .getParameters()
-                                .getParameter("sugarAmount", Integer.class)
-                                .orElseThrow(() -> new IllegalArgumentException(
-                                        "Agent has no sugarAmount parameter"))
-                                .getValue() / pp.getSecond());
+                        return -(SugarAgentFactory.getSugarAmount(state, pp.getFirst()) / pp.getSecond());
                     }))
                     .map(Pair::getFirst)
                     .findFirst()
@@ -1,6 +1,5 @@
 package it.unibo.ares.core.agent;
 
-import java.util.Random;
 import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
@@ -9,10 +8,14 @@ import java.util.stream.IntStream;
 import it.unibo.ares.core.utils.ComputationUtils;
 import it.unibo.ares.core.utils.directionvector.DirectionVector;
 import it.unibo.ares.core.utils.directionvector.DirectionVectorImpl;
+import it.unibo.ares.core.utils.parameters.ParamKey;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
+import it.unibo.ares.core.utils.parameters.ParameterSchema;
+import it.unibo.ares.core.utils.parameters.ParameterSchemaImpl;
 import it.unibo.ares.core.utils.pos.Pos;
 import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.random.RandomService;
 import it.unibo.ares.core.utils.state.State;
 
 /**
@@ -29,9 +32,23 @@ public final class FireAgentFactory implements AgentFactory {
     private static final String FUEL = "fuel";
     private static final String CONS = "consumption";
     private static final String SPREAD = "spread";
+    private static final ParameterSchema SCHEMA = new ParameterSchemaImpl();
+    private static final ParamKey<Integer> SPREAD_KEY = SCHEMA.declare(new ParameterImpl<>(SPREAD, Integer.class,
+            new ParameterDomainImpl<>("Range of spread (RoS) (1 - n)",
+                    (Integer i) -> i > 0),
+            true));
+    private static final ParamKey<Double> FUEL_KEY = SCHEMA.declare(new ParameterImpl<>(FUEL, Double.class,
+            new ParameterDomainImpl<>(
+                    "Capacità di combustibile",
+                    (Double d) -> d >= 0.0),
+            true));
+    private static final ParamKey<Double> CONS_KEY = SCHEMA.declare(new ParameterImpl<>(CONS, Double.class,
+            new ParameterDomainImpl<>(
+                    "Combustibile consumato ad ogni tick",
+                    (Double d) -> d >= 0.0),
+            true));
     private DirectionVector windDirection;
     private Double windChange;
-    private final Random r;
     private final ExtingueshedAgentFactory eaf;
 
     private static BiPredicate<Agent, Agent> agentOfDiffType = (a, b) -> {
@@ -45,7 +62,6 @@ public final class FireAgentFactory implements AgentFactory {
      * Constructor for the FireAgentFactory.
      */
     public FireAgentFactory() {
-        this.r = new Random();
         this.windChange = 0.0;
         this.windDirection = getRandomDirection();
         this.eaf = new ExtingueshedAgentFactory();
@@ -58,8 +74,8 @@ public final class FireAgentFactory implements AgentFactory {
      */
     private DirectionVectorImpl getRandomDirection() {
         return new DirectionVectorImpl(
-                r.nextInt(-DIRRANDOMNUMBERCEIL, DIRRANDOMNUMBERCEIL) + 1,
-                r.nextInt(-DIRRANDOMNUMBERCEIL, DIRRANDOMNUMBERCEIL) + 1);
+                RandomService.currentGenerator().nextInt(-DIRRANDOMNUMBERCEIL, DIRRANDOMNUMBERCEIL) + 1,
+                RandomService.currentGenerator().nextInt(-DIRRANDOMNUMBERCEIL, DIRRANDOMNUMBERCEIL) + 1);
     }
 
     /**
@@ -70,10 +86,7 @@ public final class FireAgentFactory implements AgentFactory {
      */
     private static boolean isExtinguished(final Agent agent) {
         // Verify if at current position the Tree Agent can sustain the Fire Agent.
-        return agent.getParameters().getParameter(FUEL, Double.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + agent + " has no fuel parameter"))
-                .getValue() <= 0;
+        return agent.getParameters().getDouble(FUEL_KEY) <= 0;
     }
 
     /**
@@ -82,19 +95,10 @@ public final class FireAgentFactory implements AgentFactory {
      * @param agent current fire agent.
      */
     private void consumeFuel(final Agent agent) {
-        final Double fuel = agent.getParameters()
-                .getParameter(FUEL, Double.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + agent + " has no fuel parameter"))
-                .getValue();
+        final double fuel = agent.getParameters().getDouble(FUEL_KEY);
+        final double cons = agent.getParameters().getDouble(CONS_KEY);
 
-        final Double cons = agent.getParameters()
-                .getParameter("consumption", Double.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + agent + " has no consumption parameter"))
-                .getValue();
-
-        agent.setParameter(FUEL, fuel - cons <= 0.0 ? 0.0 : fuel - cons);
+        agent.getParameters().setDouble(FUEL_KEY, fuel - cons <= 0.0 ? 0.0 : fuel - cons);
     }
 
     private void changeWindDirection(final State state) {
@@ -103,7 +107,7 @@ public final class FireAgentFactory implements AgentFactory {
                 .collect(Collectors.toList())
                 .size();
 
-        if (r.nextDouble(0.0, 0.5) < windChange / nf) {
+        if (RandomService.currentGenerator().nextDouble(0.0, 0.5) < windChange / nf) {
             this.windDirection = getRandomDirection();
             windChange = 0.0;
         } else {
@@ -121,31 +125,12 @@ public final class FireAgentFactory implements AgentFactory {
     private void spreadFire(final State state, final Pos pos, final Agent fireAgent) {
         final Agent treeAgent = state.getAgentAt(pos).get(); // tree agent to be replaced
 
-        final Double flammability = treeAgent.getParameters()
-                .getParameter("flammability", Double.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + treeAgent + " has no flammability parameter"))
-                .getValue();
-
-        final Double newFuel = treeAgent.getParameters()
-                .getParameter(FUEL, Double.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + treeAgent + " has no fuel parameter"))
-                .getValue();
-
-        final Integer spread = fireAgent.getParameters()
-                .getParameter("spread", Integer.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + fireAgent + " has no spread parameter"))
-                .getValue();
-
-        final Double cons = fireAgent.getParameters()
-                .getParameter("consumption", Double.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + fireAgent + " has no consumption parameter"))
-                .getValue();
+        final double flammability = treeAgent.getParameters().getDouble(TreeAgentFactory.FLAMM_KEY);
+        final double newFuel = treeAgent.getParameters().getDouble(TreeAgentFactory.FUEL_KEY);
+        final int spread = fireAgent.getParameters().getInt(SPREAD_KEY);
+        final double cons = fireAgent.getParameters().getDouble(CONS_KEY);
 
-        final Double newCons = flammability == 0.0 ? 0.0 : flammability + (cons * CONSFACTOR);
+        final double newCons = flammability == 0.0 ? 0.0 : flammability + (cons * CONSFACTOR);
 
         /* Starts a new fire */
         final Agent newAgent = getFireAgent(createAgent(), spread, newFuel, newCons);
@@ -166,11 +151,7 @@ public final class FireAgentFactory implements AgentFactory {
     private Set<Pos> getSpreadPositionIfAvailable(final State state, final Pos pos, final Agent agent) {
         final DirectionVector dir = this.windDirection;
 
-        final Integer spread = agent.getParameters()
-                .getParameter("spread", Integer.class)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Agent " + agent + " has no spread parameter"))
-                .getValue();
+        final int spread = agent.getParameters().getInt(SPREAD_KEY);
 
         return IntStream.range(0, state.getDimensions().getFirst())
                 .boxed()
@@ -218,11 +199,11 @@ public final class FireAgentFactory implements AgentFactory {
      * 
      * @return An instance of the Fire Agent.
      */
-    private Agent getFireAgent(final Agent fireAgent, final Integer spread, final Double fuel,
-            final Double cons) {
-        fireAgent.setParameter(FUEL, fuel);
-        fireAgent.setParameter(SPREAD, spread);
-        fireAgent.setParameter(CONS, cons);
+    private Agent getFireAgent(final Agent fireAgent, final int spread, final double fuel,
+            final double cons) {
+        fireAgent.getParameters().setDouble(FUEL_KEY, fuel);
+        fireAgent.getParameters().setInt(SPREAD_KEY, spread);
+        fireAgent.getParameters().setDouble(CONS_KEY, cons);
         return fireAgent;
     }
 
@@ -236,20 +217,7 @@ public final class FireAgentFactory implements AgentFactory {
         final AgentBuilder b = new AgentBuilderImpl();
 
         b
-                .addParameter(new ParameterImpl<>(SPREAD, Integer.class,
-                        new ParameterDomainImpl<>("Range of spread (RoS) (1 - n)",
-                                (Integer i) -> i > 0),
-                        true))
-                .addParameter(new ParameterImpl<>(FUEL, Double.class,
-                        new ParameterDomainImpl<>(
-                                "Capacità di combustibile",
-                                (Double d) -> d >= 0.0),
-                        true))
-                .addParameter(new ParameterImpl<>(CONS, Double.class,
-                        new ParameterDomainImpl<>(
-                                "Combustibile consumato ad ogni tick",
-                                (Double d) -> d >= 0.0),
-                        true))
+                .addParameterSchema(SCHEMA)
                 .addStrategy(this::tickFunction)
                 .build();
 
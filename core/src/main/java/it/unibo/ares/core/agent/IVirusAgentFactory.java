@@ -1,7 +1,6 @@
 package it.unibo.ares.core.agent;
 
 import java.util.Optional;
-import java.util.Random;
 
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.model.VirusModelFactory;
@@ -10,6 +9,7 @@ import it.unibo.ares.core.utils.directionvector.DirectionVector;
 import it.unibo.ares.core.utils.directionvector.DirectionVectorImpl;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.random.RandomService;
 import it.unibo.ares.core.utils.state.State;
 
 /**
@@ -18,14 +18,6 @@ import it.unibo.ares.core.utils.state.State;
 public final class IVirusAgentFactory implements AgentFactory {
 
     private static final long serialVersionUID = 1L;
-    private final Random r;
-
-    /**
-     * Constructor for the IVirusAgentFactory.
-     */
-    public IVirusAgentFactory() {
-        r = new Random();
-    }
 
     /**
      * Updates the state of the agent based on its current state and position.
@@ -44,7 +36,7 @@ public final class IVirusAgentFactory implements AgentFactory {
         final Agent agent = currentState.getAgentAt(agentPosition).get();
 
         // assegno una nuova direzione casuale ad ogni step
-        DirectionVector dir = ComputationUtils.getRandomDirection(r);
+        DirectionVector dir = ComputationUtils.getRandomDirection(RandomService.currentGenerator());
 
         currentState.getAgentAt(agentPosition).get().setParameter("direction", dir);
 
@@ -73,7 +65,7 @@ public final class IVirusAgentFactory implements AgentFactory {
         if (!currentState.isFree(newPos)) {
             // se la nuova posizione è occupata, cambio
             // direzione
-            dir = ComputationUtils.getRandomDirection(r);
+            dir = ComputationUtils.getRandomDirection(RandomService.currentGenerator());
             currentState.getAgentAt(agentPosition).get().setParameter("direction", dir);
             newPos = ComputationUtils.limit(
                     ComputationUtils.move(agentPosition, dir, stepSize), currentState.getDimensions());
@@ -100,7 +92,7 @@ public final class IVirusAgentFactory implements AgentFactory {
     private Optional<Agent> recoveryInfected(final Agent agent) {
         final int recoveryRate = agent.getParameters().getParameter("recoveryRate", Integer.class)
                 .get().getValue();
-        if (r.nextInt(100) < recoveryRate) {
+        if (RandomService.currentGenerator().nextInt(100) < recoveryRate) {
             final int stepSizeP = VirusModelFactory.STEP_SIZEP;
             final int infectionRate = VirusModelFactory.INFECTION_RATE;
             // create a new agent with the parameters of the person agents
@@ -128,7 +120,8 @@ public final class IVirusAgentFactory implements AgentFactory {
                         new ParameterDomainImpl<>("la dimensione del passo (1-10)",
                                 (Integer d) -> d > 0 && d <= 10),
                         true))
-                .addParameter(new ParameterImpl<>("direction", ComputationUtils.getRandomDirection(r), false))
+                .addParameter(new ParameterImpl<>("direction",
+                        ComputationUtils.getRandomDirection(RandomService.currentGenerator()), false))
                 .addParameter(new ParameterImpl<>("recoveryRate", Integer.class,
                         new ParameterDomainImpl<>(
                                 "Probabilità di guarigione a ogni step (0-100)",
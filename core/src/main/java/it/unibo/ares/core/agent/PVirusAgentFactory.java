@@ -1,7 +1,6 @@
 package it.unibo.ares.core.agent;
 
 import java.util.Optional;
-import java.util.Random;
 import java.util.function.BiPredicate;
 
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
@@ -11,6 +10,7 @@ import it.unibo.ares.core.utils.directionvector.DirectionVector;
 import it.unibo.ares.core.utils.directionvector.DirectionVectorImpl;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.random.RandomService;
 import it.unibo.ares.core.utils.state.State;
 
 /**
@@ -19,7 +19,6 @@ import it.unibo.ares.core.utils.state.State;
 public final class PVirusAgentFactory implements AgentFactory {
 
     private static final long serialVersionUID = 1L;
-    private final Random r;
     /*
      * A predicate to check if two agents are of the same type.
      */
@@ -29,13 +28,6 @@ public final class PVirusAgentFactory implements AgentFactory {
         return typeA.equals(typeB);
     };
 
-    /**
-     * Constructor for the PVirusAgentFactory.
-     */
-    public PVirusAgentFactory() {
-        r = new Random();
-    }
-
     /**
      * Updates the state of the agent based on its current state and position.
      * The agent can move in the environment and get infected by other agents.
@@ -55,7 +47,7 @@ public final class PVirusAgentFactory implements AgentFactory {
         final int stepSize = agent.getParameters().getParameter("stepSize", Integer.class)
                 .get().getValue();
         // assegno una nuova direzione casuale ad ogni step
-        DirectionVector dir = ComputationUtils.getRandomDirection(r);
+        DirectionVector dir = ComputationUtils.getRandomDirection(RandomService.currentGenerator());
         currentState.getAgentAt(agentPosition).get().setParameter("direction", dir);
         Pos newPos = ComputationUtils.move(agentPosition, dir, stepSize);
         if (!currentState.isInside(newPos)) {
@@ -81,7 +73,7 @@ public final class PVirusAgentFactory implements AgentFactory {
             }
             // se la nuova posizione è occupata da due agenti dello stesso tipo, cambio
             // direzione
-            dir = ComputationUtils.getRandomDirection(r);
+            dir = ComputationUtils.getRandomDirection(RandomService.currentGenerator());
             currentState.getAgentAt(agentPosition).get().setParameter("direction", dir);
             newPos = ComputationUtils.limit(
                     ComputationUtils.move(agentPosition, dir, stepSize), currentState.getDimensions());
@@ -107,7 +99,7 @@ public final class PVirusAgentFactory implements AgentFactory {
     private Optional<Agent> infectPerson(final Agent agent) {
         final int infectionRate = agent.getParameters().getParameter("infectionRate", Integer.class)
                 .get().getValue();
-        if (r.nextInt(100) < infectionRate) {
+        if (RandomService.currentGenerator().nextInt(100) < infectionRate) {
             // create a new agent with the defaul parameters of the infected agents
             final int stepSizeI = VirusModelFactory.STEP_SIZEI;
             final int recoveryRate = VirusModelFactory.RECOVERY_RATE;
@@ -132,7 +124,8 @@ public final class PVirusAgentFactory implements AgentFactory {
     @Override
     public Agent createAgent() {
         final AgentBuilder b = new AgentBuilderImpl();
-        b.addParameter(new ParameterImpl<>("direction", ComputationUtils.getRandomDirection(r), false));
+        b.addParameter(new ParameterImpl<>("direction",
+                ComputationUtils.getRandomDirection(RandomService.currentGenerator()), false));
         b.addParameter(new ParameterImpl<>("infectionRate", Integer.class,
                 new ParameterDomainImpl<>(
                         "Probabilità di infenzione da contatto (0-100)",
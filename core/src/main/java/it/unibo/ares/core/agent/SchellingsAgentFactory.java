@@ -1,15 +1,18 @@
 package it.unibo.ares.core.agent;
 
-import java.util.Random;
 import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.parameters.ParamKey;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
+import it.unibo.ares.core.utils.parameters.ParameterSchema;
+import it.unibo.ares.core.utils.parameters.ParameterSchemaImpl;
 import it.unibo.ares.core.utils.pos.Pos;
 import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.random.RandomService;
 import it.unibo.ares.core.utils.state.State;
 
 /**
@@ -24,6 +27,11 @@ public final class SchellingsAgentFactory implements AgentFactory {
      * Key to access to the agent ratio.
      */
     public static final String CURRENT_RATIO = "ratio";
+    private static final ParameterSchema SCHEMA = new ParameterSchemaImpl();
+    private static final ParamKey<Double> THRESHOLD_KEY = SCHEMA.declare(getThresholdParameter());
+    private static final ParamKey<Integer> VISIONRADIUS_KEY = SCHEMA.declare(getVisionRadiusParameter());
+    private static final ParamKey<Double> CURRENT_RATIO_KEY = SCHEMA.declare(
+            new ParameterImpl<>(CURRENT_RATIO, Double.class, false));
     private static BiPredicate<Agent, Agent> agentOfSameType = (a, b) -> {
         final String typeA = a.getType();
 
@@ -31,11 +39,6 @@ public final class SchellingsAgentFactory implements AgentFactory {
         return typeA.equals(typeB);
     };
 
-    private static final Random R;
-
-    static {
-        R = new Random();
-    }
 
     private static Set<Agent> getNeighborgs(final State state, final Integer visionRadius, final Pos pos,
             final Agent agent) {
@@ -54,14 +57,8 @@ public final class SchellingsAgentFactory implements AgentFactory {
     }
 
     private static Pair<Boolean, Double> thresholdSatisfied(final State state, final Pos pos, final Agent agent) {
-        final int visionRadius = agent.getParameters().getParameter(
-                VISIONRADIUS, Integer.class)
-                .orElseThrow(() -> new IllegalArgumentException("Agent " + agent + " has no visionRadius parameter"))
-                .getValue();
-        final double threshold = agent.getParameters().getParameter(
-                THRESHOLD, Double.class)
-                .orElseThrow(() -> new IllegalArgumentException("Agent " + agent + " has no threshold parameter"))
-                .getValue();
+        final int visionRadius = agent.getParameters().getInt(VISIONRADIUS_KEY);
+        final double threshold = agent.getParameters().getDouble(THRESHOLD_KEY);
 
         final Set<Agent> neighbors = getNeighborgs(state, visionRadius, pos, agent);
         final double ratio = getRatio(neighbors, agent);
@@ -73,11 +70,11 @@ public final class SchellingsAgentFactory implements AgentFactory {
     }
 
     private static PosImpl getNewRandomPosition(final State state) {
-        PosImpl newPos = new PosImpl(R.nextInt(state.getDimensions().getFirst()),
-                R.nextInt(state.getDimensions().getSecond()));
+        PosImpl newPos = new PosImpl(RandomService.currentGenerator().nextInt(state.getDimensions().getFirst()),
+                RandomService.currentGenerator().nextInt(state.getDimensions().getSecond()));
         while (!state.isFree(newPos)) {
-            newPos = new PosImpl(R.nextInt(state.getDimensions().getFirst()),
-                    R.nextInt(state.getDimensions().getSecond()));
+            newPos = new PosImpl(RandomService.currentGenerator().nextInt(state.getDimensions().getFirst()),
+                    RandomService.currentGenerator().nextInt(state.getDimensions().getSecond()));
         }
         return newPos;
     }
@@ -110,24 +107,49 @@ public final class SchellingsAgentFactory implements AgentFactory {
         return a;
     }
 
+    private static State tickFunction(final State state, final Pos pos) {
+        final Agent agent = state.getAgentAt(pos).get();
+        final Pair<Boolean, Double> ret = thresholdSatisfied(state, pos, agent);
+        agent.getParameters().setDouble(CURRENT_RATIO_KEY, ret.getSecond());
+        if (Boolean.FALSE.equals(ret.getFirst())) {
+            state.moveAgent(pos, getNewRandomPosition(state));
+        }
+        return state;
+    }
+
+    private static ParameterImpl<Double> getThresholdParameter() {
+        return new ParameterImpl<>(THRESHOLD, Double.class, new ParameterDomainImpl<>(
+                "Treshold di tolleranza dell'agente (0.0-1.0)", (Double d) -> d >= 0.0 && d <= 1.0), true);
+    }
+
+    private static ParameterImpl<Integer> getVisionRadiusParameter() {
+        return new ParameterImpl<>(VISIONRADIUS, Integer.class,
+                new ParameterDomainImpl<>("Raggio di visione dell'agente (0 - n)", (Integer i) -> i > 0), true);
+    }
+
+    /**
+     * Creates a columnar store for large populations of Schelling agents of the
+     * given types, the agents behave as the ones of {@link #createAgent()}.
+     *
+     * @param types the types of the agents.
+     * @return the agent store.
+     */
+    public AgentStore createAgentStore(final String... types) {
+        final AgentStore store = new AgentStoreImpl()
+                .addColumn(getThresholdParameter())
+                .addColumn(getVisionRadiusParameter())
+                .addColumn(new ParameterImpl<>(CURRENT_RATIO, Double.class, false));
+        for (final String type : types) {
+            store.addType(type, SchellingsAgentFactory::tickFunction);
+        }
+        return store;
+    }
+
     @Override
     public Agent createAgent() {
         return new AgentBuilderImpl()
-
-                .addParameter(new ParameterImpl<>(THRESHOLD, Double.class, new ParameterDomainImpl<>(
-                        "Treshold di tolleranza dell'agente (0.0-1.0)", (Double d) -> d >= 0.0 && d <= 1.0), true))
-                .addParameter(new ParameterImpl<>(VISIONRADIUS, Integer.class,
-                        new ParameterDomainImpl<>("Raggio di visione dell'agente (0 - n)", (Integer i) -> i > 0), true))
-                .addParameter(new ParameterImpl<>(CURRENT_RATIO, Double.class, false))
-                .addStrategy((state, pos) -> {
-                    final Agent agent = state.getAgentAt(pos).get();
-                    final Pair<Boolean, Double> ret = thresholdSatisfied(state, pos, agent);
-                    agent.getParameters().setParameter(CURRENT_RATIO, ret.getSecond());
-                    if (Boolean.FALSE.equals(ret.getFirst())) {
-                        state.moveAgent(pos, getNewRandomPosition(state));
-                    }
-                    return state;
-                })
+                .addParameterSchema(SCHEMA)
+                .addStrategy(SchellingsAgentFactory::tickFunction)
                 .build();
     }
 }
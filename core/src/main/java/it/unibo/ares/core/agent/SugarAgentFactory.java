@@ -1,11 +1,14 @@
 package it.unibo.ares.core.agent;
 
-import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
-import it.unibo.ares.core.utils.parameters.ParameterImpl;
+import it.unibo.ares.core.utils.layer.IntLayer;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.State;
 
 /**
  * Represents a factory for creating Sugar agents.
- * 
+ * The sugar agents only mark the cells that produce sugar, the sugar field
+ * itself (amount, capacity and growth rate) lives in the int raster layers of
+ * the state and regrows with a single pass over them.
  */
 public final class SugarAgentFactory implements AgentFactory {
 
@@ -15,55 +18,98 @@ public final class SugarAgentFactory implements AgentFactory {
      * SugarAgents.
      */
     public static final String SUGAR = "S";
+    /**
+     * Name of the layer containing the current sugar amount of each cell.
+     */
+    public static final String SUGAR_AMOUNT = "sugarAmount";
+    /**
+     * Name of the layer containing the maximum sugar amount of each cell.
+     */
+    public static final String MAX_SUGAR = "maxSugar";
+    /**
+     * Name of the layer containing the sugar growth rate of each cell.
+     */
+    public static final String GROWTH_RATE = "growthRate";
 
-    private Agent createSugarAgent() {
-        final AgentBuilder builder = new AgentBuilderImpl();
-        builder.addParameter(new ParameterImpl<>(
-                "maxSugar", Integer.class,
-                new ParameterDomainImpl<>("zucchero massimo Producer", (Integer i) -> i > 0),
-                true));
+    private static IntLayer getLayer(final State state, final String name) {
+        return state.getIntLayer(name)
+                .orElseThrow(() -> new IllegalStateException("State has no " + name + " layer"));
+    }
 
-        builder.addParameter(new ParameterImpl<>(
-                "sugarAmount", Integer.class,
-                new ParameterDomainImpl<>("quanto zucchero iniziale Prioducer", (Integer i) -> i >= 0),
-                true));
-        builder.addParameter(new ParameterImpl<>(
-                "growthRate", Integer.class,
-                new ParameterDomainImpl<>("velocita crescita zuccero producer", (Integer i) -> i > 0),
-                true));
+    /**
+     * Grows the sugar of every cell, up to its maximum.
+     *
+     * @param state the state whose sugar layers have to be updated
+     */
+    private static void growSugar(final State state) {
+        final int[] amount = getLayer(state, SUGAR_AMOUNT).getValues();
+        final int[] max = getLayer(state, MAX_SUGAR).getValues();
+        final int[] growth = getLayer(state, GROWTH_RATE).getValues();
+        for (int i = 0; i < amount.length; i++) {
+            amount[i] = Math.min(amount[i] + growth[i], max[i]);
+        }
+    }
 
-        builder.addStrategy((state, pos) -> {
-            final int sugarAmount = state.getAgentAt(pos)
-                    .orElseThrow(() -> new IllegalStateException("No agents at that pos"))
-                    .getParameters()
-                    .getParameter("sugarAmount", Integer.class)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Agent has no sugarAmount parameter"))
-                    .getValue();
+    /**
+     * Adds the sugar layers and their regrowth rule to the state, if not already
+     * present.
+     *
+     * @param state the state
+     */
+    public static void addSugarLayers(final State state) {
+        if (state.getIntLayer(SUGAR_AMOUNT).isEmpty()) {
+            state.addIntLayer(SUGAR_AMOUNT);
+            state.addIntLayer(MAX_SUGAR);
+            state.addIntLayer(GROWTH_RATE);
+            state.addLayerRule(SugarAgentFactory::growSugar);
+        }
+    }
 
-            final int growthRate = state.getAgentAt(pos)
-                    .orElseThrow(() -> new IllegalStateException("No agents at that pos"))
-                    .getParameters()
-                    .getParameter("growthRate", Integer.class)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Agent has no growthRate parameter"))
-                    .getValue();
+    /**
+     * Sets the sugar field of a cell, adding the sugar layers if needed.
+     *
+     * @param state      the state
+     * @param pos        the position of the cell
+     * @param amount     the current sugar amount
+     * @param maxSugar   the maximum sugar amount
+     * @param growthRate the sugar growth rate per tick
+     */
+    public static void setSugar(final State state, final Pos pos, final int amount, final int maxSugar,
+            final int growthRate) {
+        addSugarLayers(state);
+        getLayer(state, SUGAR_AMOUNT).set(pos, amount);
+        getLayer(state, MAX_SUGAR).set(pos, maxSugar);
+        getLayer(state, GROWTH_RATE).set(pos, growthRate);
+    }
 
-            final int maxSuger = state.getAgentAt(pos)
-                    .orElseThrow(() -> new IllegalStateException("No agents at that pos"))
-                    .getParameters()
-                    .getParameter("maxSugar", Integer.class)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Agent has no growthRate parameter"))
-                    .getValue();
+    /**
+     * Gets the sugar amount of a cell.
+     *
+     * @param state the state
+     * @param pos   the position of the cell
+     * @return the sugar amount of the cell
+     * @throws IllegalStateException if the state has no sugar layers
+     */
+    public static int getSugarAmount(final State state, final Pos pos) {
+        return getLayer(state, SUGAR_AMOUNT).get(pos);
+    }
 
-            // Grow sugar
-            state.getAgentAt(pos)
-                    .ifPresent(agent -> agent.getParameters().setParameter("sugarAmount",
-                            Math.min(sugarAmount + growthRate, maxSuger)));
+    /**
+     * Sets the sugar amount of a cell.
+     *
+     * @param state  the state
+     * @param pos    the position of the cell
+     * @param amount the new sugar amount
+     * @throws IllegalStateException if the state has no sugar layers
+     */
+    public static void setSugarAmount(final State state, final Pos pos, final int amount) {
+        getLayer(state, SUGAR_AMOUNT).set(pos, amount);
+    }
 
-            return state;
-        });
+    private Agent createSugarAgent() {
+        final AgentBuilder builder = new AgentBuilderImpl();
+        // Regrowth is done by the layer rule, the agent has nothing to do on its own
+        builder.addStrategy((state, pos) -> state);
 
         final Agent agent = builder.build();
         agent.setType(SUGAR);
@@ -72,6 +118,6 @@ public final class SugarAgentFactory implements AgentFactory {
 
     @Override
     public Agent createAgent() {
-        return createSugarAgent(); // Initialize with 0 sugar and growth rate, they will be set later
+        return createSugarAgent();
     }
 }
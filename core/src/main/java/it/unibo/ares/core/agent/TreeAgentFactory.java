@@ -1,7 +1,10 @@
 package it.unibo.ares.core.agent;
 
+import it.unibo.ares.core.utils.parameters.ParamKey;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
+import it.unibo.ares.core.utils.parameters.ParameterSchema;
+import it.unibo.ares.core.utils.parameters.ParameterSchemaImpl;
 
 /**
  * A factory class for creating Tree agents.
@@ -11,6 +14,21 @@ public class TreeAgentFactory implements AgentFactory {
         private static final long serialVersionUID = 1L;
         private static final String FUEL = "fuel";
         private static final String FLAMM = "flammability";
+        private static final ParameterSchema SCHEMA = new ParameterSchemaImpl();
+        /**
+         * Key of the fuel of the Tree agents.
+         */
+        static final ParamKey<Double> FUEL_KEY = SCHEMA.declare(new ParameterImpl<>(FUEL, Double.class,
+                        new ParameterDomainImpl<>("Capacità di combustibile",
+                                        (Double d) -> d >= 0.0),
+                        true));
+        /**
+         * Key of the flammability of the Tree agents.
+         */
+        static final ParamKey<Double> FLAMM_KEY = SCHEMA.declare(new ParameterImpl<>(FLAMM, Double.class,
+                        new ParameterDomainImpl<>("Velocità di combustione (0.0-1.0)",
+                                        (Double d) -> d >= 0.0 && d <= 1.0),
+                        true));
 
         /**
          * Verify if a Tree agent can be burnt.
@@ -19,13 +37,7 @@ public class TreeAgentFactory implements AgentFactory {
          * @return True if flammable, false either way.
          */
         public static Boolean isFlammable(final Agent a) {
-                final Double flammable = a.getParameters()
-                                .getParameter(FLAMM, Double.class)
-                                .orElseThrow(() -> new IllegalArgumentException(
-                                                "Agent " + a + " has no flammable parameter"))
-                                .getValue();
-
-                return flammable > 0;
+                return a.getParameters().getDouble(FLAMM_KEY) > 0;
         }
 
         /**
@@ -35,21 +47,10 @@ public class TreeAgentFactory implements AgentFactory {
          */
         @Override
         public Agent createAgent() {
-                final AgentBuilder b = new AgentBuilderImpl();
-
-                b
-                                .addParameter(new ParameterImpl<>(FUEL, Double.class,
-                                                new ParameterDomainImpl<>("Capacità di combustibile",
-                                                                (Double d) -> d >= 0.0),
-                                                true))
-                                .addParameter(new ParameterImpl<>(FLAMM, Double.class,
-                                                new ParameterDomainImpl<>("Velocità di combustione (0.0-1.0)",
-                                                                (Double d) -> d >= 0.0 && d <= 1.0),
-                                                true))
+                final Agent a = new AgentBuilderImpl()
+                                .addParameterSchema(SCHEMA)
                                 .addStrategy((state, pos) -> state)
                                 .build();
-
-                final Agent a = b.build();
                 a.setType("T");
                 return a;
         }
@@ -1,6 +1,10 @@
 package it.unibo.ares.core.api;
 
 import java.util.List;
+import java.util.Map;
+
+import it.unibo.ares.core.utils.metrics.Histogram;
+import it.unibo.ares.core.utils.pos.Viewport;
 
 /**
  * This interface provides methods to control the simulation.
@@ -59,4 +63,64 @@ public interface SimulationControlApi {
      */
     String saveSimulation(String id);
 
+    /**
+     * Checkpoints the simulation without stopping it: its state is captured
+     * between two ticks and written to a file in the background.
+     *
+     * @param id the id of the simulation
+     * @return the path of the checkpoint, returned before it is written
+     */
+    String checkpointSimulation(String id);
+
+    /**
+     * Returns the kept checkpoints of the simulation, the periodic ones
+     * included.
+     *
+     * @param id the id of the simulation
+     * @return the paths of the checkpoints, from the oldest
+     */
+    List<String> getCheckpoints(String id);
+
+    /**
+     * Folds the last checkpoint of the simulation, and the deltas it is made
+     * of, into a new full checkpoint, in the background.
+     *
+     * @param id the id of the simulation
+     * @return the path of the new checkpoint, returned before it is written
+     */
+    String compactCheckpoints(String id);
+
+    /**
+     * Restricts the output of a simulation to a viewport, so that a view of a
+     * large grid receives only the tiles it shows: the cells outside the
+     * viewport are left out and each block of cells is summarised by the
+     * type of most of its agents.
+     *
+     * @param id       the id of the simulation
+     * @param viewport the viewport, null to output the whole grid again
+     */
+    void setViewport(String id, Viewport viewport);
+
+    /**
+     * Turns the profiling of the ticks of a simulation on or off.
+     *
+     * @param id      the id of the simulation
+     * @param enabled true to profile the next ticks, false to stop
+     */
+    void setProfiling(String id, boolean enabled);
+
+    /**
+     * Returns the histograms of the profiled ticks of a simulation: the
+     * duration of each phase of the ticks ("phase.tick", "phase.copy",
+     * "phase.agents", "phase.layers", "phase.exit_check", "phase.output",
+     * "phase.statistics") and the time spent stepping each type of agent
+     * ("agents.&lt;type&gt;") in nanoseconds, and the bytes allocated per tick
+     * ("allocation") where the JVM measures them.
+     *
+     * @param id the id of the simulation
+     * @return the histograms, by name, empty if the simulation is not being
+     *         profiled
+     */
+    Map<String, Histogram> getTickProfile(String id);
+
 }
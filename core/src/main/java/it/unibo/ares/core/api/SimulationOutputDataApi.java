@@ -1,9 +1,11 @@
 package it.unibo.ares.core.api;
 
 import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.Viewport;
 import it.unibo.ares.core.utils.statistics.Statistics;
 
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * API for the output of the simulation.
@@ -52,4 +54,14 @@ public interface SimulationOutputDataApi {
      */
     Statistics getStatistics();
 
+    /**
+     * Gets the viewport the data is sampled in: when present, the data holds
+     * the type of each non empty tile of the viewport, keyed by the position
+     * of the tile in it, instead of the type of each agent of the grid.
+     *
+     * @return the viewport of the data, empty if the data covers the whole
+     *         grid
+     */
+    Optional<Viewport> getViewport();
+
 }
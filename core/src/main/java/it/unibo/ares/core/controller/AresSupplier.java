@@ -1,16 +1,30 @@
 package it.unibo.ares.core.controller;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Flow.Subscriber;
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 
 import it.unibo.ares.core.api.InitializationApi;
 import it.unibo.ares.core.api.SimulationControlApi;
+import it.unibo.ares.core.model.Model;
 import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.configservice.ConfigService;
+import it.unibo.ares.core.utils.configservice.ConfigServiceImpl;
+import it.unibo.ares.core.utils.metrics.Histogram;
+import it.unibo.ares.core.utils.pos.Viewport;
 import it.unibo.ares.core.utils.parameters.Parameters;
+import it.unibo.ares.core.utils.random.RandomService;
+import it.unibo.ares.core.utils.statistics.EnsembleStatistics;
+import it.unibo.ares.core.utils.statistics.Statistics;
 
 /**
  * This class is used as an entry point for the simulation system, it is used to
@@ -39,6 +53,107 @@ public final class AresSupplier implements InitializationApi, SimulationControlA
         return initializationId;
     }
 
+    /**
+     * Runs the simulation with the given initialization id to its end, or
+     * for at most the given number of ticks, on the calling thread and as
+     * fast as possible. The simulation is not handed to the controller, so it
+     * is neither throttled by the tick rate nor listed among the running ones;
+     * several of them may run concurrently on different threads.
+     *
+     * @param initializationId The id of the initialization to run.
+     * @param maxTicks         The maximum number of ticks to perform.
+     * @param onTick           Receives the number of each performed tick and
+     *                         the statistics of the model after it.
+     * @return The number of performed ticks and whether the model reached its
+     *         end.
+     */
+    public Pair<Integer, Boolean> runHeadless(final String initializationId, final int maxTicks,
+            final BiConsumer<Integer, Statistics> onTick) {
+        final Simulation simulation = initializer.startSimulation(initializationId).getSecond();
+        boolean over = false;
+        int ticks = 0;
+        while (!over && ticks < maxTicks) {
+            over = simulation.step();
+            ticks++;
+            onTick.accept(ticks, simulation.getModel().getStatistics(simulation.getState()));
+        }
+        return new Pair<>(ticks, over);
+    }
+
+    /**
+     * Runs the simulation with the given initialization id to its end, or
+     * for at most the given number of ticks, on the calling thread and as
+     * fast as possible, like {@link #runHeadless}, handing out its output
+     * every given number of ticks. The output of the last tick is always
+     * handed out, so that the final state is never missed; the output of the
+     * skipped ticks is never computed.
+     *
+     * @param initializationId The id of the initialization to run.
+     * @param maxTicks         The maximum number of ticks to perform.
+     * @param every            The output is handed out every this many ticks.
+     * @param onFrame          Receives the number of each sampled tick and the
+     *                         output of the simulation after it.
+     * @return The number of performed ticks and whether the model reached its
+     *         end.
+     */
+    public Pair<Integer, Boolean> streamHeadless(final String initializationId, final int maxTicks,
+            final int every, final BiConsumer<Integer, SimulationOutputData> onFrame) {
+        if (every < 1) {
+            throw new IllegalArgumentException("The sampling interval must be positive");
+        }
+        final Simulation simulation = initializer.startSimulation(initializationId).getSecond();
+        boolean over = false;
+        int ticks = 0;
+        while (!over && ticks < maxTicks) {
+            over = simulation.step();
+            ticks++;
+            if (ticks % every == 0 || over || ticks == maxTicks) {
+                onFrame.accept(ticks, simulation.getOutputData(initializationId));
+            }
+        }
+        return new Pair<>(ticks, over);
+    }
+
+    /**
+     * Runs independent replicates of the initialization with the given id in
+     * parallel, each to its end or for at most the given number of ticks,
+     * aggregating their statistics tick by tick as they are produced, so that
+     * the output of the single replicates is never retained.
+     * The first replicate uses the seed of the initialization, so it matches
+     * a single run of it, the others seeds derived from it.
+     *
+     * @param initializationId The id of the initialization to replicate, with
+     *                         all its parameters set; it is consumed.
+     * @param replicates       The number of replicates.
+     * @param maxTicks         The maximum number of ticks of each replicate.
+     * @return The per-tick statistics of the ensemble.
+     */
+    public EnsembleStatistics runEnsemble(final String initializationId, final int replicates, final int maxTicks) {
+        if (replicates < 1 || maxTicks < 1) {
+            throw new IllegalArgumentException("Replicates and ticks must be positive");
+        }
+        final long seed = initializer.getInitializedModelParameters(initializationId)
+                .getParameter(Model.SEEDKEY, Long.class)
+                .orElseThrow(() -> new IllegalArgumentException("The model has no seed"))
+                .getValue();
+        final long[] seeds = new long[replicates];
+        final RandomGenerator derived = new RandomService(seed).generator();
+        seeds[0] = seed;
+        for (int r = 1; r < replicates; r++) {
+            seeds[r] = derived.nextLong();
+        }
+        final LongFunction<Simulation> replicator = initializer.replicator(initializationId);
+        return IntStream.range(0, replicates).parallel().collect(EnsembleStatistics::new, (ensemble, r) -> {
+            final Simulation simulation = replicator.apply(seeds[r]);
+            boolean over = false;
+            for (int tick = 1; !over && tick <= maxTicks; tick++) {
+                over = simulation.step();
+                ensemble.add(tick, simulation.getModel().getStatistics(simulation.getState()));
+            }
+            ensemble.completeReplicate();
+        }, EnsembleStatistics::merge);
+    }
+
     /**
      * Returns the singleton instance of the calculator supplier.
      *
@@ -64,6 +179,14 @@ public final class AresSupplier implements InitializationApi, SimulationControlA
         this.initializer = i;
         final Ticker ticker = new TickerImpl(controller::makeModelsTick, 0, TICKRATE);
         ticker.start();
+        final ConfigService config = ConfigServiceImpl.getInstance();
+        if (config.isMetricsEnabled()) {
+            try {
+                new MetricsEndpoint(controller::getMetrics).start(config.getMetricsPort());
+            } catch (IOException e) {
+                System.err.println(e);
+            }
+        }
     }
 
     @Override
@@ -154,8 +277,38 @@ public final class AresSupplier implements InitializationApi, SimulationControlA
         return controller.saveSimulation(id);
     }
 
+    @Override
+    public String checkpointSimulation(final String id) {
+        return controller.checkpointSimulation(id);
+    }
+
+    @Override
+    public List<String> getCheckpoints(final String id) {
+        return controller.getCheckpoints(id);
+    }
+
+    @Override
+    public String compactCheckpoints(final String id) {
+        return controller.compactCheckpoints(id);
+    }
+
+    @Override
+    public void setViewport(final String id, final Viewport viewport) {
+        controller.setViewport(id, viewport);
+    }
+
+    @Override
+    public void setProfiling(final String id, final boolean enabled) {
+        controller.setProfiling(id, enabled);
+    }
+
+    @Override
+    public Map<String, Histogram> getTickProfile(final String id) {
+        return controller.getTickProfile(id);
+    }
+
     /**
-     * Starts a simulation from a file.
+     * Starts a simulation from a file, either saved or checkpointed.
      *
      * @param filePath   The path of the file containing the simulation data.
      * @param subscriber The subscriber to receive the simulation output data.
@@ -163,8 +316,7 @@ public final class AresSupplier implements InitializationApi, SimulationControlA
      */
     public String startSimulationFromFile(final String filePath, final Subscriber<SimulationOutputData> subscriber) {
         final String simulationId = UUID.randomUUID().toString();
-        final SimulationManager manager = new SimulationManagerImpl();
-        final Simulation loadedSim = manager.load(filePath);
+        final Simulation loadedSim = controller.loadSimulation(filePath);
         controller.addSimulation(simulationId, loadedSim);
         controller.startSimulation(simulationId);
         controller.subscribe(simulationId, subscriber);
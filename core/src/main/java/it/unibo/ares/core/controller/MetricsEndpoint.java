@@ -0,0 +1,181 @@
+package it.unibo.ares.core.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import it.unibo.ares.core.utils.metrics.Histogram;
+
+/**
+ * Serves the live metrics of the simulations in the Prometheus text format
+ * on {@code http://localhost:<port>/metrics}, for a scraper running on the
+ * same machine. The metrics are rendered on demand, so an idle endpoint costs
+ * nothing to the simulations.
+ */
+final class MetricsEndpoint {
+    private static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+    private static final double PERCENT = 100;
+    private static final int OK = 200;
+    private static final int METHOD_NOT_ALLOWED = 405;
+
+    private final Supplier<Map<String, SimulationMetrics>> metrics;
+    private HttpServer server;
+
+    /**
+     * Creates an endpoint.
+     *
+     * @param metrics supplies the metrics of the simulations, by id
+     */
+    MetricsEndpoint(final Supplier<Map<String, SimulationMetrics>> metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Starts serving the metrics on the loopback interface.
+     *
+     * @param port the port, 0 for any free one
+     * @return the port the endpoint listens on
+     * @throws IOException if the port cannot be bound
+     */
+    int start(final int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("The endpoint is already started");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "ares-metrics");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.createContext(PATH, this::handle);
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving the metrics.
+     */
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(METHOD_NOT_ALLOWED, -1);
+                return;
+            }
+            final byte[] body = render(metrics.get(),
+                    ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed())
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(OK, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Renders the metrics in the Prometheus text format. The heap of each
+     * simulation is estimated as its share of the agents of all the
+     * simulations times the used heap.
+     *
+     * @param metrics  the metrics of the simulations, by id
+     * @param heapUsed the bytes of heap in use
+     * @return the metrics as text
+     */
+    static String render(final Map<String, SimulationMetrics> metrics, final long heapUsed) {
+        final Map<String, SimulationMetrics> sorted = new TreeMap<>(metrics);
+        final StringBuilder out = new StringBuilder();
+
+        family(out, "ares_simulation_ticks_total", "counter", "Ticks performed by the simulation.");
+        sorted.forEach((id, m) -> sample(out, "ares_simulation_ticks_total", label(id), m.getTicks()));
+
+        family(out, "ares_simulation_ticks_per_second", "gauge", "Recent tick rate of the simulation.");
+        sorted.forEach((id, m) -> sample(out, "ares_simulation_ticks_per_second", label(id),
+                m.getTicksPerSecond()));
+
+        family(out, "ares_simulation_tick_latency_seconds", "summary",
+                "Time from the dispatch of a tick to its output.");
+        sorted.forEach((id, m) -> {
+            final Histogram latency = m.getLatency();
+            for (final double q : QUANTILES) {
+                sample(out, "ares_simulation_tick_latency_seconds",
+                        label(id) + ",quantile=\"" + q + "\"",
+                        latency.getValueAtPercentile(q * PERCENT) / NANOS_PER_SECOND);
+            }
+            sample(out, "ares_simulation_tick_latency_seconds_sum", label(id),
+                    latency.getMean() * latency.getCount() / NANOS_PER_SECOND);
+            sample(out, "ares_simulation_tick_latency_seconds_count", label(id), latency.getCount());
+        });
+
+        family(out, "ares_subscriber_queue_depth", "gauge",
+                "Outputs of the simulation being computed or delivered to its subscriber.");
+        sorted.forEach((id, m) -> sample(out, "ares_subscriber_queue_depth", label(id), m.getQueueDepth()));
+
+        family(out, "ares_subscriber_published_frames_total", "counter",
+                "Outputs of the simulation delivered to its subscriber.");
+        sorted.forEach((id, m) -> sample(out, "ares_subscriber_published_frames_total", label(id),
+                m.getPublished()));
+
+        family(out, "ares_subscriber_dropped_frames_total", "counter",
+                "Outputs of the simulation dropped for lack of a subscriber.");
+        sorted.forEach((id, m) -> sample(out, "ares_subscriber_dropped_frames_total", label(id), m.getDropped()));
+
+        family(out, "ares_simulation_agents", "gauge", "Agents of the simulation by type, counted between two of its ticks.");
+        final Map<String, Long> agents = new TreeMap<>();
+        sorted.forEach((id, m) -> {
+            final Map<String, Long> byType = new TreeMap<>(m.getAgents());
+            byType.forEach((type, count) -> sample(out, "ares_simulation_agents",
+                    label(id) + ",type=\"" + escape(type) + "\"", count));
+            agents.put(id, byType.values().stream().mapToLong(Long::longValue).sum());
+        });
+
+        family(out, "ares_simulation_heap_bytes_estimate", "gauge",
+                "Used heap apportioned to the simulation by its share of all the agents.");
+        final long total = agents.values().stream().mapToLong(Long::longValue).sum();
+        agents.forEach((id, count) -> sample(out, "ares_simulation_heap_bytes_estimate", label(id),
+                total == 0 ? 0 : heapUsed * count / total));
+        return out.toString();
+    }
+
+    private static void family(final StringBuilder out, final String name, final String type, final String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(final StringBuilder out, final String name, final String labels,
+            final double value) {
+        out.append(name).append('{').append(labels).append("} ")
+                .append(value == Math.rint(value) && !Double.isInfinite(value)
+                        ? Long.toString((long) value)
+                        : String.format(Locale.ROOT, "%.9g", value))
+                .append('\n');
+    }
+
+    private static String label(final String id) {
+        return "simulation=\"" + escape(id) + "\"";
+    }
+
+    private static String escape(final String value) {
+        return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
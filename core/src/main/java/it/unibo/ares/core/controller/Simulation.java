@@ -1,10 +1,14 @@
 package it.unibo.ares.core.controller;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.io.Serializable;
 
 import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.utils.metrics.Histogram;
+import it.unibo.ares.core.utils.pos.Viewport;
 import it.unibo.ares.core.utils.state.State;
 
 /**
@@ -38,6 +42,11 @@ interface Simulation extends Serializable {
      */
     boolean isRunning();
 
+    /**
+     * @return true if the simulation reached its end, false otherwise.
+     */
+    boolean isOver();
+
     /**
      * Ticks the simulation.
      * 
@@ -56,6 +65,64 @@ interface Simulation extends Serializable {
      */
     Optional<SimulationOutputData> tickSync(String simulationSessionId);
 
+    /**
+     * Ticks the simulation once on the calling thread, regardless of its
+     * tick rate and of whether it is running, without producing any output
+     * data. Meant for headless runs going as fast as possible.
+     *
+     * @return true if the simulation is over, false otherwise.
+     */
+    boolean step();
+
+    /**
+     * Runs an action while the simulation is not ticking, so that it sees a
+     * state left by a whole tick; the ticks wait for it to end.
+     *
+     * @param <T>    the type of the result
+     * @param action the action
+     * @return the result of the action
+     */
+    <T> T betweenTicks(Supplier<T> action);
+
+    /**
+     * Maps the current state of the simulation to its output data, without
+     * ticking it.
+     *
+     * @param simulationSessionId The user simulation session id to put in the
+     *                            output.
+     * @return The output of the simulation in its current state.
+     */
+    SimulationOutputData getOutputData(String simulationSessionId);
+
+    /**
+     * Restricts the output of the next ticks to a viewport, sampled in tiles.
+     *
+     * @param viewport the viewport, null to output the whole grid
+     */
+    void setViewport(Viewport viewport);
+
+    /**
+     * Turns the profiling of the ticks on or off; turning it on again starts
+     * from empty histograms.
+     *
+     * @param enabled true to profile the next ticks, false to stop
+     */
+    void setProfiling(boolean enabled);
+
+    /**
+     * @return the histograms of the profiled ticks, by name, empty if the
+     *         simulation is not being profiled
+     */
+    Map<String, Histogram> getTickProfile();
+
+    /**
+     * Counts the agents of each type between two ticks, only when asked, so
+     * that the ticks pay nothing for it.
+     *
+     * @return the number of agents of each type
+     */
+    Map<String, Long> getAgentCounts();
+
     /**
      * get the tick rate.
      * 
@@ -21,11 +21,14 @@ final class SimulationDataProvider<T> {
      * Submits the data inside the identifier to the subscriber with the same ID.
      * 
      * @param identifier
+     * @return true if there was a subscriber with the ID, false otherwise
      */
-    public void submit(final Identifier<T> identifier) {
+    public boolean submit(final Identifier<T> identifier) {
         final Subscriber<T> subscriber = subscribers.get(identifier.getId());
         if (subscriber != null) {
             subscriber.onNext(identifier.getData());
+            return true;
         }
+        return false;
     }
 }
@@ -0,0 +1,128 @@
+package it.unibo.ares.core.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder events of the simulations, so that a recording
+ * shows the activity of the simulations next to the GC and CPU samples.
+ * They cost next to nothing unless a recording enables them, e.g.
+ * {@code -XX:StartFlightRecording:settings=profile} or
+ * {@code jcmd <pid> JFR.start}; they are all under the "ARES" category.
+ */
+final class SimulationEvents {
+    private static final String CATEGORY = "ARES";
+
+    private SimulationEvents() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * A simulation is added, started, paused or removed.
+     */
+    @Name("it.unibo.ares.SimulationLifecycle")
+    @Label("Simulation Lifecycle")
+    @Category({ CATEGORY, "Simulation" })
+    @StackTrace(false)
+    static final class Lifecycle extends Event {
+        @Label("Simulation Id")
+        String simulationId;
+
+        @Label("Action")
+        @Description("add, start, pause or remove")
+        String action;
+
+        Lifecycle(final String simulationId, final String action) {
+            this.simulationId = simulationId;
+            this.action = action;
+        }
+    }
+
+    /**
+     * A tick of a simulation, from the copy of the state to the exit check.
+     */
+    @Name("it.unibo.ares.Tick")
+    @Label("Simulation Tick")
+    @Category({ CATEGORY, "Simulation" })
+    @StackTrace(false)
+    static final class Tick extends Event {
+        @Label("Simulation Id")
+        @Description("Empty for headless steps")
+        String simulationId;
+
+        @Label("Agents")
+        int agents;
+
+        @Label("Changed Cells")
+        @Description("Cells whose agent appeared, left or was replaced in the tick")
+        int changedCells;
+
+        @Label("Over")
+        boolean over;
+    }
+
+    /**
+     * The output of a tick handed to the subscriber of its simulation.
+     */
+    @Name("it.unibo.ares.OutputPublish")
+    @Label("Output Publish")
+    @Category({ CATEGORY, "Output" })
+    @StackTrace(false)
+    static final class OutputPublish extends Event {
+        @Label("Simulation Id")
+        String simulationId;
+
+        @Label("Agents")
+        int agents;
+
+        @Label("Subscribed")
+        @Description("Whether the simulation had a subscriber to receive the output")
+        boolean subscribed;
+    }
+
+    /**
+     * How late an output reached its subscriber, measured from the tick of
+     * the controller that produced it.
+     */
+    @Name("it.unibo.ares.SubscriberLag")
+    @Label("Subscriber Lag")
+    @Category({ CATEGORY, "Output" })
+    @StackTrace(false)
+    static final class SubscriberLag extends Event {
+        @Label("Simulation Id")
+        String simulationId;
+
+        @Label("Lag")
+        @Timespan(Timespan.NANOSECONDS)
+        long lag;
+    }
+
+    /**
+     * A simulation saved to or loaded from a file.
+     */
+    @Name("it.unibo.ares.SimulationSnapshot")
+    @Label("Simulation Save/Load")
+    @Category({ CATEGORY, "Persistence" })
+    @StackTrace(false)
+    static final class Snapshot extends Event {
+        @Label("Operation")
+        @Description("save, load, checkpoint or compact")
+        String operation;
+
+        @Label("Path")
+        String path;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+}
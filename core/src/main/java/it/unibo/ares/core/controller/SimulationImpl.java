@@ -1,12 +1,21 @@
 package it.unibo.ares.core.controller;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import it.unibo.ares.core.agent.Agent;
 import it.unibo.ares.core.model.Model;
 import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.metrics.Histogram;
+import it.unibo.ares.core.utils.metrics.TickProfiler;
+import it.unibo.ares.core.utils.metrics.TickProfiler.Phase;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.Viewport;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.statistics.Statistics;
 
@@ -25,6 +34,10 @@ final class SimulationImpl implements Simulation {
     private boolean isOver;
     // IN ms
     private Integer tickRate;
+    // null while not profiling, so that unprofiled ticks pay nothing
+    private transient volatile TickProfiler profiler;
+    // null while the whole grid is shown
+    private transient volatile Viewport viewport;
 
     /**
      * Creates a new simulation with the given state and model.
@@ -34,11 +47,24 @@ final class SimulationImpl implements Simulation {
      * @param tickRate the rate of ticking in ms
      */
     SimulationImpl(final State state, final Model model, final Integer tickRate) {
+        this(state, model, tickRate, false);
+    }
+
+    /**
+     * Creates a simulation with the given state and model, possibly already
+     * over, as when restoring a saved one.
+     *
+     * @param state    The state of the simulation.
+     * @param model    The model of the simulation.
+     * @param tickRate the rate of ticking in ms
+     * @param over     whether the simulation already reached its end
+     */
+    SimulationImpl(final State state, final Model model, final Integer tickRate, final boolean over) {
         this.state = state;
         this.model = model;
         calculating = false;
         this.tickRate = tickRate;
-        isOver = false;
+        isOver = over;
     }
 
     @Override
@@ -66,25 +92,108 @@ final class SimulationImpl implements Simulation {
         return this.running;
     }
 
+    @Override
+    public boolean isOver() {
+        return this.isOver;
+    }
+
     private SimulationOutputData mapStateToSimulationData(final State state, final String simulationSessionId,
             final boolean finished) {
-        return new SimulationOutputData(state.getAgents().stream()
+        final TickProfiler p = this.profiler;
+        if (p != null) {
+            return mapStateToSimulationDataProfiled(state, simulationSessionId, finished, p);
+        }
+        final Optional<Viewport> shown = shownViewport(state);
+        return new SimulationOutputData(mapAgents(state, shown),
+                simulationSessionId, state.getDimensions().getFirst(), state.getDimensions().getSecond(),
+                finished, getStatistics(state), shown);
+    }
+
+    /*
+     * The statistics are usually computed lazily by whoever reads the output,
+     * so they are computed here once to be timed.
+     */
+    private SimulationOutputData mapStateToSimulationDataProfiled(final State state,
+            final String simulationSessionId, final boolean finished, final TickProfiler p) {
+        final long start = System.nanoTime();
+        final Optional<Viewport> shown = shownViewport(state);
+        final HashMap<Pos, String> agents = mapAgents(state, shown);
+        final long mapped = System.nanoTime();
+        final List<Pair<String, String>> values = getStatistics(state).getStatistics();
+        p.record(Phase.OUTPUT, mapped - start);
+        p.record(Phase.STATISTICS, System.nanoTime() - mapped);
+        return new SimulationOutputData(agents,
+                simulationSessionId, state.getDimensions().getFirst(), state.getDimensions().getSecond(),
+                finished, () -> values, shown);
+    }
+
+    private Optional<Viewport> shownViewport(final State state) {
+        return Optional.ofNullable(this.viewport)
+                .map(v -> v.clamp(state.getDimensions().getFirst(), state.getDimensions().getSecond()));
+    }
+
+    private HashMap<Pos, String> mapAgents(final State state, final Optional<Viewport> shown) {
+        if (shown.isPresent()) {
+            return ViewportSampler.sample(shown.get(), state.getAgents());
+        }
+        return state.getAgents().stream()
                 .collect(Collectors.toMap(
                         Pair::getFirst,
                         pair -> pair.getSecond().getType(),
                         (existingValue, newValue) -> newValue,
-                        HashMap::new)),
-                simulationSessionId, state.getDimensions().getFirst(), state.getDimensions().getSecond(),
-                finished, getStatistics(state));
+                        HashMap::new));
     }
 
-    private boolean tickSim() {
+    /*
+     * Synchronized with betweenTicks, so that nothing sees the state in the
+     * middle of a tick.
+     */
+    private synchronized boolean tickSim(final String simulationId) {
+        final SimulationEvents.Tick event = new SimulationEvents.Tick();
+        event.begin();
         final State oldState = this.state;
-        this.state = this.model.tick(this.state);
-        this.isOver = this.model.isOver(oldState, this.state);
+        final TickProfiler p = this.profiler;
+        if (p != null) {
+            tickModelProfiled(oldState, p);
+        } else {
+            this.state = this.model.tick(oldState);
+            this.isOver = this.model.isOver(oldState, this.state);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.simulationId = simulationId;
+            event.agents = this.state.getAgents().size();
+            event.changedCells = changedCells(oldState, this.state);
+            event.over = isOver;
+            event.commit();
+        }
         return isOver;
     }
 
+    private void tickModelProfiled(final State oldState, final TickProfiler p) {
+        final long allocated = TickProfiler.allocatedBytes();
+        final long start = System.nanoTime();
+        this.state = p.runWith(() -> this.model.tick(oldState));
+        final long ticked = System.nanoTime();
+        this.isOver = this.model.isOver(oldState, this.state);
+        final long end = System.nanoTime();
+        p.recordAllocation(allocated, TickProfiler.allocatedBytes());
+        p.record(Phase.EXIT_CHECK, end - ticked);
+        p.record(Phase.TICK, end - start);
+    }
+
+    private static int changedCells(final State before, final State after) {
+        final Map<Pos, String> old = before.getAgents().stream()
+                .collect(Collectors.toMap(Pair::getFirst, pair -> pair.getSecond().getId(), (a, b) -> b, HashMap::new));
+        int changed = 0;
+        for (final Pair<Pos, Agent> pair : after.getAgents()) {
+            if (!pair.getSecond().getId().equals(old.remove(pair.getFirst()))) {
+                changed++;
+            }
+        }
+        return changed + old.size();
+    }
+
     private boolean shouldTick() {
         final int elapsed = tickCount * (int) AresSupplier.getInstance().getTickRate();
         if (elapsed >= tickRate) {
@@ -117,7 +226,7 @@ final class SimulationImpl implements Simulation {
 
         new Thread(() -> {
             this.calculating = true;
-            final boolean over = tickSim();
+            final boolean over = tickSim(simulationSessionId);
             future.complete(Optional.of(mapStateToSimulationData(this.state, simulationSessionId, over)));
             this.calculating = false;
         }).start();
@@ -139,13 +248,52 @@ final class SimulationImpl implements Simulation {
         }
 
         this.calculating = true;
-        final boolean over = tickSim();
+        final boolean over = tickSim(simulationSessionId);
         final SimulationOutputData data = mapStateToSimulationData(this.state, simulationSessionId, over);
         this.calculating = false;
 
         return Optional.of(data);
     }
 
+    @Override
+    public boolean step() {
+        return isOver || tickSim("");
+    }
+
+    @Override
+    public synchronized <T> T betweenTicks(final Supplier<T> action) {
+        return action.get();
+    }
+
+    @Override
+    public SimulationOutputData getOutputData(final String simulationSessionId) {
+        return mapStateToSimulationData(this.state, simulationSessionId, isOver);
+    }
+
+    @Override
+    public void setViewport(final Viewport viewport) {
+        this.viewport = viewport;
+    }
+
+    @Override
+    public void setProfiling(final boolean enabled) {
+        if (enabled != (this.profiler != null)) {
+            this.profiler = enabled ? new TickProfiler() : null;
+        }
+    }
+
+    @Override
+    public Map<String, Histogram> getTickProfile() {
+        final TickProfiler p = this.profiler;
+        return p == null ? Map.of() : p.snapshot();
+    }
+
+    @Override
+    public Map<String, Long> getAgentCounts() {
+        return betweenTicks(() -> Map.copyOf(this.state.getAgents().stream()
+                .collect(Collectors.groupingBy(pair -> pair.getSecond().getType(), Collectors.counting()))));
+    }
+
     @Override
     public Integer getTickRate() {
         return this.tickRate;
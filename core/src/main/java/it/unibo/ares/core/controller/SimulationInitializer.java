@@ -3,6 +3,8 @@ package it.unibo.ares.core.controller;
 import it.unibo.ares.core.api.InitializationApi;
 import it.unibo.ares.core.utils.Pair;
 
+import java.util.function.LongFunction;
+
 /**
  * Used to creare and parametrize an istance of a simulation to be runned on the
  * system.
@@ -19,4 +21,18 @@ public abstract class SimulationInitializer implements InitializationApi {
      *                                  some agent parameters are not set.
      */
     abstract Pair<String, Simulation> startSimulation(String initializationId);
+
+    /**
+     * Consumes the initialization, like {@link #startSimulation(String)}, and
+     * returns a factory of independent replicates of it: each replicate is a
+     * new instance of the same model, with the same model parameters and the
+     * same agent parameters set by type, initialized with its own seed.
+     * The factory can be called concurrently.
+     *
+     * @param initializationId The identifier of the model to replicate
+     * @return a function from the seed of a replicate to the replicate
+     * @throws IllegalArgumentException if the model has not been initialized or if
+     *                                  some agent parameters are not set.
+     */
+    abstract LongFunction<Simulation> replicator(String initializationId);
 }
@@ -2,16 +2,21 @@ package it.unibo.ares.core.controller;
 
 import it.unibo.ares.core.agent.Agent;
 import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.parameters.Parameter;
 import it.unibo.ares.core.utils.parameters.Parameters;
 import it.unibo.ares.core.utils.state.State;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -33,6 +38,12 @@ public final class SimulationInitializerImpl extends SimulationInitializer {
     private final ConcurrentMap<String, Model> intilizingModels;
     private final ConcurrentMap<String, Pair<State, Model>> initializedModels;
     private final Map<String, Supplier<Model>> modelsSupplier;
+    /*
+     * What is needed to rebuild each initialization from scratch: the id of its
+     * model and the agent parameters set by type, in order.
+     */
+    private final ConcurrentMap<String, String> modelIds;
+    private final ConcurrentMap<String, Map<String, Map<String, Serializable>>> agentSettings;
 
     /**
      * Creates a new instance of the simulation initializer.
@@ -55,6 +66,8 @@ public final class SimulationInitializerImpl extends SimulationInitializer {
         modelsSupplier.put(ssm.getModelId(), ssm::getModel);
         this.intilizingModels = new ConcurrentHashMap<>();
         this.initializedModels = new ConcurrentHashMap<>();
+        this.modelIds = new ConcurrentHashMap<>();
+        this.agentSettings = new ConcurrentHashMap<>();
     }
 
     private <T extends Serializable> void setAgentParameter(final String initializationId, final String key,
@@ -81,6 +94,7 @@ public final class SimulationInitializerImpl extends SimulationInitializer {
     public String addNewModel(final String modelId) {
         final String randomID = UUID.randomUUID().toString();
         this.intilizingModels.put(randomID, this.modelsSupplier.get(modelId).get());
+        this.modelIds.put(randomID, modelId);
         return randomID;
     }
 
@@ -139,6 +153,9 @@ public final class SimulationInitializerImpl extends SimulationInitializer {
             final String key,
             final T value) {
         setAgentParameter(initializationId, key, value, ag -> ag.getType().equals(agentType));
+        this.agentSettings.computeIfAbsent(initializationId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(agentType, t -> Collections.synchronizedMap(new LinkedHashMap<>()))
+                .put(key, value);
     }
 
     /**
@@ -159,6 +176,38 @@ public final class SimulationInitializerImpl extends SimulationInitializer {
      */
     @Override
     Pair<String, Simulation> startSimulation(final String initializationId) {
+        final Pair<State, Model> model = takeInitialized(initializationId);
+        return new Pair<>(initializationId,
+                new SimulationImpl(model.getFirst(),
+                        model.getSecond(), DEFAULTTICKRATE));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LongFunction<Simulation> replicator(final String initializationId) {
+        final Supplier<Model> supplier = modelsSupplier.get(modelIds.get(initializationId));
+        final Map<String, Map<String, Serializable>> settings = new LinkedHashMap<>();
+        Optional.ofNullable(agentSettings.get(initializationId))
+                .ifPresent(s -> s.forEach((type, values) -> settings.put(type, new LinkedHashMap<>(values))));
+        final Model template = takeInitialized(initializationId).getSecond();
+        return seed -> {
+            final Model model = supplier.get();
+            template.getParameters().getParameters().stream()
+                    .filter(Parameter::isSetted)
+                    .forEach(p -> model.setParameter(p.getKey(), p.getValue()));
+            model.setParameter(Model.SEEDKEY, seed);
+            final State state = model.initilize();
+            state.getAgents().stream()
+                    .map(Pair::getSecond)
+                    .forEach(ag -> Optional.ofNullable(settings.get(ag.getType()))
+                            .ifPresent(values -> values.forEach(ag::setParameter)));
+            return new SimulationImpl(state, model, DEFAULTTICKRATE);
+        };
+    }
+
+    private Pair<State, Model> takeInitialized(final String initializationId) {
         if (!this.initializedModels.containsKey(initializationId)) {
             throw new IllegalArgumentException("The model has not been initialized");
         }
@@ -170,9 +219,8 @@ public final class SimulationInitializerImpl extends SimulationInitializer {
                 .anyMatch(s -> !s.isEmpty())) {
             throw new IllegalArgumentException("Some agent parameters are not set");
         }
-        final Pair<State, Model> model = this.initializedModels.remove(initializationId);
-        return new Pair<>(initializationId,
-                new SimulationImpl(model.getFirst(),
-                        model.getSecond(), DEFAULTTICKRATE));
+        this.modelIds.remove(initializationId);
+        this.agentSettings.remove(initializationId);
+        return this.initializedModels.remove(initializationId);
     }
 }
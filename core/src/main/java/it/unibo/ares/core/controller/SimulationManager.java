@@ -1,8 +1,10 @@
 package it.unibo.ares.core.controller;
 
+import java.util.List;
+
 /**
  * The SimulationManager interface provides methods for saving and loading
- * simulations.
+ * simulations, and for checkpointing them while they run.
  */
 public interface SimulationManager {
 
@@ -22,4 +24,51 @@ public interface SimulationManager {
      */
     Simulation load(String filePath);
 
+    /**
+     * Checkpoints the given simulation without stopping it: its state is
+     * captured between two of its ticks and written in the background, so
+     * that the simulation keeps ticking meanwhile. Only the most recent
+     * checkpoints of each simulation are kept, with the ones they are
+     * deltas of: a checkpoint may only hold what changed since the previous
+     * one, and is restored by {@link #load(String)} through the chain of
+     * checkpoints it is made of.
+     *
+     * @param simulationId The id of the simulation.
+     * @param simulation   The simulation to be checkpointed.
+     * @return The file path of the checkpoint, returned before it is
+     *         written; loading it waits for the write to end.
+     */
+    String checkpoint(String simulationId, Simulation simulation);
+
+    /**
+     * Returns the kept checkpoints of a simulation, including those still
+     * being written.
+     *
+     * @param simulationId The id of the simulation.
+     * @return The file paths of the checkpoints, from the oldest.
+     */
+    List<String> getCheckpoints(String simulationId);
+
+    /**
+     * Folds the last checkpoint of a simulation, with the deltas it is made
+     * of, into a new full checkpoint, in the background; the next
+     * checkpoints are deltas of it, and the older ones are deleted once
+     * beyond the retention limit.
+     *
+     * @param simulationId The id of the simulation.
+     * @return The file path of the new checkpoint, returned before it is
+     *         written; loading it waits for the write to end.
+     * @throws IllegalStateException if the simulation has no checkpoints.
+     */
+    String compact(String simulationId);
+
+    /**
+     * Releases what is kept in memory about a simulation which is no longer
+     * run. Its checkpoints stay on disk, those already scheduled are still
+     * written, and its next checkpoint, if any, is a full snapshot.
+     *
+     * @param simulationId The id of the simulation.
+     */
+    void forget(String simulationId);
+
 }
@@ -1,21 +1,134 @@
 package it.unibo.ares.core.controller;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the SimulationManager interface.
- * This class provides methods to save and load simulations.
+ * This class provides methods to save and load simulations, in the format
+ * of {@link SnapshotFormat}.
+ * The checkpoints are written one at a time by a background thread, each in
+ * a partial file renamed once complete, under a directory per simulation.
+ * Most of them are deltas of the previous checkpoint of the simulation, and
+ * every given number of them is a full snapshot; a checkpoint is deleted once
+ * beyond the retention limit, unless a kept one is a delta of it.
  */
 public class SimulationManagerImpl implements SimulationManager {
 
     private static final String DIRECTORY = "SavedSimulations/";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String EXTENSION = ".out";
+    private static final String PARTIAL = ".part";
+    private static final int DEFAULT_RETENTION = 5;
+    private static final int DEFAULT_BASE = 10;
+    // by sequence number, even past the digits of the padding
+    private static final Comparator<String> BY_SEQUENCE = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+    private final boolean compress;
+    private final int retention;
+    private final int base;
+    private final Path checkpoints;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        final Thread thread = new Thread(r, "ares-checkpoints");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // the checkpoints not written yet, by path
+    private final ConcurrentMap<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    // the sequence number of the last checkpoint of each simulation, guarded by itself
+    private final Map<String, Long> sequences = new HashMap<>();
+    // the last checkpoint of each simulation, only used by the writer thread
+    private final Map<String, Chain> chains = new HashMap<>();
+
+    /*
+     * A checkpoint as captured, the file it was written to, and the number
+     * of deltas from it to the last full snapshot.
+     */
+    private record Chain(SnapshotFormat.Capture capture, Path path, int deltas) {
+    }
+
+    /**
+     * Creates a manager saving uncompressed simulations.
+     */
+    public SimulationManagerImpl() {
+        this(false);
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param compress whether to deflate the saved simulations, trading save
+     *                 and load time for disk space
+     */
+    public SimulationManagerImpl(final boolean compress) {
+        this(compress, DEFAULT_RETENTION);
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param compress  whether to deflate the saved simulations, trading save
+     *                  and load time for disk space
+     * @param retention the number of checkpoints kept for each simulation
+     */
+    public SimulationManagerImpl(final boolean compress, final int retention) {
+        this(compress, retention, DEFAULT_BASE);
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param compress  whether to deflate the saved simulations, trading save
+     *                  and load time for disk space
+     * @param retention the number of checkpoints kept for each simulation
+     * @param base      every how many checkpoints of a simulation one is a
+     *                  full snapshot, the others being deltas; 1 to only
+     *                  write full snapshots
+     */
+    public SimulationManagerImpl(final boolean compress, final int retention, final int base) {
+        this(compress, retention, base, Path.of(DIRECTORY, "checkpoints"));
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param compress    whether to deflate the saved simulations
+     * @param retention   the number of checkpoints kept for each simulation
+     * @param base        every how many checkpoints one is a full snapshot
+     * @param checkpoints the directory of the checkpoints
+     */
+    SimulationManagerImpl(final boolean compress, final int retention, final int base, final Path checkpoints) {
+        if (retention < 1 || base < 1) {
+            throw new IllegalArgumentException("At least one checkpoint must be kept, and be full");
+        }
+        this.compress = compress;
+        this.retention = retention;
+        this.base = base;
+        this.checkpoints = checkpoints;
+    }
 
     /**
      * Generates a unique file name based on the current date and time.
@@ -40,16 +153,19 @@ public class SimulationManagerImpl implements SimulationManager {
      */
     @Override
     public String save(final Simulation simulation) {
+        final SimulationEvents.Snapshot event = new SimulationEvents.Snapshot();
+        event.begin();
+        String filePath = "";
         try {
-            final String filePath = getFileName();
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath))) {
-                oos.writeObject(simulation);
-            }
-            return filePath;
+            final String path = getFileName();
+            SnapshotFormat.write(simulation, Path.of(path), compress);
+            filePath = path;
+            event.succeeded = true;
         } catch (IOException e) {
             System.err.println(e);
         }
-        return "";
+        commit(event, "save", filePath);
+        return filePath;
     }
 
     /**
@@ -57,12 +173,237 @@ public class SimulationManagerImpl implements SimulationManager {
      */
     @Override
     public Simulation load(final String filePath) {
+        final SimulationEvents.Snapshot event = new SimulationEvents.Snapshot();
+        event.begin();
         Simulation simulation = null;
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
-            simulation = (Simulation) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+        final CompletableFuture<Void> written = pending.get(filePath);
+        if (written != null) {
+            written.join();
+        }
+        try {
+            simulation = SnapshotFormat.read(Path.of(filePath));
+            event.succeeded = true;
+        } catch (IOException e) {
             System.err.println(e);
         }
+        commit(event, "load", filePath);
         return simulation;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String checkpoint(final String simulationId, final Simulation simulation) {
+        return submit(simulationId, path -> () -> writeCheckpoint(simulationId, simulation, path));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String compact(final String simulationId) {
+        final List<String> kept = getCheckpoints(simulationId);
+        if (kept.isEmpty()) {
+            throw new IllegalStateException("The simulation " + simulationId + " has no checkpoints");
+        }
+        final Path last = Path.of(kept.get(kept.size() - 1));
+        return submit(simulationId, path -> () -> compactCheckpoint(simulationId, last, path));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forget(final String simulationId) {
+        synchronized (sequences) {
+            sequences.remove(simulationId);
+        }
+        // after the checkpoints already scheduled, which use the chain
+        writer.execute(() -> chains.remove(simulationId));
+    }
+
+    /*
+     * Runs the job writing the next checkpoint of the simulation on the
+     * writer thread; loading the checkpoint waits for the job to end. The
+     * checkpoint is numbered and marked pending at once, so that a forgotten
+     * simulation goes on from the last number written or pending.
+     */
+    private String submit(final String simulationId, final Function<Path, Runnable> job) {
+        final Path directory = checkpoints.resolve(simulationId);
+        synchronized (sequences) {
+            final long sequence = sequences.compute(simulationId,
+                    (k, last) -> (last == null ? lastSequence(directory) : last) + 1);
+            final Path path = directory.resolve(String.format("%s%06d%s", CHECKPOINT_PREFIX, sequence, EXTENSION));
+            final String filePath = path.toString();
+            final Runnable write = job.apply(path);
+            final CompletableFuture<Void> written = new CompletableFuture<>();
+            pending.put(filePath, written);
+            writer.execute(() -> {
+                try {
+                    write.run();
+                } finally {
+                    pending.remove(filePath);
+                    written.complete(null);
+                }
+            });
+            return filePath;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getCheckpoints(final String simulationId) {
+        return checkpointsIn(checkpoints.resolve(simulationId));
+    }
+
+    /*
+     * The checkpoints in a directory, written or pending, from the oldest.
+     */
+    private List<String> checkpointsIn(final Path directory) {
+        final List<String> kept = new ArrayList<>(pending.keySet().stream()
+                .filter(p -> directory.equals(Path.of(p).getParent()))
+                .collect(Collectors.toList()));
+        try {
+            listCheckpoints(directory).forEach(p -> kept.add(p.toString()));
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+        return kept.stream().distinct().sorted(BY_SEQUENCE).collect(Collectors.toList());
+    }
+
+    /*
+     * Runs on the writer thread: the simulation is only held back while it
+     * is captured in memory, not while the file is written. The capture is
+     * kept to write the next checkpoint as a delta of it.
+     */
+    private void writeCheckpoint(final String simulationId, final Simulation simulation, final Path path) {
+        final SimulationEvents.Snapshot event = new SimulationEvents.Snapshot();
+        event.begin();
+        // if the checkpoint fails, the next one is full
+        final Chain last = chains.remove(simulationId);
+        try {
+            Files.createDirectories(path.getParent());
+            final SnapshotFormat.Capture capture = simulation.betweenTicks(() -> {
+                try {
+                    return SnapshotFormat.capture(simulation);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            final Path partial = partial(path);
+            final int deltas;
+            if (last != null && last.deltas() + 1 < base && capture.follows(last.capture())
+                    && Files.exists(last.path())) {
+                capture.writeDelta(partial, compress, last.capture(), last.path());
+                deltas = last.deltas() + 1;
+            } else {
+                capture.write(partial, compress);
+                deltas = 0;
+            }
+            Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            chains.put(simulationId, new Chain(capture, path, deltas));
+            prune(path.getParent());
+            event.succeeded = true;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println(e);
+        }
+        commit(event, "checkpoint", path.toString());
+    }
+
+    /*
+     * Runs on the writer thread: the last checkpoint is written again as a
+     * full snapshot, which the next checkpoints are deltas of, from its
+     * capture if it is the one kept, otherwise read through the deltas it is
+     * made of.
+     */
+    private void compactCheckpoint(final String simulationId, final Path last, final Path path) {
+        final SimulationEvents.Snapshot event = new SimulationEvents.Snapshot();
+        event.begin();
+        final Optional<Chain> chain = Optional.ofNullable(chains.remove(simulationId))
+                .filter(c -> c.path().equals(last));
+        try {
+            final Path partial = partial(path);
+            if (chain.isPresent()) {
+                chain.get().capture().write(partial, compress);
+            } else {
+                SnapshotFormat.write(SnapshotFormat.read(last), partial, compress);
+            }
+            Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            chain.ifPresent(c -> chains.put(simulationId, new Chain(c.capture(), path, 0)));
+            prune(path.getParent());
+            event.succeeded = true;
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+        commit(event, "compact", path.toString());
+    }
+
+    private static Path partial(final Path path) {
+        return path.resolveSibling(path.getFileName() + PARTIAL);
+    }
+
+    /*
+     * Deletes the checkpoints beyond the retention limit, but those the kept
+     * ones are deltas of.
+     */
+    private void prune(final Path directory) throws IOException {
+        final List<Path> files = listCheckpoints(directory);
+        final Set<Path> needed = new HashSet<>();
+        for (final Path kept : files.subList(Math.max(0, files.size() - retention), files.size())) {
+            Optional<Path> next = Optional.of(kept);
+            while (next.isPresent() && needed.add(next.get())) {
+                next = SnapshotFormat.baseOf(next.get());
+            }
+        }
+        for (final Path file : files) {
+            if (!needed.contains(file)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /*
+     * The complete checkpoints in a directory, from the oldest.
+     */
+    private static List<Path> listCheckpoints(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(CHECKPOINT_PREFIX)
+                    && p.getFileName().toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(Path::toString, BY_SEQUENCE))
+                    .collect(Collectors.toList());
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    /*
+     * The sequence number of the last checkpoint in a directory, written or
+     * pending, so that the checkpoints of an earlier run are not overwritten.
+     */
+    private long lastSequence(final Path directory) {
+        final List<String> kept = checkpointsIn(directory);
+        if (kept.isEmpty()) {
+            return 0;
+        }
+        final String name = Path.of(kept.get(kept.size() - 1)).getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(CHECKPOINT_PREFIX.length(), name.length() - EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void commit(final SimulationEvents.Snapshot event, final String operation,
+            final String filePath) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.path = filePath;
+            event.bytes = new File(filePath).length();
+            event.commit();
+        }
+    }
 }
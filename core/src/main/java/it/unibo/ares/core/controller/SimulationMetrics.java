@@ -0,0 +1,135 @@
+package it.unibo.ares.core.controller;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import it.unibo.ares.core.utils.metrics.Histogram;
+
+/**
+ * The live metrics of a simulation run by the controller: its ticks, their
+ * latency and the fate of their outputs. Updating them costs a few atomic
+ * operations per tick.
+ */
+final class SimulationMetrics {
+    private static final double RATE_WEIGHT = 0.2;
+
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Histogram latency = new Histogram();
+    private volatile long lastTick;
+    private volatile double interval;
+    private final Supplier<Map<String, Long>> agents;
+
+    /**
+     * Creates the metrics of a simulation.
+     *
+     * @param agents counts the agents of the simulation by type, when the
+     *               metrics are read
+     */
+    SimulationMetrics(final Supplier<Map<String, Long>> agents) {
+        this.agents = agents;
+    }
+
+    /**
+     * Marks the dispatch of a tick.
+     *
+     * @return the time of the dispatch, to pass to {@link #ticked} or
+     *         {@link #skipped}
+     */
+    long dispatched() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a tick that produced an output, which is now on its way to the
+     * subscriber.
+     *
+     * @param dispatched the time of the dispatch of the tick
+     */
+    void ticked(final long dispatched) {
+        final long now = System.nanoTime();
+        latency.record(now - dispatched);
+        ticks.incrementAndGet();
+        final long previous = lastTick;
+        if (previous != 0) {
+            final double elapsed = now - previous;
+            interval = interval == 0 ? elapsed : interval + RATE_WEIGHT * (elapsed - interval);
+        }
+        lastTick = now;
+    }
+
+    /**
+     * Records a dispatched tick that did not run, because of the tick rate
+     * of the simulation or because it is over.
+     */
+    void skipped() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Records the end of the delivery of an output.
+     *
+     * @param delivered whether there was a subscriber to receive it
+     */
+    void published(final boolean delivered) {
+        inFlight.decrementAndGet();
+        (delivered ? published : dropped).incrementAndGet();
+    }
+
+    /**
+     * @return the ticks performed so far
+     */
+    long getTicks() {
+        return ticks.get();
+    }
+
+    /**
+     * @return the recent rate of the ticks, weighting the latest intervals
+     *         the most, 0 before the second tick
+     */
+    double getTicksPerSecond() {
+        final double i = interval;
+        return i == 0 ? 0 : 1e9 / i;
+    }
+
+    /**
+     * @return the latencies of the ticks, from their dispatch to their
+     *         output, in nanoseconds
+     */
+    Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the outputs being computed or delivered
+     */
+    int getQueueDepth() {
+        return Math.max(0, inFlight.get());
+    }
+
+    /**
+     * @return the outputs delivered to the subscriber
+     */
+    long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * @return the outputs dropped for lack of a subscriber
+     */
+    long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of agents of each type, counted now
+     */
+    Map<String, Long> getAgents() {
+        return agents.get();
+    }
+}
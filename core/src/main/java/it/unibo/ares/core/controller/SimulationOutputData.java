@@ -2,10 +2,12 @@ package it.unibo.ares.core.controller;
 
 import it.unibo.ares.core.api.SimulationOutputDataApi;
 import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.Viewport;
 import it.unibo.ares.core.utils.statistics.Statistics;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * A simple class used to identify a data with a string.
@@ -18,6 +20,7 @@ public final class SimulationOutputData implements SimulationOutputDataApi {
     private final Integer height;
     private final boolean finished;
     private final Statistics statistics;
+    private final Optional<Viewport> viewport;
 
     /**
      * Creates a new SimulationOutputData.
@@ -31,12 +34,32 @@ public final class SimulationOutputData implements SimulationOutputDataApi {
      */
     public SimulationOutputData(final Map<Pos, String> data, final String simulationId, final Integer width,
             final Integer height, final boolean finished, final Statistics statistics) {
+        this(data, simulationId, width, height, finished, statistics, Optional.empty());
+    }
+
+    /**
+     * Creates a new SimulationOutputData restricted to a viewport.
+     *
+     * @param data         the type of each tile of the viewport, by position
+     *                     of the tile in the viewport, or of each agent if
+     *                     there is no viewport
+     * @param simulationId the id of the simulation
+     * @param width        the width of the simulation output
+     * @param height       the height of the simulation output
+     * @param finished     weather the sim is over
+     * @param statistics   the statistics for this iteration
+     * @param viewport     the viewport the data is sampled in, if any
+     */
+    public SimulationOutputData(final Map<Pos, String> data, final String simulationId, final Integer width,
+            final Integer height, final boolean finished, final Statistics statistics,
+            final Optional<Viewport> viewport) {
         this.data = Collections.unmodifiableMap(data);
         this.simulationId = simulationId;
         this.width = width;
         this.height = height;
         this.finished = finished;
         this.statistics = statistics;
+        this.viewport = viewport;
     }
 
     /**
@@ -88,4 +111,9 @@ public final class SimulationOutputData implements SimulationOutputDataApi {
     public Statistics getStatistics() {
         return this.statistics;
     }
+
+    @Override
+    public Optional<Viewport> getViewport() {
+        return this.viewport;
+    }
 }
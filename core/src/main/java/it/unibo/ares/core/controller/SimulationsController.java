@@ -2,6 +2,7 @@ package it.unibo.ares.core.controller;
 
 import it.unibo.ares.core.api.SimulationControlApi;
 
+import java.util.Map;
 import java.util.concurrent.Flow.Subscriber;
 
 /**
@@ -24,4 +25,18 @@ public abstract class SimulationsController implements SimulationControlApi {
 
     abstract void subscribe(String id, Subscriber<SimulationOutputData> subscriber);
 
+    /**
+     * Loads a saved simulation, or a checkpoint, waiting for it to be written
+     * if it is still being checkpointed.
+     *
+     * @param filePath The path of the file.
+     * @return The loaded simulation.
+     */
+    abstract Simulation loadSimulation(String filePath);
+
+    /**
+     * @return the live metrics of the simulations, by id
+     */
+    abstract Map<String, SimulationMetrics> getMetrics();
+
 }
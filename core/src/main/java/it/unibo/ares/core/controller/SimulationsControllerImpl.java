@@ -1,5 +1,6 @@
 package it.unibo.ares.core.controller;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -7,36 +8,56 @@ import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import it.unibo.ares.core.utils.configservice.ConfigService;
 import it.unibo.ares.core.utils.configservice.ConfigServiceImpl;
+import it.unibo.ares.core.utils.metrics.Histogram;
+import it.unibo.ares.core.utils.pos.Viewport;
 
 final class SimulationsControllerImpl extends SimulationsController {
     private final ConcurrentMap<String, Simulation> simulations;
     private final SimulationDataProvider<SimulationOutputData> processor;
     private final SimulationManager manager;
+    private final ConcurrentMap<String, SimulationMetrics> metrics;
+    // in ns, 0 if the simulations are only checkpointed on demand
+    private final long checkpointInterval;
+    private final ConcurrentMap<String, Long> nextCheckpoints;
 
     SimulationsControllerImpl() {
+        final ConfigService config = ConfigServiceImpl.getInstance();
         this.simulations = new ConcurrentHashMap<>();
         this.processor = new SimulationDataProvider<>();
-        this.manager = new SimulationManagerImpl();
+        this.manager = new SimulationManagerImpl(false, config.getCheckpointRetention(),
+                config.getCheckpointBase());
+        this.metrics = new ConcurrentHashMap<>();
+        this.checkpointInterval = TimeUnit.SECONDS.toNanos(config.getCheckpointInterval());
+        this.nextCheckpoints = new ConcurrentHashMap<>();
     }
 
     @Override
     void addSimulation(final String id, final Simulation simulation) {
         simulations.put(id, simulation);
+        metrics.put(id, newMetrics(id));
+        new SimulationEvents.Lifecycle(id, "add").commit();
     }
 
     @Override
     public void removeSimulation(final String id) {
         simulations.remove(id);
+        metrics.remove(id);
+        nextCheckpoints.remove(id);
+        manager.forget(id);
+        new SimulationEvents.Lifecycle(id, "remove").commit();
     }
 
     @Override
     public void startSimulation(final String id) {
         if (!simulations.get(id).isRunning()) {
             simulations.get(id).start();
+            new SimulationEvents.Lifecycle(id, "start").commit();
             return;
         }
         throw new IllegalStateException("The simulation is already running");
@@ -45,30 +66,86 @@ final class SimulationsControllerImpl extends SimulationsController {
     @Override
     void makeModelsTick() {
         final boolean async = ConfigServiceImpl.getInstance().isAsync();
+        final long scheduled = System.nanoTime();
 
         final Predicate<Map.Entry<String, Simulation>> isRunning = e -> e.getValue().isRunning();
 
         if (!async) {
             simulations.entrySet().stream()
                     .filter(isRunning)
-                    .map(e -> e.getValue().tickSync(e.getKey())) // Starting the calculation and mapping the future to
-                                                                 // the
-                    // id of
-                    // the simulation
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(simData -> processor.submit(
-                            new Identifier<>(simData.getSimulationId(), simData))); // Processing
+                    .forEach(e -> {
+                        final SimulationMetrics m = metricsOf(e.getKey());
+                        final long dispatched = m.dispatched();
+                        e.getValue().tickSync(e.getKey()).ifPresentOrElse(d -> {
+                            m.ticked(dispatched);
+                            publish(d, scheduled, m); // Processing
+                        }, m::skipped);
+                    });
         } else {
 
             simulations.entrySet().stream()
                     .filter(isRunning)
-                    .map(e -> e.getValue().tick(e.getKey())) // Starting the calculation and mapping the future to the
-                                                             // id of
-                    // the simulation
-                    .forEach(f -> f
-                            .thenAccept(simData -> simData.ifPresent(d -> processor.submit(
-                                    new Identifier<>(d.getSimulationId(), d))))); // Processing
+                    .forEach(e -> {
+                        final SimulationMetrics m = metricsOf(e.getKey());
+                        final long dispatched = m.dispatched();
+                        e.getValue().tick(e.getKey()) // Starting the calculation
+                                .thenAccept(simData -> simData.ifPresentOrElse(d -> {
+                                    m.ticked(dispatched);
+                                    publish(d, scheduled, m); // Processing
+                                }, m::skipped));
+                    });
+        }
+        if (checkpointInterval > 0) {
+            checkpointDue(scheduled);
+        }
+    }
+
+    /*
+     * The checkpoints are captured between the ticks by the writer thread of
+     * the manager, so the ticker only schedules them.
+     */
+    private void checkpointDue(final long now) {
+        simulations.entrySet().stream()
+                .filter(e -> e.getValue().isRunning())
+                .forEach(e -> {
+                    final long due = nextCheckpoints.computeIfAbsent(e.getKey(), k -> now + checkpointInterval);
+                    if (now - due >= 0) {
+                        nextCheckpoints.put(e.getKey(), now + checkpointInterval);
+                        manager.checkpoint(e.getKey(), e.getValue());
+                    }
+                });
+    }
+
+    private SimulationMetrics metricsOf(final String id) {
+        return metrics.computeIfAbsent(id, this::newMetrics);
+    }
+
+    /*
+     * The agents are only counted when the metrics are scraped.
+     */
+    private SimulationMetrics newMetrics(final String id) {
+        return new SimulationMetrics(() -> Optional.ofNullable(simulations.get(id))
+                .map(Simulation::getAgentCounts)
+                .orElse(Map.of()));
+    }
+
+    private void publish(final SimulationOutputData data, final long scheduled, final SimulationMetrics m) {
+        final SimulationEvents.OutputPublish event = new SimulationEvents.OutputPublish();
+        event.begin();
+        final boolean subscribed = processor.submit(new Identifier<>(data.getSimulationId(), data));
+        event.end();
+        m.published(subscribed);
+        if (event.shouldCommit()) {
+            event.simulationId = data.getSimulationId();
+            event.agents = data.getData().size();
+            event.subscribed = subscribed;
+            event.commit();
+        }
+        final SimulationEvents.SubscriberLag lag = new SimulationEvents.SubscriberLag();
+        if (subscribed && lag.isEnabled()) {
+            lag.simulationId = data.getSimulationId();
+            lag.lag = System.nanoTime() - scheduled;
+            lag.commit();
         }
     }
 
@@ -81,6 +158,7 @@ final class SimulationsControllerImpl extends SimulationsController {
     public void pauseSimulation(final String id) {
         if (simulations.get(id).isRunning()) {
             simulations.get(id).pause();
+            new SimulationEvents.Lifecycle(id, "pause").commit();
             return;
         }
         throw new IllegalStateException("The simulation is not running");
@@ -104,7 +182,57 @@ final class SimulationsControllerImpl extends SimulationsController {
 
     @Override
     public String saveSimulation(final String id) {
+        new SimulationEvents.Lifecycle(id, "remove").commit();
+        metrics.remove(id);
+        nextCheckpoints.remove(id);
+        manager.forget(id);
         return manager.save(simulations.remove(id));
     }
 
+    @Override
+    public String checkpointSimulation(final String id) {
+        final Simulation simulation = simulations.get(id);
+        if (simulation == null) {
+            throw new IllegalArgumentException("The simulation " + id + " does not exist");
+        }
+        return manager.checkpoint(id, simulation);
+    }
+
+    @Override
+    public List<String> getCheckpoints(final String id) {
+        return manager.getCheckpoints(id);
+    }
+
+    @Override
+    public String compactCheckpoints(final String id) {
+        return manager.compact(id);
+    }
+
+    @Override
+    Simulation loadSimulation(final String filePath) {
+        return manager.load(filePath);
+    }
+
+    @Override
+    Map<String, SimulationMetrics> getMetrics() {
+        // a tick racing with a removal may have recreated the metrics
+        metrics.keySet().retainAll(simulations.keySet());
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    @Override
+    public void setViewport(final String id, final Viewport viewport) {
+        simulations.get(id).setViewport(viewport);
+    }
+
+    @Override
+    public void setProfiling(final String id, final boolean enabled) {
+        simulations.get(id).setProfiling(enabled);
+    }
+
+    @Override
+    public Map<String, Histogram> getTickProfile(final String id) {
+        return simulations.get(id).getTickProfile();
+    }
+
 }
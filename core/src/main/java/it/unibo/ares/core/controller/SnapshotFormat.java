@@ -0,0 +1,1464 @@
+package it.unibo.ares.core.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.agent.Entity;
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.directionvector.DirectionVectorImpl;
+import it.unibo.ares.core.utils.layer.DoubleLayer;
+import it.unibo.ares.core.utils.layer.IntLayer;
+import it.unibo.ares.core.utils.layer.Layer;
+import it.unibo.ares.core.utils.layer.LayerRule;
+import it.unibo.ares.core.utils.parameters.ParamKey;
+import it.unibo.ares.core.utils.parameters.Parameter;
+import it.unibo.ares.core.utils.parameters.Parameters;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.State;
+import it.unibo.ares.core.utils.state.StateImpl;
+
+/**
+ * SnapshotFormat writes simulations to files, and reads them back, in a
+ * versioned binary format laid out in columns, so that the time to save and
+ * load grows with the size of the data rather than with the number of
+ * objects. After an 8 bytes header, optionally deflated:
+ *
+ * <pre>
+ * header     magic "ARES" (int), version (short), flags (short)
+ * simulation width, height, tick rate (int), running, over (byte)
+ * behaviour  a block with the model, one prototype agent per type, the layer
+ *            rules and the entities, serialized
+ * types      count, then for each type its name, number of agents and
+ *            columns, and for each column its key, kind and user settability
+ * occupancy  one byte per cell in row-major order: 0 if the cell is empty,
+ *            otherwise the index of the type of its agent plus one
+ * columns    for each type and column, a bitmap of the agents having a value
+ *            followed by the values, the agents of a type being in the order
+ *            of their cells
+ * layers     count, then kind, name and raw values of each layer
+ * </pre>
+ *
+ * The behaviour is code rather than data, so it is still serialized, but
+ * only once: its size does not depend on the population. A loaded agent is a
+ * copy of the prototype of its type with the values of its columns; as
+ * parameters are only ever set, never cleared, the prototype is the agent of
+ * the type with the fewest values, and a simulation whose agents of a type
+ * do not all set the parameters of its prototype is serialized instead.
+ * <p>
+ * Uncompressed snapshots are loaded by mapping the file: the occupancy, the
+ * columns of fixed size values and the layers are read from the mapped
+ * regions, without going through any buffer, and each agent is only built
+ * from its columns the first time it is used, so that a large world is
+ * resumed without building its whole population upfront.
+ * <p>
+ * A simulation is captured in memory before being written, so that the file
+ * can be written while the simulation goes on: capturing only copies the
+ * values of the columns, the behaviour and the values of the columns of
+ * objects being serialized when the capture is written. A capture can also be written
+ * as a delta of an earlier one, already written to a file of the same
+ * directory, holding only the cells whose agent changed and the cells of the
+ * layers whose value changed:
+ *
+ * <pre>
+ * base       the name of the file the delta applies to
+ * simulation as above, without the behaviour, which is the one of the full
+ *            snapshot of the chain
+ * types      as above, the number of agents being that of the changed ones
+ * changes    count, then the changed cells (int), their type as in the
+ *            occupancy, and a bitmap of the cells whose agent is patched
+ *            rather than replaced
+ * columns    as above, for the changed agents: a patched agent only has the
+ *            values that changed, a replaced one all of them
+ * layers     count, then kind, name, number of changed cells, the changed
+ *            cells (int) and their values of each layer
+ * </pre>
+ *
+ * A delta is read by reading the chain of files it applies to, down to a
+ * full snapshot, and applying the deltas in order.
+ * <p>
+ * A simulation that cannot be laid out in columns, e.g. with agents without
+ * a type, is serialized as a whole after the header, while files without the
+ * header are read as simulations serialized by older versions.
+ */
+final class SnapshotFormat {
+    /**
+     * The first bytes of a snapshot, "ARES" in ASCII.
+     */
+    static final int MAGIC = 0x41524553;
+    /**
+     * The version of the format written.
+     */
+    static final short VERSION = 2;
+    // the files of the first version are the same, but never deltas
+    private static final short FIRST_VERSION = 1;
+    private static final int DEFLATED = 1;
+    private static final int SERIALIZED = 1 << 1;
+    private static final int DELTA = 1 << 2;
+    private static final int HEADER_SIZE = Integer.BYTES + 2 * Short.BYTES;
+    private static final int MAX_TYPES = 255;
+    private static final int MAX_CHAIN = 1000;
+    private static final int INT_LAYER = 0;
+    private static final int DOUBLE_LAYER = 1;
+
+    /**
+     * How the values of a column are written, by ordinal.
+     */
+    private enum Kind {
+        INT, LONG, DOUBLE, BOOLEAN, STRING, VECTOR, OBJECT;
+
+        static Kind of(final Class<?> type) {
+            if (type == Integer.class) {
+                return INT;
+            } else if (type == Long.class) {
+                return LONG;
+            } else if (type == Double.class) {
+                return DOUBLE;
+            } else if (type == Boolean.class) {
+                return BOOLEAN;
+            } else if (type == String.class) {
+                return STRING;
+            } else if (type == DirectionVectorImpl.class) {
+                return VECTOR;
+            }
+            return OBJECT;
+        }
+    }
+
+    private record Column(String key, Kind kind, boolean userSettable) {
+    }
+
+    private record Behaviour(Model model, List<Agent> prototypes, List<LayerRule> rules,
+            List<Pair<Pos, Entity>> entities) implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        Optional<Agent> prototypeOf(final String type) {
+            return prototypes.stream().filter(p -> type.equals(p.getType())).findFirst();
+        }
+
+        /*
+         * Whether the agents of the given types, laid out with this
+         * behaviour, can be restored with the other one: the same model,
+         * rules and entities, and a prototype of each type having every
+         * column of its agents but setting no more parameters than they do.
+         */
+        boolean fits(final Behaviour other, final List<TypeValues> types) {
+            if (model != other.model || !rules.equals(other.rules) || !entities.equals(other.entities)
+                    || types.size() != other.prototypes.size()) {
+                return false;
+            }
+            for (int t = 0; t < types.size(); t++) {
+                final Optional<Agent> prototype = other.prototypeOf(types.get(t).name());
+                if (prototype.isEmpty()) {
+                    return false;
+                }
+                final Set<String> keys = prototype.get().getParameters().getParameters().stream()
+                        .map(Parameter::getKey)
+                        .collect(Collectors.toSet());
+                if (!types.get(t).columns().stream().allMatch(c -> keys.contains(c.key()))
+                        || !Type.setted(prototypes.get(t)).containsAll(Type.setted(prototype.get()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /*
+     * The agents of a type, in the order of their cells, and the union of
+     * their parameters.
+     */
+    private static final class Type {
+        private final String name;
+        private final List<Agent> agents = new ArrayList<>();
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+        private Agent prototype;
+        private long prototypeValues = Long.MAX_VALUE;
+
+        Type(final String name) {
+            this.name = name;
+        }
+
+        void add(final Agent agent) {
+            agents.add(agent);
+            long values = 0;
+            for (final Parameter<?> parameter : agent.getParameters().getParameters()) {
+                final Kind kind = Kind.of(parameter.getType());
+                columns.merge(parameter.getKey(),
+                        new Column(parameter.getKey(), kind, parameter.userSettable()),
+                        (a, b) -> a.kind() == b.kind() ? a : new Column(a.key(), Kind.OBJECT, a.userSettable()));
+                if (parameter.isSetted()) {
+                    values++;
+                }
+            }
+            if (values < prototypeValues) {
+                prototype = agent;
+                prototypeValues = values;
+            }
+        }
+
+        /*
+         * Whether every agent sets at least the parameters the prototype
+         * sets, as its copies would otherwise carry values they never had.
+         */
+        boolean prototypeFits() {
+            if (prototypeValues == 0) {
+                return true;
+            }
+            final Set<String> setted = setted(prototype);
+            return agents.stream().allMatch(a -> a == prototype || setted(a).containsAll(setted));
+        }
+
+        private static Set<String> setted(final Agent agent) {
+            return agent.getParameters().getParameters().stream()
+                    .filter(Parameter::isSetted)
+                    .map(Parameter::getKey)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    /*
+     * The values of a column for some agents of a type, as they are written:
+     * a bitmap of the agents having a value and an array whose type depends
+     * on the kind of the column, the objects being serialized once encoded.
+     */
+    private record Values(Kind kind, int size, long[] present, Object array) {
+
+        /*
+         * Copies the values of the agents, reading the columns of a single
+         * type through their key; the objects are kept as they are, to be
+         * serialized by encode.
+         */
+        static Values of(final Column column, final List<Agent> agents) {
+            final int size = agents.size();
+            final long[] present = new long[bitmapLength(size)];
+            final Object array = switch (column.kind()) {
+                case INT -> {
+                    final int[] ints = new int[size];
+                    final ParamKey<Integer> key = ParamKey.of(column.key(), Integer.class);
+                    read(agents, key, present, (parameters, i) -> ints[i] = parameters.getInt(key));
+                    yield ints;
+                }
+                case LONG -> {
+                    final long[] longs = new long[size];
+                    final ParamKey<Long> key = ParamKey.of(column.key(), Long.class);
+                    read(agents, key, present, (parameters, i) -> longs[i] = parameters.get(key));
+                    yield longs;
+                }
+                case DOUBLE -> {
+                    final double[] doubles = new double[size];
+                    final ParamKey<Double> key = ParamKey.of(column.key(), Double.class);
+                    read(agents, key, present, (parameters, i) -> doubles[i] = parameters.getDouble(key));
+                    yield doubles;
+                }
+                case BOOLEAN -> {
+                    final long[] booleans = new long[bitmapLength(size)];
+                    final ParamKey<Boolean> key = ParamKey.of(column.key(), Boolean.class);
+                    read(agents, key, present, (parameters, i) -> {
+                        if (parameters.get(key)) {
+                            booleans[i >>> 6] |= 1L << i;
+                        }
+                    });
+                    yield booleans;
+                }
+                case VECTOR -> {
+                    final double[] doubles = new double[2 * size];
+                    final ParamKey<DirectionVectorImpl> key = ParamKey.of(column.key(), DirectionVectorImpl.class);
+                    read(agents, key, present, (parameters, i) -> {
+                        final DirectionVectorImpl vector = parameters.get(key);
+                        doubles[2 * i] = vector.getX();
+                        doubles[2 * i + 1] = vector.getY();
+                    });
+                    yield doubles;
+                }
+                case STRING -> {
+                    final String[] strings = new String[size];
+                    final ParamKey<String> key = ParamKey.of(column.key(), String.class);
+                    read(agents, key, present, (parameters, i) -> strings[i] = parameters.get(key));
+                    yield strings;
+                }
+                default -> {
+                    // the values of an object column may be of different types
+                    final Serializable[] objects = new Serializable[size];
+                    for (int i = 0; i < size; i++) {
+                        final Optional<Parameter<Serializable>> parameter = agents.get(i).getParameters()
+                                .getParameter(column.key());
+                        objects[i] = parameter.flatMap(Parameter::getOptionalValue).orElse(null);
+                        if (objects[i] != null) {
+                            present[i >>> 6] |= 1L << i;
+                        }
+                    }
+                    yield objects;
+                }
+            };
+            return new Values(column.kind(), size, present, array);
+        }
+
+        private static void read(final List<Agent> agents, final ParamKey<?> key, final long[] present,
+                final ObjIntConsumer<Parameters> reader) {
+            for (int i = 0; i < agents.size(); i++) {
+                final Parameters parameters = agents.get(i).getParameters();
+                if (parameters.isSetted(key)) {
+                    present[i >>> 6] |= 1L << i;
+                    reader.accept(parameters, i);
+                }
+            }
+        }
+
+        /*
+         * The same values, with the objects serialized.
+         */
+        Values encode() throws IOException {
+            if (kind != Kind.OBJECT || array instanceof byte[][]) {
+                return this;
+            }
+            final Serializable[] objects = (Serializable[]) array;
+            final byte[][] blocks = new byte[size][];
+            for (int i = 0; i < size; i++) {
+                if (objects[i] != null) {
+                    blocks[i] = serialize(objects[i]);
+                }
+            }
+            return new Values(kind, size, present, blocks);
+        }
+
+        boolean has(final int i) {
+            return isSet(present, i);
+        }
+
+        /*
+         * Whether the agent i has the same value, or lack of it, as the agent
+         * j of the other values.
+         */
+        boolean same(final int i, final Values other, final int j) {
+            if (kind != other.kind || has(i) != other.has(j)) {
+                return false;
+            }
+            if (!has(i)) {
+                return true;
+            }
+            return switch (kind) {
+                case INT -> ((int[]) array)[i] == ((int[]) other.array)[j];
+                case LONG -> ((long[]) array)[i] == ((long[]) other.array)[j];
+                case DOUBLE -> Double.compare(((double[]) array)[i], ((double[]) other.array)[j]) == 0;
+                case BOOLEAN -> isSet((long[]) array, i) == isSet((long[]) other.array, j);
+                case VECTOR -> Double.compare(((double[]) array)[2 * i], ((double[]) other.array)[2 * j]) == 0
+                        && Double.compare(((double[]) array)[2 * i + 1], ((double[]) other.array)[2 * j + 1]) == 0;
+                case STRING -> ((String[]) array)[i].equals(((String[]) other.array)[j]);
+                default -> Arrays.equals(((byte[][]) array)[i], ((byte[][]) other.array)[j]);
+            };
+        }
+
+        /*
+         * The values of the agents in the given rows, only those marked.
+         */
+        Values select(final int[] rows, final int count, final long[] marked) {
+            final long[] selected = new long[bitmapLength(count)];
+            for (int i = 0; i < count; i++) {
+                if (isSet(marked, i) && has(rows[i])) {
+                    selected[i >>> 6] |= 1L << i;
+                }
+            }
+            final IntPredicate kept = i -> isSet(selected, i);
+            final Object copy = switch (kind) {
+                case INT -> {
+                    final int[] ints = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        ints[i] = kept.test(i) ? ((int[]) array)[rows[i]] : 0;
+                    }
+                    yield ints;
+                }
+                case LONG -> {
+                    final long[] longs = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        longs[i] = kept.test(i) ? ((long[]) array)[rows[i]] : 0;
+                    }
+                    yield longs;
+                }
+                case DOUBLE -> {
+                    final double[] doubles = new double[count];
+                    for (int i = 0; i < count; i++) {
+                        doubles[i] = kept.test(i) ? ((double[]) array)[rows[i]] : 0;
+                    }
+                    yield doubles;
+                }
+                case BOOLEAN -> {
+                    final long[] booleans = new long[bitmapLength(count)];
+                    for (int i = 0; i < count; i++) {
+                        if (kept.test(i) && isSet((long[]) array, rows[i])) {
+                            booleans[i >>> 6] |= 1L << i;
+                        }
+                    }
+                    yield booleans;
+                }
+                case VECTOR -> {
+                    final double[] doubles = new double[2 * count];
+                    for (int i = 0; i < count; i++) {
+                        if (kept.test(i)) {
+                            doubles[2 * i] = ((double[]) array)[2 * rows[i]];
+                            doubles[2 * i + 1] = ((double[]) array)[2 * rows[i] + 1];
+                        }
+                    }
+                    yield doubles;
+                }
+                case STRING -> {
+                    final String[] strings = new String[count];
+                    for (int i = 0; i < count; i++) {
+                        strings[i] = kept.test(i) ? ((String[]) array)[rows[i]] : null;
+                    }
+                    yield strings;
+                }
+                default -> {
+                    final byte[][] blocks = new byte[count][];
+                    for (int i = 0; i < count; i++) {
+                        blocks[i] = kept.test(i) ? ((byte[][]) array)[rows[i]] : null;
+                    }
+                    yield blocks;
+                }
+            };
+            return new Values(kind, count, selected, copy);
+        }
+
+        void write(final SnapshotOutput out) throws IOException {
+            out.putLongs(present, present.length);
+            switch (kind) {
+                case INT -> out.putInts((int[]) array, size);
+                case LONG -> out.putLongs((long[]) array, size);
+                case DOUBLE -> out.putDoubles((double[]) array, size);
+                case BOOLEAN -> out.putLongs((long[]) array, bitmapLength(size));
+                case VECTOR -> out.putDoubles((double[]) array, 2 * size);
+                case STRING -> {
+                    for (final String value : (String[]) array) {
+                        out.putString(value);
+                    }
+                }
+                default -> {
+                    final byte[][] blocks = (byte[][]) array;
+                    for (int i = 0; i < size; i++) {
+                        if (has(i)) {
+                            out.putBlock(blocks[i]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private record TypeValues(String name, int size, List<Column> columns, List<Values> values) {
+    }
+
+    /*
+     * A simulation laid out in columns, in memory; the layers are copies of
+     * their values, int[] or double[], by name.
+     */
+    private record Grid(int width, int height, int tickRate, boolean running, boolean over,
+            List<TypeValues> types, byte[] occupancy, Map<String, Object> layers) {
+
+        /*
+         * The index of the agent of each cell among the agents of its type,
+         * -1 for the empty cells.
+         */
+        int[] rows() {
+            final int[] rows = new int[occupancy.length];
+            final int[] next = new int[types.size()];
+            for (int cell = 0; cell < occupancy.length; cell++) {
+                final int code = Byte.toUnsignedInt(occupancy[cell]);
+                rows[cell] = code == 0 ? -1 : next[code - 1]++;
+            }
+            return rows;
+        }
+
+        /*
+         * The same grid, with the objects of its columns serialized.
+         */
+        Grid encode() throws IOException {
+            final List<TypeValues> encoded = new ArrayList<>(types.size());
+            for (final TypeValues type : types) {
+                final List<Values> values = new ArrayList<>(type.values().size());
+                for (final Values columnValues : type.values()) {
+                    values.add(columnValues.encode());
+                }
+                encoded.add(new TypeValues(type.name(), type.size(), type.columns(), values));
+            }
+            return new Grid(width, height, tickRate, running, over, encoded, occupancy, layers);
+        }
+    }
+
+    /**
+     * A simulation copied in memory, uncompressed, as it was when captured,
+     * so that it can be written afterwards, possibly on another thread, while
+     * the simulation goes on. The behaviour and the objects of the columns
+     * are serialized when the capture is written, and a capture must not be
+     * written by several threads at once.
+     */
+    static final class Capture {
+        // null if the simulation is serialized as a whole
+        private Grid grid;
+        private boolean encoded;
+        // null if the simulation is serialized as a whole
+        private final Behaviour behaviour;
+        // the behaviour the capture is read with once written, its own or the
+        // one of the base of its delta; null until it is written
+        private Behaviour written;
+        // null if the simulation is laid out in columns
+        private final byte[] serialized;
+
+        private Capture(final Grid grid, final Behaviour behaviour, final byte[] serialized) {
+            this.grid = grid;
+            this.behaviour = behaviour;
+            this.serialized = serialized;
+        }
+
+        private Grid encoded() throws IOException {
+            if (!encoded) {
+                grid = grid.encode();
+                encoded = true;
+            }
+            return grid;
+        }
+
+        /**
+         * Writes the captured simulation to a file, replacing it if it
+         * exists.
+         *
+         * @param path     the file
+         * @param compress whether to deflate the file
+         * @throws IOException if the file cannot be written
+         */
+        void write(final Path path, final boolean compress) throws IOException {
+            try (FileChannel channel = create(path, (grid == null ? SERIALIZED : 0) | (compress ? DEFLATED : 0));
+                    SnapshotOutput out = new SnapshotOutput(channel, compress)) {
+                if (grid == null) {
+                    out.putBlock(serialized);
+                } else {
+                    writeGrid(encoded(), serialize(behaviour), out);
+                }
+            }
+            written = behaviour;
+        }
+
+        /**
+         * Checks whether the captured simulation can be written as a delta of
+         * another capture, already written.
+         *
+         * @param base the other capture
+         * @return true if both are laid out in columns, on boards of the same
+         *         size, and the behaviour the other is read with also fits
+         *         this one
+         */
+        boolean follows(final Capture base) {
+            return grid != null && base.grid != null && base.written != null
+                    && grid.width() == base.grid.width() && grid.height() == base.grid.height()
+                    && behaviour.fits(base.written, grid.types());
+        }
+
+        /**
+         * Writes the captured simulation to a file, replacing it if it
+         * exists, as a delta of another capture.
+         *
+         * @param path     the file
+         * @param compress whether to deflate the file
+         * @param base     the other capture
+         * @param baseFile the file the other capture was written to, in the
+         *                 same directory
+         * @throws IOException              if the file cannot be written
+         * @throws IllegalArgumentException if this capture does not
+         *                                  {@link #follows} the other
+         */
+        void writeDelta(final Path path, final boolean compress, final Capture base, final Path baseFile)
+                throws IOException {
+            if (!follows(base)) {
+                throw new IllegalArgumentException("The capture cannot be a delta of the base");
+            }
+            try (FileChannel channel = create(path, DELTA | (compress ? DEFLATED : 0));
+                    SnapshotOutput out = new SnapshotOutput(channel, compress)) {
+                out.putString(baseFile.getFileName().toString());
+                writeDeltaGrid(base.encoded(), encoded(), out);
+            }
+            written = base.written;
+        }
+    }
+
+    private record Head(int width, int height, int tickRate, boolean running, boolean over,
+            Behaviour behaviour) {
+    }
+
+    private record TypeHeader(String name, int size, List<Column> columns) {
+    }
+
+    /*
+     * The columns of a type as read from a snapshot, from which its agents
+     * are built with the ids of the model they are restored into.
+     */
+    private record TypeColumns(String name, Agent prototype, List<Column> columns,
+            List<IntFunction<Serializable>> values, Model model) {
+
+        Agent materialise(final int row) {
+            return model.buildAgents(() -> patch(prototype.copy(), row));
+        }
+
+        Agent patch(final Agent agent, final int row) {
+            for (int c = 0; c < columns.size(); c++) {
+                final Serializable value = values.get(c).apply(row);
+                if (value != null) {
+                    set(agent.getParameters(), columns.get(c), value);
+                }
+            }
+            return agent;
+        }
+    }
+
+    /*
+     * A simulation read from a snapshot, before it is built: the agent of
+     * each cell, or null, and the values of the layers, int[] or double[], by
+     * name.
+     */
+    private record Restored(Head head, Agent[] grid, Map<String, Object> layers) {
+
+        Simulation build() {
+            int count = 0;
+            for (final Agent agent : grid) {
+                if (agent != null) {
+                    count++;
+                }
+            }
+            final int[] cells = new int[count];
+            final Agent[] placed = new Agent[count];
+            count = 0;
+            for (int cell = 0; cell < grid.length; cell++) {
+                if (grid[cell] != null) {
+                    cells[count] = cell;
+                    placed[count++] = grid[cell];
+                }
+            }
+            final Behaviour behaviour = head.behaviour();
+            final State state = new StateImpl(head.width(), head.height());
+            state.addAgents(cells, placed);
+            behaviour.entities().forEach(e -> state.addEntity(e.getFirst(), e.getSecond()));
+            layers.forEach((name, values) -> {
+                if (values instanceof int[]) {
+                    final int[] ints = (int[]) values;
+                    System.arraycopy(ints, 0, state.addIntLayer(name).getValues(), 0, ints.length);
+                } else {
+                    final double[] doubles = (double[]) values;
+                    System.arraycopy(doubles, 0, state.addDoubleLayer(name).getValues(), 0, doubles.length);
+                }
+            });
+            behaviour.rules().forEach(state::addLayerRule);
+            final SimulationImpl simulation = new SimulationImpl(state, behaviour.model(), head.tickRate(),
+                    head.over());
+            if (head.running()) {
+                simulation.start();
+            }
+            return simulation;
+        }
+    }
+
+    /*
+     * An agent of a mapped snapshot, built from its columns the first time it
+     * is used; its type is known without building it, so that showing the
+     * grid does not build any agent. It is replaced by the built agent when
+     * serialized.
+     */
+    private static final class LazyAgent implements Agent {
+        private static final long serialVersionUID = 1L;
+        private final transient TypeColumns type;
+        private final int row;
+        private volatile Agent agent;
+
+        LazyAgent(final TypeColumns type, final int row) {
+            this.type = type;
+            this.row = row;
+        }
+
+        private Agent agent() {
+            Agent built = agent;
+            if (built == null) {
+                synchronized (this) {
+                    built = agent;
+                    if (built == null) {
+                        built = type.materialise(row);
+                        agent = built;
+                    }
+                }
+            }
+            return built;
+        }
+
+        private Object writeReplace() {
+            return agent();
+        }
+
+        @Override
+        public State tick(final State state, final Pos pos) {
+            return agent().tick(state, pos);
+        }
+
+        @Override
+        public Parameters getParameters() {
+            return agent().getParameters();
+        }
+
+        @Override
+        public <T extends Serializable> void setParameter(final String key, final T value) {
+            agent().setParameter(key, value);
+        }
+
+        @Override
+        public String getId() {
+            return agent().getId();
+        }
+
+        @Override
+        public String getType() {
+            final Agent built = agent;
+            return built == null ? type.name() : built.getType();
+        }
+
+        @Override
+        public void setType(final String type) {
+            agent().setType(type);
+        }
+
+        @Override
+        public Agent copy() {
+            return agent().copy();
+        }
+    }
+
+    private SnapshotFormat() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * Copies a simulation in memory. The simulation must not change while it
+     * is captured; the capture is independent of it afterwards, but for the
+     * model, the layer rules, the entities and the objects among the values
+     * of the agents, which are only serialized when the capture is written.
+     *
+     * @param simulation the simulation
+     * @return the capture
+     * @throws IOException if the simulation cannot be encoded
+     */
+    static Capture capture(final Simulation simulation) throws IOException {
+        final Optional<List<Type>> layout = layout(simulation);
+        if (layout.isEmpty()) {
+            return new Capture(null, null, serialize(simulation));
+        }
+        final List<Type> types = layout.get();
+        final State state = simulation.getState();
+        final int width = state.getDimensions().getFirst();
+        final int height = state.getDimensions().getSecond();
+
+        final List<Agent> prototypes = new ArrayList<>();
+        types.forEach(t -> prototypes.add(t.prototype.copy()));
+        final Behaviour behaviour = new Behaviour(simulation.getModel(), prototypes,
+                new ArrayList<>(state.getLayerRules()), new ArrayList<>(state.getEntities()));
+
+        final List<TypeValues> typeValues = new ArrayList<>();
+        for (final Type type : types) {
+            final List<Column> columns = new ArrayList<>(type.columns.values());
+            final List<Values> values = new ArrayList<>();
+            for (final Column column : columns) {
+                values.add(Values.of(column, type.agents));
+            }
+            typeValues.add(new TypeValues(type.name, type.agents.size(), columns, values));
+        }
+
+        final byte[] occupancy = new byte[width * height];
+        final Map<String, Integer> codes = new LinkedHashMap<>();
+        types.forEach(t -> codes.put(t.name, codes.size() + 1));
+        for (final Pair<Pos, Agent> pair : state.getAgents()) {
+            occupancy[pair.getFirst().getY() * width + pair.getFirst().getX()] =
+                    codes.get(pair.getSecond().getType()).byteValue();
+        }
+
+        final Map<String, Object> layers = new LinkedHashMap<>();
+        for (final Layer layer : state.getLayers()) {
+            layers.put(layer.getName(), layer instanceof IntLayer
+                    ? ((IntLayer) layer).getValues().clone()
+                    : ((DoubleLayer) layer).getValues().clone());
+        }
+        return new Capture(new Grid(width, height, simulation.getTickRate(), simulation.isRunning(),
+                simulation.isOver(), typeValues, occupancy, layers), behaviour, null);
+    }
+
+    /**
+     * Writes a simulation to a file, replacing it if it exists.
+     *
+     * @param simulation the simulation
+     * @param path       the file
+     * @param compress   whether to deflate the file
+     * @throws IOException if the file cannot be written
+     */
+    static void write(final Simulation simulation, final Path path, final boolean compress) throws IOException {
+        capture(simulation).write(path, compress);
+    }
+
+    /**
+     * Reads a simulation from a file written by
+     * {@link #write(Simulation, Path, boolean)} or by a {@link Capture}, or
+     * serialized by an older version.
+     *
+     * @param path the file
+     * @return the simulation
+     * @throws IOException if the file, or one of the files it is a delta of,
+     *                     cannot be read or is not a simulation
+     */
+    static Simulation read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final int flags = header(channel);
+            if (flags < 0) {
+                try (ObjectInputStream in = new ObjectInputStream(Channels.newInputStream(channel))) {
+                    return (Simulation) in.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("The file is not a saved simulation", e);
+                }
+            }
+            if ((flags & SERIALIZED) != 0) {
+                try (SnapshotInput in = new SnapshotInput(channel, (flags & DEFLATED) != 0)) {
+                    return (Simulation) deserialize(in.getBlock());
+                }
+            }
+            return restore(path, channel, flags, 0).build();
+        }
+    }
+
+    /**
+     * Reads which file a snapshot is a delta of.
+     *
+     * @param path the file of the snapshot
+     * @return the file the snapshot is a delta of, empty if it is not a delta
+     * @throws IOException if the file cannot be read
+     */
+    static Optional<Path> baseOf(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final int flags = header(channel);
+            if (flags < 0 || (flags & DELTA) == 0) {
+                return Optional.empty();
+            }
+            try (SnapshotInput in = new SnapshotInput(channel, (flags & DEFLATED) != 0)) {
+                return Optional.of(path.resolveSibling(in.getString()));
+            }
+        }
+    }
+
+    /*
+     * Creates the file and writes its header.
+     */
+    private static FileChannel create(final Path path, final int flags) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC).putShort(VERSION).putShort((short) flags).flip();
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    /*
+     * Reads the header and returns the flags, or -1, with the channel back
+     * at the start, if the file has no header.
+     */
+    private static int header(final FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header) >= 0) {
+            continue;
+        }
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            channel.position(0);
+            return -1;
+        }
+        final short version = header.getShort();
+        if (version < FIRST_VERSION || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        return header.getShort();
+    }
+
+    /*
+     * Reads a snapshot laid out in columns, after its header, applying it to
+     * the chain of files it is a delta of, if any. The whole chain shares the
+     * behaviour of its full snapshot, so its agents are all built with the
+     * ids of the same model.
+     */
+    private static Restored restore(final Path path, final FileChannel channel, final int flags, final int depth)
+            throws IOException {
+        try (SnapshotInput in = new SnapshotInput(channel, (flags & DEFLATED) != 0)) {
+            final Optional<FileChannel> mapping = (flags & DEFLATED) == 0 ? Optional.of(channel) : Optional.empty();
+            if ((flags & DELTA) == 0) {
+                return readGrid(in, mapping);
+            }
+            if (depth >= MAX_CHAIN) {
+                throw new IOException("The chain of deltas of " + path + " is too long");
+            }
+            final Path basePath = path.resolveSibling(in.getString());
+            final Restored base;
+            try (FileChannel baseChannel = FileChannel.open(basePath, StandardOpenOption.READ)) {
+                final int baseFlags = header(baseChannel);
+                if (baseFlags < 0 || (baseFlags & SERIALIZED) != 0) {
+                    throw new IOException(basePath + " cannot be the base of a delta");
+                }
+                base = restore(basePath, baseChannel, baseFlags, depth + 1);
+            }
+            return readDelta(in, mapping, base);
+        }
+    }
+
+    /*
+     * Groups the agents by type, in the order of their cells; empty if the
+     * simulation cannot be laid out in columns.
+     */
+    private static Optional<List<Type>> layout(final Simulation simulation) {
+        final State state = simulation.getState();
+        final int width = state.getDimensions().getFirst();
+        final int height = state.getDimensions().getSecond();
+        if (simulation.getTickRate() == null
+                || state.getLayers().stream().anyMatch(l -> !(l instanceof IntLayer) && !(l instanceof DoubleLayer))) {
+            return Optional.empty();
+        }
+        final Agent[] cells = new Agent[width * height];
+        for (final Pair<Pos, Agent> pair : state.getAgents()) {
+            final Agent agent = pair.getSecond();
+            if (agent == null || agent.getType() == null) {
+                return Optional.empty();
+            }
+            cells[pair.getFirst().getY() * width + pair.getFirst().getX()] = agent;
+        }
+        final Map<String, Type> types = new LinkedHashMap<>();
+        for (final Agent agent : cells) {
+            if (agent != null) {
+                types.computeIfAbsent(agent.getType(), Type::new).add(agent);
+            }
+        }
+        if (types.size() > MAX_TYPES || !types.values().stream().allMatch(Type::prototypeFits)) {
+            return Optional.empty();
+        }
+        return Optional.of(new ArrayList<>(types.values()));
+    }
+
+    private static void writeHead(final Grid grid, final SnapshotOutput out) throws IOException {
+        out.putInt(grid.width());
+        out.putInt(grid.height());
+        out.putInt(grid.tickRate());
+        out.putByte(grid.running() ? 1 : 0);
+        out.putByte(grid.over() ? 1 : 0);
+    }
+
+    private static void writeTypes(final List<TypeValues> types, final int[] sizes, final SnapshotOutput out)
+            throws IOException {
+        out.putInt(types.size());
+        for (int t = 0; t < types.size(); t++) {
+            out.putString(types.get(t).name());
+            out.putInt(sizes[t]);
+            out.putInt(types.get(t).columns().size());
+            for (final Column column : types.get(t).columns()) {
+                out.putString(column.key());
+                out.putByte(column.kind().ordinal());
+                out.putByte(column.userSettable() ? 1 : 0);
+            }
+        }
+    }
+
+    private static void writeGrid(final Grid grid, final byte[] behaviour, final SnapshotOutput out)
+            throws IOException {
+        writeHead(grid, out);
+        out.putBlock(behaviour);
+        writeTypes(grid.types(), grid.types().stream().mapToInt(TypeValues::size).toArray(), out);
+        out.putBytes(grid.occupancy(), grid.occupancy().length);
+        for (final TypeValues type : grid.types()) {
+            for (final Values values : type.values()) {
+                values.write(out);
+            }
+        }
+        out.putInt(grid.layers().size());
+        for (final Map.Entry<String, Object> layer : grid.layers().entrySet()) {
+            if (layer.getValue() instanceof int[]) {
+                final int[] values = (int[]) layer.getValue();
+                out.putByte(INT_LAYER);
+                out.putString(layer.getKey());
+                out.putInts(values, values.length);
+            } else {
+                final double[] values = (double[]) layer.getValue();
+                out.putByte(DOUBLE_LAYER);
+                out.putString(layer.getKey());
+                out.putDoubles(values, values.length);
+            }
+        }
+    }
+
+    /*
+     * Writes the cells whose agent differs from the one of the base. An
+     * agent following one of the same type is patched with the values that
+     * changed, unless it lacks a value the other has, since parameters
+     * cannot be cleared.
+     */
+    private static void writeDeltaGrid(final Grid base, final Grid grid, final SnapshotOutput out)
+            throws IOException {
+        final int[] baseRows = base.rows();
+        final int[] rows = grid.rows();
+        final Map<String, Integer> baseTypes = new HashMap<>();
+        for (int t = 0; t < base.types().size(); t++) {
+            baseTypes.put(base.types().get(t).name(), t);
+        }
+        final int typeCount = grid.types().size();
+        // the index of each column among those of the same type of the base,
+        // -1 if missing; null if the base has no agents of the type
+        final int[][] baseColumns = new int[typeCount][];
+        final int[][] changedRows = new int[typeCount][];
+        final long[][][] marks = new long[typeCount][][];
+        for (int t = 0; t < typeCount; t++) {
+            final TypeValues type = grid.types().get(t);
+            final Integer b = baseTypes.get(type.name());
+            if (b != null) {
+                final List<Column> columns = base.types().get(b).columns();
+                baseColumns[t] = type.columns().stream().mapToInt(c -> indexOf(columns, c.key())).toArray();
+            }
+            changedRows[t] = new int[type.size()];
+            marks[t] = new long[type.columns().size()][bitmapLength(type.size())];
+        }
+
+        final int cellCount = grid.occupancy().length;
+        final int[] cells = new int[cellCount];
+        final byte[] codes = new byte[cellCount];
+        final long[] patched = new long[bitmapLength(cellCount)];
+        final int[] changedCount = new int[typeCount];
+        int count = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            final int code = Byte.toUnsignedInt(grid.occupancy()[cell]);
+            final int baseCode = Byte.toUnsignedInt(base.occupancy()[cell]);
+            if (code == 0) {
+                if (baseCode != 0) {
+                    cells[count++] = cell;
+                }
+                continue;
+            }
+            final int t = code - 1;
+            final TypeValues type = grid.types().get(t);
+            final int row = rows[cell];
+            final int i = changedCount[t];
+            boolean patch = baseCode != 0 && base.types().get(baseCode - 1).name().equals(type.name());
+            boolean changed = false;
+            if (patch) {
+                final TypeValues baseType = base.types().get(baseCode - 1);
+                final int baseRow = baseRows[cell];
+                patch = keepsValues(baseType, type, row, baseRow);
+                for (int c = 0; patch && c < type.columns().size(); c++) {
+                    final Values values = type.values().get(c);
+                    final int b = baseColumns[t][c];
+                    if (values.has(row) && (b < 0 || !values.same(row, baseType.values().get(b), baseRow))) {
+                        marks[t][c][i >>> 6] |= 1L << i;
+                        changed = true;
+                    }
+                }
+            }
+            if (!patch) {
+                for (int c = 0; c < type.columns().size(); c++) {
+                    marks[t][c][i >>> 6] |= 1L << i;
+                }
+            } else if (changed) {
+                patched[count >>> 6] |= 1L << count;
+            } else {
+                continue;
+            }
+            changedRows[t][i] = row;
+            changedCount[t]++;
+            codes[count] = (byte) code;
+            cells[count++] = cell;
+        }
+
+        writeHead(grid, out);
+        writeTypes(grid.types(), changedCount, out);
+        out.putInt(count);
+        out.putInts(cells, count);
+        out.putBytes(codes, count);
+        out.putLongs(patched, bitmapLength(count));
+        for (int t = 0; t < typeCount; t++) {
+            final TypeValues type = grid.types().get(t);
+            for (int c = 0; c < type.columns().size(); c++) {
+                type.values().get(c).select(changedRows[t], changedCount[t], marks[t][c]).write(out);
+            }
+        }
+
+        out.putInt(grid.layers().size());
+        final int[] indexes = new int[cellCount];
+        for (final Map.Entry<String, Object> layer : grid.layers().entrySet()) {
+            final Object baseValues = base.layers().get(layer.getKey());
+            int changed = 0;
+            if (layer.getValue() instanceof int[]) {
+                final int[] values = (int[]) layer.getValue();
+                final int[] baseInts = baseValues instanceof int[] ? (int[]) baseValues : new int[cellCount];
+                final int[] changedValues = new int[cellCount];
+                for (int cell = 0; cell < cellCount; cell++) {
+                    if (values[cell] != baseInts[cell]) {
+                        indexes[changed] = cell;
+                        changedValues[changed++] = values[cell];
+                    }
+                }
+                out.putByte(INT_LAYER);
+                out.putString(layer.getKey());
+                out.putInt(changed);
+                out.putInts(indexes, changed);
+                out.putInts(changedValues, changed);
+            } else {
+                final double[] values = (double[]) layer.getValue();
+                final double[] baseDoubles = baseValues instanceof double[]
+                        ? (double[]) baseValues : new double[cellCount];
+                final double[] changedValues = new double[cellCount];
+                for (int cell = 0; cell < cellCount; cell++) {
+                    if (Double.compare(values[cell], baseDoubles[cell]) != 0) {
+                        indexes[changed] = cell;
+                        changedValues[changed++] = values[cell];
+                    }
+                }
+                out.putByte(DOUBLE_LAYER);
+                out.putString(layer.getKey());
+                out.putInt(changed);
+                out.putInts(indexes, changed);
+                out.putDoubles(changedValues, changed);
+            }
+        }
+    }
+
+    /*
+     * Whether the agent of the row has a value for each column the agent of
+     * the base row has a value for, so that it can be patched.
+     */
+    private static boolean keepsValues(final TypeValues baseType, final TypeValues type, final int row,
+            final int baseRow) {
+        for (int c = 0; c < baseType.columns().size(); c++) {
+            if (baseType.values().get(c).has(baseRow)) {
+                final int index = indexOf(type.columns(), baseType.columns().get(c).key());
+                if (index < 0 || !type.values().get(index).has(row)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(final List<Column> columns, final String key) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (columns.get(c).key().equals(key)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Reads the head of a snapshot, whose behaviour follows unless it is the
+     * one of its base.
+     */
+    private static Head readHead(final SnapshotInput in, final Optional<Behaviour> base) throws IOException {
+        final int width = in.getInt();
+        final int height = in.getInt();
+        final int tickRate = in.getInt();
+        final boolean running = in.getByte() != 0;
+        final boolean over = in.getByte() != 0;
+        final Behaviour behaviour = base.isPresent() ? base.get() : (Behaviour) deserialize(in.getBlock());
+        return new Head(width, height, tickRate, running, over, behaviour);
+    }
+
+    private static List<TypeHeader> readTypes(final SnapshotInput in, final Behaviour behaviour)
+            throws IOException {
+        final int typeCount = in.getInt();
+        if (typeCount != behaviour.prototypes().size()) {
+            throw new IOException("The snapshot is corrupted");
+        }
+        final List<TypeHeader> types = new ArrayList<>(typeCount);
+        for (int t = 0; t < typeCount; t++) {
+            final String name = in.getString();
+            final int size = in.getInt();
+            final int columnCount = in.getInt();
+            final List<Column> columns = new ArrayList<>(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                columns.add(new Column(in.getString(), Kind.values()[in.getByte()], in.getByte() != 0));
+            }
+            types.add(new TypeHeader(name, size, columns));
+        }
+        return types;
+    }
+
+    private static TypeColumns readTypeColumns(final SnapshotInput in, final Optional<FileChannel> mapping,
+            final TypeHeader type, final Agent prototype, final Model model) throws IOException {
+        final List<IntFunction<Serializable>> values = new ArrayList<>();
+        for (final Column column : type.columns()) {
+            values.add(readColumn(in, mapping, column, type.size()));
+        }
+        return new TypeColumns(type.name(), prototype, type.columns(), values, model);
+    }
+
+    private static Restored readGrid(final SnapshotInput in, final Optional<FileChannel> mapping)
+            throws IOException {
+        final Head head = readHead(in, Optional.empty());
+        final Model model = head.behaviour().model();
+        final List<Agent> prototypes = head.behaviour().prototypes();
+        final List<TypeHeader> types = readTypes(in, head.behaviour());
+        final int cellCount = head.width() * head.height();
+        final ByteBuffer occupancy = region(in, mapping, cellCount);
+        final Agent[][] agents = new Agent[types.size()][];
+        for (int t = 0; t < types.size(); t++) {
+            final TypeColumns type = readTypeColumns(in, mapping, types.get(t), prototypes.get(t), model);
+            agents[t] = new Agent[types.get(t).size()];
+            for (int i = 0; i < agents[t].length; i++) {
+                agents[t][i] = mapping.isPresent() ? new LazyAgent(type, i) : type.materialise(i);
+            }
+        }
+
+        final Agent[] grid = new Agent[cellCount];
+        final int[] next = new int[types.size()];
+        for (int cell = 0; cell < cellCount; cell++) {
+            final int code = Byte.toUnsignedInt(occupancy.get(cell));
+            if (code != 0) {
+                if (code > types.size() || next[code - 1] >= agents[code - 1].length) {
+                    throw new IOException("The snapshot is corrupted");
+                }
+                grid[cell] = agents[code - 1][next[code - 1]++];
+            }
+        }
+        for (int t = 0; t < types.size(); t++) {
+            if (next[t] != agents[t].length) {
+                throw new IOException("The snapshot is corrupted");
+            }
+        }
+
+        final Map<String, Object> layers = new LinkedHashMap<>();
+        final int layerCount = in.getInt();
+        for (int l = 0; l < layerCount; l++) {
+            final byte kind = in.getByte();
+            final String name = in.getString();
+            if (kind == INT_LAYER) {
+                final int[] values = new int[cellCount];
+                region(in, mapping, (long) cellCount * Integer.BYTES).asIntBuffer().get(values);
+                layers.put(name, values);
+            } else {
+                final double[] values = new double[cellCount];
+                region(in, mapping, (long) cellCount * Double.BYTES).asDoubleBuffer().get(values);
+                layers.put(name, values);
+            }
+        }
+        return new Restored(head, grid, layers);
+    }
+
+    /*
+     * Applies a delta to what was read from its base, reusing its arrays.
+     */
+    private static Restored readDelta(final SnapshotInput in, final Optional<FileChannel> mapping,
+            final Restored base) throws IOException {
+        final Head head = readHead(in, Optional.of(base.head().behaviour()));
+        final Model model = head.behaviour().model();
+        if (head.width() != base.head().width() || head.height() != base.head().height()) {
+            throw new IOException("The delta does not match the size of its base");
+        }
+        final List<TypeHeader> types = readTypes(in, head.behaviour());
+        final int count = in.getInt();
+        final int[] cells = new int[count];
+        in.getInts(cells, count);
+        final byte[] codes = new byte[count];
+        in.getBytes(codes, count);
+        final long[] patched = new long[bitmapLength(count)];
+        in.getLongs(patched, patched.length);
+        final List<TypeColumns> columns = new ArrayList<>(types.size());
+        for (final TypeHeader type : types) {
+            // the types of a delta may not be in the order of its base
+            final Agent prototype = head.behaviour().prototypeOf(type.name())
+                    .orElseThrow(() -> new IOException("The delta does not match its base"));
+            columns.add(readTypeColumns(in, mapping, type, prototype, model));
+        }
+
+        final Agent[] grid = base.grid();
+        final int[] next = new int[types.size()];
+        for (int i = 0; i < count; i++) {
+            final int cell = cells[i];
+            final int code = Byte.toUnsignedInt(codes[i]);
+            if (cell < 0 || cell >= grid.length || code > types.size()) {
+                throw new IOException("The snapshot is corrupted");
+            }
+            if (code == 0) {
+                grid[cell] = null;
+                continue;
+            }
+            if (next[code - 1] >= types.get(code - 1).size()) {
+                throw new IOException("The snapshot is corrupted");
+            }
+            final TypeColumns type = columns.get(code - 1);
+            final int row = next[code - 1]++;
+            if (isSet(patched, i)) {
+                if (grid[cell] == null || !Objects.equals(grid[cell].getType(), type.name())) {
+                    throw new IOException("The delta does not match its base");
+                }
+                type.patch(grid[cell], row);
+            } else {
+                grid[cell] = type.materialise(row);
+            }
+        }
+        for (int t = 0; t < types.size(); t++) {
+            if (next[t] != types.get(t).size()) {
+                throw new IOException("The snapshot is corrupted");
+            }
+        }
+
+        final Map<String, Object> layers = new LinkedHashMap<>();
+        final int layerCount = in.getInt();
+        for (int l = 0; l < layerCount; l++) {
+            final byte kind = in.getByte();
+            final String name = in.getString();
+            final Object baseValues = base.layers().get(name);
+            final int changed = in.getInt();
+            final int[] indexes = new int[changed];
+            in.getInts(indexes, changed);
+            if (kind == INT_LAYER) {
+                final int[] values = baseValues instanceof int[] ? (int[]) baseValues : new int[grid.length];
+                final int[] changedValues = new int[changed];
+                in.getInts(changedValues, changed);
+                for (int i = 0; i < changed; i++) {
+                    values[indexes[i]] = changedValues[i];
+                }
+                layers.put(name, values);
+            } else {
+                final double[] values = baseValues instanceof double[]
+                        ? (double[]) baseValues : new double[grid.length];
+                final double[] changedValues = new double[changed];
+                in.getDoubles(changedValues, changed);
+                for (int i = 0; i < changed; i++) {
+                    values[indexes[i]] = changedValues[i];
+                }
+                layers.put(name, values);
+            }
+        }
+        return new Restored(head, grid, layers);
+    }
+
+    /*
+     * The next bytes of the input, mapped if possible, otherwise read.
+     */
+    private static ByteBuffer region(final SnapshotInput in, final Optional<FileChannel> mapping,
+            final long size) throws IOException {
+        if (mapping.isPresent()) {
+            final ByteBuffer region = mapping.get().map(FileChannel.MapMode.READ_ONLY, in.position(), size);
+            in.skip(size);
+            return region;
+        }
+        final byte[] bytes = new byte[Math.toIntExact(size)];
+        in.getBytes(bytes, bytes.length);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /*
+     * Returns the value of each agent of the column, or null; the fixed size
+     * values are read from the region on demand, the others decoded at once.
+     */
+    private static IntFunction<Serializable> readColumn(final SnapshotInput in, final Optional<FileChannel> mapping,
+            final Column column, final int size) throws IOException {
+        final ByteBuffer present = region(in, mapping, (long) bitmapLength(size) * Long.BYTES);
+        final IntPredicate has = i -> isSet(present, i);
+        switch (column.kind()) {
+            case INT -> {
+                final ByteBuffer values = region(in, mapping, (long) size * Integer.BYTES);
+                return i -> has.test(i) ? values.getInt(i * Integer.BYTES) : null;
+            }
+            case LONG -> {
+                final ByteBuffer values = region(in, mapping, (long) size * Long.BYTES);
+                return i -> has.test(i) ? values.getLong(i * Long.BYTES) : null;
+            }
+            case DOUBLE -> {
+                final ByteBuffer values = region(in, mapping, (long) size * Double.BYTES);
+                return i -> has.test(i) ? values.getDouble(i * Double.BYTES) : null;
+            }
+            case BOOLEAN -> {
+                final ByteBuffer values = region(in, mapping, (long) bitmapLength(size) * Long.BYTES);
+                return i -> has.test(i) ? isSet(values, i) : null;
+            }
+            case VECTOR -> {
+                final ByteBuffer values = region(in, mapping, 2L * size * Double.BYTES);
+                return i -> has.test(i)
+                        ? new DirectionVectorImpl(values.getDouble(2 * i * Double.BYTES),
+                                values.getDouble((2 * i + 1) * Double.BYTES))
+                        : null;
+            }
+            case STRING -> {
+                final Serializable[] values = new Serializable[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = in.getString();
+                }
+                return i -> has.test(i) ? values[i] : null;
+            }
+            default -> {
+                final Serializable[] values = new Serializable[size];
+                for (int i = 0; i < size; i++) {
+                    if (has.test(i)) {
+                        values[i] = (Serializable) deserialize(in.getBlock());
+                    }
+                }
+                return i -> values[i];
+            }
+        }
+    }
+
+    private static boolean isSet(final ByteBuffer bitmap, final int index) {
+        return (bitmap.getLong((index >>> 6) * Long.BYTES) & 1L << index) != 0;
+    }
+
+    private static boolean isSet(final long[] bitmap, final int index) {
+        return (bitmap[index >>> 6] & 1L << index) != 0;
+    }
+
+    private static void set(final Parameters parameters, final Column column, final Serializable value) {
+        if (parameters.getParameter(column.key()).isPresent()) {
+            parameters.setParameter(column.key(), value);
+        } else {
+            parameters.addParameter(column.key(), value, column.userSettable());
+        }
+    }
+
+    private static int bitmapLength(final int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static byte[] serialize(final Serializable value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(final byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("The snapshot refers to unknown classes", e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package it.unibo.ares.core.controller;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * SnapshotInput reads the values and the arrays written by a
+ * {@link SnapshotOutput} from a channel, through a single reusable buffer,
+ * optionally inflating them. It is not thread safe.
+ */
+final class SnapshotInput implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).limit(0);
+    // null when the input is not compressed
+    private final Inflater inflater;
+    private final ByteBuffer inflated;
+
+    /**
+     * Creates an input.
+     *
+     * @param channel    the channel to read from, closed with the input
+     * @param compressed whether what is read has to be inflated
+     */
+    SnapshotInput(final ReadableByteChannel channel, final boolean compressed) {
+        this.channel = channel;
+        this.inflater = compressed ? new Inflater() : null;
+        this.inflated = compressed ? ByteBuffer.allocateDirect(BUFFER_SIZE).limit(0) : null;
+    }
+
+    /**
+     * Reads a byte.
+     *
+     * @return the byte
+     * @throws IOException if the channel cannot be read or ends
+     */
+    byte getByte() throws IOException {
+        require(Byte.BYTES);
+        return buffer.get();
+    }
+
+    /**
+     * Reads an int.
+     *
+     * @return the int
+     * @throws IOException if the channel cannot be read or ends
+     */
+    int getInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads a long.
+     *
+     * @return the long
+     * @throws IOException if the channel cannot be read or ends
+     */
+    long getLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    /**
+     * Reads a double.
+     *
+     * @return the double
+     * @throws IOException if the channel cannot be read or ends
+     */
+    double getDouble() throws IOException {
+        require(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads a string written by {@link SnapshotOutput#putString(String)}.
+     *
+     * @return the string, or null
+     * @throws IOException if the channel cannot be read or ends
+     */
+    String getString() throws IOException {
+        final int length = getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        getBytes(bytes, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a block written by {@link SnapshotOutput#putBlock(byte[])}.
+     *
+     * @return the bytes of the block
+     * @throws IOException if the channel cannot be read or ends
+     */
+    byte[] getBlock() throws IOException {
+        final int length = getInt();
+        if (length < 0) {
+            throw new IOException("Invalid block length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        getBytes(bytes, length);
+        return bytes;
+    }
+
+    /**
+     * Fills the first bytes of an array.
+     *
+     * @param values the array
+     * @param length the number of bytes to read
+     * @throws IOException if the channel cannot be read or ends
+     */
+    void getBytes(final byte[] values, final int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            require(Byte.BYTES);
+            final int count = Math.min(buffer.remaining(), length - read);
+            buffer.get(values, read, count);
+            read += count;
+        }
+    }
+
+    /**
+     * Fills the first ints of an array.
+     *
+     * @param values the array
+     * @param length the number of ints to read
+     * @throws IOException if the channel cannot be read or ends
+     */
+    void getInts(final int[] values, final int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            require(Integer.BYTES);
+            final int count = Math.min(buffer.remaining() / Integer.BYTES, length - read);
+            buffer.asIntBuffer().get(values, read, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            read += count;
+        }
+    }
+
+    /**
+     * Fills the first longs of an array.
+     *
+     * @param values the array
+     * @param length the number of longs to read
+     * @throws IOException if the channel cannot be read or ends
+     */
+    void getLongs(final long[] values, final int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            require(Long.BYTES);
+            final int count = Math.min(buffer.remaining() / Long.BYTES, length - read);
+            buffer.asLongBuffer().get(values, read, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            read += count;
+        }
+    }
+
+    /**
+     * Fills the first doubles of an array.
+     *
+     * @param values the array
+     * @param length the number of doubles to read
+     * @throws IOException if the channel cannot be read or ends
+     */
+    void getDoubles(final double[] values, final int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            require(Double.BYTES);
+            final int count = Math.min(buffer.remaining() / Double.BYTES, length - read);
+            buffer.asDoubleBuffer().get(values, read, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            read += count;
+        }
+    }
+
+    /**
+     * Gets the position in the channel of the next byte to read, to map the
+     * regions of the file instead of reading them.
+     *
+     * @return the position
+     * @throws IOException           if the position cannot be read
+     * @throws IllegalStateException if the input is compressed or the
+     *                               channel is not seekable
+     */
+    long position() throws IOException {
+        return seekable().position() - buffer.remaining();
+    }
+
+    /**
+     * Skips bytes, without reading them if they are not buffered yet.
+     *
+     * @param bytes the number of bytes to skip
+     * @throws IOException           if the channel cannot be positioned
+     * @throws IllegalStateException if the input is compressed or the
+     *                               channel is not seekable
+     */
+    void skip(final long bytes) throws IOException {
+        final SeekableByteChannel seekable = seekable();
+        if (bytes <= buffer.remaining()) {
+            buffer.position(buffer.position() + (int) bytes);
+        } else {
+            seekable.position(position() + bytes);
+            buffer.clear().limit(0);
+        }
+    }
+
+    private SeekableByteChannel seekable() {
+        if (inflater != null || !(channel instanceof SeekableByteChannel)) {
+            throw new IllegalStateException("Only uncompressed files can be positioned");
+        }
+        return (SeekableByteChannel) channel;
+    }
+
+    private void require(final int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (!fill()) {
+                    throw new EOFException("The snapshot is truncated");
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /*
+     * Appends to the buffer what the channel, or the inflater, provides;
+     * returns false at the end of the data.
+     */
+    private boolean fill() throws IOException {
+        if (inflater == null) {
+            return channel.read(buffer) >= 0;
+        }
+        if (inflater.finished()) {
+            return false;
+        }
+        if (inflater.needsInput()) {
+            inflated.clear();
+            final int read = channel.read(inflated);
+            inflated.flip();
+            if (read < 0) {
+                return false;
+            }
+            inflater.setInput(inflated);
+        }
+        try {
+            inflater.inflate(buffer);
+        } catch (DataFormatException e) {
+            throw new IOException("The snapshot is corrupted", e);
+        }
+        return true;
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package it.unibo.ares.core.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * SnapshotOutput writes big-endian values and primitive arrays to a channel
+ * through a single reusable buffer, optionally deflating them. Arrays are
+ * copied in bulk, so the cost of a write is proportional to the bytes
+ * written. It is not thread safe.
+ */
+final class SnapshotOutput implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    // null when the output is not compressed
+    private final Deflater deflater;
+    private final ByteBuffer deflated;
+
+    /**
+     * Creates an output.
+     *
+     * @param channel  the channel to write to, closed with the output
+     * @param compress whether to deflate what is written
+     */
+    SnapshotOutput(final WritableByteChannel channel, final boolean compress) {
+        this.channel = channel;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.deflated = compress ? ByteBuffer.allocateDirect(BUFFER_SIZE) : null;
+    }
+
+    /**
+     * Appends a byte.
+     *
+     * @param value the byte
+     * @throws IOException if the channel cannot be written
+     */
+    void putByte(final int value) throws IOException {
+        reserve(Byte.BYTES);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Appends an int.
+     *
+     * @param value the int
+     * @throws IOException if the channel cannot be written
+     */
+    void putInt(final int value) throws IOException {
+        reserve(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Appends a long.
+     *
+     * @param value the long
+     * @throws IOException if the channel cannot be written
+     */
+    void putLong(final long value) throws IOException {
+        reserve(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Appends a double.
+     *
+     * @param value the double
+     * @throws IOException if the channel cannot be written
+     */
+    void putDouble(final double value) throws IOException {
+        reserve(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Appends a string as the int length of its UTF-8 encoding followed by
+     * the encoding, or just -1 if the string is null.
+     *
+     * @param value the string, may be null
+     * @throws IOException if the channel cannot be written
+     */
+    void putString(final String value) throws IOException {
+        if (value == null) {
+            putInt(-1);
+        } else {
+            putBlock(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Appends a block of bytes preceded by its int length.
+     *
+     * @param values the bytes
+     * @throws IOException if the channel cannot be written
+     */
+    void putBlock(final byte[] values) throws IOException {
+        putInt(values.length);
+        putBytes(values, values.length);
+    }
+
+    /**
+     * Appends the first bytes of an array.
+     *
+     * @param values the array
+     * @param length the number of bytes to append
+     * @throws IOException if the channel cannot be written
+     */
+    void putBytes(final byte[] values, final int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            reserve(Byte.BYTES);
+            final int count = Math.min(buffer.remaining(), length - written);
+            buffer.put(values, written, count);
+            written += count;
+        }
+    }
+
+    /**
+     * Appends the first ints of an array.
+     *
+     * @param values the array
+     * @param length the number of ints to append
+     * @throws IOException if the channel cannot be written
+     */
+    void putInts(final int[] values, final int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            reserve(Integer.BYTES);
+            final int count = Math.min(buffer.remaining() / Integer.BYTES, length - written);
+            buffer.asIntBuffer().put(values, written, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            written += count;
+        }
+    }
+
+    /**
+     * Appends the first longs of an array.
+     *
+     * @param values the array
+     * @param length the number of longs to append
+     * @throws IOException if the channel cannot be written
+     */
+    void putLongs(final long[] values, final int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            reserve(Long.BYTES);
+            final int count = Math.min(buffer.remaining() / Long.BYTES, length - written);
+            buffer.asLongBuffer().put(values, written, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            written += count;
+        }
+    }
+
+    /**
+     * Appends the first doubles of an array.
+     *
+     * @param values the array
+     * @param length the number of doubles to append
+     * @throws IOException if the channel cannot be written
+     */
+    void putDoubles(final double[] values, final int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            reserve(Double.BYTES);
+            final int count = Math.min(buffer.remaining() / Double.BYTES, length - written);
+            buffer.asDoubleBuffer().put(values, written, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            written += count;
+        }
+    }
+
+    private void reserve(final int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        if (deflater == null) {
+            write(buffer);
+        } else {
+            deflater.setInput(buffer);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+        buffer.clear();
+    }
+
+    private void deflate() throws IOException {
+        deflater.deflate(deflated);
+        deflated.flip();
+        write(deflated);
+        deflated.clear();
+    }
+
+    private void write(final ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Writes what is buffered, ends the compressed stream if any and closes
+     * the channel.
+     *
+     * @throws IOException if the channel cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            drain();
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+}
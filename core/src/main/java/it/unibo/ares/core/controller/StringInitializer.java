@@ -0,0 +1,94 @@
+package it.unibo.ares.core.controller;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.utils.StringCaster;
+import it.unibo.ares.core.utils.parameters.Parameter;
+import it.unibo.ares.core.utils.parameters.Parameters;
+
+/**
+ * Initializes a model from the values of its parameters given as strings,
+ * as the front ends without a graphical interface read them. The values are
+ * keyed by {@code param.<chiave>} for the model and by
+ * {@code agent.<tipo>.<chiave>} for the agents of a type, each cast to the
+ * type of its parameter.
+ */
+public final class StringInitializer {
+    /**
+     * The prefix of the keys of the model parameters.
+     */
+    public static final String MODEL_PREFIX = "param.";
+    /**
+     * The prefix of the keys of the agent parameters.
+     */
+    public static final String AGENT_PREFIX = "agent.";
+
+    private StringInitializer() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * Splits the prefixed keys into the values of the model parameters and
+     * those of the agent parameters, by agent type, in the order of the
+     * keys; the keys without a prefix are ignored.
+     *
+     * @param <V>         the type of the values
+     * @param values      the values, by prefixed key
+     * @param modelValues receives the values of the model parameters
+     * @param agentValues receives the values of the agent parameters, by
+     *                    agent type
+     * @throws IllegalArgumentException if an agent key has no type
+     */
+    public static <V> void split(final Map<String, V> values, final Map<String, V> modelValues,
+            final Map<String, Map<String, V>> agentValues) {
+        new TreeMap<>(values).forEach((key, value) -> {
+            if (key.startsWith(MODEL_PREFIX)) {
+                modelValues.put(key.substring(MODEL_PREFIX.length()), value);
+            } else if (key.startsWith(AGENT_PREFIX)) {
+                final String[] typeAndKey = key.substring(AGENT_PREFIX.length()).split("\\.", 2);
+                if (typeAndKey.length != 2) {
+                    throw new IllegalArgumentException("Chiave non valida: " + key);
+                }
+                agentValues.computeIfAbsent(typeAndKey[0], t -> new LinkedHashMap<>()).put(typeAndKey[1], value);
+            }
+        });
+    }
+
+    /**
+     * Adds a new initialization of the model and sets its parameters.
+     *
+     * @param modelId     the id of the model
+     * @param seed        the seed of the model, if any
+     * @param modelValues the values of the model parameters
+     * @param agentValues the values of the agent parameters, by agent type
+     * @return the id of the initialization
+     * @throws IllegalArgumentException if a parameter does not exist or its
+     *                                  value is not valid
+     */
+    public static String initialize(final String modelId, final Optional<Long> seed,
+            final Map<String, String> modelValues, final Map<String, Map<String, String>> agentValues) {
+        final AresSupplier supplier = AresSupplier.getInstance();
+        final String id = supplier.addNewModel(modelId);
+        seed.ifPresent(s -> supplier.setModelParameter(id, Model.SEEDKEY, s));
+        final Parameters modelParameters = supplier.getModelParametersParameters(id);
+        modelValues.forEach((key, value) -> supplier.setModelParameter(id, key, cast(modelParameters, key, value)));
+        supplier.getAgentsSimplified(id);
+        agentValues.forEach((type, values) -> {
+            final Parameters agentParameters = supplier.getAgentParametersSimplified(id, type);
+            values.forEach((key, value) -> supplier.setAgentParameterSimplified(id, type, key,
+                    cast(agentParameters, key, value)));
+        });
+        return id;
+    }
+
+    private static Serializable cast(final Parameters parameters, final String key, final String value) {
+        final Parameter<?> parameter = parameters.getParameter(key)
+                .orElseThrow(() -> new IllegalArgumentException("Parametro sconosciuto: " + key));
+        return StringCaster.cast(value, parameter.getType());
+    }
+}
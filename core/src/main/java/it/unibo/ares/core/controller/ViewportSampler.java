@@ -0,0 +1,86 @@
+package it.unibo.ares.core.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.pos.Viewport;
+
+/**
+ * Samples the agents of a state in a viewport, so that only what a view shows
+ * leaves the simulation: the cells outside the viewport are left out and each
+ * block of cells becomes a tile with the type of most of its agents.
+ */
+final class ViewportSampler {
+
+    private ViewportSampler() {
+        throw new IllegalAccessError("This is an utility class");
+    }
+
+    /**
+     * Samples the agents in a viewport.
+     *
+     * @param viewport the viewport, inside the grid
+     * @param agents   the agents, by position
+     * @return the type of each non empty tile, keyed by the position of the
+     *         tile in the viewport; ties go to the type met first
+     */
+    static HashMap<Pos, String> sample(final Viewport viewport, final Set<Pair<Pos, Agent>> agents) {
+        final int block = viewport.getBlockSize();
+        final HashMap<Pos, String> tiles = new HashMap<>();
+        if (block == 1) {
+            for (final Pair<Pos, Agent> agent : agents) {
+                final int dx = agent.getFirst().getX() - viewport.getX();
+                final int dy = agent.getFirst().getY() - viewport.getY();
+                if (inside(viewport, dx, dy)) {
+                    tiles.put(new PosImpl(dx, dy), agent.getSecond().getType());
+                }
+            }
+            return tiles;
+        }
+        final int columns = viewport.getColumns();
+        final int[] counts = new int[columns * viewport.getRows()];
+        final Map<String, Integer> typeIndexes = new HashMap<>();
+        final List<String> types = new ArrayList<>();
+        final List<int[]> countsByType = new ArrayList<>();
+        final List<Integer> touched = new ArrayList<>();
+        for (final Pair<Pos, Agent> agent : agents) {
+            final int dx = agent.getFirst().getX() - viewport.getX();
+            final int dy = agent.getFirst().getY() - viewport.getY();
+            if (!inside(viewport, dx, dy)) {
+                continue;
+            }
+            final int tile = dy / block * columns + dx / block;
+            final String type = agent.getSecond().getType();
+            final int index = typeIndexes.computeIfAbsent(type, t -> {
+                types.add(t);
+                countsByType.add(new int[counts.length]);
+                return types.size() - 1;
+            });
+            countsByType.get(index)[tile]++;
+            if (counts[tile]++ == 0) {
+                touched.add(tile);
+            }
+        }
+        for (final int tile : touched) {
+            int best = 0;
+            for (int t = 1; t < types.size(); t++) {
+                if (countsByType.get(t)[tile] > countsByType.get(best)[tile]) {
+                    best = t;
+                }
+            }
+            tiles.put(new PosImpl(tile % columns, tile / columns), types.get(best));
+        }
+        return tiles;
+    }
+
+    private static boolean inside(final Viewport viewport, final int dx, final int dy) {
+        return dx >= 0 && dy >= 0 && dx < viewport.getWidth() && dy < viewport.getHeight();
+    }
+}
@@ -1,17 +1,12 @@
 package it.unibo.ares.core.model;
 
+import it.unibo.ares.core.agent.Agent;
 import it.unibo.ares.core.agent.BoidsAgentFactory;
-import it.unibo.ares.core.utils.UniquePositionGetter;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.parameters.Parameters;
-import it.unibo.ares.core.utils.pos.Pos;
-import it.unibo.ares.core.utils.pos.PosImpl;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.state.StateImpl;
-import java.util.List;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * A factory class for creating the Boids model.
@@ -36,20 +31,14 @@ public final class BoidsModelFactory implements ModelFactory {
             throw new IllegalArgumentException("The number of agents is greater than the size of the grid");
         }
         final State state = new StateImpl(size, size);
-        final List<Pos> validPositions = IntStream.range(0, size).boxed()
-                .flatMap(i -> IntStream.range(0, size).mapToObj(j -> new PosImpl(i, j)))
-                .map(Pos.class::cast)
-                .toList();
-
-        final UniquePositionGetter getter = new UniquePositionGetter(validPositions);
         final BoidsAgentFactory boidsAgentFactory = new BoidsAgentFactory();
-        Stream
-                .generate(boidsAgentFactory::createAgent)
-                .limit(total)
-                .forEach(a -> {
+        new PopulationInitializer(size, size)
+                .add(total, () -> {
+                    final Agent a = boidsAgentFactory.createAgent();
                     a.setType("B");
-                    state.addAgent(getter.next(), a);
-                });
+                    return a;
+                })
+                .populate(state);
 
         return state;
     }
@@ -3,18 +3,12 @@ package it.unibo.ares.core.model;
 
 import it.unibo.ares.core.agent.FireAgentFactory;
 import it.unibo.ares.core.agent.TreeAgentFactory;
-import it.unibo.ares.core.utils.UniquePositionGetter;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.parameters.Parameters;
-import it.unibo.ares.core.utils.pos.Pos;
-import it.unibo.ares.core.utils.pos.PosImpl;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.state.StateImpl;
 
-import java.util.List;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Generate an instance of a fire spread model. It permits the
@@ -62,23 +56,12 @@ public class FireSpreadModelFactory implements ModelFactory {
         final Double veg = parameters.getParameter("vegetation", Double.class).get().getValue();
         final Integer nt = (int) ((total - nf) * veg);
         final State state = new StateImpl(size, size);
-        final List<Pos> validPositions = IntStream.range(0, size).boxed()
-                .flatMap(i -> IntStream.range(0, size).mapToObj(j -> new PosImpl(i, j)))
-                .map(Pos.class::cast)
-                .toList();
-        final UniquePositionGetter getter = new UniquePositionGetter(validPositions);
-
         final FireAgentFactory fireAgentFactory = new FireAgentFactory();
-        Stream
-                .generate(fireAgentFactory::createAgent)
-                .limit(nf)
-                .forEach(a -> state.addAgent(getter.next(), a));
-
         final TreeAgentFactory treeAgentFactory = new TreeAgentFactory();
-        Stream
-                .generate(treeAgentFactory::createAgent)
-                .limit(nt)
-                .forEach(a -> state.addAgent(getter.next(), a));
+        new PopulationInitializer(size, size)
+                .add(nf, fireAgentFactory::createAgent)
+                .add(nt, treeAgentFactory::createAgent)
+                .populate(state);
 
         return state;
     }
@@ -1,6 +1,7 @@
 package it.unibo.ares.core.model;
 
 import java.io.Serializable;
+import java.util.function.Supplier;
 
 import it.unibo.ares.core.utils.parameters.Parameters;
 import it.unibo.ares.core.utils.state.State;
@@ -15,6 +16,13 @@ public interface Model extends Serializable {
      */
     String SIZEKEY = "size";
 
+    /**
+     * Key of the seed of the simulation randomness, added to every model with
+     * a random default: two runs of a model with the same parameters and seed
+     * evolve identically.
+     */
+    String SEEDKEY = "seed";
+
     /**
      * Performs a tick of the model, updating the simulation enviroment state based
      * on the current state.
@@ -65,4 +73,17 @@ public interface Model extends Serializable {
      */
     Statistics getStatistics(State s);
 
+    /**
+     * Runs an action which builds agents outside of a tick, such as restoring
+     * them from a snapshot, giving them ids unique among those of the agents
+     * of this model.
+     *
+     * @param action the action building the agents
+     * @param <T>    the type of the result
+     * @return the result of the action
+     */
+    default <T> T buildAgents(Supplier<T> action) {
+        return action.get();
+    }
+
 }
@@ -2,20 +2,31 @@ package it.unibo.ares.core.model;
 
 
 import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.agent.AgentIdGenerator;
 import it.unibo.ares.core.utils.Pair;
 import it.unibo.ares.core.utils.lambda.SerializableBiPredicate;
 import it.unibo.ares.core.utils.lambda.SerializableFunction;
+import it.unibo.ares.core.utils.metrics.TickProfiler;
+import it.unibo.ares.core.utils.metrics.TickProfiler.Phase;
 import it.unibo.ares.core.utils.parameters.Parameter;
+import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
+import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.parameters.Parameters;
 import it.unibo.ares.core.utils.parameters.ParametersImpl;
 import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.random.RandomService;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.statistics.Statistics;
 import it.unibo.ares.core.utils.statistics.StatisticsGenerator;
 
 import java.io.Serializable;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 final class ModelBuilderImpl implements ModelBuilder {
 
@@ -70,22 +81,83 @@ final class ModelBuilderImpl implements ModelBuilder {
         if (initFunction == null) {
             throw new IllegalStateException("Init function not set");
         }
+        if (parameters.getParameter(Model.SEEDKEY, Long.class).isEmpty()) {
+            parameters.addParameter(new ParameterImpl<>(Model.SEEDKEY, ThreadLocalRandom.current().nextLong(),
+                    new ParameterDomainImpl<>("Seme dei numeri casuali (stesso seme, stessa simulazione)",
+                            (Long l) -> true),
+                    true));
+        }
         return new Model() {
 
+            private static final long serialVersionUID = 1L;
+            private final AgentIdGenerator ids = new AgentIdGenerator();
+            private RandomService random;
+
+            private RandomService random() {
+                if (random == null) {
+                    random = new RandomService(parameters.getParameter(SEEDKEY, Long.class)
+                            .orElseThrow().getValue());
+                }
+                return random;
+            }
+
             @Override
             public State tick(final State state) {
+                return ids.runWith(() -> random().runWith(() -> tickAgents(state)));
+            }
+
+            private State tickAgents(final State state) {
+                final Optional<TickProfiler> profiler = TickProfiler.current();
+                if (profiler.isPresent()) {
+                    return tickAgentsProfiled(state, profiler.get());
+                }
+                final Set<Pair<Pos, Agent>> agents = state.getAgents();
+                final State newState = state.copy();
+                for (final Pair<Pos, Agent> pair : agents) {
+                    final Agent agent = pair.getSecond();
+                    final Pos pos = pair.getFirst();
+                    if (isStillAt(newState, pos, agent)) {
+                        agent.tick(newState, pos);
+                    }
+                }
+                newState.updateLayers();
+                return newState;
+            }
+
+            /*
+             * Same as tickAgents, timing each phase and the agents by type;
+             * kept apart so that unprofiled ticks do not pay for it.
+             */
+            private State tickAgentsProfiled(final State state, final TickProfiler profiler) {
+                final long start = System.nanoTime();
                 final Set<Pair<Pos, Agent>> agents = state.getAgents();
                 final State newState = state.copy();
+                final long copied = System.nanoTime();
+                final Map<String, long[]> byType = new HashMap<>();
                 for (final Pair<Pos, Agent> pair : agents) {
                     final Agent agent = pair.getSecond();
                     final Pos pos = pair.getFirst();
-                    if (newState.getAgentAt(pos).isPresent() && newState.getAgentAt(pos).get().equals(agent)) {
+                    if (isStillAt(newState, pos, agent)) {
+                        final long agentStart = System.nanoTime();
                         agent.tick(newState, pos);
+                        byType.computeIfAbsent(agent.getType(), t -> new long[1])[0] += System.nanoTime()
+                                - agentStart;
                     }
                 }
+                final long stepped = System.nanoTime();
+                newState.updateLayers();
+                profiler.record(Phase.COPY, copied - start);
+                profiler.record(Phase.AGENTS, stepped - copied);
+                profiler.record(Phase.LAYERS, System.nanoTime() - stepped);
+                byType.forEach((type, nanos) -> profiler.recordAgentType(type, nanos[0]));
                 return newState;
             }
 
+            private boolean isStillAt(final State newState, final Pos pos, final Agent agent) {
+                final Optional<Agent> current = newState.getAgentAt(pos);
+                return current.isPresent() && current.get().equals(agent);
+            }
+
             @Override
             public Parameters getParameters() {
                 return parameters;
@@ -103,7 +175,8 @@ final class ModelBuilderImpl implements ModelBuilder {
 
             @Override
             public State initilize() {
-                return initFunction.apply(parameters);
+                random = null;
+                return ids.runWith(() -> random().runWith(() -> initFunction.apply(parameters)));
             }
 
             @Override
@@ -111,6 +184,11 @@ final class ModelBuilderImpl implements ModelBuilder {
                 return generator == null ? Collections::emptyList : generator.generate(s);
             }
 
+            @Override
+            public <T> T buildAgents(final Supplier<T> action) {
+                return ids.runWith(action);
+            }
+
         };
     }
 
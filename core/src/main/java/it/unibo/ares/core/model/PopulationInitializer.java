@@ -0,0 +1,134 @@
+package it.unibo.ares.core.model;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.agent.AgentIdGenerator;
+import it.unibo.ares.core.utils.UniquePositionGetter;
+import it.unibo.ares.core.utils.random.RandomService;
+import it.unibo.ares.core.utils.state.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Populates a grid with groups of agents placed on distinct random cells.
+ * The cells are drawn first, then the agents are built in chunks on the
+ * common ForkJoinPool, finally they are all loaded into the state with a
+ * single bulk insertion. Each chunk draws from its own split of the current
+ * {@link RandomService} and each agent gets the id a sequential build would
+ * have given it, so the result only depends on the seed and not on how the
+ * chunks were scheduled.
+ */
+final class PopulationInitializer {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final int width;
+    private final int height;
+    private final List<Group> groups = new ArrayList<>();
+    private Optional<Long> seed = Optional.empty();
+    private boolean parallel = true;
+
+    private record Group(int count, Supplier<Agent> supplier) {
+    }
+
+    /**
+     * Creates a new initializer for a grid of the given size.
+     *
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     */
+    PopulationInitializer(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Adds a group of agents, placed after the previously added ones.
+     *
+     * @param count    the number of agents of the group
+     * @param supplier builds each agent of the group, it may be called
+     *                 concurrently
+     * @return this initializer
+     */
+    PopulationInitializer add(final int count, final Supplier<Agent> supplier) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The number of agents cannot be negative");
+        }
+        groups.add(new Group(count, supplier));
+        return this;
+    }
+
+    /**
+     * Fixes the seed of the placement, by default drawn from the current
+     * {@link RandomService}.
+     *
+     * @param seed the seed
+     * @return this initializer
+     */
+    PopulationInitializer withSeed(final long seed) {
+        this.seed = Optional.of(seed);
+        return this;
+    }
+
+    /**
+     * Sets whether agents may be built concurrently, to be disabled when the
+     * suppliers are not thread safe.
+     *
+     * @param parallel whether agents may be built concurrently
+     * @return this initializer
+     */
+    PopulationInitializer parallel(final boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Builds the agents of all the groups and adds them to the state.
+     *
+     * @param state the state to populate, sized as this initializer
+     * @throws IllegalArgumentException if the agents do not fit in the grid
+     */
+    void populate(final State state) {
+        final int total = groups.stream().mapToInt(Group::count).sum();
+        if (total > width * height) {
+            throw new IllegalArgumentException("The number of agents is greater than the size of the grid");
+        }
+        final RandomService random = RandomService.current();
+        final UniquePositionGetter getter = seed
+                .map(s -> new UniquePositionGetter(width, height, s))
+                .orElseGet(() -> new UniquePositionGetter(width, height, random.generator()));
+        final int[] cells = new int[total];
+        for (int i = 0; i < total; i++) {
+            cells[i] = getter.nextIndex();
+        }
+
+        final Agent[] agents = new Agent[total];
+        final AgentIdGenerator ids = AgentIdGenerator.current();
+        int offset = 0;
+        for (final Group group : groups) {
+            final int groupOffset = offset;
+            final int chunks = (group.count() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            final AgentIdGenerator[] chunkIds = new AgentIdGenerator[chunks];
+            final RandomService[] chunkRandoms = new RandomService[chunks];
+            for (int c = 0; c < chunks; c++) {
+                chunkIds[c] = ids.reserve(Math.min(CHUNK_SIZE, group.count() - c * CHUNK_SIZE));
+                chunkRandoms[c] = random.split();
+            }
+            final IntStream chunkIndexes = IntStream.range(0, chunks);
+            (parallel && chunks > 1 ? chunkIndexes.parallel() : chunkIndexes)
+                    .forEach(c -> chunkIds[c].runWith(() -> chunkRandoms[c].runWith(() -> {
+                        final int from = groupOffset + c * CHUNK_SIZE;
+                        final int to = Math.min(from + CHUNK_SIZE, groupOffset + group.count());
+                        for (int i = from; i < to; i++) {
+                            agents[i] = group.supplier().get();
+                        }
+                        return null;
+                    })));
+            offset += group.count();
+        }
+
+        state.addAgents(cells, agents);
+    }
+}
@@ -3,19 +3,12 @@ package it.unibo.ares.core.model;
 import it.unibo.ares.core.agent.AgentFactory;
 import it.unibo.ares.core.agent.PredatorAgentFactory;
 import it.unibo.ares.core.agent.PreyAgentFactory;
-import it.unibo.ares.core.utils.UniquePositionGetter;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.parameters.Parameters;
-import it.unibo.ares.core.utils.pos.Pos;
-import it.unibo.ares.core.utils.pos.PosImpl;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.state.StateImpl;
 
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * A factory class for creating the Predator-Prey model.
@@ -45,20 +38,13 @@ public final class PredatorPreyModelFactory implements ModelFactory {
         }
         final State state = new StateImpl(size, size);
 
-        final List<Pos> validPositions = IntStream.range(0, size).boxed()
-                .flatMap(i -> IntStream.range(0, size).mapToObj(j -> new PosImpl(i, j)))
-                .collect(Collectors.toList());
-
-        final UniquePositionGetter getter = new UniquePositionGetter(validPositions);
         final AgentFactory predatorFactory = new PredatorAgentFactory();
         final AgentFactory preyFactory = new PreyAgentFactory();
 
-        Stream.generate(preyFactory::createAgent)
-                .limit(numAgentsPrey).forEach(a -> state.addAgent(getter.next(), a));
-
-        Stream.generate(
-                predatorFactory::createAgent)
-                .limit(numAgentsPredator).forEach(a -> state.addAgent(getter.next(), a));
+        new PopulationInitializer(size, size)
+                .add(numAgentsPrey, preyFactory::createAgent)
+                .add(numAgentsPredator, predatorFactory::createAgent)
+                .populate(state);
 
         return state;
     }
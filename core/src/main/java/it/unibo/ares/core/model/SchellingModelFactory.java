@@ -2,16 +2,13 @@
 package it.unibo.ares.core.model;
 
 import it.unibo.ares.core.agent.Agent;
-import it.unibo.ares.core.agent.AgentFactory;
+import it.unibo.ares.core.agent.AgentStore;
 import it.unibo.ares.core.agent.SchellingsAgentFactory;
 import it.unibo.ares.core.utils.Pair;
-import it.unibo.ares.core.utils.UniquePositionGetter;
 import it.unibo.ares.core.utils.parameters.Parameter;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.parameters.Parameters;
-import it.unibo.ares.core.utils.pos.Pos;
-import it.unibo.ares.core.utils.pos.PosImpl;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.state.StateImpl;
 import it.unibo.ares.core.utils.statistics.Statistics;
@@ -20,9 +17,6 @@ import it.unibo.ares.core.utils.statistics.StatisticsGenerator;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalDouble;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Generate an instance of a schelling segregation model. It permits the
@@ -34,6 +28,10 @@ public final class SchellingModelFactory implements ModelFactory {
     private static final long serialVersionUID = 1L;
     private static final String MODEL_ID = "Schelling";
     private static final StatisticsGenerator GENERATOR;
+    /**
+     * Number of agents from which the agents are kept in a columnar store.
+     */
+    private static final int LARGE_POPULATION = 10_000;
 
     static {
         GENERATOR = s -> new Statistics() {
@@ -88,8 +86,9 @@ public final class SchellingModelFactory implements ModelFactory {
         return MODEL_ID;
     }
 
-    private static String getAgentType(final int na, final int index) {
-        return index < na ? "A" : "B";
+    private static Agent typed(final Agent agent, final String type) {
+        agent.setType(type);
+        return agent;
     }
 
     private static State schellingInitializer(final Parameters parameters) throws IllegalAccessException {
@@ -105,21 +104,20 @@ public final class SchellingModelFactory implements ModelFactory {
             throw new IllegalArgumentException("The number of agents is greater than the size of the grid");
         }
         final State state = new StateImpl(size, size);
-        final List<Pos> validPositions = IntStream.range(0, size).boxed()
-                .flatMap(i -> IntStream.range(0, size).mapToObj(j -> new PosImpl(i, j)))
-                .map(Pos.class::cast)
-                .toList();
-
-        final UniquePositionGetter getter = new UniquePositionGetter(validPositions);
-        final AgentFactory schellingFactory = new SchellingsAgentFactory();
-        final List<Agent> agents = Stream
-                .generate(schellingFactory::createAgent)
-                .limit(total)
-                .collect(Collectors.toList());
-        IntStream.range(0, total)
-                .forEach(i -> agents.get(i).setType(getAgentType(na, i)));
-        IntStream.range(0, total)
-                .forEach(i -> state.addAgent(getter.next(), agents.get(i)));
+        final SchellingsAgentFactory schellingFactory = new SchellingsAgentFactory();
+        final PopulationInitializer initializer = new PopulationInitializer(size, size);
+        if (total >= LARGE_POPULATION) {
+            // the store hands out rows sequentially, so it cannot be filled concurrently
+            final AgentStore store = schellingFactory.createAgentStore("A", "B");
+            initializer.parallel(false)
+                    .add(na, () -> store.createAgent("A"))
+                    .add(nb, () -> store.createAgent("B"));
+        } else {
+            initializer
+                    .add(na, () -> typed(schellingFactory.createAgent(), "A"))
+                    .add(nb, () -> typed(schellingFactory.createAgent(), "B"));
+        }
+        initializer.populate(state);
 
         return state;
     }
@@ -2,18 +2,11 @@ package it.unibo.ares.core.model;
 
 import it.unibo.ares.core.agent.SugarAgentFactory;
 import it.unibo.ares.core.agent.ConsumerAgentFactory;
-import it.unibo.ares.core.utils.UniquePositionGetter;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.parameters.Parameters;
-import it.unibo.ares.core.utils.pos.Pos;
-import it.unibo.ares.core.utils.pos.PosImpl;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.state.StateImpl;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * A factory class for creating the SugarscapeModelFactory model.
@@ -37,27 +30,30 @@ public final class SugarscapeModelFactory implements ModelFactory {
 
         final int numAgentsSugar = parameters.getParameter("numeroAgentiSugar", Integer.class)
                 .orElseThrow(IllegalAccessException::new).getValue();
+        final int sugarAmount = parameters.getParameter(SugarAgentFactory.SUGAR_AMOUNT, Integer.class)
+                .orElseThrow(IllegalAccessException::new).getValue();
+        final int maxSugar = parameters.getParameter(SugarAgentFactory.MAX_SUGAR, Integer.class)
+                .orElseThrow(IllegalAccessException::new).getValue();
+        final int growthRate = parameters.getParameter(SugarAgentFactory.GROWTH_RATE, Integer.class)
+                .orElseThrow(IllegalAccessException::new).getValue();
 
         if (size * size < numAgentsConsumer + numAgentsSugar) {
             throw new IllegalArgumentException("The number of agents is greater than the size of the grid");
         }
         final StateImpl state = new StateImpl(size, size);
+        SugarAgentFactory.addSugarLayers(state);
 
-        final List<Pos> validPositions = IntStream.range(0, size).boxed()
-                .flatMap(i -> IntStream.range(0, size).mapToObj(j -> new PosImpl(i, j)))
-                .collect(Collectors.toList());
-
-        final UniquePositionGetter getter = new UniquePositionGetter(validPositions);
         final SugarAgentFactory sugarFactory = new SugarAgentFactory();
         final ConsumerAgentFactory consumerFactory = new ConsumerAgentFactory();
 
-        Stream.generate(
-                sugarFactory::createAgent)
-                .limit(numAgentsSugar).forEach(a -> state.addAgent(getter.next(), a));
-
-        Stream.generate(
-                consumerFactory::createAgent)
-                .limit(numAgentsConsumer).forEach(a -> state.addAgent(getter.next(), a));
+        new PopulationInitializer(size, size)
+                .add(numAgentsSugar, sugarFactory::createAgent)
+                .add(numAgentsConsumer, consumerFactory::createAgent)
+                .populate(state);
+        state.getAgents().stream()
+                .filter(pair -> SugarAgentFactory.SUGAR.equals(pair.getSecond().getType()))
+                .forEach(pair -> SugarAgentFactory.setSugar(state, pair.getFirst(),
+                        Math.min(sugarAmount, maxSugar), maxSugar, growthRate));
 
         return state;
     }
@@ -73,6 +69,15 @@ public final class SugarscapeModelFactory implements ModelFactory {
                         new ParameterDomainImpl<>("Numero di agenti sugar",
                                 (Integer n) -> n >= 0),
                         true))
+                .addParameter(new ParameterImpl<>(SugarAgentFactory.MAX_SUGAR, Integer.class,
+                        new ParameterDomainImpl<>("zucchero massimo Producer", (Integer i) -> i > 0),
+                        true))
+                .addParameter(new ParameterImpl<>(SugarAgentFactory.SUGAR_AMOUNT, Integer.class,
+                        new ParameterDomainImpl<>("quanto zucchero iniziale Producer", (Integer i) -> i >= 0),
+                        true))
+                .addParameter(new ParameterImpl<>(SugarAgentFactory.GROWTH_RATE, Integer.class,
+                        new ParameterDomainImpl<>("velocita crescita zucchero producer", (Integer i) -> i > 0),
+                        true))
                 .addParameter(new ParameterImpl<>(Model.SIZEKEY, Integer.class,
                         new ParameterDomainImpl<>("Dimensione della griglia",
                                 (Integer n) -> n >= 0),
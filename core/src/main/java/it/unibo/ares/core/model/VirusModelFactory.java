@@ -1,18 +1,12 @@
 
 package it.unibo.ares.core.model;
 
-import java.util.List;
-import java.util.stream.IntStream;
 
-import it.unibo.ares.core.agent.Agent;
 import it.unibo.ares.core.agent.IVirusAgentFactory;
 import it.unibo.ares.core.agent.PVirusAgentFactory;
-import it.unibo.ares.core.utils.UniquePositionGetter;
 import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
 import it.unibo.ares.core.utils.parameters.ParameterImpl;
 import it.unibo.ares.core.utils.parameters.Parameters;
-import it.unibo.ares.core.utils.pos.Pos;
-import it.unibo.ares.core.utils.pos.PosImpl;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.state.StateImpl;
 
@@ -72,24 +66,14 @@ public final class VirusModelFactory implements ModelFactory {
             throw new IllegalArgumentException("The number of agents is greater than the size of the grid");
         }
 
-        final List<Pos> validPositions = IntStream.range(0, size).boxed()
-                .flatMap(i -> IntStream.range(0, size).mapToObj(j -> new PosImpl(i, j)))
-                .map(Pos.class::cast)
-                .toList();
-
         // Create a new state and populate it with agents at valid positions
         final State state = new StateImpl(size, size);
-        final UniquePositionGetter getter = new UniquePositionGetter(validPositions);
         final PVirusAgentFactory factoryP = new PVirusAgentFactory();
         final IVirusAgentFactory factoryI = new IVirusAgentFactory();
-        for (int i = 0; i < p; i++) {
-            final Agent agent = factoryP.createAgent();
-            state.addAgent(getter.next(), agent);
-        }
-        for (int i = 0; i < pInfected; i++) {
-            final Agent agent = factoryI.createAgent();
-            state.addAgent(getter.next(), agent);
-        }
+        new PopulationInitializer(size, size)
+                .add(p, factoryP::createAgent)
+                .add(pInfected, factoryI::createAgent)
+                .populate(state);
         return state;
     }
 
@@ -1,6 +1,6 @@
 package it.unibo.ares.core.utils;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -83,7 +83,7 @@ public final class ComputationUtils {
      * @param r a random generator
      * @return The random direction.
      */
-    public static DirectionVectorImpl getRandomDirection(final Random r) {
+    public static DirectionVectorImpl getRandomDirection(final RandomGenerator r) {
         final int negBound = -10;
         final int posBound = 10;
         final int x = r.nextInt(negBound, posBound), y = r.nextInt(negBound, posBound);
@@ -1,34 +1,91 @@
 package it.unibo.ares.core.utils;
 
 import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.random.RandomService;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Random;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.util.function.IntFunction;
+import java.util.random.RandomGenerator;
 
 /**
  * This class provides a method to get a unique position from a list of
- * positions.
+ * positions, or from all the cells of a grid.
+ * The positions are extracted by a partial Fisher–Yates shuffle of the
+ * indices, performed one step per extraction: each call costs constant time
+ * regardless of how many positions were already taken.
  */
 public class UniquePositionGetter implements Iterator<Pos> {
-    private final List<Pos> positions;
-    private final Random r;
-    private final Set<Integer> extracted;
+    private final IntFunction<Pos> positions;
+    private final int size;
+    private final RandomGenerator r;
+    /*
+     * Lazily shuffled permutation of the indices: a zero entry stands for the
+     * identity, any other entry holds the swapped index plus one. Being
+     * zero-filled, it needs no initialization pass.
+     */
+    private int[] permutation;
+    private int extracted;
+
+    private UniquePositionGetter(final IntFunction<Pos> positions, final int size, final RandomGenerator r) {
+        this.positions = positions;
+        this.size = size;
+        this.r = r;
+    }
 
     /**
-     * Creates a new UniquePositionGetter.
+     * Creates a new UniquePositionGetter, drawing from the current
+     * {@link RandomService}.
      *
      * @param positions the list of positions to get the index.
      */
     public UniquePositionGetter(final List<Pos> positions) {
-        r = new Random();
-        this.positions = Collections.unmodifiableList(positions);
-        this.extracted = new HashSet<>();
+        this(Collections.unmodifiableList(positions)::get, positions.size(), RandomService.currentGenerator());
+    }
+
+    /**
+     * Creates a new UniquePositionGetter over all the cells of a grid, without
+     * materializing them, drawing from the current {@link RandomService}.
+     *
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     */
+    public UniquePositionGetter(final int width, final int height) {
+        this(width, height, RandomService.currentGenerator());
+    }
+
+    /**
+     * Creates a new UniquePositionGetter over all the cells of a grid, whose
+     * extraction order is fully determined by the given seed.
+     *
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     * @param seed   the seed of the extraction order
+     */
+    public UniquePositionGetter(final int width, final int height, final long seed) {
+        this(width, height, new RandomService(seed).generator());
+    }
+
+    /**
+     * Creates a new UniquePositionGetter over all the cells of a grid, drawing
+     * from the given generator.
+     *
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     * @param r      the generator to draw from
+     */
+    public UniquePositionGetter(final int width, final int height, final RandomGenerator r) {
+        this(i -> new PosImpl(i % width, i / width), checkedSize(width, height), r);
+    }
+
+    private static int checkedSize(final int width, final int height) {
+        if (width < 0 || height < 0 || (long) width * height >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid grid size " + width + "x" + height);
+        }
+        return width * height;
     }
 
     /**
@@ -38,27 +95,54 @@ public class UniquePositionGetter implements Iterator<Pos> {
      */
     @Override
     public boolean hasNext() {
-        return extracted.size() < positions.size();
+        return extracted < size;
+    }
+
+    /**
+     * Returns the number of positions not extracted yet.
+     *
+     * @return the number of positions not extracted yet
+     */
+    public int remaining() {
+        return size - extracted;
     }
 
     /**
      * Returns the next unique position if present, otherwise throws a
      * NoSuchElementException.
-     * 
+     *
      * @throws NoSuchElementException if all positions have been extracted.
      * @return the next unique position.
      */
     @Override
     public Pos next() {
-        if (extracted.size() == positions.size()) {
+        return positions.apply(nextIndex());
+    }
+
+    /**
+     * Returns the index of the next unique position, for a grid the row-major
+     * index of the cell (y * width + x). Avoids creating the position when the
+     * caller works on indices.
+     *
+     * @throws NoSuchElementException if all positions have been extracted.
+     * @return the index of the next unique position.
+     */
+    public int nextIndex() {
+        if (extracted == size) {
             throw new NoSuchElementException("All positions have been extracted");
         }
-        final int position = Stream.generate(() -> r.nextInt(positions.size()))
-                .filter(i -> !extracted.contains(i))
-                .limit(1)
-                .findAny()
-                .orElseThrow(() -> new NoSuchElementException("All positions have been extracted"));
-        extracted.add(position);
-        return positions.get(position);
+        if (permutation == null) {
+            permutation = new int[size];
+        }
+        final int chosen = extracted + r.nextInt(size - extracted);
+        final int value = valueAt(chosen);
+        permutation[chosen] = valueAt(extracted) + 1;
+        extracted++;
+        return value;
+    }
+
+    private int valueAt(final int index) {
+        final int stored = permutation[index];
+        return stored == 0 ? index : stored - 1;
     }
 }
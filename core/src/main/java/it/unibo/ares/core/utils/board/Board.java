@@ -6,6 +6,7 @@ import it.unibo.ares.core.utils.pos.Pos;
 import java.io.Serializable;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiPredicate;
 
 /**
  * A board is a 2D grid, we associate a generica entity of type V to a position
@@ -47,4 +48,43 @@ public interface Board<V extends Serializable> extends Serializable {
      *         if no entity is present
      */
     Optional<V> getEntity(Pos pos);
+
+    /**
+     * Adds many entities at once, either all of them or none.
+     *
+     * @param positions the positions where the entities should be added
+     * @param entities  the entities to be added, one per position
+     * @throws IllegalArgumentException if the arrays differ in length, a
+     *                                  position is already occupied or appears
+     *                                  twice
+     */
+    void addEntities(Pos[] positions, V[] entities);
+
+    /**
+     * Moves many entities at once, as if all the moves happened
+     * simultaneously: an entity may move to a position another one is leaving
+     * in the same batch.
+     *
+     * @param from the positions the entities move from
+     * @param to   the positions the entities move to, one per origin
+     * @throws IllegalArgumentException if the arrays differ in length, an origin
+     *                                  is not occupied or appears twice, or two
+     *                                  entities would end up in the same position
+     */
+    void moveEntities(Pos[] from, Pos[] to);
+
+    /**
+     * Removes every entity matching the given predicate.
+     *
+     * @param predicate tested with each position and the entity on it
+     * @return the number of removed entities
+     */
+    int removeIf(BiPredicate<Pos, V> predicate);
+
+    /**
+     * Copies the board, the entities themselves are shared.
+     *
+     * @return a modifiable copy of the board
+     */
+    Board<V> copy();
 }
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 import java.io.Serializable;
 
@@ -27,6 +28,10 @@ public final class BoardImpl<V extends Serializable> implements Board<V> {
         this.entities = new HashMap<>();
     }
 
+    private BoardImpl(final Map<Pos, V> entities) {
+        this.entities = new HashMap<>(entities);
+    }
+
     /*
      * {@inheritDoc}
      */
@@ -65,4 +70,76 @@ public final class BoardImpl<V extends Serializable> implements Board<V> {
     public Optional<V> getEntity(final Pos pos) {
         return Optional.ofNullable(entities.get(pos));
     }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEntities(final Pos[] positions, final V[] entities) {
+        if (positions.length != entities.length) {
+            throw new IllegalArgumentException("Expected one position per entity");
+        }
+        for (int i = 0; i < positions.length; i++) {
+            final V previous = this.entities.putIfAbsent(positions[i], entities[i]);
+            if (previous != null) {
+                for (int j = 0; j < i; j++) {
+                    this.entities.remove(positions[j]);
+                }
+                throw new IllegalArgumentException("Position " + positions[i] + " is already occupied by " + previous);
+            }
+        }
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void moveEntities(final Pos[] from, final Pos[] to) {
+        if (from.length != to.length) {
+            throw new IllegalArgumentException("Expected one destination per origin");
+        }
+        final V[] moving = (V[]) new Serializable[from.length];
+        for (int i = 0; i < from.length; i++) {
+            moving[i] = entities.remove(from[i]);
+            if (moving[i] == null) {
+                restore(from, moving, i);
+                throw new IllegalArgumentException("Position " + from[i] + " is not occupied");
+            }
+        }
+        for (int i = 0; i < to.length; i++) {
+            final V previous = entities.putIfAbsent(to[i], moving[i]);
+            if (previous != null) {
+                for (int j = 0; j < i; j++) {
+                    entities.remove(to[j]);
+                }
+                restore(from, moving, from.length);
+                throw new IllegalArgumentException("Position " + to[i] + " is already occupied by " + previous);
+            }
+        }
+    }
+
+    private void restore(final Pos[] from, final V[] moving, final int count) {
+        for (int i = 0; i < count; i++) {
+            entities.put(from[i], moving[i]);
+        }
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeIf(final BiPredicate<Pos, V> predicate) {
+        final int before = entities.size();
+        entities.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue()));
+        return before - entities.size();
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public Board<V> copy() {
+        return new BoardImpl<>(entities);
+    }
 }
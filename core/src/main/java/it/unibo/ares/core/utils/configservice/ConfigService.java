@@ -11,4 +11,43 @@ public interface ConfigService {
      * @return true if the service is asynchronous, false otherwise.
      */
     Boolean isAsync();
+
+    /**
+     * Checks if the metrics endpoint is enabled.
+     *
+     * @return true if the metrics of the simulations should be served, false
+     *         otherwise.
+     */
+    Boolean isMetricsEnabled();
+
+    /**
+     * Gets the port of the metrics endpoint.
+     *
+     * @return the port on which the metrics are served.
+     */
+    Integer getMetricsPort();
+
+    /**
+     * Gets the interval between the periodic checkpoints of the running
+     * simulations.
+     *
+     * @return the interval in seconds, 0 if the simulations are only
+     *         checkpointed on demand.
+     */
+    Integer getCheckpointInterval();
+
+    /**
+     * Gets the number of checkpoints kept for each simulation.
+     *
+     * @return the number of the most recent checkpoints kept.
+     */
+    Integer getCheckpointRetention();
+
+    /**
+     * Gets every how many checkpoints of a simulation one is a full
+     * snapshot, the others only holding what changed since the previous one.
+     *
+     * @return the number of checkpoints from a full snapshot to the next.
+     */
+    Integer getCheckpointBase();
 }
@@ -24,6 +24,9 @@ public final class ConfigServiceImpl implements ConfigService {
      * The singleton instance of the ConfigServiceImpl.
      */
     private static volatile ConfigServiceImpl instance;
+    private static final int DEFAULT_METRICS_PORT = 9464;
+    private static final int DEFAULT_CHECKPOINT_RETENTION = 5;
+    private static final int DEFAULT_CHECKPOINT_BASE = 10;
     /**
      * The Ini object representing the .ini file.
      */
@@ -116,4 +119,29 @@ public final class ConfigServiceImpl implements ConfigService {
     public Boolean isAsync() {
         return read("simulation", "async", Boolean.class).map(Boolean::valueOf).orElse(false);
     }
+
+    @Override
+    public Boolean isMetricsEnabled() {
+        return read("Metrics", "enabled", Boolean.class).orElse(false);
+    }
+
+    @Override
+    public Integer getMetricsPort() {
+        return read("Metrics", "port", Integer.class).orElse(DEFAULT_METRICS_PORT);
+    }
+
+    @Override
+    public Integer getCheckpointInterval() {
+        return read("Checkpoints", "interval", Integer.class).orElse(0);
+    }
+
+    @Override
+    public Integer getCheckpointRetention() {
+        return read("Checkpoints", "retention", Integer.class).orElse(DEFAULT_CHECKPOINT_RETENTION);
+    }
+
+    @Override
+    public Integer getCheckpointBase() {
+        return read("Checkpoints", "base", Integer.class).orElse(DEFAULT_CHECKPOINT_BASE);
+    }
 }
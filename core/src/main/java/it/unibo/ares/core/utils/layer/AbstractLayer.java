@@ -0,0 +1,69 @@
+package it.unibo.ares.core.utils.layer;
+
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * Base class for the raster layers, it handles the name and the mapping
+ * between positions and cell indexes (row-major).
+ */
+abstract class AbstractLayer implements Layer {
+    private static final long serialVersionUID = 1L;
+    private final String name;
+    private final Pair<Integer, Integer> size;
+
+    /**
+     * Creates a new layer.
+     *
+     * @param name   the name of the layer
+     * @param width  the width of the layer
+     * @param height the height of the layer
+     */
+    AbstractLayer(final String name, final int width, final int height) {
+        if (name == null) {
+            throw new IllegalArgumentException("Layer name cannot be null");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Layer dimensions must be positive");
+        }
+        this.name = name;
+        this.size = new Pair<>(width, height);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pair<Integer, Integer> getDimensions() {
+        return this.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size.getFirst() * size.getSecond();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(final Pos pos) {
+        final int x = pos.getX();
+        final int y = pos.getY();
+        if (x < 0 || x >= size.getFirst() || y < 0 || y >= size.getSecond()) {
+            throw new IllegalArgumentException("Position " + pos + " is outside the layer " + name);
+        }
+        return y * size.getFirst() + x;
+    }
+}
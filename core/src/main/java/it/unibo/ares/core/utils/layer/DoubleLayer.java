@@ -0,0 +1,62 @@
+package it.unibo.ares.core.utils.layer;
+
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * A raster layer holding a double value per cell.
+ */
+public interface DoubleLayer extends Layer {
+    /**
+     * Gets the value at the specified position.
+     *
+     * @param pos the position
+     * @return the value of the cell
+     */
+    double get(Pos pos);
+
+    /**
+     * Gets the value at the specified index.
+     *
+     * @param index the index of the cell
+     * @return the value of the cell
+     */
+    double get(int index);
+
+    /**
+     * Sets the value at the specified position.
+     *
+     * @param pos   the position
+     * @param value the new value of the cell
+     */
+    void set(Pos pos, double value);
+
+    /**
+     * Sets the value at the specified index.
+     *
+     * @param index the index of the cell
+     * @param value the new value of the cell
+     */
+    void set(int index, double value);
+
+    /**
+     * Sets every cell of the layer to the same value.
+     *
+     * @param value the value
+     */
+    void fill(double value);
+
+    /**
+     * Gets the backing array of the layer, indexed as {@link #indexOf(Pos)}.
+     * Writes to the array are visible in the layer, it is meant for
+     * whole-layer update rules.
+     *
+     * @return the backing array of the layer
+     */
+    double[] getValues();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    DoubleLayer copy();
+}
@@ -0,0 +1,86 @@
+package it.unibo.ares.core.utils.layer;
+
+import java.util.Arrays;
+
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * Implementation of the DoubleLayer interface backed by a plain double array.
+ */
+public final class DoubleLayerImpl extends AbstractLayer implements DoubleLayer {
+    private static final long serialVersionUID = 1L;
+    private final double[] values;
+
+    /**
+     * Creates a new layer with every cell set to zero.
+     *
+     * @param name   the name of the layer
+     * @param width  the width of the layer
+     * @param height the height of the layer
+     */
+    public DoubleLayerImpl(final String name, final int width, final int height) {
+        super(name, width, height);
+        this.values = new double[width * height];
+    }
+
+    private DoubleLayerImpl(final DoubleLayerImpl other) {
+        super(other.getName(), other.getDimensions().getFirst(), other.getDimensions().getSecond());
+        this.values = other.values.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double get(final Pos pos) {
+        return values[indexOf(pos)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double get(final int index) {
+        return values[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void set(final Pos pos, final double value) {
+        values[indexOf(pos)] = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void set(final int index, final double value) {
+        values[index] = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fill(final double value) {
+        Arrays.fill(values, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DoubleLayer copy() {
+        return new DoubleLayerImpl(this);
+    }
+}
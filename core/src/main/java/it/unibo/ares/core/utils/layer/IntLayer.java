@@ -0,0 +1,62 @@
+package it.unibo.ares.core.utils.layer;
+
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * A raster layer holding an int value per cell.
+ */
+public interface IntLayer extends Layer {
+    /**
+     * Gets the value at the specified position.
+     *
+     * @param pos the position
+     * @return the value of the cell
+     */
+    int get(Pos pos);
+
+    /**
+     * Gets the value at the specified index.
+     *
+     * @param index the index of the cell
+     * @return the value of the cell
+     */
+    int get(int index);
+
+    /**
+     * Sets the value at the specified position.
+     *
+     * @param pos   the position
+     * @param value the new value of the cell
+     */
+    void set(Pos pos, int value);
+
+    /**
+     * Sets the value at the specified index.
+     *
+     * @param index the index of the cell
+     * @param value the new value of the cell
+     */
+    void set(int index, int value);
+
+    /**
+     * Sets every cell of the layer to the same value.
+     *
+     * @param value the value
+     */
+    void fill(int value);
+
+    /**
+     * Gets the backing array of the layer, indexed as {@link #indexOf(Pos)}.
+     * Writes to the array are visible in the layer, it is meant for
+     * whole-layer update rules.
+     *
+     * @return the backing array of the layer
+     */
+    int[] getValues();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    IntLayer copy();
+}
@@ -0,0 +1,86 @@
+package it.unibo.ares.core.utils.layer;
+
+import java.util.Arrays;
+
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * Implementation of the IntLayer interface backed by a plain int array.
+ */
+public final class IntLayerImpl extends AbstractLayer implements IntLayer {
+    private static final long serialVersionUID = 1L;
+    private final int[] values;
+
+    /**
+     * Creates a new layer with every cell set to zero.
+     *
+     * @param name   the name of the layer
+     * @param width  the width of the layer
+     * @param height the height of the layer
+     */
+    public IntLayerImpl(final String name, final int width, final int height) {
+        super(name, width, height);
+        this.values = new int[width * height];
+    }
+
+    private IntLayerImpl(final IntLayerImpl other) {
+        super(other.getName(), other.getDimensions().getFirst(), other.getDimensions().getSecond());
+        this.values = other.values.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int get(final Pos pos) {
+        return values[indexOf(pos)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int get(final int index) {
+        return values[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void set(final Pos pos, final int value) {
+        values[indexOf(pos)] = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void set(final int index, final int value) {
+        values[index] = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fill(final int value) {
+        Arrays.fill(values, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getValues() {
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IntLayer copy() {
+        return new IntLayerImpl(this);
+    }
+}
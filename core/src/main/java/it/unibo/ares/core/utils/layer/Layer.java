@@ -0,0 +1,50 @@
+package it.unibo.ares.core.utils.layer;
+
+import java.io.Serializable;
+
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+
+/**
+ * A raster layer stores one primitive value for every cell of the board, it is
+ * meant for field-like quantities (sugar, fuel, ...) that do not need a full
+ * agent per cell.
+ */
+public interface Layer extends Serializable {
+    /**
+     * Gets the name of the layer.
+     *
+     * @return the name of the layer
+     */
+    String getName();
+
+    /**
+     * Gets the dimensions of the layer.
+     *
+     * @return a pair containing the width and height of the layer
+     */
+    Pair<Integer, Integer> getDimensions();
+
+    /**
+     * Gets the number of cells of the layer.
+     *
+     * @return the number of cells of the layer
+     */
+    int size();
+
+    /**
+     * Maps a position to the index of its cell in the layer.
+     *
+     * @param pos the position
+     * @return the index of the cell
+     * @throws IllegalArgumentException if the position is outside the layer
+     */
+    int indexOf(Pos pos);
+
+    /**
+     * Copy the layer.
+     *
+     * @return a modifiable deep copy of the layer
+     */
+    Layer copy();
+}
@@ -0,0 +1,19 @@
+package it.unibo.ares.core.utils.layer;
+
+import java.io.Serializable;
+
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * A rule that updates the raster layers of a state once per tick. Rules work
+ * on whole layers at once instead of cell by cell.
+ */
+@FunctionalInterface
+public interface LayerRule extends Serializable {
+    /**
+     * Applies the rule to the layers of the given state.
+     *
+     * @param state the state whose layers have to be updated
+     */
+    void apply(State state);
+}
@@ -0,0 +1,115 @@
+package it.unibo.ares.core.utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non negative long values, such as durations in nanoseconds or
+ * sizes in bytes, in the style of HdrHistogram: the buckets are linear up to
+ * {@value #SUB_BUCKETS} and then log-linear, each power of two split in
+ * {@value #SUB_BUCKETS}/2 buckets, so that any value is known within about 1.6%
+ * in a fixed amount of memory. Recording is a few atomic increments and never
+ * allocates; the histogram can be read while being recorded.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS) * HALF;
+    private static final double PERCENT = 100.0;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    private static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    private static long midpoint(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / HALF + 1;
+        final long low = (long) ((index - SUB_BUCKETS) % HALF + HALF) << shift;
+        return low + (1L << shift) / 2;
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value, negative values are recorded as 0
+     */
+    public void record(final long value) {
+        final long v = Math.max(0, value);
+        counts.incrementAndGet(index(v));
+        count.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if there are none
+     */
+    public double getMean() {
+        final long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @return the largest recorded value, exact, 0 if there are none
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values
+     * fall, within the precision of the histogram.
+     *
+     * @param percentile the percentage, between 0 and 100
+     * @return the value at the percentile, 0 if there are no values
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > PERCENT) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        final long target = Math.max(1, (long) Math.ceil(percentile / PERCENT * count.get()));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(midpoint(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns a copy of the histogram, unaffected by later recordings.
+     *
+     * @return a copy of the histogram
+     */
+    public Histogram copy() {
+        final Histogram copy = new Histogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            copy.counts.set(i, counts.get(i));
+        }
+        copy.count.set(count.get());
+        copy.sum.set(sum.get());
+        copy.max.set(max.get());
+        return copy;
+    }
+}
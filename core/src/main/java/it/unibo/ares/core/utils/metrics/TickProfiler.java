@@ -0,0 +1,175 @@
+package it.unibo.ares.core.utils.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Records where the time of the ticks of a simulation goes: the duration of
+ * each {@link Phase}, the time spent stepping the agents of each type and,
+ * where the JVM supports it, the bytes allocated by each tick.
+ * A simulation without a profiler runs none of this code; while a tick runs,
+ * its profiler is made {@link #current()} so that the model can record its
+ * own phases.
+ */
+public final class TickProfiler {
+    private static final ThreadLocal<TickProfiler> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    /**
+     * The phases of a tick.
+     */
+    public enum Phase {
+        /**
+         * The whole tick.
+         */
+        TICK,
+        /**
+         * The copy of the state.
+         */
+        COPY,
+        /**
+         * The stepping of all the agents.
+         */
+        AGENTS,
+        /**
+         * The update of the layers.
+         */
+        LAYERS,
+        /**
+         * The check of the end of the simulation.
+         */
+        EXIT_CHECK,
+        /**
+         * The mapping of the state to the output data.
+         */
+        OUTPUT,
+        /**
+         * The computation of the statistics.
+         */
+        STATISTICS
+    }
+
+    private final Map<Phase, Histogram> phases = new EnumMap<>(Phase.class);
+    private final ConcurrentMap<String, Histogram> agentTypes = new ConcurrentHashMap<>();
+    private final Histogram allocations = new Histogram();
+
+    /**
+     * Creates a profiler with empty histograms.
+     */
+    public TickProfiler() {
+        for (final Phase phase : Phase.values()) {
+            phases.put(phase, new Histogram());
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread, or -1 if the
+     * JVM does not tell.
+     *
+     * @return the bytes allocated by the calling thread
+     */
+    public static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Records the duration of a phase.
+     *
+     * @param phase the phase
+     * @param nanos its duration in nanoseconds
+     */
+    public void record(final Phase phase, final long nanos) {
+        phases.get(phase).record(nanos);
+    }
+
+    /**
+     * Records the time spent in a tick stepping the agents of a type.
+     *
+     * @param type  the type of the agents
+     * @param nanos the total time spent stepping them in the tick
+     */
+    public void recordAgentType(final String type, final long nanos) {
+        agentTypes.computeIfAbsent(String.valueOf(type), t -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Records the bytes allocated by a tick, given the values of
+     * {@link #allocatedBytes()} before and after it; does nothing if they are
+     * not available.
+     *
+     * @param before the bytes allocated before the tick
+     * @param after  the bytes allocated after the tick
+     */
+    public void recordAllocation(final long before, final long after) {
+        if (before >= 0 && after >= before) {
+            allocations.record(after - before);
+        }
+    }
+
+    /**
+     * Returns a copy of all the histograms, keyed "phase.&lt;name&gt;" for the
+     * phases, in nanoseconds, "agents.&lt;type&gt;" for the agent types, in
+     * nanoseconds per tick, and "allocation" for the bytes allocated per tick.
+     *
+     * @return the histograms, by name
+     */
+    public Map<String, Histogram> snapshot() {
+        final Map<String, Histogram> snapshot = new LinkedHashMap<>();
+        phases.forEach((phase, h) -> snapshot.put("phase." + phase.name().toLowerCase(Locale.ROOT), h.copy()));
+        agentTypes.forEach((type, h) -> snapshot.put("agents." + type, h.copy()));
+        if (allocations.getCount() > 0) {
+            snapshot.put("allocation", allocations.copy());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Runs an action with this profiler as the current one of the calling
+     * thread.
+     *
+     * @param <T>    the type of the result
+     * @param action the action to run
+     * @return the result of the action
+     */
+    public <T> T runWith(final Supplier<T> action) {
+        final TickProfiler previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns the profiler of the tick running on the calling thread.
+     *
+     * @return the current profiler, empty if the tick is not profiled
+     */
+    public static Optional<TickProfiler> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+}
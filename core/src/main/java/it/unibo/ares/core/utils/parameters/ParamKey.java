@@ -0,0 +1,92 @@
+package it.unibo.ares.core.utils.parameters;
+
+import java.io.Serializable;
+
+/**
+ * A pre-resolved handle to a parameter declared in a {@link ParameterSchema}.
+ * Reading and writing through a key is an array access on the parameters
+ * created by the same schema.
+ *
+ * @param <T> the type of the parameter value
+ */
+public final class ParamKey<T extends Serializable> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final String key;
+    private final Class<T> type;
+    private final int slot;
+    private final int column;
+
+    /**
+     * Creates a new key.
+     *
+     * @param key    the key of the parameter
+     * @param type   the type of the parameter
+     * @param slot   the index of the parameter in the schema
+     * @param column the index of the parameter in the array of its type
+     */
+    ParamKey(final String key, final Class<T> type, final int slot, final int column) {
+        this.key = key;
+        this.type = type;
+        this.slot = slot;
+        this.column = column;
+    }
+
+    /**
+     * Creates a key not declared in any schema, resolved by name by the
+     * parameters it is used on, for the code reading the parameters of
+     * agents it does not know.
+     *
+     * @param key  the key of the parameter
+     * @param type the type of the parameter
+     * @param <T>  the type of the parameter value
+     * @return the key
+     */
+    public static <T extends Serializable> ParamKey<T> of(final String key, final Class<T> type) {
+        return new ParamKey<>(key, type, -1, -1);
+    }
+
+    /**
+     * Gets the key of the parameter.
+     *
+     * @return the key of the parameter
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the type of the parameter.
+     *
+     * @return the type of the parameter
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the index of the parameter in the schema.
+     *
+     * @return the index of the parameter
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Gets the index of the parameter in the array of values of its type.
+     *
+     * @return the index of the parameter
+     */
+    int getColumn() {
+        return column;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return key + ":" + type.getSimpleName();
+    }
+}
@@ -0,0 +1,42 @@
+package it.unibo.ares.core.utils.parameters;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * The parameters declared once for a kind of agent. Declaring a parameter
+ * yields a {@link ParamKey} that reads and writes the parameters created by
+ * the schema without any lookup.
+ */
+public interface ParameterSchema extends Serializable {
+    /**
+     * Declares a parameter. If the parameter has a value it is used as the
+     * default of the created parameters.
+     *
+     * @param parameter the parameter to declare
+     * @param <T>       the type of the parameter
+     * @return the key of the parameter
+     * @throws IllegalArgumentException if a parameter with the same key already
+     *                                  exists
+     * @throws IllegalStateException    if parameters have already been created
+     */
+    <T extends Serializable> ParamKey<T> declare(Parameter<T> parameter);
+
+    /**
+     * Retrieves the key of a declared parameter.
+     *
+     * @param key  the key of the parameter
+     * @param type the type of the parameter
+     * @param <T>  the type of the parameter
+     * @return an Optional containing the key, or an empty Optional if not
+     *         declared
+     */
+    <T extends Serializable> Optional<ParamKey<T>> getKey(String key, Class<T> type);
+
+    /**
+     * Creates a new collection of parameters with the declared parameters.
+     *
+     * @return the parameters
+     */
+    Parameters newParameters();
+}
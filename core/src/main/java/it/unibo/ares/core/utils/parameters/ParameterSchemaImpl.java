@@ -0,0 +1,144 @@
+package it.unibo.ares.core.utils.parameters;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of the ParameterSchema interface. Integer and Double
+ * parameters are kept in primitive arrays, all the others in an array of
+ * objects.
+ */
+public final class ParameterSchemaImpl implements ParameterSchema {
+
+    private static final long serialVersionUID = 1L;
+    private final List<Parameter<?>> declarations;
+    private final List<ParamKey<?>> keys;
+    private final Map<String, ParamKey<?>> keysByName;
+    private int ints;
+    private int doubles;
+    private int objects;
+    private boolean frozen;
+
+    /**
+     * Creates a new empty schema.
+     */
+    public ParameterSchemaImpl() {
+        this.declarations = new ArrayList<>();
+        this.keys = new ArrayList<>();
+        this.keysByName = new HashMap<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> ParamKey<T> declare(final Parameter<T> parameter) {
+        if (frozen) {
+            throw new IllegalStateException("Cannot declare parameters after parameters have been created");
+        }
+        if (parameter.getKey() == null || parameter.getType() == null) {
+            throw new IllegalArgumentException("Parameter key or type is null");
+        }
+        if (keysByName.containsKey(parameter.getKey())) {
+            throw new IllegalArgumentException("Parameter " + parameter.getKey() + " already exists");
+        }
+        final int column;
+        if (parameter.getType() == Integer.class) {
+            column = ints++;
+        } else if (parameter.getType() == Double.class) {
+            column = doubles++;
+        } else {
+            column = objects++;
+        }
+        final ParamKey<T> key = new ParamKey<>(parameter.getKey(), parameter.getType(), keys.size(), column);
+        declarations.add(parameter);
+        keys.add(key);
+        keysByName.put(key.getKey(), key);
+        return key;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable> Optional<ParamKey<T>> getKey(final String key, final Class<T> type) {
+        return Optional.ofNullable(keysByName.get(key))
+                .filter(k -> k.getType().equals(type))
+                .map(k -> (ParamKey<T>) k);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Parameters newParameters() {
+        frozen = true;
+        return new SchemaParametersImpl(this);
+    }
+
+    /**
+     * Resolves a key to the one declared in this schema. Keys coming from
+     * another instance of the same schema (e.g. after a deserialization) are
+     * resolved by name.
+     *
+     * @param key the key
+     * @return the declared key
+     * @throws IllegalArgumentException if the key is not declared in the schema
+     */
+    ParamKey<?> resolve(final ParamKey<?> key) {
+        final ParamKey<?> declared = find(key);
+        if (declared == null) {
+            throw new IllegalArgumentException("Parameter " + key + " is not declared");
+        }
+        return declared;
+    }
+
+    /**
+     * Same as {@link #resolve}, without throwing.
+     *
+     * @param key the key
+     * @return the declared key, null if the key is not declared in the schema
+     */
+    ParamKey<?> find(final ParamKey<?> key) {
+        final int slot = key.getSlot();
+        if (slot >= 0 && slot < keys.size()) {
+            final ParamKey<?> declared = keys.get(slot);
+            if (declared == key || declared.getKey().equals(key.getKey())
+                    && declared.getType().equals(key.getType())) {
+                return declared;
+            }
+        }
+        final ParamKey<?> named = keysByName.get(key.getKey());
+        return named != null && named.getType().equals(key.getType()) ? named : null;
+    }
+
+    List<Parameter<?>> getDeclarations() {
+        return Collections.unmodifiableList(declarations);
+    }
+
+    List<ParamKey<?>> getKeys() {
+        return Collections.unmodifiableList(keys);
+    }
+
+    Optional<ParamKey<?>> getKey(final String key) {
+        return Optional.ofNullable(keysByName.get(key));
+    }
+
+    int getIntCount() {
+        return ints;
+    }
+
+    int getDoubleCount() {
+        return doubles;
+    }
+
+    int getObjectCount() {
+        return objects;
+    }
+}
@@ -78,6 +78,79 @@ public interface Parameters extends Serializable {
      */
     <T extends Serializable> void setParameter(String key, T value);
 
+    /**
+     * Retrieves the value of a parameter through its key, without validation.
+     * 
+     * @param key the key of the parameter
+     * @param <T> the type of the value
+     * @return the value of the parameter
+     * @throws IllegalArgumentException if the parameter does not exist
+     * @throws IllegalStateException    if the parameter is not set
+     */
+    <T extends Serializable> T get(ParamKey<T> key);
+
+    /**
+     * Sets the value of a parameter through its key, the value is not
+     * validated against the domain of the parameter.
+     * 
+     * @param key   the key of the parameter
+     * @param value the new value of the parameter
+     * @param <T>   the type of the value
+     * @throws IllegalArgumentException if the parameter does not exist
+     */
+    <T extends Serializable> void set(ParamKey<T> key, T value);
+
+    /**
+     * Retrieves the value of an Integer parameter through its key, without
+     * boxing.
+     * 
+     * @param key the key of the parameter
+     * @return the value of the parameter
+     * @throws IllegalArgumentException if the parameter does not exist
+     * @throws IllegalStateException    if the parameter is not set
+     */
+    int getInt(ParamKey<Integer> key);
+
+    /**
+     * Sets the value of an Integer parameter through its key, without boxing
+     * and validation.
+     * 
+     * @param key   the key of the parameter
+     * @param value the new value of the parameter
+     * @throws IllegalArgumentException if the parameter does not exist
+     */
+    void setInt(ParamKey<Integer> key, int value);
+
+    /**
+     * Retrieves the value of a Double parameter through its key, without
+     * boxing.
+     * 
+     * @param key the key of the parameter
+     * @return the value of the parameter
+     * @throws IllegalArgumentException if the parameter does not exist
+     * @throws IllegalStateException    if the parameter is not set
+     */
+    double getDouble(ParamKey<Double> key);
+
+    /**
+     * Sets the value of a Double parameter through its key, without boxing and
+     * validation.
+     * 
+     * @param key   the key of the parameter
+     * @param value the new value of the parameter
+     * @throws IllegalArgumentException if the parameter does not exist
+     */
+    void setDouble(ParamKey<Double> key, double value);
+
+    /**
+     * Checks whether a parameter has a value through its key, so that it can
+     * be read without catching the exceptions of the getters.
+     * 
+     * @param key the key of the parameter
+     * @return true if the parameter exists and is set, false otherwise
+     */
+    boolean isSetted(ParamKey<?> key);
+
     /**
      * Retrieves all the parameters.
      * 
@@ -107,6 +107,70 @@ public final class ParametersImpl implements Parameters {
                 "Parameter " + key + " does not exist or not of type " + value.getClass().getName()));
     }
 
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> T get(final ParamKey<T> key) {
+        return getParameter(key.getKey(), key.getType())
+                .orElseThrow(() -> new IllegalArgumentException("Parameter " + key + " does not exist"))
+                .getValue();
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> void set(final ParamKey<T> key, final T value) {
+        final Parameter<T> parameter = getParameter(key.getKey(), key.getType())
+                .orElseThrow(() -> new IllegalArgumentException("Parameter " + key + " does not exist"));
+        // the domain is kept but not checked, like the schema based parameters do
+        typeMap.get(key.getType()).replace(key.getKey(), new ParameterImpl<>(key.getKey(), key.getType().cast(value),
+                parameter.getDomain().orElse(null), parameter.userSettable()));
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(final ParamKey<Integer> key) {
+        return get(key);
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public void setInt(final ParamKey<Integer> key, final int value) {
+        set(key, value);
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDouble(final ParamKey<Double> key) {
+        return get(key);
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDouble(final ParamKey<Double> key, final double value) {
+        set(key, value);
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSetted(final ParamKey<?> key) {
+        final Map<String, Parameter<?>> parameters = typeMap.get(key.getType());
+        final Parameter<?> parameter = parameters == null ? null : parameters.get(key.getKey());
+        return parameter != null && parameter.isSetted();
+    }
+
     private Stream<Parameter<?>> getParametersStream() {
         return typeMap.values().stream().flatMap(m -> m.values().stream());
     }
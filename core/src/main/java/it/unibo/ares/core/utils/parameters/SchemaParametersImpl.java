@@ -0,0 +1,243 @@
+package it.unibo.ares.core.utils.parameters;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the Parameters interface backed by the arrays laid out by
+ * a {@link ParameterSchema}. The values are read and written through
+ * {@link ParamKey}s without lookups, the parameters are declared in the schema
+ * so they cannot be added.
+ */
+final class SchemaParametersImpl implements Parameters {
+
+    private static final long serialVersionUID = 1L;
+    private final ParameterSchemaImpl schema;
+    private final int[] ints;
+    private final double[] doubles;
+    private final Serializable[] objects;
+    private final boolean[] setted;
+
+    /**
+     * Creates the parameters of a schema, set to the declared values.
+     *
+     * @param schema the schema
+     */
+    SchemaParametersImpl(final ParameterSchemaImpl schema) {
+        this.schema = schema;
+        this.ints = new int[schema.getIntCount()];
+        this.doubles = new double[schema.getDoubleCount()];
+        this.objects = new Serializable[schema.getObjectCount()];
+        this.setted = new boolean[schema.getKeys().size()];
+        IntStream.range(0, setted.length)
+                .forEach(i -> schema.getDeclarations().get(i).getOptionalValue()
+                        .ifPresent(v -> write(schema.getKeys().get(i), v)));
+    }
+
+    private SchemaParametersImpl(final SchemaParametersImpl other) {
+        this.schema = other.schema;
+        this.ints = other.ints.clone();
+        this.doubles = other.doubles.clone();
+        this.objects = other.objects.clone();
+        this.setted = other.setted.clone();
+    }
+
+    private void write(final ParamKey<?> key, final Serializable value) {
+        if (key.getType() == Integer.class) {
+            ints[key.getColumn()] = (Integer) value;
+        } else if (key.getType() == Double.class) {
+            doubles[key.getColumn()] = (Double) value;
+        } else {
+            objects[key.getColumn()] = value;
+        }
+        setted[key.getSlot()] = true;
+    }
+
+    private Serializable read(final ParamKey<?> key) {
+        if (key.getType() == Integer.class) {
+            return ints[key.getColumn()];
+        } else if (key.getType() == Double.class) {
+            return doubles[key.getColumn()];
+        }
+        return objects[key.getColumn()];
+    }
+
+    private ParamKey<?> checkSetted(final ParamKey<?> key) {
+        final ParamKey<?> declared = schema.resolve(key);
+        if (!setted[declared.getSlot()]) {
+            throw new IllegalStateException("Value not set for parameter: " + key.getKey());
+        }
+        return declared;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Serializable> Parameter<T> toParameter(final ParamKey<T> key) {
+        final Parameter<T> declaration = (Parameter<T>) schema.getDeclarations().get(key.getSlot());
+        final ParameterDomain<T> domain = declaration.getDomain().orElse(null);
+        return setted[key.getSlot()]
+                ? new ParameterImpl<>(key.getKey(), key.getType().cast(read(key)), domain,
+                        declaration.userSettable())
+                : new ParameterImpl<>(key.getKey(), key.getType(), domain, declaration.userSettable());
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> void addParameter(final String key, final Class<T> type,
+            final Boolean userSettable) {
+        throw new UnsupportedOperationException("Parameters are declared in the schema");
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> void addParameter(final String key, final T value, final Boolean userSettable) {
+        throw new UnsupportedOperationException("Parameters are declared in the schema");
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> void addParameter(final Parameter<T> parameter) {
+        throw new UnsupportedOperationException("Parameters are declared in the schema");
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> Optional<Parameter<T>> getParameter(final String key, final Class<T> type) {
+        return schema.getKey(key, type).map(this::toParameter);
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable> Optional<Parameter<T>> getParameter(final String key) {
+        return schema.getKey(key).map(k -> (Parameter<T>) toParameter(k));
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> void setParameter(final String key, final T value) {
+        final ParamKey<?> paramKey = schema.getKey(key)
+                .filter(k -> k.getType().isInstance(value))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Parameter " + key + " does not exist or not of type " + value.getClass().getName()));
+        validate(paramKey, value);
+        write(paramKey, value);
+    }
+
+    /**
+     * Validates a value against the domain of the parameter, only the user
+     * facing path does it.
+     */
+    private <T extends Serializable> void validate(final ParamKey<T> key, final Serializable value) {
+        toParameter(key).updateValue(key.getType().cast(value));
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> T get(final ParamKey<T> key) {
+        return key.getType().cast(read(checkSetted(key)));
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> void set(final ParamKey<T> key, final T value) {
+        write(schema.resolve(key), value);
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(final ParamKey<Integer> key) {
+        return ints[checkSetted(key).getColumn()];
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public void setInt(final ParamKey<Integer> key, final int value) {
+        final ParamKey<?> declared = schema.resolve(key);
+        ints[declared.getColumn()] = value;
+        setted[declared.getSlot()] = true;
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDouble(final ParamKey<Double> key) {
+        return doubles[checkSetted(key).getColumn()];
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDouble(final ParamKey<Double> key, final double value) {
+        final ParamKey<?> declared = schema.resolve(key);
+        doubles[declared.getColumn()] = value;
+        setted[declared.getSlot()] = true;
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSetted(final ParamKey<?> key) {
+        final ParamKey<?> declared = schema.find(key);
+        return declared != null && setted[declared.getSlot()];
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Parameter<?>> getParameters() {
+        return schema.getKeys().stream().map(this::toParameter).collect(Collectors.toSet());
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Parameter<?>> getParametersToset() {
+        return getParameters().stream()
+                .filter(Parameter::userSettable)
+                .filter(p -> !p.isSetted()).collect(Collectors.toSet());
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean areAllParametersSetted() {
+        return getParameters().stream().filter(Parameter::userSettable).allMatch(Parameter::isSetted);
+    }
+
+    /*
+     * {@inheritDoc}
+     */
+    @Override
+    public Parameters copy() {
+        return new SchemaParametersImpl(this);
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Objects;
 public class PosImpl implements Pos {
 
     private static final long serialVersionUID = 1L;
+    private static final int HASH_MULTIPLIER = 0x9E3779B1;
     private final Integer y;
     private final Integer x;
 
@@ -70,7 +71,9 @@ public class PosImpl implements Pos {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        // Objects.hash(x, y) is 31 * (31 + x) + y, which folds a large grid onto
+        // a few thousand values and degrades hash based boards on it
+        return HASH_MULTIPLIER * x + y;
     }
 
     /**
@@ -0,0 +1,132 @@
+package it.unibo.ares.core.utils.pos;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A rectangle of a grid that a view shows, sampled in square blocks of cells:
+ * with a block size of 1 each cell is shown, with larger ones each block is
+ * summarised in a single tile, so that the tiles to show depend on the size
+ * of the view rather than on the size of the grid.
+ */
+public final class Viewport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final int blockSize;
+
+    /**
+     * Creates a viewport.
+     *
+     * @param x         the column of the top left cell
+     * @param y         the row of the top left cell
+     * @param width     the number of columns of cells
+     * @param height    the number of rows of cells
+     * @param blockSize the side, in cells, of the blocks summarised in a tile
+     */
+    public Viewport(final int x, final int y, final int width, final int height, final int blockSize) {
+        if (x < 0 || y < 0) {
+            throw new IllegalArgumentException("The origin of a viewport must not be negative");
+        }
+        if (width <= 0 || height <= 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("The size and the block size of a viewport must be positive");
+        }
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return the column of the top left cell
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return the row of the top left cell
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return the number of columns of cells
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows of cells
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the side, in cells, of the blocks summarised in a tile
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return the number of columns of tiles, the last one possibly partial
+     */
+    public int getColumns() {
+        return (width + blockSize - 1) / blockSize;
+    }
+
+    /**
+     * @return the number of rows of tiles, the last one possibly partial
+     */
+    public int getRows() {
+        return (height + blockSize - 1) / blockSize;
+    }
+
+    /**
+     * Fits the viewport in a grid: its origin is moved back to a multiple of
+     * the block size, so that the tiles do not change while panning, and its
+     * size is cut to the borders of the grid.
+     *
+     * @param gridWidth  the width of the grid
+     * @param gridHeight the height of the grid
+     * @return the viewport inside the grid
+     */
+    public Viewport clamp(final int gridWidth, final int gridHeight) {
+        final int block = Math.min(blockSize, Math.max(gridWidth, gridHeight));
+        final int left = Math.min(x, gridWidth - 1) / block * block;
+        final int top = Math.min(y, gridHeight - 1) / block * block;
+        final int right = Math.min(Math.max(x + width, left + 1), gridWidth);
+        final int bottom = Math.min(Math.max(y + height, top + 1), gridHeight);
+        return new Viewport(left, top, right - left, bottom - top, block);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Viewport)) {
+            return false;
+        }
+        final Viewport v = (Viewport) o;
+        return x == v.x && y == v.y && width == v.width && height == v.height && blockSize == v.blockSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(x, y, width, height, blockSize);
+    }
+
+    @Override
+    public String toString() {
+        return "Viewport[" + x + ", " + y + ", " + width + "x" + height + ", block " + blockSize + "]";
+    }
+}
@@ -0,0 +1,113 @@
+package it.unibo.ares.core.utils.random;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Source of the randomness of a simulation. Every simulation owns one,
+ * created from the seed among its model parameters, which is made current for
+ * the calling thread while the model initializes or ticks: agents and
+ * factories draw from {@link #current()} instead of keeping their own
+ * generators, so that a run is fully determined by its seed.
+ * Work spread over several threads should {@link #split()} one service per
+ * unit of work (a chunk of agents, a tile) beforehand, in a fixed order:
+ * each thread then draws from its own stream, without contention and with
+ * the same results whatever the scheduling.
+ */
+public final class RandomService implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final ThreadLocal<RandomService> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<RandomService> UNSEEDED = ThreadLocal
+            .withInitial(() -> new RandomService(ThreadLocalRandom.current().nextLong()));
+
+    private final long seed;
+    private final SplitMix64 generator;
+
+    /**
+     * Creates a new service from the given seed.
+     *
+     * @param seed the seed
+     */
+    public RandomService(final long seed) {
+        this(seed, new SplitMix64(seed));
+    }
+
+    private RandomService(final long seed, final SplitMix64 generator) {
+        this.seed = seed;
+        this.generator = generator;
+    }
+
+    /**
+     * Returns the seed this service, or the one it was split from, was
+     * created with.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the generator of this service. Like the service itself it must
+     * not be shared between threads.
+     *
+     * @return the generator of this service
+     */
+    public RandomGenerator generator() {
+        return generator;
+    }
+
+    /**
+     * Returns a new service, with a stream independent from this one.
+     *
+     * @return the new service
+     */
+    public RandomService split() {
+        return new RandomService(seed, generator.split());
+    }
+
+    /**
+     * Runs the given action with this service as the current one for the
+     * calling thread, restoring the previous one afterwards.
+     *
+     * @param action the action to run
+     * @param <T>    the type of the result
+     * @return the result of the action
+     */
+    public <T> T runWith(final Supplier<T> action) {
+        final RandomService previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns the service current for the calling thread. Outside of any
+     * simulation it is an unseeded service private to the thread.
+     *
+     * @return the current service
+     */
+    public static RandomService current() {
+        final RandomService service = CURRENT.get();
+        return service == null ? UNSEEDED.get() : service;
+    }
+
+    /**
+     * Shorthand for the generator of the current service.
+     *
+     * @return the generator of the current service
+     */
+    public static RandomGenerator currentGenerator() {
+        return current().generator();
+    }
+}
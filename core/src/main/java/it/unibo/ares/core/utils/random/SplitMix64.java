@@ -0,0 +1,70 @@
+package it.unibo.ares.core.utils.random;
+
+import java.io.Serializable;
+import java.util.random.RandomGenerator;
+
+/**
+ * The SplitMix64 generator, the same algorithm as
+ * {@link java.util.SplittableRandom}, which unlike that one can be saved
+ * along with the simulation it belongs to.
+ */
+final class SplitMix64 implements RandomGenerator, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final int MIN_GAMMA_BITS = 24;
+
+    private long seed;
+    private final long gamma;
+
+    /**
+     * Creates a new generator from the given seed.
+     *
+     * @param seed the seed
+     */
+    SplitMix64(final long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMix64(final long seed, final long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    private static long mix64(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mixGamma(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        return Long.bitCount(z ^ (z >>> 1)) < MIN_GAMMA_BITS ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    private long nextSeed() {
+        seed += gamma;
+        return seed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Returns a new generator whose values are statistically independent from
+     * the ones of this generator, advancing this one.
+     *
+     * @return the new generator
+     */
+    SplitMix64 split() {
+        return new SplitMix64(nextLong(), mixGamma(nextSeed()));
+    }
+}
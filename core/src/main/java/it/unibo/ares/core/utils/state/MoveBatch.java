@@ -0,0 +1,63 @@
+package it.unibo.ares.core.utils.state;
+
+import it.unibo.ares.core.utils.pos.Pos;
+
+import java.util.Arrays;
+
+/**
+ * A batch of agent moves to be applied to a {@link State} all at once, see
+ * {@link State#applyMoves(MoveBatch)}.
+ */
+public final class MoveBatch {
+    private static final int INITIAL_CAPACITY = 16;
+    private Pos[] origins = new Pos[INITIAL_CAPACITY];
+    private Pos[] destinations = new Pos[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds a move to the batch.
+     *
+     * @param from the position the agent moves from
+     * @param to   the position the agent moves to
+     * @return this batch
+     */
+    public MoveBatch add(final Pos from, final Pos to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Positions cannot be null");
+        }
+        if (size == origins.length) {
+            origins = Arrays.copyOf(origins, size * 2);
+            destinations = Arrays.copyOf(destinations, size * 2);
+        }
+        origins[size] = from;
+        destinations[size] = to;
+        size++;
+        return this;
+    }
+
+    /**
+     * Returns the number of moves in the batch.
+     *
+     * @return the number of moves in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the moves from the batch, so that it can be reused.
+     */
+    public void clear() {
+        Arrays.fill(origins, 0, size, null);
+        Arrays.fill(destinations, 0, size, null);
+        size = 0;
+    }
+
+    Pos[] getOrigins() {
+        return Arrays.copyOf(origins, size);
+    }
+
+    Pos[] getDestinations() {
+        return Arrays.copyOf(destinations, size);
+    }
+}
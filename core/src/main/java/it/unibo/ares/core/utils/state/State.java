@@ -3,10 +3,16 @@ package it.unibo.ares.core.utils.state;
 import it.unibo.ares.core.agent.Agent;
 import it.unibo.ares.core.agent.Entity;
 import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.layer.DoubleLayer;
+import it.unibo.ares.core.utils.layer.IntLayer;
+import it.unibo.ares.core.utils.layer.Layer;
+import it.unibo.ares.core.utils.layer.LayerRule;
 import it.unibo.ares.core.utils.pos.Pos;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiPredicate;
 import java.io.Serializable;
 
 /**
@@ -46,6 +52,40 @@ public interface State extends Serializable {
      */
     void removeAgent(Pos pos, Agent agent);
 
+    /**
+     * Adds many agents at once, either all of them or none. Meant for loading
+     * large populations, it validates the whole batch once instead of each
+     * position.
+     *
+     * @param cells  the cells to add the agents to, as row-major indexes
+     *               (y * width + x)
+     * @param agents the agents to add, one per cell
+     * @throws IllegalArgumentException if the arrays differ in length, a cell is
+     *                                  outside the board, already occupied or
+     *                                  appears twice.
+     */
+    void addAgents(int[] cells, Agent[] agents);
+
+    /**
+     * Applies a batch of moves, as if all of them happened simultaneously:
+     * an agent may move to a position another one is leaving in the same
+     * batch. Either all the moves are applied or none.
+     *
+     * @param moves the moves to apply
+     * @throws IllegalArgumentException if a destination is outside the board,
+     *                                  an origin is empty or two agents would
+     *                                  end up in the same position.
+     */
+    void applyMoves(MoveBatch moves);
+
+    /**
+     * Removes all the agents matching the given predicate.
+     *
+     * @param predicate tested with each agent and its position
+     * @return the number of removed agents
+     */
+    int removeAll(BiPredicate<Pos, Agent> predicate);
+
     /**
      * Moves an agent from one position to another in the state.
      *
@@ -176,4 +216,68 @@ public interface State extends Serializable {
      * @return true if the position is inside the state, false otherwise.
      */
     boolean isInside(Pos pos);
+
+    /**
+     * Adds a new int raster layer, with every cell set to zero, to the state.
+     *
+     * @param name the name of the layer.
+     * @return the new layer.
+     * @throws IllegalArgumentException if a layer with the same name already
+     *                                  exists.
+     */
+    IntLayer addIntLayer(String name);
+
+    /**
+     * Adds a new double raster layer, with every cell set to zero, to the state.
+     *
+     * @param name the name of the layer.
+     * @return the new layer.
+     * @throws IllegalArgumentException if a layer with the same name already
+     *                                  exists.
+     */
+    DoubleLayer addDoubleLayer(String name);
+
+    /**
+     * Retrieves the int raster layer with the specified name, if any.
+     *
+     * @param name the name of the layer.
+     * @return an optional containing the layer, or empty if no int layer has that
+     *         name.
+     */
+    Optional<IntLayer> getIntLayer(String name);
+
+    /**
+     * Retrieves the double raster layer with the specified name, if any.
+     *
+     * @param name the name of the layer.
+     * @return an optional containing the layer, or empty if no double layer has
+     *         that name.
+     */
+    Optional<DoubleLayer> getDoubleLayer(String name);
+
+    /**
+     * Retrieves all the raster layers of the state, in insertion order.
+     *
+     * @return an unmodifiable list of the layers.
+     */
+    List<Layer> getLayers();
+
+    /**
+     * Retrieves the rules that update the raster layers, in insertion order.
+     *
+     * @return an unmodifiable list of the rules.
+     */
+    List<LayerRule> getLayerRules();
+
+    /**
+     * Adds a rule that updates the raster layers once per tick.
+     *
+     * @param rule the rule to add.
+     */
+    void addLayerRule(LayerRule rule);
+
+    /**
+     * Applies, in insertion order, all the layer rules to the state.
+     */
+    void updateLayers();
 }
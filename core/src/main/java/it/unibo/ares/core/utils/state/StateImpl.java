@@ -1,7 +1,12 @@
 package it.unibo.ares.core.utils.state;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -10,18 +15,27 @@ import it.unibo.ares.core.agent.Entity;
 import it.unibo.ares.core.utils.Pair;
 import it.unibo.ares.core.utils.board.Board;
 import it.unibo.ares.core.utils.board.BoardImpl;
+import it.unibo.ares.core.utils.layer.DoubleLayer;
+import it.unibo.ares.core.utils.layer.DoubleLayerImpl;
+import it.unibo.ares.core.utils.layer.IntLayer;
+import it.unibo.ares.core.utils.layer.IntLayerImpl;
+import it.unibo.ares.core.utils.layer.Layer;
+import it.unibo.ares.core.utils.layer.LayerRule;
 import it.unibo.ares.core.utils.pos.Pos;
 import it.unibo.ares.core.utils.pos.PosImpl;
 
 /**
  * Implementation of the State interface that represents the state of a
  * simulation.
- * It manages the entities and agents on a board.
+ * It manages the entities and agents on a board, and the raster layers with
+ * their update rules.
  */
 public final class StateImpl implements State {
     private static final long serialVersionUID = 1L;
-    private final Board<Entity> entityBoard = new BoardImpl<>();
-    private final Board<Agent> agentBoard = new BoardImpl<>();
+    private final Board<Entity> entityBoard;
+    private final Board<Agent> agentBoard;
+    private final Map<String, Layer> layers = new LinkedHashMap<>();
+    private final List<LayerRule> layerRules = new ArrayList<>();
     private final Pair<Integer, Integer> size;
 
     /**
@@ -31,7 +45,14 @@ public final class StateImpl implements State {
      * @param height the height of the state
      */
     public StateImpl(final Integer width, final Integer height) {
-        this.size = new Pair<>(width, height);
+        this(new Pair<>(width, height), new BoardImpl<>(), new BoardImpl<>());
+    }
+
+    private StateImpl(final Pair<Integer, Integer> size, final Board<Entity> entityBoard,
+            final Board<Agent> agentBoard) {
+        this.size = size;
+        this.entityBoard = entityBoard;
+        this.agentBoard = agentBoard;
     }
 
     private Boolean isValidPosition(final Pos pos) {
@@ -78,6 +99,43 @@ public final class StateImpl implements State {
         agentBoard.removeEntity(pos, agent);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addAgents(final int[] cells, final Agent[] agents) {
+        final int width = size.getFirst();
+        final int total = width * size.getSecond();
+        final Pos[] positions = new Pos[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] < 0 || cells[i] >= total) {
+                throw new IllegalArgumentException("Cell " + cells[i] + " is outside the board");
+            }
+            positions[i] = new PosImpl(cells[i] % width, cells[i] / width);
+        }
+        agentBoard.addEntities(positions, agents);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyMoves(final MoveBatch moves) {
+        final Pos[] destinations = moves.getDestinations();
+        for (final Pos pos : destinations) {
+            assertInsideBoard(pos);
+        }
+        agentBoard.moveEntities(moves.getOrigins(), destinations);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeAll(final BiPredicate<Pos, Agent> predicate) {
+        return agentBoard.removeIf(predicate);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -188,9 +246,9 @@ public final class StateImpl implements State {
 
     @Override
     public State copy() {
-        final StateImpl copy = new StateImpl(size.getFirst(), size.getSecond());
-        entityBoard.getEntities().forEach(e -> copy.addEntity(e.getFirst(), e.getSecond()));
-        agentBoard.getEntities().forEach(e -> copy.addAgent(e.getFirst(), e.getSecond()));
+        final StateImpl copy = new StateImpl(size, entityBoard.copy(), agentBoard.copy());
+        layers.values().forEach(l -> copy.layers.put(l.getName(), l.copy()));
+        copy.layerRules.addAll(layerRules);
         return copy;
     }
 
@@ -209,4 +267,83 @@ public final class StateImpl implements State {
         return isValidPosition(pos);
     }
 
+    private <L extends Layer> L addLayer(final L layer) {
+        if (layers.containsKey(layer.getName())) {
+            throw new IllegalArgumentException("Layer " + layer.getName() + " already exists");
+        }
+        layers.put(layer.getName(), layer);
+        return layer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IntLayer addIntLayer(final String name) {
+        return addLayer(new IntLayerImpl(name, size.getFirst(), size.getSecond()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DoubleLayer addDoubleLayer(final String name) {
+        return addLayer(new DoubleLayerImpl(name, size.getFirst(), size.getSecond()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<IntLayer> getIntLayer(final String name) {
+        return Optional.ofNullable(layers.get(name))
+                .filter(IntLayer.class::isInstance)
+                .map(IntLayer.class::cast);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<DoubleLayer> getDoubleLayer(final String name) {
+        return Optional.ofNullable(layers.get(name))
+                .filter(DoubleLayer.class::isInstance)
+                .map(DoubleLayer.class::cast);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Layer> getLayers() {
+        return List.copyOf(layers.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<LayerRule> getLayerRules() {
+        return List.copyOf(layerRules);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addLayerRule(final LayerRule rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Layer rule cannot be null");
+        }
+        layerRules.add(rule);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateLayers() {
+        layerRules.forEach(r -> r.apply(this));
+    }
+
 }
@@ -0,0 +1,123 @@
+package it.unibo.ares.core.utils.statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import it.unibo.ares.core.utils.Pair;
+
+/**
+ * The statistics of an ensemble of replicates of a simulation, aggregated tick
+ * by tick: for each tick and each numeric statistic a
+ * {@link SummaryStatistics} of its values over the replicates still running at
+ * that tick. Non numeric statistics are ignored.
+ * The memory used depends on the number of ticks and statistics, not on the
+ * number of replicates.
+ */
+public final class EnsembleStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final double Z95 = 1.959_964;
+
+    private final List<Map<String, SummaryStatistics>> ticks = new ArrayList<>();
+    private long replicates;
+
+    /**
+     * Adds the statistics of a replicate after a tick.
+     *
+     * @param tick       the tick, starting from 1
+     * @param statistics the statistics of the replicate after the tick
+     */
+    public void add(final int tick, final Statistics statistics) {
+        if (tick < 1) {
+            throw new IllegalArgumentException("Ticks start from 1");
+        }
+        while (ticks.size() < tick) {
+            ticks.add(new LinkedHashMap<>());
+        }
+        final Map<String, SummaryStatistics> summaries = ticks.get(tick - 1);
+        for (final Pair<String, String> s : statistics.getStatistics()) {
+            try {
+                final double value = Double.parseDouble(s.getSecond());
+                summaries.computeIfAbsent(s.getFirst(), k -> new SummaryStatistics()).add(value);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+        }
+    }
+
+    /**
+     * Marks the end of a replicate whose ticks have all been added.
+     */
+    public void completeReplicate() {
+        replicates++;
+    }
+
+    /**
+     * Adds all the replicates aggregated by another ensemble to this one.
+     *
+     * @param other the ensemble to merge, left unchanged
+     * @return this ensemble
+     */
+    public EnsembleStatistics merge(final EnsembleStatistics other) {
+        while (ticks.size() < other.ticks.size()) {
+            ticks.add(new LinkedHashMap<>());
+        }
+        for (int t = 0; t < other.ticks.size(); t++) {
+            final Map<String, SummaryStatistics> summaries = ticks.get(t);
+            other.ticks.get(t).forEach((k, v) -> summaries.computeIfAbsent(k, x -> new SummaryStatistics()).merge(v));
+        }
+        replicates += other.replicates;
+        return this;
+    }
+
+    /**
+     * @return the number of completed replicates
+     */
+    public long getReplicates() {
+        return replicates;
+    }
+
+    /**
+     * @return the number of ticks reached by the longest replicate
+     */
+    public int getTicks() {
+        return ticks.size();
+    }
+
+    /**
+     * Returns the summaries of the statistics at a tick.
+     *
+     * @param tick the tick, starting from 1
+     * @return the summary of each statistic, by name
+     */
+    public Map<String, SummaryStatistics> getSummaries(final int tick) {
+        if (tick < 1 || tick > ticks.size()) {
+            throw new IllegalArgumentException("Tick " + tick + " not reached by any replicate");
+        }
+        return Collections.unmodifiableMap(ticks.get(tick - 1));
+    }
+
+    /**
+     * Returns the statistics at a tick in the key-value format of the models:
+     * for each statistic its mean and 95% confidence interval.
+     *
+     * @param tick the tick, starting from 1
+     * @return the aggregated statistics
+     */
+    public Statistics getStatistics(final int tick) {
+        final List<Pair<String, String>> values = getSummaries(tick).entrySet().stream()
+                .map(e -> {
+                    final SummaryStatistics s = e.getValue();
+                    final Pair<Double, Double> ci = s.getConfidenceInterval(Z95);
+                    return new Pair<>(e.getKey(), String.format(Locale.ROOT, "%.4f [%.4f, %.4f] (n=%d)",
+                            s.getMean(), ci.getFirst(), ci.getSecond(), s.getCount()));
+                })
+                .collect(Collectors.toList());
+        return () -> values;
+    }
+}
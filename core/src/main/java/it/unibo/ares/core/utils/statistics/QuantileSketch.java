@@ -0,0 +1,154 @@
+package it.unibo.ares.core.utils.statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mergeable sketch of a stream of values answering approximate quantile
+ * queries in bounded memory.
+ * Values are kept in levels of at most {@code capacity} items, an item of
+ * level h standing for 2^h values: a full level is sorted and every other item
+ * is promoted to the next one. The space is O(capacity * log(n / capacity))
+ * and the rank error O(log(n / capacity) / capacity); up to
+ * {@code capacity} values the quantiles are exact.
+ * The items to promote are chosen deterministically, so the same stream
+ * always gives the same sketch.
+ */
+public final class QuantileSketch implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private final int capacity;
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private long count;
+    private long compactions;
+
+    /**
+     * Creates an empty sketch with the default capacity.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param capacity the number of items per level, the higher the more
+     *                 accurate
+     */
+    public QuantileSketch(final int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value the value to add
+     */
+    public void add(final double value) {
+        append(0, value);
+        count++;
+        compact(0);
+    }
+
+    /**
+     * Adds all the values summarized by another sketch to this one.
+     *
+     * @param other the sketch to merge, left unchanged
+     */
+    public void merge(final QuantileSketch other) {
+        for (int h = 0; h < other.levels.size(); h++) {
+            final double[] items = other.levels.get(h);
+            for (int i = 0; i < other.sizes.get(h); i++) {
+                append(h, items[i]);
+            }
+        }
+        count += other.count;
+        for (int h = 0; h < levels.size(); h++) {
+            compact(h);
+        }
+    }
+
+    /**
+     * Returns the number of values added to the sketch.
+     *
+     * @return the number of values added to the sketch
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns an approximation of the given quantile of the values.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the approximated quantile, NaN if the sketch is empty
+     */
+    public double getQuantile(final double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        final int total = sizes.stream().mapToInt(Integer::intValue).sum();
+        if (total == 0) {
+            return Double.NaN;
+        }
+        final double[][] weighted = new double[total][];
+        int k = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            for (int i = 0; i < sizes.get(h); i++) {
+                weighted[k++] = new double[] { levels.get(h)[i], 1L << h };
+            }
+        }
+        Arrays.sort(weighted, (a, b) -> Double.compare(a[0], b[0]));
+        final double weight = Arrays.stream(weighted).mapToDouble(w -> w[1]).sum();
+        final double target = q * weight;
+        double cumulative = 0;
+        for (final double[] w : weighted) {
+            cumulative += w[1];
+            if (cumulative >= target) {
+                return w[0];
+            }
+        }
+        return weighted[total - 1][0];
+    }
+
+    private void append(final int level, final double value) {
+        while (levels.size() <= level) {
+            levels.add(new double[capacity]);
+            sizes.add(0);
+        }
+        double[] items = levels.get(level);
+        final int size = sizes.get(level);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            levels.set(level, items);
+        }
+        items[size] = value;
+        sizes.set(level, size + 1);
+    }
+
+    private void compact(final int level) {
+        for (int h = level; h < levels.size() && sizes.get(h) >= capacity; h++) {
+            final double[] items = levels.get(h);
+            final int size = sizes.get(h);
+            Arrays.sort(items, 0, size);
+            // alternate the kept half so that the error does not drift one way
+            final int offset = (int) (compactions++ & 1);
+            final int pairs = size / 2;
+            for (int i = 0; i < pairs; i++) {
+                append(h + 1, items[2 * i + offset]);
+            }
+            if (size % 2 == 1) {
+                // the largest item has no pair: keep it at this level
+                items[0] = items[size - 1];
+            }
+            sizes.set(h, size % 2);
+        }
+    }
+}
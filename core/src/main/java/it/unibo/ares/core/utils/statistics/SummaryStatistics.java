@@ -0,0 +1,121 @@
+package it.unibo.ares.core.utils.statistics;
+
+import java.io.Serializable;
+
+import it.unibo.ares.core.utils.Pair;
+
+/**
+ * A streaming summary of a sequence of values: count, mean and variance by
+ * Welford's algorithm, extremes and a {@link QuantileSketch}. Summaries of
+ * disjoint sequences can be merged, so that each worker can summarize its own
+ * values and the results be combined at the end.
+ */
+public final class SummaryStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+    private double mean;
+    private double squares;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    /**
+     * Adds a value to the summary.
+     *
+     * @param value the value to add
+     */
+    public void add(final double value) {
+        count++;
+        final double delta = value - mean;
+        mean += delta / count;
+        squares += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    /**
+     * Adds all the values summarized by another summary to this one.
+     *
+     * @param other the summary to merge, left unchanged
+     */
+    public void merge(final SummaryStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        final long total = count + other.count;
+        final double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        squares += other.squares + delta * delta * count * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    /**
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean of the values, NaN if there are none
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return the sample variance of the values, NaN if there are less than two
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : squares / (count - 1);
+    }
+
+    /**
+     * @return the sample standard deviation of the values, NaN if there are
+     *         less than two
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return the smallest value, NaN if there are none
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return the largest value, NaN if there are none
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Returns an approximation of the given quantile of the values.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the approximated quantile, NaN if there are no values
+     */
+    public double getQuantile(final double q) {
+        return sketch.getQuantile(q);
+    }
+
+    /**
+     * Returns the normal confidence interval of the mean, mean ± z * s / √n.
+     *
+     * @param z the critical value of the interval, e.g. 1.96 for 95%
+     * @return the lower and upper bounds of the interval, NaN if there are less
+     *         than two values
+     */
+    public Pair<Double, Double> getConfidenceInterval(final double z) {
+        final double half = z * getStandardDeviation() / Math.sqrt(count);
+        return new Pair<>(getMean() - half, getMean() + half);
+    }
+}
@@ -3,6 +3,8 @@ package it.unibo.ares.core.agent;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import it.unibo.ares.core.utils.lambda.SerializableBiFunction;
@@ -43,4 +45,24 @@ final class AgentBuilderImplTest {
                     .addParameter(new ParameterImpl<>("testKey3", true, true));
         });
     }
+
+    /**
+     * Agents built within a generator scope should get consecutive ids from it
+     * and compare by id.
+     */
+    @Test
+    void testIdsFromCurrentGenerator() {
+        final AgentIdGenerator ids = new AgentIdGenerator();
+        final SerializableBiFunction<State, Pos, State> strategy = (state, pos) -> state;
+
+        final Agent first = ids.runWith(() -> new AgentBuilderImpl().addStrategy(strategy).build());
+        final Agent second = ids.runWith(() -> new AgentBuilderImpl().addStrategy(strategy).build());
+
+        assertEquals("1", first.getId());
+        assertEquals("2", second.getId());
+        assertEquals(2, ids.last());
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertNotEquals(first.hashCode(), second.hashCode());
+    }
 }
@@ -0,0 +1,117 @@
+package it.unibo.ares.core.agent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.utils.parameters.ParameterDomainImpl;
+import it.unibo.ares.core.utils.parameters.ParameterImpl;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.state.State;
+import it.unibo.ares.core.utils.state.StateImpl;
+
+/**
+ * Unit test for {@link AgentStoreImpl}.
+ */
+final class AgentStoreImplTest {
+    private static final String ENERGY = "energy";
+    private static final String SPEED = "speed";
+    private static final int AGENTS = 100;
+
+    private AgentStore getStore() {
+        return new AgentStoreImpl()
+                .addColumn(new ParameterImpl<>(ENERGY, Integer.class,
+                        new ParameterDomainImpl<>("energia (0-n)", (Integer i) -> i >= 0), true))
+                .addColumn(new ParameterImpl<>(SPEED, 1.5, false))
+                .addType("A", (state, pos) -> {
+                    state.moveAgent(pos, new PosImpl(pos.getX() + 1, pos.getY()));
+                    return state;
+                })
+                .addType("B", (state, pos) -> state);
+    }
+
+    /**
+     * The views should read and write the columns of the store.
+     */
+    @Test
+    void testParameters() {
+        final AgentStore store = getStore();
+        final List<Agent> agents = IntStream.range(0, AGENTS)
+                .mapToObj(i -> store.createAgent(i % 2 == 0 ? "A" : "B"))
+                .collect(Collectors.toList());
+        assertEquals(AGENTS, store.size());
+        assertEquals("B", agents.get(AGENTS - 1).getType());
+
+        final Agent agent = store.getAgent(3);
+        assertEquals(agents.get(3), agent);
+        assertNotEquals(agents.get(2), agent);
+        assertEquals(1.5, agent.getParameters().getParameter(SPEED, Double.class).get().getValue());
+        assertFalse(agent.getParameters().areAllParametersSetted());
+        assertEquals(1, agent.getParameters().getParametersToset().size());
+
+        agent.setParameter(ENERGY, 7);
+        assertEquals(7, agents.get(3).getParameters().getParameter(ENERGY, Integer.class).get().getValue());
+        assertTrue(agent.getParameters().areAllParametersSetted());
+        assertTrue(agent.getParameters().getParameter(ENERGY, Double.class).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> agent.setParameter(ENERGY, -1));
+        assertThrows(IllegalArgumentException.class, () -> agent.setParameter(ENERGY, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> agent.setParameter("missing", 1));
+
+        agent.setType("A");
+        assertEquals("A", agents.get(3).getType());
+        assertThrows(IllegalArgumentException.class, () -> agent.setType("C"));
+    }
+
+    /**
+     * The views should tick with the strategy of their type.
+     */
+    @Test
+    void testTick() {
+        final AgentStore store = getStore();
+        final State state = new StateImpl(5, 5);
+        final Pos pos = new PosImpl(0, 0);
+        final Agent agent = store.createAgent("A");
+        state.addAgent(pos, agent);
+
+        agent.tick(state, pos);
+        assertTrue(state.isFree(pos));
+        assertEquals(agent, state.getAgentAt(new PosImpl(1, 0)).get());
+    }
+
+    /**
+     * Columns cannot be declared once the store holds agents.
+     */
+    @Test
+    void testColumnsAreFixed() {
+        final AgentStore store = getStore();
+        store.createAgent("B");
+        assertThrows(IllegalStateException.class,
+                () -> store.addColumn(new ParameterImpl<>("other", Integer.class, true)));
+        assertThrows(IllegalArgumentException.class, () -> store.createAgent("C"));
+        assertThrows(IllegalArgumentException.class, () -> store.getAgent(1));
+    }
+
+    /**
+     * The agents of the store should draw their ids from the current
+     * generator, like the built agents.
+     */
+    @Test
+    void testIds() {
+        final AgentStore store = getStore();
+        final AgentIdGenerator ids = new AgentIdGenerator();
+        final List<Agent> agents = ids.runWith(() -> List.of(store.createAgent("A"),
+                new AgentBuilderImpl().addStrategy((state, pos) -> state).build(), store.createAgent("B")));
+        assertEquals(List.of("1", "2", "3"), agents.stream().map(Agent::getId).collect(Collectors.toList()));
+        assertEquals("3", store.getAgent(1).getId());
+        assertEquals(3, ids.last());
+    }
+}
@@ -22,7 +22,6 @@ import it.unibo.ares.core.utils.state.StateImpl;
 class TestSugarscapeModel {
 
     private static final String MAXSUGAR = "maxSugar";
-    private static final String SUGARAMOUNT = "sugarAmount";
     private static final String VISIONRADIUS = "visionRadius";
     private static final String METABOLISMRATE = "metabolismRate";
     private static final String SUGAR = "sugar";
@@ -82,16 +81,14 @@ class TestSugarscapeModel {
                 .get()
                 .getFirst();
 
-        setAgentParameter(state, pos, MAXSUGAR, 10);
-        setAgentParameter(state, pos, SUGARAMOUNT, 2);
-        setAgentParameter(state, pos, "growthRate", 3);
+        SugarAgentFactory.setSugar(state, pos, 2, 10, 3);
 
-        state = state.getAgentAt(pos).get().tick(state, pos);
+        state.updateLayers();
+        assertEquals(5, SugarAgentFactory.getSugarAmount(state, pos)); // 2 + 3 = 5
 
-        final int sugarAmount = state.getAgentAt(pos).get().getParameters().getParameter(SUGARAMOUNT, Integer.class)
-                .get()
-                .getValue();
-        assertEquals(5, sugarAmount); // 2 + 3 = 5
+        state.updateLayers();
+        state.updateLayers();
+        assertEquals(10, SugarAgentFactory.getSugarAmount(state, pos)); // capped at max sugar
     }
 
     @Test
@@ -112,7 +109,7 @@ class TestSugarscapeModel {
 
         final Pos sugarPos = new PosImpl(1, 2);
         state.addAgent(sugarPos, sugarFactory.createAgent());
-        setAgentParameter(state, sugarPos, SUGARAMOUNT, 5);
+        SugarAgentFactory.setSugar(state, sugarPos, 5, 5, 1);
 
         state = state.getAgentAt(consumerPos).get().tick(state, consumerPos);
 
@@ -164,7 +161,7 @@ class TestSugarscapeModel {
 
         final Pos sugarPos = new PosImpl(4, 2);
         state.addAgent(sugarPos, sugarFactory.createAgent());
-        setAgentParameter(state, sugarPos, SUGARAMOUNT, 3);
+        SugarAgentFactory.setSugar(state, sugarPos, 3, 3, 1);
 
         state = state.getAgentAt(consumerPos).get().tick(state, consumerPos);
 
@@ -208,7 +205,7 @@ class TestSugarscapeModel {
         final List<Pos> sugarPositions = Arrays.asList(sugarPos1, sugarPos2);
         sugarPositions.forEach(pos -> {
             state.addAgent(pos, sugarFactory.createAgent());
-            setAgentParameter(state, pos, SUGARAMOUNT, 3);
+            SugarAgentFactory.setSugar(state, pos, 3, 3, 1);
         });
 
         final State newState = state.getAgentAt(consumerPos2).get().tick(state, consumerPos2);
@@ -0,0 +1,96 @@
+package it.unibo.ares.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.model.SchellingModelFactory;
+import it.unibo.ares.core.utils.pos.Viewport;
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * Unit test for {@link MetricsEndpoint} and {@link SimulationMetrics}.
+ */
+final class MetricsEndpointTest {
+    private static final long HEAP = 1000;
+    private static final int SIZE = 30;
+    private static final int AGENTS = 300;
+    private static final int BLOCK = 5;
+
+    private static SimulationMetrics metrics(final Map<String, Long> agents, final boolean delivered) {
+        final SimulationMetrics metrics = new SimulationMetrics(() -> agents);
+        metrics.dispatched();
+        metrics.skipped();
+        final long dispatched = metrics.dispatched();
+        metrics.ticked(dispatched);
+        metrics.published(delivered);
+        metrics.dispatched();
+        return metrics;
+    }
+
+    @Test
+    void testRender() {
+        final String text = MetricsEndpoint.render(Map.of(
+                "a", metrics(Map.of("A", 2L, "B", 1L), true),
+                "b\"", metrics(Map.of("B", 1L), false)), HEAP);
+        assertTrue(text.contains("# TYPE ares_simulation_ticks_total counter\n"));
+        assertTrue(text.contains("ares_simulation_ticks_total{simulation=\"a\"} 1\n"));
+        assertTrue(text.contains("ares_simulation_tick_latency_seconds_count{simulation=\"a\"} 1\n"));
+        assertTrue(text.contains("ares_simulation_tick_latency_seconds{simulation=\"a\",quantile=\"0.99\"}"));
+        assertTrue(text.contains("ares_subscriber_queue_depth{simulation=\"a\"} 1\n"));
+        assertTrue(text.contains("ares_subscriber_dropped_frames_total{simulation=\"a\"} 0\n"));
+        assertTrue(text.contains("ares_subscriber_dropped_frames_total{simulation=\"b\\\"\"} 1\n"));
+        assertTrue(text.contains("ares_simulation_agents{simulation=\"a\",type=\"A\"} 2\n"));
+        assertTrue(text.contains("ares_simulation_agents{simulation=\"a\",type=\"B\"} 1\n"));
+        assertTrue(text.contains("ares_simulation_heap_bytes_estimate{simulation=\"a\"} 750\n"));
+        assertTrue(text.contains("ares_simulation_heap_bytes_estimate{simulation=\"b\\\"\"} 250\n"));
+    }
+
+    @Test
+    void testAgentCountsIgnoreTheViewport() {
+        final Model model = new SchellingModelFactory().getModel();
+        model.setParameter(Model.SIZEKEY, SIZE);
+        model.setParameter("numeroAgentiTipoA", AGENTS);
+        model.setParameter("numeroAgentiTipoB", AGENTS);
+        final State state = model.initilize();
+        state.getAgents().forEach(p -> {
+            p.getSecond().setParameter("threshold", 0.6);
+            p.getSecond().setParameter("visionRadius", 1);
+        });
+        final Simulation simulation = new SimulationImpl(state, model, 1);
+        simulation.setViewport(new Viewport(0, 0, 2 * BLOCK, 2 * BLOCK, BLOCK));
+        simulation.step();
+        // the output holds the tiles of the viewport, the counts the whole grid
+        assertTrue(simulation.getOutputData("id").getData().size() <= 4);
+        assertEquals(2, simulation.getAgentCounts().size());
+        assertEquals(2L * AGENTS, simulation.getAgentCounts().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void testServe() throws IOException {
+        final MetricsEndpoint endpoint = new MetricsEndpoint(
+                () -> Map.of("a", metrics(Map.of("A", 1L), true)));
+        final int port = endpoint.start(0);
+        try {
+            final HttpURLConnection connection = (HttpURLConnection) URI
+                    .create("http://localhost:" + port + "/metrics").toURL().openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain"));
+            try (InputStream in = connection.getInputStream()) {
+                assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                        .contains("ares_simulation_ticks_total{simulation=\"a\"} 1\n"));
+            }
+        } finally {
+            endpoint.stop();
+        }
+    }
+}
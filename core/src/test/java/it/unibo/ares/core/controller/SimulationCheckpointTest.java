@@ -0,0 +1,208 @@
+package it.unibo.ares.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.model.SchellingModelFactory;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * Tests the checkpoints taken while the simulations run.
+ */
+class SimulationCheckpointTest {
+    private static final int SIZE = 30;
+    private static final int AGENTS = 300;
+    private static final int TICKRATE = 100;
+    private static final int RETENTION = 2;
+    private static final int BASE = 3;
+    private static final int CHECKPOINTS = 5;
+    private static final String ID = "simulation";
+    private static final String HEAT = "heat";
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("ares");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static SimulationImpl schelling() {
+        final Model model = new SchellingModelFactory().getModel();
+        model.setParameter(Model.SIZEKEY, SIZE);
+        model.setParameter("numeroAgentiTipoA", AGENTS);
+        model.setParameter("numeroAgentiTipoB", AGENTS);
+        final State state = model.initilize();
+        state.getAgents().forEach(p -> {
+            p.getSecond().setParameter("threshold", 0.6);
+            p.getSecond().setParameter("visionRadius", 1);
+        });
+        state.addIntLayer(HEAT);
+        state.addLayerRule(s -> s.getIntLayer(HEAT).get().getValues()[0]++);
+        return new SimulationImpl(state, model, TICKRATE);
+    }
+
+    private static Map<Pos, List<Object>> agents(final State state) {
+        return state.getAgents().stream().collect(Collectors.toMap(Pair::getFirst, p -> Arrays.asList(
+                p.getSecond().getType(),
+                p.getSecond().getParameters().getParameters().stream()
+                        .map(parameter -> parameter.getKey() + "=" + parameter.getOptionalValue())
+                        .collect(Collectors.toSet()))));
+    }
+
+    /*
+     * Steps the simulation and changes a parameter of an agent which may not
+     * move, then checkpoints it, waiting for the checkpoint to be written.
+     */
+    private static String stepAndCheckpoint(final SimulationManager manager, final SimulationImpl simulation,
+            final int step) {
+        simulation.step();
+        simulation.getState().getAgentAt(new PosImpl(0, 0))
+                .or(() -> simulation.getState().getAgents().stream().findFirst().map(Pair::getSecond))
+                .get().setParameter("threshold", 0.5 + step / 100.0);
+        final String id = manager.checkpoint(ID, simulation);
+        manager.load(id);
+        return id;
+    }
+
+    @Test
+    void testCheckpointsWhileTicking() throws InterruptedException {
+        final SimulationManager manager = new SimulationManagerImpl(false, RETENTION, 1, directory);
+        final SimulationImpl simulation = schelling();
+        final AtomicBoolean ticking = new AtomicBoolean(true);
+        final Thread ticker = new Thread(() -> {
+            while (ticking.get()) {
+                simulation.step();
+            }
+        });
+        ticker.start();
+        final List<String> ids = new ArrayList<>();
+        try {
+            for (int i = 0; i < RETENTION + 2; i++) {
+                ids.add(manager.checkpoint(ID, simulation));
+            }
+            // each checkpoint is taken between two ticks
+            for (final String id : ids.subList(RETENTION, ids.size())) {
+                assertEquals(2 * AGENTS, manager.load(id).getState().getAgents().size());
+            }
+        } finally {
+            ticking.set(false);
+            ticker.join();
+        }
+        assertEquals(ids.subList(RETENTION, ids.size()), manager.getCheckpoints(ID));
+        assertFalse(Files.exists(Path.of(ids.get(0))));
+        assertTrue(Files.exists(Path.of(ids.get(ids.size() - 1))));
+    }
+
+    @Test
+    void testCheckpointsOfEarlierRunsAreKept() {
+        final SimulationImpl simulation = schelling();
+        final SimulationManager earlier = new SimulationManagerImpl(false, RETENTION, 1, directory);
+        final String first = earlier.checkpoint(ID, simulation);
+        earlier.load(first);
+        final SimulationManager manager = new SimulationManagerImpl(false, RETENTION, 1, directory);
+        final String second = manager.checkpoint(ID, simulation);
+        manager.load(second);
+        assertEquals(List.of(first, second), manager.getCheckpoints(ID));
+    }
+
+    @Test
+    void testDeltaCheckpoints() throws IOException {
+        final SimulationManager manager = new SimulationManagerImpl(false, CHECKPOINTS, BASE, directory);
+        final SimulationImpl simulation = schelling();
+        final List<String> ids = new ArrayList<>();
+        final List<Map<Pos, List<Object>>> expected = new ArrayList<>();
+        final List<Integer> heat = new ArrayList<>();
+        for (int i = 0; i < CHECKPOINTS; i++) {
+            ids.add(stepAndCheckpoint(manager, simulation, i));
+            expected.add(agents(simulation.getState()));
+            heat.add(simulation.getState().getIntLayer(HEAT).get().getValues()[0]);
+        }
+        // every BASE checkpoints one is full, the others are deltas of the previous one
+        for (int i = 0; i < CHECKPOINTS; i++) {
+            final Optional<Path> base = SnapshotFormat.baseOf(Path.of(ids.get(i)));
+            assertEquals(i % BASE == 0 ? Optional.empty() : Optional.of(Path.of(ids.get(i - 1))), base);
+        }
+        assertTrue(Files.size(Path.of(ids.get(1))) < Files.size(Path.of(ids.get(0))));
+        // any checkpoint of the chain can be restored
+        assertEquals(ids, manager.getCheckpoints(ID));
+        for (int i = 0; i < CHECKPOINTS; i++) {
+            final Simulation restored = manager.load(ids.get(i));
+            assertEquals(expected.get(i), agents(restored.getState()));
+            assertEquals((int) heat.get(i), restored.getState().getIntLayer(HEAT).get().getValues()[0]);
+        }
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        final SimulationManager manager = new SimulationManagerImpl(false, 1, BASE, directory);
+        final SimulationImpl simulation = schelling();
+        assertThrows(IllegalStateException.class, () -> manager.compact(ID));
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < BASE; i++) {
+            ids.add(stepAndCheckpoint(manager, simulation, i));
+        }
+        // the last checkpoint is kept with the ones it is a delta of
+        assertEquals(ids, manager.getCheckpoints(ID));
+
+        final String compacted = manager.compact(ID);
+        assertEquals(agents(simulation.getState()), agents(manager.load(compacted).getState()));
+        assertEquals(Optional.empty(), SnapshotFormat.baseOf(Path.of(compacted)));
+        assertEquals(List.of(compacted), manager.getCheckpoints(ID));
+
+        final String next = stepAndCheckpoint(manager, simulation, BASE);
+        assertEquals(Optional.of(Path.of(compacted)), SnapshotFormat.baseOf(Path.of(next)));
+        assertEquals(agents(simulation.getState()), agents(manager.load(next).getState()));
+    }
+
+    @Test
+    void testForgottenSimulations() throws IOException {
+        final SimulationManager manager = new SimulationManagerImpl(false, CHECKPOINTS, BASE, directory);
+        final SimulationImpl simulation = schelling();
+        final String first = stepAndCheckpoint(manager, simulation, 0);
+        // the checkpoints already scheduled are written, the next one is full
+        final String pending = manager.checkpoint(ID, simulation);
+        manager.forget(ID);
+        final String next = stepAndCheckpoint(manager, simulation, 1);
+        assertEquals(List.of(first, pending, next), manager.getCheckpoints(ID));
+        assertEquals(Optional.of(Path.of(first)), SnapshotFormat.baseOf(Path.of(pending)));
+        assertEquals(Optional.empty(), SnapshotFormat.baseOf(Path.of(next)));
+        assertEquals(agents(simulation.getState()), agents(manager.load(next).getState()));
+    }
+
+    @Test
+    void testRetentionMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SimulationManagerImpl(false, 0, BASE, directory));
+    }
+}
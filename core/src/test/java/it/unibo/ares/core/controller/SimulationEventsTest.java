@@ -0,0 +1,85 @@
+package it.unibo.ares.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.model.SchellingModelFactory;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Checks that the simulations emit their flight recorder events.
+ */
+final class SimulationEventsTest {
+    private static final int STEPS = 3;
+    private static final int AGENTS = 20;
+
+    private static Simulation simulation() {
+        final SimulationInitializerImpl initializer = new SimulationInitializerImpl();
+        final String simId = initializer.addNewModel(new SchellingModelFactory().getModelId());
+        initializer.setModelParameter(simId, "numeroAgentiTipoA", AGENTS / 2);
+        initializer.setModelParameter(simId, "numeroAgentiTipoB", AGENTS / 2);
+        initializer.setModelParameter(simId, "size", 15);
+        for (final String type : initializer.getAgentsSimplified(simId)) {
+            initializer.setAgentParameterSimplified(simId, type, "threshold", 0.4);
+            initializer.setAgentParameterSimplified(simId, type, "visionRadius", 2);
+        }
+        return initializer.replicator(simId).apply(1L);
+    }
+
+    private static List<RecordedEvent> record(final Runnable action, final String... events) throws IOException {
+        final Path file = Files.createTempFile("ares", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (final String event : events) {
+                recording.enable(event).withoutThreshold();
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testTickEvents() throws IOException {
+        final Simulation simulation = simulation();
+        final List<RecordedEvent> events = record(() -> {
+            for (int i = 0; i < STEPS; i++) {
+                simulation.step();
+            }
+        }, "it.unibo.ares.Tick");
+        assertEquals(STEPS, events.size());
+        for (final RecordedEvent event : events) {
+            assertEquals(AGENTS, event.getInt("agents"));
+            assertTrue(event.getInt("changedCells") <= 2 * AGENTS);
+        }
+    }
+
+    @Test
+    void testLifecycleEvents() throws IOException {
+        final SimulationsControllerImpl controller = new SimulationsControllerImpl();
+        final List<RecordedEvent> events = record(() -> {
+            controller.addSimulation("sim", simulation());
+            controller.startSimulation("sim");
+            controller.pauseSimulation("sim");
+            controller.removeSimulation("sim");
+        }, "it.unibo.ares.SimulationLifecycle");
+        assertEquals(List.of("add", "start", "pause", "remove"), events.stream()
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .map(e -> e.getString("action"))
+                .collect(Collectors.toList()));
+        assertTrue(events.stream().allMatch(e -> "sim".equals(e.getString("simulationId"))));
+    }
+}
@@ -1,17 +1,22 @@
 package it.unibo.ares.core.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import it.unibo.ares.core.model.Model;
 import it.unibo.ares.core.model.ModelFactory;
 import it.unibo.ares.core.model.SchellingModelFactory;
 import it.unibo.ares.core.utils.parameters.Parameters;
+import it.unibo.ares.core.utils.state.State;
 
 class SimulationInitializerTest {
     private ModelFactory sf;
@@ -65,4 +70,36 @@ class SimulationInitializerTest {
         final Parameters agentParams = simulationInitializer.getAgentParametersSimplified(simId, agent);
         assertFalse(agentParams.getParametersToset().isEmpty());
     }
+
+    @Test
+    void testReplicator() {
+        final SimulationInitializerImpl simulationInitializer = new SimulationInitializerImpl();
+        final String simId = simulationInitializer.addNewModel(sf.getModelId());
+        simulationInitializer.setModelParameter(simId, "numeroAgentiTipoA", 10);
+        simulationInitializer.setModelParameter(simId, "numeroAgentiTipoB", 10);
+        simulationInitializer.setModelParameter(simId, "size", 15);
+        simulationInitializer.setModelParameter(simId, Model.SEEDKEY, 5L);
+        for (final String type : simulationInitializer.getAgentsSimplified(simId)) {
+            simulationInitializer.setAgentParameterSimplified(simId, type, "threshold", 0.4);
+            simulationInitializer.setAgentParameterSimplified(simId, type, "visionRadius", 2);
+        }
+        final LongFunction<Simulation> replicator = simulationInitializer.replicator(simId);
+        assertThrows(IllegalArgumentException.class, () -> simulationInitializer.startSimulation(simId));
+
+        final Simulation first = replicator.apply(7L);
+        final Simulation second = replicator.apply(7L);
+        assertEquals(20, first.getState().getAgents().size());
+        assertTrue(first.getState().getAgents().stream()
+                .allMatch(p -> p.getSecond().getParameters().getParametersToset().isEmpty()));
+        assertEquals(positions(first.getState()), positions(second.getState()));
+        first.step();
+        second.step();
+        assertEquals(positions(first.getState()), positions(second.getState()));
+    }
+
+    private static Set<String> positions(final State state) {
+        return state.getAgents().stream()
+                .map(p -> p.getFirst() + p.getSecond().getType())
+                .collect(Collectors.toSet());
+    }
 }
@@ -0,0 +1,56 @@
+package it.unibo.ares.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.model.SchellingModelFactory;
+import it.unibo.ares.core.utils.metrics.Histogram;
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * Tests the profiling of the ticks of a simulation, through
+ * {@link SimulationImpl} and {@link it.unibo.ares.core.utils.metrics.TickProfiler}.
+ */
+final class SimulationProfilingTest {
+    private static final int SIZE = 15;
+    private static final int AGENTS = 100;
+    private static final int TICKRATE = 100;
+
+    private static Simulation schelling() {
+        final Model model = new SchellingModelFactory().getModel();
+        model.setParameter(Model.SIZEKEY, SIZE);
+        model.setParameter("numeroAgentiTipoA", AGENTS);
+        model.setParameter("numeroAgentiTipoB", AGENTS);
+        final State state = model.initilize();
+        state.getAgents().forEach(p -> {
+            p.getSecond().setParameter("threshold", 1.0);
+            p.getSecond().setParameter("visionRadius", 2);
+        });
+        return new SimulationImpl(state, model, TICKRATE);
+    }
+
+    @Test
+    void testProfiling() {
+        final Simulation simulation = schelling();
+        simulation.step();
+        assertTrue(simulation.getTickProfile().isEmpty());
+
+        simulation.setProfiling(true);
+        simulation.step();
+        simulation.step();
+        final Map<String, Histogram> profile = simulation.getTickProfile();
+        assertEquals(2, profile.get("phase.tick").getCount());
+        assertEquals(2, profile.get("phase.agents").getCount());
+        assertEquals(2, profile.get("phase.exit_check").getCount());
+        assertTrue(profile.keySet().stream().anyMatch(k -> k.startsWith("agents.")));
+        assertTrue(profile.get("phase.tick").getMax() >= profile.get("phase.agents").getMax());
+
+        simulation.setProfiling(false);
+        assertTrue(simulation.getTickProfile().isEmpty());
+    }
+}
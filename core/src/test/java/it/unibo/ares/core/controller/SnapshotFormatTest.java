@@ -0,0 +1,312 @@
+package it.unibo.ares.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.agent.AgentIdGenerator;
+import it.unibo.ares.core.agent.SchellingsAgentFactory;
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.model.SchellingModelFactory;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * Tests the binary snapshot format of the saved simulations.
+ */
+class SnapshotFormatTest {
+    private static final int SIZE = 20;
+    private static final int AGENTS = 150;
+    private static final int TICKRATE = 100;
+    private static final String HEAT = "heat";
+    private static final String HUMIDITY = "humidity";
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("ares", ".out");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static SimulationImpl schelling() {
+        final Model model = new SchellingModelFactory().getModel();
+        model.setParameter(Model.SIZEKEY, SIZE);
+        model.setParameter("numeroAgentiTipoA", AGENTS);
+        model.setParameter("numeroAgentiTipoB", AGENTS);
+        final State state = model.initilize();
+        state.getAgents().forEach(p -> {
+            p.getSecond().setParameter("threshold", 0.6);
+            p.getSecond().setParameter("visionRadius", 1);
+        });
+        state.addIntLayer(HEAT).set(new PosImpl(1, 2), 7);
+        state.addDoubleLayer(HUMIDITY).set(new PosImpl(3, 4), 0.5);
+        state.addLayerRule(s -> s.getIntLayer(HEAT).get().getValues()[0]++);
+        return new SimulationImpl(state, model, TICKRATE);
+    }
+
+    private static Map<Pos, List<Object>> agents(final State state) {
+        return state.getAgents().stream().collect(Collectors.toMap(Pair::getFirst, p -> Arrays.asList(
+                p.getSecond().getType(),
+                p.getSecond().getParameters().getParameters().stream()
+                        .map(parameter -> parameter.getKey() + "=" + parameter.getOptionalValue())
+                        .collect(Collectors.toSet()))));
+    }
+
+    private void assertRoundTrip(final boolean compress) throws IOException {
+        final SimulationImpl simulation = schelling();
+        simulation.step();
+        simulation.start();
+        SnapshotFormat.write(simulation, file, compress);
+        final Simulation loaded = SnapshotFormat.read(file);
+
+        assertEquals(agents(simulation.getState()), agents(loaded.getState()));
+        assertEquals(simulation.getState().getDimensions(), loaded.getState().getDimensions());
+        assertArrayEquals(simulation.getState().getIntLayer(HEAT).get().getValues(),
+                loaded.getState().getIntLayer(HEAT).get().getValues());
+        assertArrayEquals(simulation.getState().getDoubleLayer(HUMIDITY).get().getValues(),
+                loaded.getState().getDoubleLayer(HUMIDITY).get().getValues());
+        assertEquals(TICKRATE, loaded.getTickRate());
+        assertTrue(loaded.isRunning());
+        assertEquals(simulation.isOver(), loaded.isOver());
+
+        // the restored agents, model and rules keep working
+        loaded.step();
+        assertEquals(2 * AGENTS, loaded.getState().getAgents().size());
+        assertEquals(2, loaded.getState().getIntLayer(HEAT).get().getValues()[0]);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        assertRoundTrip(false);
+        final ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(SnapshotFormat.MAGIC, header.getInt());
+        assertEquals(SnapshotFormat.VERSION, header.getShort());
+    }
+
+    @Test
+    void testCompressedRoundTrip() throws IOException {
+        assertRoundTrip(true);
+    }
+
+    @Test
+    void testMappedSimulationsCanBeSavedAgain() throws IOException {
+        final SimulationImpl simulation = schelling();
+        SnapshotFormat.write(simulation, file, false);
+        final Simulation mapped = SnapshotFormat.read(file);
+        final Path copy = Files.createTempFile("ares", ".out");
+        try {
+            // the agents not used yet are built from the mapped columns
+            SnapshotFormat.write(mapped, copy, true);
+            assertEquals(agents(simulation.getState()), agents(SnapshotFormat.read(copy).getState()));
+            try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(copy))) {
+                out.writeObject(SnapshotFormat.read(file));
+            }
+            assertEquals(agents(simulation.getState()), agents(SnapshotFormat.read(copy).getState()));
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Test
+    void testCompressedDeltas() throws IOException {
+        final SimulationImpl simulation = schelling();
+        final SnapshotFormat.Capture base = SnapshotFormat.capture(simulation);
+        base.write(file, false);
+        simulation.step();
+        simulation.getState().getAgents().iterator().next().getSecond().setParameter("threshold", 0.9);
+        final Path delta = Files.createTempFile("ares", ".out");
+        try {
+            SnapshotFormat.capture(simulation).writeDelta(delta, true, base, file);
+            final Simulation loaded = SnapshotFormat.read(delta);
+            assertEquals(agents(simulation.getState()), agents(loaded.getState()));
+            assertArrayEquals(simulation.getState().getIntLayer(HEAT).get().getValues(),
+                    loaded.getState().getIntLayer(HEAT).get().getValues());
+            // a delta cannot be read without its base
+            Files.delete(file);
+            assertThrows(IOException.class, () -> SnapshotFormat.read(delta));
+        } finally {
+            Files.deleteIfExists(delta);
+        }
+    }
+
+    @Test
+    void testCaptureIsIndependentOfTheSimulation() throws IOException {
+        final SimulationImpl simulation = schelling();
+        final Map<Pos, List<Object>> captured = agents(simulation.getState());
+        final SnapshotFormat.Capture capture = SnapshotFormat.capture(simulation);
+        simulation.getState().getAgents().forEach(p -> p.getSecond().setParameter("threshold", 0.9));
+        simulation.getState().getIntLayer(HEAT).get().set(new PosImpl(0, 0), 1);
+        capture.write(file, false);
+        final Simulation loaded = SnapshotFormat.read(file);
+        assertEquals(captured, agents(loaded.getState()));
+        assertEquals(0, loaded.getState().getIntLayer(HEAT).get().get(new PosImpl(0, 0)));
+    }
+
+    @Test
+    void testRestoredAgentsHaveUniqueIds() throws IOException {
+        SnapshotFormat.write(schelling(), file, true);
+        // the thread loading it may have another generator current, ahead of the saved model
+        final AgentIdGenerator other = new AgentIdGenerator();
+        other.reserve(2 * AGENTS);
+        final Simulation loaded = other.runWith(() -> {
+            try {
+                return SnapshotFormat.read(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        loaded.step();
+        final List<Agent> restored = loaded.getState().getAgents().stream().map(Pair::getSecond).toList();
+        final Agent built = loaded.getModel().buildAgents(restored.get(0)::copy);
+        final Set<String> ids = restored.stream().map(Agent::getId).collect(Collectors.toSet());
+        ids.add(built.getId());
+        assertEquals(restored.size() + 1, ids.size());
+        assertFalse(restored.contains(built));
+    }
+
+    @Test
+    void testDeltasReuseTheBehaviourOfTheirBase() throws IOException {
+        final SimulationImpl simulation = schelling();
+        final SnapshotFormat.Capture base = SnapshotFormat.capture(simulation);
+        // only a written capture can be followed
+        assertFalse(SnapshotFormat.capture(simulation).follows(base));
+        base.write(file, false);
+        final ByteBuffer head = ByteBuffer.wrap(Files.readAllBytes(file));
+        final int behaviour = head.getInt(Integer.BYTES + 2 * Short.BYTES + 3 * Integer.BYTES + 2);
+        simulation.getState().getAgents().iterator().next().getSecond().setParameter("threshold", 0.9);
+        final SnapshotFormat.Capture capture = SnapshotFormat.capture(simulation);
+        assertTrue(capture.follows(base));
+        final Path delta = Files.createTempFile("ares", ".out");
+        try {
+            capture.writeDelta(delta, false, base, file);
+            assertTrue(Files.size(delta) < behaviour);
+            assertEquals(agents(simulation.getState()), agents(SnapshotFormat.read(delta).getState()));
+        } finally {
+            Files.deleteIfExists(delta);
+        }
+        // a simulation whose behaviour changed is written in full
+        simulation.getState().addLayerRule(s -> s.getIntLayer(HEAT).get().getValues()[1]++);
+        assertFalse(SnapshotFormat.capture(simulation).follows(base));
+    }
+
+    @Test
+    void testAgentsSettingOtherParametersThanThePrototype() throws IOException {
+        final Model model = new SchellingModelFactory().getModel();
+        model.setParameter(Model.SIZEKEY, SIZE);
+        model.setParameter("numeroAgentiTipoA", AGENTS);
+        model.setParameter("numeroAgentiTipoB", AGENTS);
+        final State state = model.initilize();
+        final Agent other = state.getAgents().iterator().next().getSecond();
+        // all the agents set a single parameter, but not the same one
+        state.getAgents().forEach(p -> {
+            if (p.getSecond() == other) {
+                p.getSecond().setParameter("visionRadius", 1);
+            } else {
+                p.getSecond().setParameter("threshold", 0.6);
+            }
+        });
+        final SimulationImpl simulation = new SimulationImpl(state, model, TICKRATE);
+        SnapshotFormat.write(simulation, file, false);
+        assertEquals(agents(simulation.getState()), agents(SnapshotFormat.read(file).getState()));
+    }
+
+    /*
+     * The position of the occupancy in an uncompressed snapshot, skipping
+     * the header, the simulation, the behaviour and the types.
+     */
+    private static int occupancy(final ByteBuffer snapshot) {
+        snapshot.position(Integer.BYTES + 2 * Short.BYTES + 3 * Integer.BYTES + 2);
+        final int behaviour = snapshot.getInt();
+        snapshot.position(snapshot.position() + behaviour);
+        final int types = snapshot.getInt();
+        for (int t = 0; t < types; t++) {
+            final int name = snapshot.getInt();
+            snapshot.position(snapshot.position() + name + Integer.BYTES);
+            final int columns = snapshot.getInt();
+            for (int c = 0; c < columns; c++) {
+                final int key = snapshot.getInt();
+                snapshot.position(snapshot.position() + key + 2);
+            }
+        }
+        return snapshot.position();
+    }
+
+    @Test
+    void testCorruptedOccupancy() throws IOException {
+        SnapshotFormat.write(schelling(), file, false);
+        final byte[] bytes = Files.readAllBytes(file);
+        final int start = occupancy(ByteBuffer.wrap(bytes));
+        int full = start;
+        while (bytes[full] == 0) {
+            full++;
+        }
+        int empty = start;
+        while (bytes[empty] != 0) {
+            empty++;
+        }
+        // a type which does not exist
+        final byte[] unknown = bytes.clone();
+        unknown[full] = 3;
+        Files.write(file, unknown);
+        assertThrows(IOException.class, () -> SnapshotFormat.read(file));
+        // more agents of a type than its rows
+        final byte[] more = bytes.clone();
+        more[empty] = 1;
+        Files.write(file, more);
+        assertThrows(IOException.class, () -> SnapshotFormat.read(file));
+        // fewer agents of a type than its rows
+        final byte[] fewer = bytes.clone();
+        fewer[full] = 0;
+        Files.write(file, fewer);
+        assertThrows(IOException.class, () -> SnapshotFormat.read(file));
+    }
+
+    @Test
+    void testUntypedAgentsAreSerialized() throws IOException {
+        final SimulationImpl simulation = schelling();
+        final Agent untyped = new SchellingsAgentFactory().createAgent();
+        final Pos free = simulation.getState().getPosByPosAndRadius(new PosImpl(0, 0), SIZE).stream()
+                .filter(simulation.getState()::isFree).findFirst().get();
+        simulation.getState().addAgent(free, untyped);
+        SnapshotFormat.write(simulation, file, false);
+
+        final Simulation loaded = SnapshotFormat.read(file);
+        assertEquals(agents(simulation.getState()), agents(loaded.getState()));
+        assertFalse(loaded.isRunning());
+    }
+
+    @Test
+    void testLegacyFiles() throws IOException {
+        final SimulationImpl simulation = schelling();
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+            out.writeObject(simulation);
+        }
+        assertEquals(agents(simulation.getState()), agents(SnapshotFormat.read(file).getState()));
+    }
+}
@@ -0,0 +1,33 @@
+package it.unibo.ares.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link StringInitializer}.
+ */
+final class StringInitializerTest {
+
+    @Test
+    void testSplit() {
+        final Map<String, String> model = new LinkedHashMap<>();
+        final Map<String, Map<String, String>> agents = new LinkedHashMap<>();
+        StringInitializer.split(Map.of(
+                "model", "Schelling",
+                "param.size", "10",
+                "param.numeroAgentiTipoA", "20",
+                "agent.A.threshold", "0.5",
+                "agent.B.vision.radius", "1"), model, agents);
+        assertEquals(List.of("numeroAgentiTipoA", "size"), List.copyOf(model.keySet()));
+        assertEquals("10", model.get("size"));
+        assertEquals(Map.of("A", Map.of("threshold", "0.5"), "B", Map.of("vision.radius", "1")), agents);
+        assertThrows(IllegalArgumentException.class,
+                () -> StringInitializer.split(Map.of("agent.A", "1"), model, agents));
+    }
+}
@@ -0,0 +1,60 @@
+package it.unibo.ares.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.agent.SimpleAgentFactory;
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.pos.Viewport;
+
+/**
+ * Unit test for {@link ViewportSampler} and {@link Viewport}.
+ */
+final class ViewportSamplerTest {
+    private final Set<Pair<Pos, Agent>> agents = new HashSet<>();
+
+    private void add(final int x, final int y, final String type) {
+        final Agent agent = new SimpleAgentFactory().createAgent();
+        agent.setType(type);
+        agents.add(new Pair<>(new PosImpl(x, y), agent));
+    }
+
+    @Test
+    void testClamp() {
+        assertEquals(new Viewport(8, 4, 2, 6, 4), new Viewport(9, 5, 100, 100, 4).clamp(10, 10));
+        assertEquals(new Viewport(0, 0, 10, 10, 10), new Viewport(0, 0, 10, 10, 64).clamp(10, 10));
+        assertEquals(3, new Viewport(0, 0, 10, 9, 4).getColumns());
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(0, 0, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(-1, 0, 1, 1, 1));
+    }
+
+    @Test
+    void testCells() {
+        add(0, 0, "A");
+        add(3, 4, "B");
+        add(5, 5, "A");
+        final Map<Pos, String> tiles = ViewportSampler.sample(new Viewport(2, 3, 3, 3, 1), agents);
+        assertEquals(Map.of(new PosImpl(1, 1), "B"), tiles);
+    }
+
+    @Test
+    void testTiles() {
+        add(0, 0, "A");
+        add(1, 0, "B");
+        add(1, 1, "B");
+        add(2, 0, "A");
+        add(3, 3, "C");
+        add(4, 4, "A");
+        final Map<Pos, String> tiles = ViewportSampler.sample(new Viewport(0, 0, 4, 4, 2), agents);
+        assertEquals(Map.of(new PosImpl(0, 0), "B", new PosImpl(1, 0), "A", new PosImpl(1, 1), "C"), tiles);
+    }
+}
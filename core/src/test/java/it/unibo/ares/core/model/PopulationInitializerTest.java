@@ -0,0 +1,82 @@
+package it.unibo.ares.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.agent.AgentIdGenerator;
+import it.unibo.ares.core.agent.TreeAgentFactory;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.State;
+import it.unibo.ares.core.utils.state.StateImpl;
+
+/**
+ * Unit test for {@link PopulationInitializer}.
+ */
+final class PopulationInitializerTest {
+    private static final int SIZE = 200;
+    private static final int AGENTS = 30_000;
+    private static final long SEED = 7L;
+
+    private Map<Pos, String> populate() {
+        final TreeAgentFactory factory = new TreeAgentFactory();
+        final State state = new StateImpl(SIZE, SIZE);
+        new AgentIdGenerator().runWith(() -> {
+            new PopulationInitializer(SIZE, SIZE)
+                    .withSeed(SEED)
+                    .add(AGENTS, factory::createAgent)
+                    .populate(state);
+            return state;
+        });
+        return state.getAgents().stream()
+                .collect(Collectors.toMap(p -> p.getFirst(), p -> p.getSecond().getId()));
+    }
+
+    /**
+     * All the agents should be placed, and a seeded population should not
+     * depend on how the chunks were scheduled.
+     */
+    @Test
+    void testSeededPopulationIsDeterministic() {
+        final Map<Pos, String> first = populate();
+        assertEquals(AGENTS, first.size());
+        assertEquals(first, populate());
+    }
+
+    /**
+     * Should refuse more agents than cells.
+     */
+    @Test
+    void testTooManyAgents() {
+        final PopulationInitializer initializer = new PopulationInitializer(2, 2)
+                .add(5, new TreeAgentFactory()::createAgent);
+        final State state = new StateImpl(2, 2);
+        assertThrows(IllegalArgumentException.class, () -> initializer.populate(state));
+    }
+
+    /**
+     * Every agent of every group should be placed.
+     */
+    @Test
+    void testGroups() {
+        final TreeAgentFactory factory = new TreeAgentFactory();
+        final State state = new StateImpl(SIZE, SIZE);
+        new PopulationInitializer(SIZE, SIZE)
+                .add(AGENTS / 2, () -> typed(factory.createAgent(), "A"))
+                .add(AGENTS / 2, () -> typed(factory.createAgent(), "B"))
+                .populate(state);
+        final Map<String, Long> counts = state.getAgents().stream()
+                .collect(Collectors.groupingBy(p -> p.getSecond().getType(), Collectors.counting()));
+        assertEquals(Map.of("A", (long) AGENTS / 2, "B", (long) AGENTS / 2), counts);
+    }
+
+    private static Agent typed(final Agent agent, final String type) {
+        agent.setType(type);
+        return agent;
+    }
+}
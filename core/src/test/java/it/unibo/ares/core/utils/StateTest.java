@@ -1,15 +1,18 @@
 package it.unibo.ares.core.utils;
 
 import it.unibo.ares.core.agent.Agent;
+import it.unibo.ares.core.utils.layer.IntLayer;
 import it.unibo.ares.core.utils.parameters.Parameters;
 import it.unibo.ares.core.utils.pos.Pos;
 import it.unibo.ares.core.utils.pos.PosImpl;
+import it.unibo.ares.core.utils.state.MoveBatch;
 import it.unibo.ares.core.utils.state.State;
 import it.unibo.ares.core.utils.state.StateImpl;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.Serializable;
 
@@ -76,6 +79,11 @@ class StateTest {
             public void setType(final String type) {
                 throw new UnsupportedOperationException("Unimplemented method 'setType'");
             }
+
+            @Override
+            public Agent copy() {
+                throw new UnsupportedOperationException("Unimplemented method 'copy'");
+            }
         };
     }
 
@@ -92,4 +100,70 @@ class StateTest {
             state.addAgent(new PosImpl(6, 6), getSimpleTestAgent());
         });
     }
+
+    /**
+     * Test the raster layers, their update rules and their copy.
+     */
+    @Test
+    void testLayers() {
+        final State state = new StateImpl(5, 4);
+        final IntLayer layer = state.addIntLayer("amount");
+        final Pos pos = new PosImpl(4, 3);
+        layer.set(pos, 2);
+        assertEquals(20, layer.size());
+        assertEquals(2, layer.get(layer.indexOf(pos)));
+        assertTrue(state.getDoubleLayer("amount").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> state.addDoubleLayer("amount"));
+        assertThrows(IllegalArgumentException.class, () -> layer.get(new PosImpl(5, 0)));
+
+        state.addLayerRule(s -> {
+            final int[] values = s.getIntLayer("amount").get().getValues();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = values[i] + 1;
+            }
+        });
+        final State copy = state.copy();
+        state.updateLayers();
+        assertEquals(3, state.getIntLayer("amount").get().get(pos));
+        assertEquals(1, state.getIntLayer("amount").get().get(0));
+        assertEquals(2, copy.getIntLayer("amount").get().get(pos));
+
+        copy.updateLayers();
+        assertEquals(3, copy.getIntLayer("amount").get().get(pos));
+    }
+
+    /**
+     * Test the bulk insertion, the simultaneous moves and the bulk removal,
+     * which must leave the state untouched when they fail.
+     */
+    @Test
+    void testBulkOperations() {
+        final State state = new StateImpl(5, 4);
+        final Agent first = getSimpleTestAgent();
+        final Agent second = getSimpleTestAgent();
+        state.addAgents(new int[] {0, 19}, new Agent[] {first, second});
+        assertEquals(first, state.getAgentAt(new PosImpl(0, 0)).get());
+        assertEquals(second, state.getAgentAt(new PosImpl(4, 3)).get());
+        assertThrows(IllegalArgumentException.class,
+                () -> state.addAgents(new int[] {1, 19}, new Agent[] {getSimpleTestAgent(), getSimpleTestAgent()}));
+        assertThrows(IllegalArgumentException.class,
+                () -> state.addAgents(new int[] {20}, new Agent[] {getSimpleTestAgent()}));
+        assertTrue(state.getAgentAt(new PosImpl(1, 0)).isEmpty());
+
+        // the two agents swap places
+        state.applyMoves(new MoveBatch()
+                .add(new PosImpl(0, 0), new PosImpl(4, 3))
+                .add(new PosImpl(4, 3), new PosImpl(0, 0)));
+        assertEquals(second, state.getAgentAt(new PosImpl(0, 0)).get());
+        assertEquals(first, state.getAgentAt(new PosImpl(4, 3)).get());
+        assertThrows(IllegalArgumentException.class, () -> state.applyMoves(new MoveBatch()
+                .add(new PosImpl(0, 0), new PosImpl(2, 2))
+                .add(new PosImpl(4, 3), new PosImpl(2, 2))));
+        assertEquals(2, state.getAgents().size());
+        assertTrue(state.getAgentAt(new PosImpl(2, 2)).isEmpty());
+
+        assertEquals(1, state.removeAll((pos, agent) -> pos.getX() == 0));
+        assertEquals(1, state.getAgents().size());
+        assertEquals(first, state.getAgentAt(new PosImpl(4, 3)).get());
+    }
 }
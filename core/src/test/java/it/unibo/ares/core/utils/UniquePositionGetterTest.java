@@ -0,0 +1,74 @@
+package it.unibo.ares.core.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.PosImpl;
+
+/**
+ * Unit test for {@link UniquePositionGetter}.
+ */
+final class UniquePositionGetterTest {
+    private static final int WIDTH = 7;
+    private static final int HEIGHT = 5;
+    private static final long SEED = 42L;
+
+    /**
+     * Every cell of the grid should be extracted exactly once.
+     */
+    @Test
+    void testExtractsEveryCellOnce() {
+        final UniquePositionGetter getter = new UniquePositionGetter(WIDTH, HEIGHT);
+        final Set<Pos> extracted = new HashSet<>();
+        while (getter.hasNext()) {
+            final Pos pos = getter.next();
+            assertTrue(pos.getX() >= 0 && pos.getX() < WIDTH && pos.getY() >= 0 && pos.getY() < HEIGHT);
+            extracted.add(pos);
+        }
+        assertEquals(WIDTH * HEIGHT, extracted.size());
+        assertEquals(0, getter.remaining());
+        assertFalse(getter.hasNext());
+        assertThrows(NoSuchElementException.class, getter::next);
+    }
+
+    /**
+     * The same seed should give the same extraction order.
+     */
+    @Test
+    void testSeededOrder() {
+        final UniquePositionGetter first = new UniquePositionGetter(WIDTH, HEIGHT, SEED);
+        final UniquePositionGetter second = new UniquePositionGetter(WIDTH, HEIGHT, SEED);
+        final List<Integer> firstOrder = IntStream.range(0, WIDTH * HEIGHT)
+                .mapToObj(i -> first.nextIndex()).collect(Collectors.toList());
+        final List<Integer> secondOrder = IntStream.range(0, WIDTH * HEIGHT)
+                .mapToObj(i -> second.nextIndex()).collect(Collectors.toList());
+        assertEquals(firstOrder, secondOrder);
+    }
+
+    /**
+     * The list based getter should extract each of the given positions.
+     */
+    @Test
+    void testListPositions() {
+        final List<Pos> positions = Stream.of(new PosImpl(1, 1), new PosImpl(2, 3), new PosImpl(4, 0))
+                .map(Pos.class::cast)
+                .toList();
+        final UniquePositionGetter getter = new UniquePositionGetter(positions);
+        final Set<Pos> extracted = Stream.generate(getter::next).limit(positions.size())
+                .collect(Collectors.toSet());
+        assertEquals(Set.copyOf(positions), extracted);
+    }
+}
@@ -0,0 +1,72 @@
+package it.unibo.ares.core.utils.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.utils.random.RandomService;
+
+/**
+ * Unit test for {@link Histogram}.
+ */
+final class HistogramTest {
+    private static final int VALUES = 100_000;
+    private static final double RELATIVE_ERROR = 0.02;
+    private static final double[] PERCENTILES = { 1, 25, 50, 90, 99, 99.9 };
+
+    /**
+     * The percentiles should be within the precision of the histogram from
+     * the exact ones, over values spanning several orders of magnitude.
+     */
+    @Test
+    void testPercentiles() {
+        final long[] values = new RandomService(1L).generator().longs(VALUES, 1, 10_000_000).sorted().toArray();
+        final Histogram histogram = new Histogram();
+        Arrays.stream(values).forEach(histogram::record);
+        assertEquals(VALUES, histogram.getCount());
+        assertEquals(values[VALUES - 1], histogram.getMax());
+        assertEquals(Arrays.stream(values).average().orElseThrow(), histogram.getMean(), 1e-6);
+        for (final double p : PERCENTILES) {
+            final long exact = values[(int) Math.ceil(p / 100 * VALUES) - 1];
+            final long estimate = histogram.getValueAtPercentile(p);
+            assertTrue(Math.abs(estimate - exact) <= exact * RELATIVE_ERROR, p + ": " + estimate + " vs " + exact);
+        }
+        assertEquals(histogram.getMax(), histogram.getValueAtPercentile(100));
+    }
+
+    /**
+     * Small values should be exact, an empty histogram should answer 0 and
+     * percentiles out of range should be rejected.
+     */
+    @Test
+    void testSmallAndEmpty() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMean());
+        histogram.record(3);
+        histogram.record(5);
+        histogram.record(-1);
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(5, histogram.getValueAtPercentile(100));
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+
+    /**
+     * A copy should not see the values recorded after it.
+     */
+    @Test
+    void testCopy() {
+        final Histogram histogram = new Histogram();
+        histogram.record(10);
+        final Histogram copy = histogram.copy();
+        histogram.record(1_000);
+        assertEquals(1, copy.getCount());
+        assertEquals(10, copy.getMax());
+        assertEquals(2, histogram.getCount());
+    }
+}
@@ -0,0 +1,133 @@
+package it.unibo.ares.core.utils.parameters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link ParameterSchemaImpl}.
+ */
+class ParameterSchemaImplTest {
+    private static final String COUNT = "count";
+    private static final String RATE = "rate";
+    private static final String NAME = "name";
+    private ParameterSchema schema;
+    private ParamKey<Integer> count;
+    private ParamKey<Double> rate;
+    private ParamKey<String> name;
+
+    /**
+     * Declare a new schema before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        schema = new ParameterSchemaImpl();
+        count = schema.declare(new ParameterImpl<>(COUNT, Integer.class,
+                new ParameterDomainImpl<>("count (0-n)", (Integer i) -> i >= 0), true));
+        rate = schema.declare(new ParameterImpl<>(RATE, 0.5, false));
+        name = schema.declare(new ParameterImpl<>(NAME, String.class, true));
+    }
+
+    /**
+     * Test reading and writing through the keys.
+     */
+    @Test
+    void testKeys() {
+        final Parameters parameters = schema.newParameters();
+        assertEquals(0.5, parameters.getDouble(rate));
+        assertThrows(IllegalStateException.class, () -> parameters.getInt(count));
+
+        parameters.setInt(count, 3);
+        parameters.set(name, "a");
+        assertEquals(3, parameters.getInt(count));
+        assertEquals(3, parameters.get(count));
+        assertEquals("a", parameters.getParameter(NAME, String.class).get().getValue());
+        assertEquals(3, parameters.getParameter(COUNT, Integer.class).get().getValue());
+
+        // the key path does not validate the domain
+        parameters.setInt(count, -1);
+        assertEquals(-1, parameters.getInt(count));
+    }
+
+    /**
+     * Test the user facing path, which validates the values.
+     */
+    @Test
+    void testSetParameter() {
+        final Parameters parameters = schema.newParameters();
+        assertEquals(2, parameters.getParametersToset().size());
+        assertFalse(parameters.areAllParametersSetted());
+
+        parameters.setParameter(COUNT, 2);
+        parameters.setParameter(NAME, "b");
+        assertEquals(2, parameters.getInt(count));
+        assertTrue(parameters.areAllParametersSetted());
+        assertThrows(IllegalArgumentException.class, () -> parameters.setParameter(COUNT, -1));
+        assertThrows(IllegalArgumentException.class, () -> parameters.setParameter(COUNT, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> parameters.setParameter("missing", 1));
+        assertThrows(UnsupportedOperationException.class, () -> parameters.addParameter("other", 1, true));
+    }
+
+    /**
+     * Test that copies are independent and that the schema is frozen once used.
+     */
+    @Test
+    void testCopyAndFreeze() {
+        final Parameters parameters = schema.newParameters();
+        parameters.setInt(count, 1);
+        final Parameters copy = parameters.copy();
+        copy.setInt(count, 2);
+        assertEquals(1, parameters.getInt(count));
+        assertEquals(2, copy.getInt(count));
+        assertThrows(IllegalStateException.class,
+                () -> schema.declare(new ParameterImpl<>("other", Integer.class, true)));
+    }
+
+    /**
+     * Test checking the values through the keys, also those not declared in
+     * the schema.
+     */
+    @Test
+    void testIsSetted() {
+        final Parameters parameters = schema.newParameters();
+        assertTrue(parameters.isSetted(rate));
+        assertFalse(parameters.isSetted(count));
+        parameters.setInt(count, 1);
+        assertTrue(parameters.isSetted(ParamKey.of(COUNT, Integer.class)));
+        assertFalse(parameters.isSetted(ParamKey.of(COUNT, Double.class)));
+        assertFalse(parameters.isSetted(ParamKey.of("missing", Integer.class)));
+
+        final Parameters map = new ParametersImpl();
+        map.addParameter(COUNT, Integer.class, true);
+        assertFalse(map.isSetted(count));
+        map.setInt(count, 2);
+        assertTrue(map.isSetted(count));
+        assertFalse(map.isSetted(rate));
+    }
+
+    /**
+     * Keys should also work, by name, on the map based parameters.
+     */
+    @Test
+    void testKeysOnParametersImpl() {
+        final Parameters parameters = new ParametersImpl();
+        parameters.addParameter(COUNT, 4, true);
+        assertEquals(4, parameters.getInt(count));
+        parameters.setInt(count, 5);
+        assertEquals(5, parameters.getParameter(COUNT, Integer.class).get().getValue());
+        assertThrows(IllegalArgumentException.class, () -> parameters.getDouble(rate));
+
+        // as on the schema, the keys skip the domain while the names check it
+        final Parameters bounded = new ParametersImpl();
+        bounded.addParameter(new ParameterImpl<>(COUNT, 1,
+                new ParameterDomainImpl<>("count (0-n)", (Integer i) -> i >= 0), true));
+        bounded.setInt(count, -1);
+        assertEquals(-1, bounded.getInt(count));
+        assertTrue(bounded.getParameter(COUNT, Integer.class).get().getDomain().isPresent());
+        assertThrows(IllegalArgumentException.class, () -> bounded.setParameter(COUNT, -2));
+    }
+}
@@ -0,0 +1,79 @@
+package it.unibo.ares.core.utils.random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.model.Model;
+import it.unibo.ares.core.model.VirusModelFactory;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.state.State;
+
+/**
+ * Unit test for {@link RandomService}.
+ */
+final class RandomServiceTest {
+    private static final long SEED = 1234L;
+    private static final int DRAWS = 100;
+    private static final int TICKS = 15;
+
+    /**
+     * Services with the same seed, and their splits, should draw the same
+     * values, while a split should not repeat its parent.
+     */
+    @Test
+    void testSeededStreams() {
+        final RandomService first = new RandomService(SEED);
+        final RandomService second = new RandomService(SEED);
+        assertEquals(draw(first), draw(second));
+        final RandomService firstSplit = first.split();
+        assertEquals(draw(firstSplit), draw(second.split()));
+        assertNotEquals(draw(first), draw(firstSplit));
+    }
+
+    /**
+     * A service should be current only while running an action with it.
+     */
+    @Test
+    void testCurrent() {
+        final RandomService service = new RandomService(SEED);
+        assertSame(service, service.runWith(RandomService::current));
+        assertNotEquals(service, RandomService.current());
+    }
+
+    /**
+     * Two runs of a model with the same seed should evolve identically.
+     */
+    @Test
+    void testReproducibleModel() {
+        assertEquals(runVirusModel(), runVirusModel());
+    }
+
+    private static String draw(final RandomService service) {
+        return IntStream.range(0, DRAWS)
+                .mapToObj(i -> Long.toString(service.generator().nextLong()))
+                .collect(Collectors.joining(","));
+    }
+
+    private static Map<Pos, String> runVirusModel() {
+        final Model model = new VirusModelFactory().getModel();
+        model.setParameter(Model.SIZEKEY, 20);
+        model.setParameter("numeroPersoneSane", 60);
+        model.setParameter("numeroInfetti", 10);
+        model.setParameter(Model.SEEDKEY, SEED);
+        State state = model.initilize();
+        state.getAgents().forEach(pair -> pair.getSecond().getParameters().getParametersToset()
+                .forEach(p -> pair.getSecond().setParameter(p.getKey(), 5)));
+        for (int i = 0; i < TICKS; i++) {
+            state = model.tick(state);
+        }
+        return state.getAgents().stream()
+                .collect(Collectors.toMap(p -> p.getFirst(), p -> p.getSecond().getType()));
+    }
+}
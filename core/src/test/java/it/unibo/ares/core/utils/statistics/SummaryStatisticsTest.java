@@ -0,0 +1,110 @@
+package it.unibo.ares.core.utils.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import org.junit.jupiter.api.Test;
+
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.random.RandomService;
+
+/**
+ * Unit test for {@link SummaryStatistics}, {@link QuantileSketch} and
+ * {@link EnsembleStatistics}.
+ */
+final class SummaryStatisticsTest {
+    private static final int VALUES = 100_000;
+    private static final double DELTA = 1e-9;
+    private static final double RANK_ERROR = 0.02;
+
+    private static double[] values() {
+        final RandomGenerator r = new RandomService(1L).generator();
+        return r.doubles(VALUES).map(d -> d * 100).toArray();
+    }
+
+    /**
+     * The streaming moments should match the two-pass ones, also when
+     * computed in parts and merged.
+     */
+    @Test
+    void testMomentsAndMerge() {
+        final double[] values = values();
+        final double mean = Arrays.stream(values).average().orElseThrow();
+        final double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / (VALUES - 1);
+        final SummaryStatistics all = new SummaryStatistics();
+        final SummaryStatistics left = new SummaryStatistics();
+        final SummaryStatistics right = new SummaryStatistics();
+        for (int i = 0; i < VALUES; i++) {
+            all.add(values[i]);
+            (i % 3 == 0 ? left : right).add(values[i]);
+        }
+        left.merge(right);
+        for (final SummaryStatistics s : List.of(all, left)) {
+            assertEquals(VALUES, s.getCount());
+            assertEquals(mean, s.getMean(), DELTA);
+            assertEquals(variance, s.getVariance(), DELTA * variance);
+            assertEquals(Arrays.stream(values).min().orElseThrow(), s.getMin());
+            assertEquals(Arrays.stream(values).max().orElseThrow(), s.getMax());
+        }
+        final Pair<Double, Double> ci = all.getConfidenceInterval(1.96);
+        assertTrue(ci.getFirst() < mean && mean < ci.getSecond());
+    }
+
+    /**
+     * The quantiles of the sketch should be within its rank error, and exact
+     * while it holds few values.
+     */
+    @Test
+    void testQuantiles() {
+        final double[] values = values();
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final QuantileSketch sketch = new QuantileSketch();
+        final QuantileSketch half = new QuantileSketch();
+        for (int i = 0; i < VALUES; i++) {
+            (i % 2 == 0 ? sketch : half).add(values[i]);
+        }
+        sketch.merge(half);
+        assertEquals(VALUES, sketch.getCount());
+        for (final double q : new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+            final double estimate = sketch.getQuantile(q);
+            final double rank = (double) Math.abs(Arrays.binarySearch(sorted, estimate)) / VALUES;
+            assertEquals(q, rank, RANK_ERROR);
+        }
+        final QuantileSketch small = new QuantileSketch();
+        List.of(5.0, 1.0, 3.0, 2.0, 4.0).forEach(small::add);
+        assertEquals(3.0, small.getQuantile(0.5));
+        assertEquals(1.0, small.getQuantile(0));
+        assertEquals(5.0, small.getQuantile(1));
+    }
+
+    /**
+     * Ensembles should aggregate per tick, ignoring non numeric statistics,
+     * and merge as if all the replicates were added to one.
+     */
+    @Test
+    void testEnsemble() {
+        final EnsembleStatistics first = new EnsembleStatistics();
+        final EnsembleStatistics second = new EnsembleStatistics();
+        for (int r = 0; r < 4; r++) {
+            final EnsembleStatistics target = r % 2 == 0 ? first : second;
+            final int value = r;
+            for (int tick = 1; tick <= r + 1; tick++) {
+                target.add(tick, () -> List.of(new Pair<>("n", String.valueOf(value)), new Pair<>("s", "x")));
+            }
+            target.completeReplicate();
+        }
+        first.merge(second);
+        assertEquals(4, first.getReplicates());
+        assertEquals(4, first.getTicks());
+        assertEquals(List.of("n"), List.copyOf(first.getSummaries(1).keySet()));
+        assertEquals(4, first.getSummaries(1).get("n").getCount());
+        assertEquals(1.5, first.getSummaries(1).get("n").getMean(), DELTA);
+        assertEquals(1, first.getSummaries(4).get("n").getCount());
+        assertEquals(1, first.getStatistics(2).getStatistics().size());
+    }
+}
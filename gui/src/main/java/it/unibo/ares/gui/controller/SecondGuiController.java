@@ -7,6 +7,8 @@ import java.util.ResourceBundle;
 import it.unibo.ares.core.api.DataReciever;
 import it.unibo.ares.core.controller.AresSupplier;
 import it.unibo.ares.core.controller.SimulationOutputData;
+import it.unibo.ares.gui.utils.GridRenderer;
+import it.unibo.ares.gui.utils.GridRendererImpl;
 import it.unibo.ares.gui.utils.GuiDinamicWriter;
 import it.unibo.ares.gui.utils.GuiDinamicWriterImpl;
 import it.unibo.ares.gui.utils.HandlerAdapter;
@@ -22,6 +24,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
 import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 /**
@@ -36,6 +39,11 @@ public final class SecondGuiController extends DataReciever implements Initializ
      * GUI.
      */
     private final GuiDinamicWriter guiWriter = new GuiDinamicWriterImpl();
+    /**
+     * renderer draws the frames of the simulation and plots their statistics
+     * in the background, showing at most one frame per pulse of the screen.
+     */
+    private final GridRenderer renderer = new GridRendererImpl(MAX_SIZE_GRID);
     /*
      * configurationSessionId is a string that holds the ID of the configuration
      * simlationId is a string that holds the ID of the simulation
@@ -46,6 +54,7 @@ public final class SecondGuiController extends DataReciever implements Initializ
 
     // we set the max tick rate to 1200 ms, we can set it to whatever value we want
     private static final double MAXSTEP = 5000;
+    private static final double MAX_SIZE_GRID = 655;
 
     /**
      * calculatorSupplier is an instance of CalculatorSupplier used to supply
@@ -61,6 +70,8 @@ public final class SecondGuiController extends DataReciever implements Initializ
     private Button btnPause, btnRestart, btnStop;
     @FXML
     private AnchorPane anchorPane;
+    @FXML
+    private VBox vboxStatistics;
 
     @FXML
     private Label lblStep;
@@ -93,7 +104,11 @@ public final class SecondGuiController extends DataReciever implements Initializ
      */
     @Override
     public void initialize(final URL arg0, final ResourceBundle arg1) {
+        anchorPane.getChildren().setAll(renderer.getNode());
+        vboxStatistics.getChildren().setAll(renderer.getStatisticsNode());
+        renderer.start();
         simulationId = calculatorSupplier.startSimulation(configurationSessionId, this);
+        renderer.setOnViewportChanged(viewport -> calculatorSupplier.setViewport(simulationId, viewport));
         btnPause.setOnAction(new HandlerAdapter(this::pauseSimulation));
         btnRestart.setOnAction(new HandlerAdapter(this::restartSimulation));
         btnStop.setOnAction(new HandlerAdapter(this::stopSimulation));
@@ -151,8 +166,10 @@ public final class SecondGuiController extends DataReciever implements Initializ
 
     /**
      * This method is called when the next item in the simulation is available.
-     * It updates the GUI with the new simulation data on the JavaFX Application
-     * thread. DATARECIEVER INTERFACE
+     * It submits the new simulation data to the renderer, which draws the
+     * changed cells of the latest frame and plots its statistics on its own
+     * thread, leaving the JavaFX one free to handle the input. DATARECIEVER
+     * INTERFACE
      * If the simulation is finished, it shows an alert to the user and disables the
      * pause and restart buttons.
      *
@@ -161,9 +178,7 @@ public final class SecondGuiController extends DataReciever implements Initializ
     @Override
     public void onNext(final SimulationOutputData item) {
         if (!item.isFinished()) {
-            Platform.runLater(() -> {
-                guiWriter.write2dMap(item.getData(), anchorPane, item.getWidth(), item.getHeight());
-            });
+            renderer.submit(item);
         } else {
             Platform.runLater(() -> {
                 guiWriter.showAlert(
@@ -207,6 +222,7 @@ public final class SecondGuiController extends DataReciever implements Initializ
     @FXML
     void stopSimulation() {
         calculatorSupplier.removeSimulation(simulationId);
+        renderer.stop();
         final Parent root;
         try {
             root = FXMLLoader.load(ClassLoader.getSystemResource("scene1.fxml"));
@@ -0,0 +1,74 @@
+package it.unibo.ares.gui.utils;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import it.unibo.ares.core.api.SimulationOutputDataApi;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.Viewport;
+import javafx.scene.Node;
+
+/**
+ * GridRenderer draws the agents of a simulation on a 2d grid, one colour per
+ * agent type, reusing the same node across frames, and plots the numeric
+ * statistics of the frames over time. The view can be zoomed and panned,
+ * asking for frames sampled in the viewport it shows. Frames can either be
+ * drawn at once with {@link #render}, or submitted from any thread with
+ * {@link #submit}, drawn in the background and shown at the next pulse of the
+ * screen while the renderer is started.
+ */
+public interface GridRenderer {
+
+    /**
+     * Returns the node showing the grid, to be added once to the scene.
+     *
+     * @return the node showing the grid
+     */
+    Node getNode();
+
+    /**
+     * Returns the node plotting the statistics, to be added once to the scene.
+     *
+     * @return the node plotting the statistics
+     */
+    Node getStatisticsNode();
+
+    /**
+     * Draws a frame. Must be called on the JavaFX Application thread.
+     *
+     * @param items  the agent type at each occupied position
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     */
+    void render(Map<Pos, String> items, int width, int height);
+
+    /**
+     * Submits a frame, to be drawn in the background and shown at the next
+     * pulse. Can be called from any thread and returns at once; if several
+     * frames are submitted before the previous one is drawn, only the latest
+     * is drawn, while the statistics of each are plotted.
+     *
+     * @param frame the output of a tick of the simulation
+     */
+    void submit(SimulationOutputDataApi frame);
+
+    /**
+     * Sets the listener told of the viewport to show whenever the view is
+     * zoomed or panned, so that the next frames can be sampled in it.
+     *
+     * @param listener the listener, called on the JavaFX Application thread
+     */
+    void setOnViewportChanged(Consumer<Viewport> listener);
+
+    /**
+     * Starts drawing the submitted frames and showing them at each pulse. Must
+     * be called on the JavaFX Application thread.
+     */
+    void start();
+
+    /**
+     * Stops drawing the submitted frames, releasing the thread drawing them.
+     * Must be called on the JavaFX Application thread.
+     */
+    void stop();
+}
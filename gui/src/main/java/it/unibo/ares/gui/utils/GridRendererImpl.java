@@ -0,0 +1,512 @@
+package it.unibo.ares.gui.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import it.unibo.ares.core.api.SimulationOutputDataApi;
+import it.unibo.ares.core.utils.pos.Pos;
+import it.unibo.ares.core.utils.pos.Viewport;
+import it.unibo.ares.core.utils.statistics.Statistics;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * GridRendererImpl draws the grid in images with one pixel per tile, which an
+ * ImageView scales to the zoom of the view without smoothing, and plots the
+ * statistics below a legend of their colours.
+ * The frames submitted are drawn on a background thread: each frame is
+ * compared there with the previous one, and only the tiles that changed are
+ * written into a free buffer of a {@link SwapChain}, which keeps track of the
+ * tiles each of its buffers misses. The frames submitted while drawing are
+ * merged, and only the latest one is drawn. On each pulse the JavaFX thread
+ * only swaps in the last buffer drawn, so heavy frames never block the
+ * handling of the input.
+ * The view can be zoomed with the wheel, panned by dragging and fitted again
+ * with a double click; each change asks for a viewport whose tiles are at
+ * most as many as the pixels of the view, so the memory and the work of the
+ * renderer depend on the size of the view and not on the size of the grid.
+ */
+public final class GridRendererImpl implements GridRenderer {
+    private static final double LEGEND_SPACING = 4;
+    private static final double LEGEND_PADDING = 6;
+    private static final double SWATCH_SIZE = 12;
+    // one buffer shown, one retiring and one to draw into
+    private static final int BUFFERS = 3;
+    // beyond this share of dirty tiles a bulk write is cheaper than one per tile
+    private static final int BULK_RATIO = 4;
+    private static final double ZOOM_STEP = 1.25;
+    private static final double MAX_ZOOM = 64;
+    private static final double EPSILON = 1e-9;
+    private static final int PLOT_WIDTH = 320;
+    private static final int PLOT_HEIGHT = 200;
+    private static final int PLOT_SAMPLES = 240;
+
+    private final double size;
+    private final ImageView view = new ImageView();
+    private final VBox legend = new VBox(LEGEND_SPACING);
+    private final StackPane root;
+    private final ImageView plotView = new ImageView();
+    private final Label plotMax = new Label();
+    private final Label plotMin = new Label();
+    private final VBox plotLegend = new VBox(LEGEND_SPACING);
+    private final VBox statistics;
+    private final AnimationTimer pulse;
+
+    // handed from the submitting threads to the drawing one
+    private final AtomicReference<Tiles> latest = new AtomicReference<>();
+    private final Queue<Statistics> samples = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile ExecutorService rasteriser;
+    private volatile SwapChain<Tiles> tiles;
+    private final SwapChain<Scale> plotChain;
+
+    // owned by the drawing thread
+    private final Palette palette = new Palette();
+    private final StatisticsPlot plot = new StatisticsPlot(PLOT_WIDTH, PLOT_HEIGHT, PLOT_SAMPLES);
+    private Tiles frame;
+    private Map<String, Integer> types = Collections.emptyMap();
+    private Map<String, Integer> series = Collections.emptyMap();
+    private int[] colors = new int[0];
+    private int[] occupied = new int[0];
+    private int occupiedCount;
+    private int[] stamps = new int[0];
+    private int generation;
+    private boolean[][] dirty = new boolean[BUFFERS][0];
+    private int[][] dirtyTiles = new int[BUFFERS][0];
+    private final int[] dirtyCount = new int[BUFFERS];
+    private final boolean[] full = new boolean[BUFFERS];
+    private boolean changed;
+    private boolean plotChanged;
+
+    // owned by the JavaFX thread
+    private Viewport shownFrame;
+    private int legendSize;
+    private int plotLegendSize;
+    private int worldWidth;
+    private int worldHeight;
+    private double zoom;
+    private double viewX;
+    private double viewY;
+    private double dragX;
+    private double dragY;
+    private Viewport requested;
+    private Consumer<Viewport> onViewportChanged = v -> { };
+
+    /*
+     * A frame of the grid: as submitted it holds the type of each tile, by
+     * position in the viewport; as drawn, the colours of the agent types met
+     * so far.
+     */
+    private record Tiles(Map<Pos, String> items, int gridWidth, int gridHeight, Viewport viewport,
+            Map<String, Integer> types) {
+    }
+
+    /*
+     * The bounds of the scale of the plot and the colours of the statistics.
+     */
+    private record Scale(String min, String max, Map<String, Integer> colors) {
+    }
+
+    /**
+     * Creates a renderer.
+     *
+     * @param size the side, in pixels, of the square view
+     */
+    public GridRendererImpl(final double size) {
+        this.size = size;
+        view.setSmooth(false);
+        final Pane canvas = new Pane(view);
+        canvas.setPrefSize(size, size);
+        canvas.setClip(new Rectangle(size, size));
+        canvas.setOnScroll(this::zoom);
+        canvas.setOnMousePressed(this::startDrag);
+        canvas.setOnMouseDragged(this::drag);
+        canvas.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                fit();
+            }
+        });
+        legend.setMouseTransparent(true);
+        legend.setPadding(new Insets(LEGEND_PADDING));
+        legend.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        legend.setStyle("-fx-background-color: rgba(255, 255, 255, 0.8);");
+        root = new StackPane(canvas, legend);
+        StackPane.setAlignment(legend, javafx.geometry.Pos.TOP_RIGHT);
+        root.setPrefSize(size, size);
+        final StackPane plotPane = new StackPane(plotView, plotMax, plotMin);
+        StackPane.setAlignment(plotMax, javafx.geometry.Pos.TOP_LEFT);
+        StackPane.setAlignment(plotMin, javafx.geometry.Pos.BOTTOM_LEFT);
+        plotPane.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        statistics = new VBox(LEGEND_SPACING, new Label("Statistiche"), plotPane, plotLegend);
+        statistics.setPadding(new Insets(LEGEND_PADDING));
+        plotChain = new SwapChain<>(PLOT_WIDTH, PLOT_HEIGHT, BUFFERS, this::schedule);
+        pulse = new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                swap();
+            }
+        };
+    }
+
+    @Override
+    public Node getNode() {
+        return root;
+    }
+
+    @Override
+    public Node getStatisticsNode() {
+        return statistics;
+    }
+
+    @Override
+    public void start() {
+        rasteriser();
+        pulse.start();
+    }
+
+    @Override
+    public void stop() {
+        pulse.stop();
+        final ExecutorService executor = rasteriser;
+        rasteriser = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService rasteriser() {
+        if (rasteriser == null) {
+            rasteriser = Executors.newSingleThreadExecutor(r -> {
+                final Thread thread = new Thread(r, "ares-rasteriser");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return rasteriser;
+    }
+
+    @Override
+    public void setOnViewportChanged(final Consumer<Viewport> listener) {
+        this.onViewportChanged = listener;
+    }
+
+    @Override
+    public void render(final Map<Pos, String> items, final int width, final int height) {
+        latest.set(new Tiles(items, width, height, null, null));
+        try {
+            rasteriser().submit(this::rasterise).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The grid could not be drawn", e.getCause());
+        }
+        swap();
+    }
+
+    @Override
+    public void submit(final SimulationOutputDataApi frame) {
+        samples.add(frame.getStatistics());
+        latest.set(new Tiles(frame.getData(), frame.getWidth(), frame.getHeight(),
+                frame.getViewport().orElse(null), null));
+        schedule();
+    }
+
+    /*
+     * Asks the drawing thread to catch up, unless it already has to.
+     */
+    private void schedule() {
+        final ExecutorService executor = rasteriser;
+        if (executor != null && scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::rasterise);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /*
+     * Runs on the drawing thread: applies the latest frame and the statistics
+     * submitted, then draws them if a buffer is free; if none is, they are
+     * drawn when the JavaFX thread gives one back.
+     */
+    private void rasterise() {
+        scheduled.set(false);
+        final Tiles next = latest.getAndSet(null);
+        if (next != null) {
+            apply(next);
+        }
+        for (Statistics sample = samples.poll(); sample != null; sample = samples.poll()) {
+            plotChanged |= plot.add(sample);
+        }
+        if (changed) {
+            tiles.acquire().ifPresent(this::draw);
+        }
+        if (plotChanged) {
+            plotChain.acquire().ifPresent(this::plot);
+        }
+    }
+
+    private void apply(final Tiles next) {
+        final Viewport viewport = Optional.ofNullable(next.viewport())
+                .orElseGet(() -> new Viewport(0, 0, next.gridWidth(), next.gridHeight(), 1));
+        if (frame == null || !viewport.equals(frame.viewport())) {
+            resize(viewport);
+        }
+        /*
+         * the tiles of the new frame are stamped with a new generation, so
+         * that the tiles of the previous frame left without a stamp are the
+         * ones that became empty
+         */
+        final int columns = viewport.getColumns();
+        generation++;
+        final int[] stamped = new int[next.items().size()];
+        int count = 0;
+        for (final Map.Entry<Pos, String> item : next.items().entrySet()) {
+            final int tile = item.getKey().getY() * columns + item.getKey().getX();
+            stamps[tile] = generation;
+            stamped[count++] = tile;
+            paint(tile, palette.colorOf(item.getValue()));
+        }
+        for (int i = 0; i < occupiedCount; i++) {
+            if (stamps[occupied[i]] != generation) {
+                paint(occupied[i], Palette.BACKGROUND);
+            }
+        }
+        occupied = stamped;
+        occupiedCount = count;
+        if (palette.size() != types.size()) {
+            types = Collections.unmodifiableMap(new LinkedHashMap<>(palette.getColors()));
+        }
+        changed |= next.gridWidth() != frame.gridWidth() || next.gridHeight() != frame.gridHeight();
+        frame = new Tiles(Collections.emptyMap(), next.gridWidth(), next.gridHeight(), viewport, types);
+    }
+
+    private void paint(final int tile, final int color) {
+        if (colors[tile] != color) {
+            colors[tile] = color;
+            changed = true;
+            for (int b = 0; b < BUFFERS; b++) {
+                if (!dirty[b][tile]) {
+                    dirty[b][tile] = true;
+                    dirtyTiles[b][dirtyCount[b]++] = tile;
+                }
+            }
+        }
+    }
+
+    /*
+     * A new viewport moves every tile, so the frame is drawn again as a whole
+     * in a new chain of buffers of the new size.
+     */
+    private void resize(final Viewport viewport) {
+        final int count = viewport.getColumns() * viewport.getRows();
+        colors = new int[count];
+        Arrays.fill(colors, Palette.BACKGROUND);
+        stamps = new int[count];
+        dirty = new boolean[BUFFERS][count];
+        dirtyTiles = new int[BUFFERS][count];
+        Arrays.fill(dirtyCount, 0);
+        Arrays.fill(full, true);
+        occupiedCount = 0;
+        frame = new Tiles(Collections.emptyMap(), 0, 0, viewport, types);
+        tiles = new SwapChain<>(viewport.getColumns(), viewport.getRows(), BUFFERS, this::schedule);
+        changed = true;
+    }
+
+    /*
+     * Brings a buffer up to date, writing only the tiles it misses unless
+     * they are many.
+     */
+    private void draw(final SwapChain.Buffer<Tiles> buffer) {
+        final int b = buffer.getIndex();
+        if (full[b] || dirtyCount[b] * BULK_RATIO > colors.length) {
+            buffer.getPixels().put(0, colors);
+        } else {
+            for (int i = 0; i < dirtyCount[b]; i++) {
+                buffer.getPixels().put(dirtyTiles[b][i], colors[dirtyTiles[b][i]]);
+            }
+        }
+        for (int i = 0; i < dirtyCount[b]; i++) {
+            dirty[b][dirtyTiles[b][i]] = false;
+        }
+        dirtyCount[b] = 0;
+        full[b] = false;
+        buffer.setContent(frame);
+        tiles.publish(buffer);
+        changed = false;
+    }
+
+    private void plot(final SwapChain.Buffer<Scale> buffer) {
+        plot.draw(buffer.getPixels());
+        if (plot.getColors().size() != series.size()) {
+            series = Collections.unmodifiableMap(new LinkedHashMap<>(plot.getColors()));
+        }
+        buffer.setContent(new Scale(format(plot.getMin()), format(plot.getMax()), series));
+        plotChain.publish(buffer);
+        plotChanged = false;
+    }
+
+    private static String format(final double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /*
+     * Runs on the JavaFX thread at each pulse: swaps in the last buffers
+     * drawn, placing the image of the grid by its viewport.
+     */
+    private void swap() {
+        final SwapChain<Tiles> chain = tiles;
+        if (chain != null) {
+            chain.swap().ifPresent(this::showTiles);
+        }
+        plotChain.swap().ifPresent(this::showPlot);
+    }
+
+    private void showTiles(final SwapChain.Buffer<Tiles> buffer) {
+        final Tiles shown = buffer.getContent();
+        view.setImage(buffer.getImage());
+        shownFrame = shown.viewport();
+        if (shown.gridWidth() != worldWidth || shown.gridHeight() != worldHeight) {
+            worldWidth = shown.gridWidth();
+            worldHeight = shown.gridHeight();
+            fit();
+        } else {
+            place();
+        }
+        if (shown.types().size() != legendSize) {
+            legendSize = shown.types().size();
+            fill(legend, shown.types());
+        }
+    }
+
+    private void showPlot(final SwapChain.Buffer<Scale> buffer) {
+        final Scale scale = buffer.getContent();
+        plotView.setImage(buffer.getImage());
+        plotMin.setText(scale.min());
+        plotMax.setText(scale.max());
+        if (scale.colors().size() != plotLegendSize) {
+            plotLegendSize = scale.colors().size();
+            fill(plotLegend, scale.colors());
+        }
+    }
+
+    /*
+     * Shows the whole grid.
+     */
+    private void fit() {
+        if (worldWidth == 0) {
+            return;
+        }
+        zoom = minZoom();
+        viewX = 0;
+        viewY = 0;
+        moved();
+    }
+
+    private double minZoom() {
+        return size / Math.max(worldWidth, worldHeight);
+    }
+
+    /*
+     * Zooms keeping the cell under the cursor in place.
+     */
+    private void zoom(final ScrollEvent event) {
+        if (worldWidth == 0 || event.getDeltaY() == 0) {
+            return;
+        }
+        final double cellX = viewX + event.getX() / zoom;
+        final double cellY = viewY + event.getY() / zoom;
+        final double factor = event.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP;
+        zoom = Math.max(minZoom(), Math.min(MAX_ZOOM, zoom * factor));
+        viewX = cellX - event.getX() / zoom;
+        viewY = cellY - event.getY() / zoom;
+        moved();
+    }
+
+    /*
+     * While dragging, the cell grabbed stays under the cursor.
+     */
+    private void startDrag(final MouseEvent event) {
+        dragX = viewX + event.getX() / zoom;
+        dragY = viewY + event.getY() / zoom;
+    }
+
+    private void drag(final MouseEvent event) {
+        if (worldWidth == 0) {
+            return;
+        }
+        viewX = dragX - event.getX() / zoom;
+        viewY = dragY - event.getY() / zoom;
+        moved();
+    }
+
+    private void moved() {
+        viewX = Math.max(0, Math.min(viewX, worldWidth - size / zoom));
+        viewY = Math.max(0, Math.min(viewY, worldHeight - size / zoom));
+        place();
+        requestViewport();
+    }
+
+    /*
+     * Places the image of the last frame, whose viewport may lag behind the
+     * view, at the current zoom and pan.
+     */
+    private void place() {
+        if (shownFrame == null || zoom == 0) {
+            return;
+        }
+        final double tile = shownFrame.getBlockSize() * zoom;
+        view.setLayoutX((shownFrame.getX() - viewX) * zoom);
+        view.setLayoutY((shownFrame.getY() - viewY) * zoom);
+        view.setFitWidth(shownFrame.getColumns() * tile);
+        view.setFitHeight(shownFrame.getRows() * tile);
+    }
+
+    /*
+     * The blocks are as small as possible while keeping at least one pixel
+     * per tile, so the tiles are never more than the pixels of the view.
+     */
+    private void requestViewport() {
+        final int block = Math.max(1, (int) Math.ceil(1 / zoom - EPSILON));
+        final int x = (int) Math.floor(viewX);
+        final int y = (int) Math.floor(viewY);
+        final int cells = (int) Math.ceil(size / zoom) + 1;
+        final Viewport viewport = new Viewport(x, y, cells, cells, block).clamp(worldWidth, worldHeight);
+        if (!viewport.equals(requested)) {
+            requested = viewport;
+            onViewportChanged.accept(viewport);
+        }
+    }
+
+    private static void fill(final VBox box, final Map<String, Integer> colors) {
+        box.getChildren().clear();
+        colors.forEach((name, argb) -> box.getChildren()
+                .add(new Label(name, new Rectangle(SWATCH_SIZE, SWATCH_SIZE, Color.web(Palette.toWeb(argb))))));
+    }
+}
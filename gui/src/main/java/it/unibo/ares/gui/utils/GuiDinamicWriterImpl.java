@@ -13,7 +13,6 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 
@@ -23,6 +22,8 @@ import javafx.scene.layout.VBox;
  * parameters and write agents to a 2d map.
  */
 public class GuiDinamicWriterImpl implements GuiDinamicWriter {
+    private static final double MAX_SIZE_GRID = 655;
+    private GridRenderer renderer;
 
     /**
      * The writeVBox method writes parameters to a VBox. For each parameter,
@@ -98,15 +99,10 @@ public class GuiDinamicWriterImpl implements GuiDinamicWriter {
     }
 
     /**
-     * This method writes a map of positions and its relatives strings to a 2D map
-     * represented by a
-     * GridPane.
-     * It first clears the container that will contain the new GridPane, then
-     * iterates over the data in the
-     * given Map.
-     * For each data entry, it creates a new label, sets its text to the agent's
-     * name, and adds it to the GridPane at the position specified by the data
-     * entry.
+     * This method writes a map of positions and its relatives strings to a 2D map.
+     * The map is drawn by a GridRenderer, one coloured pixel per cell, which is
+     * created on the first call and then reused: later frames only redraw its
+     * pixels, without creating any node.
      *
      * @param items     The Map containing the data to be
      *                  written
@@ -118,48 +114,13 @@ public class GuiDinamicWriterImpl implements GuiDinamicWriter {
     @Override
     public void write2dMap(final Map<Pos, String> items, final Pane container, final int width,
             final int height) {
-        final int maxSizeGrid = 655, prefLblSize = 40;
-        container.getChildren().clear();
-        final GridPane grid = new GridPane();
-        grid.setMaxSize(maxSizeGrid, maxSizeGrid);
-        /*
-         * creating a label (cell) for each position in the map and setting his min and
-         * max
-         * size
-         */
-        for (int i = 0; i < width; i++) {
-            for (int j = 0; j < height; j++) {
-                final Label lbl = new Label();
-                lbl.setPrefSize(prefLblSize, prefLblSize);
-                lbl.setMinSize(prefLblSize / 2, prefLblSize / 2);
-                grid.add(lbl, i, j);
-            }
+        if (renderer == null) {
+            renderer = new GridRendererImpl(MAX_SIZE_GRID);
         }
-        /*
-         * scale the dimension of the textfield in the gridpane based on the width of
-         * the
-         * gridpane
-         */
-        final int txtSize;
-        final int widthRange1 = 22, widthRange2 = 25, txtSize1 = 14, txtSize2 = 16;
-        if (width >= widthRange1 && width < widthRange2) {
-            txtSize = txtSize2;
-        } else if (width >= widthRange2) {
-            txtSize = txtSize1;
-        } else {
-            txtSize = prefLblSize / 2;
+        if (!container.getChildren().contains(renderer.getNode())) {
+            container.getChildren().setAll(renderer.getNode());
         }
-        /*
-         * setting the text of the textfield for each agent in the map
-         * (occupied positions)
-         */
-        items.forEach((pos, agent) -> {
-            final Label txt = new Label(agent);
-            setElementStyle(txt, txtSize);
-            grid.add(txt, pos.getX(), pos.getY());
-        });
-        grid.setGridLinesVisible(true);
-        container.getChildren().add(grid);
+        renderer.render(items, width, height);
     }
 
     /**
@@ -0,0 +1,84 @@
+package it.unibo.ares.gui.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Palette assigns a colour to each agent type, in order of appearance, so that
+ * a type keeps its colour for the whole simulation. The first types get a set
+ * of well distinguishable colours, the following ones hues spaced by the
+ * golden angle.
+ */
+final class Palette {
+    /**
+     * The colour of the empty cells, as ARGB.
+     */
+    static final int BACKGROUND = 0xFFF4F4F4;
+
+    private static final int[] BASE = {
+        0xFF1F77B4, 0xFFD62728, 0xFF2CA02C, 0xFFFF7F0E, 0xFF9467BD, 0xFF8C564B,
+        0xFFE377C2, 0xFF17BECF, 0xFFBCBD22, 0xFF7F7F7F,
+    };
+    private static final double GOLDEN_ANGLE = 0.381_966;
+    private static final double FULL_TURN = 360;
+    private static final double SATURATION = 0.65;
+    private static final double BRIGHTNESS = 0.85;
+    private static final int OPAQUE = 0xFF00_0000;
+    private static final int CHANNEL = 0xFF;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+
+    private final Map<String, Integer> colors = new LinkedHashMap<>();
+
+    /**
+     * Returns the colour of an agent type, assigning it if the type is new.
+     *
+     * @param type the agent type
+     * @return the colour of the type, as ARGB
+     */
+    int colorOf(final String type) {
+        final Integer color = colors.get(type);
+        if (color != null) {
+            return color;
+        }
+        final int index = colors.size();
+        final int assigned = index < BASE.length ? BASE[index]
+                : toArgb(Color.hsb(index * GOLDEN_ANGLE % 1 * FULL_TURN, SATURATION, BRIGHTNESS));
+        colors.put(type, assigned);
+        return assigned;
+    }
+
+    /**
+     * @return the number of types with a colour
+     */
+    int size() {
+        return colors.size();
+    }
+
+    /**
+     * @return the colours of the types, as ARGB, in order of appearance
+     */
+    Map<String, Integer> getColors() {
+        return Collections.unmodifiableMap(colors);
+    }
+
+    private static int toArgb(final Color color) {
+        return OPAQUE
+                | (int) Math.round(color.getRed() * CHANNEL) << RED_SHIFT
+                | (int) Math.round(color.getGreen() * CHANNEL) << GREEN_SHIFT
+                | (int) Math.round(color.getBlue() * CHANNEL);
+    }
+
+    /**
+     * Converts an ARGB colour to a CSS one.
+     *
+     * @param argb the colour
+     * @return the colour as "#rrggbb"
+     */
+    static String toWeb(final int argb) {
+        return String.format("#%06x", argb & 0xFF_FFFF);
+    }
+}
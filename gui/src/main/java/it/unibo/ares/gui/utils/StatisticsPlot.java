@@ -0,0 +1,198 @@
+package it.unibo.ares.gui.utils;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import it.unibo.ares.core.utils.Pair;
+import it.unibo.ares.core.utils.statistics.Statistics;
+
+/**
+ * StatisticsPlot keeps the latest values of the numeric statistics of a
+ * simulation and draws them as lines, one colour per statistic, on a scale
+ * that fits the values shown. It is not thread safe: it is meant to be fed
+ * and drawn by the thread rasterising the frames.
+ */
+final class StatisticsPlot {
+    private static final int BACKGROUND = 0xFFFFFFFF;
+    private static final int GUIDE = 0xFFE0E0E0;
+    private static final int GUIDES = 4;
+    private static final int PADDING = 4;
+
+    private final int width;
+    private final int height;
+    private final int points;
+    private final int[] canvas;
+    private final Palette palette = new Palette();
+    private final Map<String, double[]> history = new LinkedHashMap<>();
+    private int samples;
+    private double min;
+    private double max;
+
+    /**
+     * Creates a plot.
+     *
+     * @param width  the width of the plot, in pixels
+     * @param height the height of the plot, in pixels
+     * @param points the number of samples shown
+     */
+    StatisticsPlot(final int width, final int height, final int points) {
+        if (points < 2) {
+            throw new IllegalArgumentException("A plot must show at least two samples");
+        }
+        this.width = width;
+        this.height = height;
+        this.points = points;
+        this.canvas = new int[width * height];
+    }
+
+    /**
+     * Adds a sample of the statistics; the values that are not numbers are
+     * left out, and so are the statistics with none.
+     *
+     * @param statistics the statistics of a tick
+     * @return whether any value was added
+     */
+    boolean add(final Statistics statistics) {
+        final int slot = samples % points;
+        boolean added = false;
+        for (final Pair<String, String> statistic : statistics.getStatistics()) {
+            final double value = parse(statistic.getSecond());
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            history.computeIfAbsent(statistic.getFirst(), k -> {
+                palette.colorOf(k);
+                final double[] values = new double[points];
+                Arrays.fill(values, Double.NaN);
+                return values;
+            })[slot] = value;
+            added = true;
+        }
+        if (added) {
+            // the slot of the next sample is cleared, so the statistics it lacks leave a gap
+            samples++;
+            final int next = samples % points;
+            history.values().forEach(values -> values[next] = Double.NaN);
+        }
+        return added;
+    }
+
+    private static double parse(final String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Draws the samples shown, the oldest on the left.
+     *
+     * @param pixels the pixels to draw into, as opaque ARGB, row by row
+     */
+    void draw(final IntBuffer pixels) {
+        Arrays.fill(canvas, BACKGROUND);
+        for (int i = 1; i < GUIDES; i++) {
+            Arrays.fill(canvas, i * height / GUIDES * width, (i * height / GUIDES + 1) * width, GUIDE);
+        }
+        scale();
+        final int shown = Math.min(samples, points - 1);
+        final int first = samples - shown;
+        for (final Map.Entry<String, double[]> series : history.entrySet()) {
+            final int color = palette.colorOf(series.getKey());
+            final double[] values = series.getValue();
+            for (int i = 1; i < shown; i++) {
+                final double from = values[(first + i - 1) % points];
+                final double to = values[(first + i) % points];
+                if (!Double.isNaN(from) && !Double.isNaN(to)) {
+                    line(x(i - 1), y(from), x(i), y(to), color);
+                }
+            }
+        }
+        pixels.put(0, canvas);
+    }
+
+    /*
+     * The scale fits the samples shown, or is centred on them when they are
+     * all equal.
+     */
+    private void scale() {
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        for (final double[] values : history.values()) {
+            for (final double value : values) {
+                if (!Double.isNaN(value)) {
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+        }
+        if (min > max) {
+            min = 0;
+            max = 1;
+        } else if (min == max) {
+            min -= 0.5;
+            max += 0.5;
+        }
+    }
+
+    private int x(final int sample) {
+        return sample * (width - 1) / (points - 2);
+    }
+
+    private int y(final double value) {
+        final int span = height - 1 - 2 * PADDING;
+        return height - 1 - PADDING - (int) Math.round((value - min) / (max - min) * span);
+    }
+
+    /*
+     * Bresenham's line.
+     */
+    private void line(final int x0, final int y0, final int x1, final int y1, final int color) {
+        final int dx = Math.abs(x1 - x0);
+        final int dy = -Math.abs(y1 - y0);
+        final int sx = x0 < x1 ? 1 : -1;
+        final int sy = y0 < y1 ? 1 : -1;
+        int x = x0;
+        int y = y0;
+        int error = dx + dy;
+        while (true) {
+            canvas[y * width + x] = color;
+            if (x == x1 && y == y1) {
+                return;
+            }
+            final int doubled = 2 * error;
+            if (doubled >= dy) {
+                error += dy;
+                x += sx;
+            }
+            if (doubled <= dx) {
+                error += dx;
+                y += sy;
+            }
+        }
+    }
+
+    /**
+     * @return the lowest value of the scale of the last drawing
+     */
+    double getMin() {
+        return min;
+    }
+
+    /**
+     * @return the highest value of the scale of the last drawing
+     */
+    double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the colours of the statistics, as ARGB, in order of appearance
+     */
+    Map<String, Integer> getColors() {
+        return palette.getColors();
+    }
+}
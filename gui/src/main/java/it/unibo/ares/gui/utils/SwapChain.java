@@ -0,0 +1,158 @@
+package it.unibo.ares.gui.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * SwapChain hands images drawn on a background thread to the JavaFX thread.
+ * The producer draws into a free buffer and publishes it; at each pulse the
+ * JavaFX thread swaps the last published buffer in, so that drawing never
+ * blocks the JavaFX thread nor touches the image it is showing.
+ * A buffer swapped out is only given back to the producer at the pulse after,
+ * when the frame that showed it has been rendered.
+ *
+ * @param <T> the type of what the producer tells the JavaFX thread along with
+ *            the pixels
+ */
+final class SwapChain<T> {
+
+    /**
+     * A buffer of the chain, with the image showing it.
+     *
+     * @param <T> the type of what the producer tells along with the pixels
+     */
+    static final class Buffer<T> {
+        private final int index;
+        private final IntBuffer pixels;
+        private final PixelBuffer<IntBuffer> pixelBuffer;
+        private final WritableImage image;
+        private T content;
+
+        private Buffer(final int index, final int width, final int height) {
+            this.index = index;
+            this.pixels = ByteBuffer.allocateDirect(width * height * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+            this.pixelBuffer = new PixelBuffer<>(width, height, pixels, PixelFormat.getIntArgbPreInstance());
+            this.image = new WritableImage(pixelBuffer);
+        }
+
+        /**
+         * @return the index of the buffer in the chain, below its size
+         */
+        int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the pixels, as opaque ARGB, row by row
+         */
+        IntBuffer getPixels() {
+            return pixels;
+        }
+
+        /**
+         * @return the image showing the pixels
+         */
+        WritableImage getImage() {
+            return image;
+        }
+
+        /**
+         * @return what the producer told along with the pixels
+         */
+        T getContent() {
+            return content;
+        }
+
+        /**
+         * @param content what to tell along with the pixels
+         */
+        void setContent(final T content) {
+            this.content = content;
+        }
+    }
+
+    private final Runnable onRelease;
+    private final Queue<Buffer<T>> free = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Buffer<T>> ready = new AtomicReference<>();
+    // owned by the JavaFX thread
+    private Buffer<T> front;
+    private Buffer<T> retired;
+
+    /**
+     * Creates a chain.
+     *
+     * @param width     the width of the images
+     * @param height    the height of the images
+     * @param size      the number of buffers, at least three so that one can
+     *                  be drawn while one is shown and one is retiring
+     * @param onRelease called, on the JavaFX thread, when a buffer is given
+     *                  back to the producer
+     */
+    SwapChain(final int width, final int height, final int size, final Runnable onRelease) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("The images of a swap chain must not be empty");
+        }
+        this.onRelease = onRelease;
+        for (int i = 0; i < size; i++) {
+            free.add(new Buffer<>(i, width, height));
+        }
+    }
+
+    /**
+     * Takes a buffer to draw into. Called by the producer.
+     *
+     * @return a buffer that is neither shown nor published, empty if all of
+     *         them are
+     */
+    Optional<Buffer<T>> acquire() {
+        return Optional.ofNullable(free.poll());
+    }
+
+    /**
+     * Publishes a buffer, to be shown at the next pulse. Called by the
+     * producer; a buffer published before and not shown yet is given back.
+     *
+     * @param buffer the buffer drawn
+     */
+    void publish(final Buffer<T> buffer) {
+        final Buffer<T> skipped = ready.getAndSet(buffer);
+        if (skipped != null) {
+            free.add(skipped);
+        }
+    }
+
+    /**
+     * Swaps the last published buffer in, marking its image as changed.
+     * Called on the JavaFX thread at each pulse.
+     *
+     * @return the buffer to show, empty if none was published since the last
+     *         swap
+     */
+    Optional<Buffer<T>> swap() {
+        final boolean released = retired != null;
+        if (released) {
+            free.add(retired);
+            retired = null;
+        }
+        final Buffer<T> next = ready.getAndSet(null);
+        if (next != null) {
+            next.pixelBuffer.updateBuffer(b -> null);
+            retired = front;
+            front = next;
+        }
+        if (released) {
+            onRelease.run();
+        }
+        return Optional.ofNullable(next);
+    }
+}
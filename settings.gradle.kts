@@ -19,3 +19,5 @@ include("gui")
 include("core")
 include("cli")
 include("runner")
+include("batch")
+include("benchmarks")